@@ -10,6 +10,7 @@ pragma solidity ^0.8.20;
  * Events logged:
  * - Contract creation
  * - Contract signing (eSign completion)
+ * - Contract completion / default (lifecycle sweeper)
  * - Payment completion
  * - Mandate creation
  * - Legal notice initiation
@@ -32,7 +33,9 @@ contract AuditTrail {
         MANDATE_CANCELLED,
         LEGAL_NOTICE_SENT,
         DISPUTE_RAISED,
-        DISPUTE_RESOLVED
+        DISPUTE_RESOLVED,
+        CONTRACT_COMPLETED,
+        CONTRACT_DEFAULTED
     }
     
     // Audit log entry
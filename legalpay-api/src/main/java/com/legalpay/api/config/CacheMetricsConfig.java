@@ -0,0 +1,60 @@
+package com.legalpay.api.config;
+
+import com.legalpay.services.cache.BoundedLocalCache;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.cache.RedisContractStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exports contract cache statistics to Micrometer (and so to /actuator/prometheus)
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder contractCacheMetrics(ContractCache contractCache) {
+        return registry -> {
+            BoundedLocalCache<?, ?> local = contractCache.getLocalTier();
+
+            FunctionCounter.builder("legalpay.cache.gets", local, BoundedLocalCache::hitCount)
+                    .tag("cache", "contracts").tag("tier", "local").tag("result", "hit")
+                    .description("Cache lookups that returned a value")
+                    .register(registry);
+            FunctionCounter.builder("legalpay.cache.gets", local, BoundedLocalCache::missCount)
+                    .tag("cache", "contracts").tag("tier", "local").tag("result", "miss")
+                    .description("Cache lookups that found nothing")
+                    .register(registry);
+            FunctionCounter.builder("legalpay.cache.evictions", local, BoundedLocalCache::evictionCount)
+                    .tag("cache", "contracts").tag("tier", "local").tag("cause", "size")
+                    .description("Entries dropped to stay within the size bound")
+                    .register(registry);
+            FunctionCounter.builder("legalpay.cache.evictions", local, BoundedLocalCache::invalidationCount)
+                    .tag("cache", "contracts").tag("tier", "local").tag("cause", "invalidation")
+                    .description("Entries dropped because the contract changed")
+                    .register(registry);
+            Gauge.builder("legalpay.cache.size", local, BoundedLocalCache::size)
+                    .tag("cache", "contracts").tag("tier", "local")
+                    .register(registry);
+            Gauge.builder("legalpay.cache.hit.ratio", local, BoundedLocalCache::hitRatio)
+                    .tag("cache", "contracts").tag("tier", "local")
+                    .register(registry);
+
+            RedisContractStore redis = contractCache.getRedisTier();
+            if (redis != null) {
+                FunctionCounter.builder("legalpay.cache.gets", redis, RedisContractStore::hitCount)
+                        .tag("cache", "contracts").tag("tier", "redis").tag("result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("legalpay.cache.gets", redis, RedisContractStore::missCount)
+                        .tag("cache", "contracts").tag("tier", "redis").tag("result", "miss")
+                        .register(registry);
+                FunctionCounter.builder("legalpay.cache.errors", redis, RedisContractStore::errorCount)
+                        .tag("cache", "contracts").tag("tier", "redis")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.legalpay.api.config;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Entities and repositories live in legalpay-domain, outside the application's
+ * package. Kept off LegalPayApplication so @WebMvcTest slices do not try to
+ * build repositories without a database.
+ */
+@Configuration
+@EntityScan("com.legalpay.domain.entity")
+@EnableJpaRepositories("com.legalpay.domain.repository")
+public class JpaConfig {
+}
@@ -0,0 +1,27 @@
+package com.legalpay.api.controller;
+
+import com.legalpay.services.payment.CollectionEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/collections")
+public class CollectionController {
+
+    private final CollectionEngine collectionEngine;
+
+    public CollectionController(CollectionEngine collectionEngine) {
+        this.collectionEngine = collectionEngine;
+    }
+
+    /**
+     * Report of the most recent collection run on this node (204 if none yet)
+     */
+    @GetMapping("/runs/last")
+    public ResponseEntity<CollectionEngine.CollectionRun> getLastRun() {
+        CollectionEngine.CollectionRun run = collectionEngine.getLastRun();
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.noContent().build();
+    }
+}
@@ -1,24 +1,51 @@
 package com.legalpay.api.controller;
 
+import com.legalpay.api.dto.BulkESignRequest;
+import com.legalpay.api.dto.BulkESignResponse;
+import com.legalpay.api.dto.ContractBatchGetRequest;
+import com.legalpay.api.dto.ContractBatchGetResponse;
 import com.legalpay.api.dto.ContractCreateRequest;
+import com.legalpay.api.dto.ContractDetailResponse;
 import com.legalpay.api.dto.ContractResponse;
+import com.legalpay.api.dto.InstallmentResponse;
 import com.legalpay.domain.entity.Contract;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.entity.Payer;
 import com.legalpay.domain.repository.MerchantRepository;
 import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.services.contract.BulkESignService;
+import com.legalpay.services.contract.ContractDocumentService;
+import com.legalpay.services.contract.ContractExportService;
 import com.legalpay.services.contract.ContractService;
+import com.legalpay.services.contract.ContractViewService;
+import com.legalpay.services.contract.CursorPage;
+import com.legalpay.services.storage.DocumentTooLargeException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -35,11 +62,24 @@ public class ContractController {
     private final ContractService contractService;
     private final MerchantRepository merchantRepository;
     private final PayerRepository payerRepository;
+    private final ContractExportService contractExportService;
+    private final ContractEventStreams eventStreams;
+    private final ContractDocumentService contractDocumentService;
+    private final BulkESignService bulkESignService;
+    private final ContractViewService contractViewService;
 
-    public ContractController(ContractService contractService, MerchantRepository merchantRepository, PayerRepository payerRepository) {
+    public ContractController(ContractService contractService, MerchantRepository merchantRepository,
+                              PayerRepository payerRepository, ContractExportService contractExportService,
+                              ContractEventStreams eventStreams, ContractDocumentService contractDocumentService,
+                              BulkESignService bulkESignService, ContractViewService contractViewService) {
         this.contractService = contractService;
         this.merchantRepository = merchantRepository;
         this.payerRepository = payerRepository;
+        this.contractExportService = contractExportService;
+        this.eventStreams = eventStreams;
+        this.contractDocumentService = contractDocumentService;
+        this.bulkESignService = bulkESignService;
+        this.contractViewService = contractViewService;
     }
 
     @PostMapping
@@ -63,6 +103,7 @@ public class ContractController {
                 .endDate(request.getEndDate())
                 .paymentType(request.getPaymentType())
                 .paymentFrequency(request.getPaymentFrequency())
+                .interestMethod(request.getInterestMethod())
                 .build();
 
         Contract contract = contractService.createContract(serviceRequest, merchant, payer);
@@ -71,11 +112,120 @@ public class ContractController {
                 .body(ContractResponse.from(contract));
     }
 
+    /**
+     * Supports conditional GET: If-None-Match is checked against the contract's
+     * last-modified time (read from the database) before the contract is loaded,
+     * and an unchanged contract is answered with 304 and no body. A cached copy
+     * older than that time is reloaded, so the body always matches its ETag.
+     */
     @GetMapping("/{id}")
     @Operation(summary = "Get contract by ID")
-    public ResponseEntity<ContractResponse> getContract(@PathVariable UUID id) {
-        Contract contract = contractService.getContract(id);
-        return ResponseEntity.ok(ContractResponse.from(contract));
+    public ResponseEntity<ContractResponse> getContract(@PathVariable UUID id, WebRequest webRequest) {
+        Optional<Instant> updatedAt = contractService.getContractUpdatedAt(id);
+        if (updatedAt.isPresent() && webRequest.checkNotModified(eTag(id, updatedAt.get()))) {
+            return null;
+        }
+
+        Contract contract = contractService.getContract(id, updatedAt.orElse(null));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (contract.getUpdatedAt() != null) {
+            response.eTag(eTag(id, contract.getUpdatedAt()));
+        }
+        return response.body(ContractResponse.from(contract));
+    }
+
+    @GetMapping("/{id}/view")
+    @Operation(summary = "Get a contract with its payments, mandate and audit trail",
+               description = "include=payments,mandate,audit selects the parts to load (default: all)")
+    public ResponseEntity<ContractDetailResponse> getContractView(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String include
+    ) {
+        ContractViewService.ContractView view = contractViewService.getView(id, ContractViewService.Part.parse(include));
+        return ResponseEntity.ok(ContractDetailResponse.from(view));
+    }
+
+    /**
+     * Multi-get: replaces one GET per contract with a single request. Unknown
+     * IDs are reported as not found rather than failing the request.
+     */
+    @PostMapping("/batch-get")
+    @Operation(summary = "Get several contracts by ID",
+               description = "Results are returned in request order (duplicates removed), max "
+                       + ContractService.MAX_BATCH_GET + " IDs")
+    public ResponseEntity<ContractBatchGetResponse> batchGetContracts(
+            @Valid @RequestBody ContractBatchGetRequest request
+    ) {
+        List<UUID> ids = request.getIds().stream().distinct().toList();
+        return ResponseEntity.ok(ContractBatchGetResponse.from(ids, contractService.getContracts(ids)));
+    }
+
+    /**
+     * Strong validator: every write to a contract moves its updatedAt. Truncated to
+     * the database's microsecond precision so cached and freshly read values agree.
+     */
+    static String eTag(UUID id, Instant updatedAt) {
+        Instant micros = updatedAt.truncatedTo(ChronoUnit.MICROS);
+        return "\"" + id + "-" + Long.toHexString(micros.getEpochSecond()) + "."
+                + Integer.toHexString(micros.getNano()) + "\"";
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream status and payment events for a contract (SSE)")
+    public SseEmitter streamEvents(@PathVariable UUID id) {
+        return eventStreams.forContract(id);
+    }
+
+    @PutMapping(value = "/{id}/signed-pdf", consumes = MediaType.APPLICATION_PDF_VALUE)
+    @Operation(summary = "Upload the signed contract PDF",
+               description = "The request body is streamed to document storage and its SHA-256 recorded")
+    public ResponseEntity<ContractResponse> uploadSignedPdf(@PathVariable UUID id, HttpServletRequest request)
+            throws IOException {
+        if (request.getContentLengthLong() > contractDocumentService.getMaxSignedPdfBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Signed PDF is too large");
+        }
+        try {
+            Contract contract = contractDocumentService.storeSignedPdf(id, request.getInputStream());
+            return ResponseEntity.ok(ContractResponse.from(contract));
+        } catch (DocumentTooLargeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+    }
+
+    /**
+     * Locally stored documents are served straight from the file (Range requests
+     * supported, ETag is the document hash); external URLs are redirected to.
+     */
+    @GetMapping("/{id}/signed-pdf")
+    @Operation(summary = "Download the signed contract PDF")
+    public void downloadSignedPdf(@PathVariable UUID id, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        ContractDocumentService.SignedDocument document = contractDocumentService.getSignedPdf(id);
+        if (document.isExternal()) {
+            response.sendRedirect(document.getExternalUrl());
+            return;
+        }
+        String eTag = document.getSha256Hash() != null ? "\"" + document.getSha256Hash() + "\"" : null;
+        FileResponses.serve(request, response, document.getPath(), document.getSize(),
+                MediaType.APPLICATION_PDF_VALUE, "contract-" + id + "-signed.pdf", eTag);
+    }
+
+    @GetMapping("/{id}/installments")
+    @Operation(summary = "Get the instalment schedule of an EMI contract")
+    public ResponseEntity<List<InstallmentResponse>> getSchedule(@PathVariable UUID id) {
+        List<InstallmentResponse> schedule = contractService.getSchedule(id).stream()
+                .map(InstallmentResponse::from)
+                .toList();
+        return ResponseEntity.ok(schedule);
+    }
+
+    @PostMapping("/installments/recompute")
+    @Operation(summary = "Regenerate instalment schedules for all EMI contracts of a merchant")
+    public ResponseEntity<Map<String, Object>> recomputeSchedules(@RequestParam UUID merchantId) {
+        Merchant merchant = merchantRepository.findById(merchantId)
+                .orElseThrow(() -> new RuntimeException("Merchant not found"));
+        int recomputed = contractService.recomputeSchedules(merchant);
+        return ResponseEntity.ok(Map.of("merchantId", merchantId, "contractsRecomputed", recomputed));
     }
 
     @PostMapping("/{id}/esign")
@@ -85,6 +235,13 @@ public class ContractController {
         return ResponseEntity.ok(ContractResponse.from(contract));
     }
 
+    @PostMapping("/esign/bulk")
+    @Operation(summary = "Send several DRAFT contracts for eSign",
+               description = "Reports an outcome per contract; contracts that cannot be sent do not fail the request")
+    public ResponseEntity<BulkESignResponse> initiateBulkESign(@Valid @RequestBody BulkESignRequest request) {
+        return ResponseEntity.ok(BulkESignResponse.from(bulkESignService.initiate(request.getContractIds())));
+    }
+
     @GetMapping
     @Operation(summary = "List contracts")
     public ResponseEntity<Page<ContractResponse>> listContracts(
@@ -109,4 +266,58 @@ public class ContractController {
         
         return ResponseEntity.ok(contracts.map(ContractResponse::from));
     }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "List contracts with cursor pagination",
+               description = "Pass the returned nextCursor back as 'cursor' to fetch the following page")
+    public ResponseEntity<CursorPage<ContractResponse>> scrollContracts(
+            @RequestParam(required = false) UUID merchantId,
+            @RequestParam(required = false) UUID payerId,
+            @RequestParam(required = false) Contract.ContractStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        if (merchantId == null && payerId == null) {
+            throw new IllegalArgumentException("Either merchantId or payerId must be provided");
+        }
+
+        CursorPage<Contract> contracts;
+        if (merchantId != null) {
+            Merchant merchant = merchantRepository.findById(merchantId)
+                    .orElseThrow(() -> new RuntimeException("Merchant not found"));
+            contracts = status != null
+                    ? contractService.scrollContractsByStatus(merchant, status, cursor, limit, includeTotal)
+                    : contractService.scrollContracts(merchant, cursor, limit, includeTotal);
+        } else {
+            if (status != null) {
+                throw new IllegalArgumentException("status filter requires merchantId");
+            }
+            Payer payer = payerRepository.findById(payerId)
+                    .orElseThrow(() -> new RuntimeException("Payer not found"));
+            contracts = contractService.scrollContractsByPayer(payer, cursor, limit, includeTotal);
+        }
+
+        return ResponseEntity.ok(contracts.map(ContractResponse::from));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export a merchant's contracts",
+               description = "Streams every contract as CSV or NDJSON (format=csv|ndjson)")
+    public ResponseEntity<StreamingResponseBody> exportContracts(
+            @RequestParam UUID merchantId,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        ContractExportService.Format exportFormat = ContractExportService.Format.parse(format);
+        if (!merchantRepository.existsById(merchantId)) {
+            throw new RuntimeException("Merchant not found");
+        }
+
+        StreamingResponseBody body = out -> contractExportService.export(merchantId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"contracts-" + merchantId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
 }
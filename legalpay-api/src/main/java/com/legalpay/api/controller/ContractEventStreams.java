@@ -0,0 +1,94 @@
+package com.legalpay.api.controller;
+
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bridges {@link ContractEventHub} subscriptions to SSE responses. The request
+ * thread is released immediately; frames are written by the hub's fixed pool of
+ * platform writer threads ({@code contract-events-writer}), one at a time per
+ * subscriber.
+ */
+@Component
+public class ContractEventStreams {
+
+    private final ContractEventHub eventHub;
+    private final long timeoutMillis;
+
+    public ContractEventStreams(ContractEventHub eventHub,
+                                @Value("${legalpay.events.sse-timeout:PT30M}") Duration timeout) {
+        this.eventHub = eventHub;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter forContract(UUID contractId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        try {
+            bind(emitter, eventHub.subscribeToContract(contractId, new EmitterSink(emitter)));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return emitter;
+    }
+
+    public SseEmitter forMerchant(UUID merchantId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        try {
+            bind(emitter, eventHub.subscribeToMerchant(merchantId, new EmitterSink(emitter)));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return emitter;
+    }
+
+    private static void bind(SseEmitter emitter, ContractEventHub.Subscription subscription) {
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+    }
+
+    private static final class EmitterSink implements ContractEventHub.Sink {
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(ContractEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(event.getId().toString())
+                    .name(event.getType().getEventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void dropped(long count) throws IOException {
+            // Client fell behind; it should re-fetch the resources it is watching
+            emitter.send(SseEmitter.event()
+                    .name("events.dropped")
+                    .data(Map.of("count", count), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.legalpay.api.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a local file to the response without loading it into memory. Uses the
+ * container's sendfile support when it offers it (Tomcat NIO: zero-copy), and
+ * otherwise {@link FileChannel#transferTo} into the response channel.
+ * A single byte range is honoured (206); multi-range requests get the whole file.
+ */
+final class FileResponses {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponses() {}
+
+    static void serve(HttpServletRequest request, HttpServletResponse response, Path path, long size,
+                      String contentType, String fileName, String eTag) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(request.getHeader(HttpHeaders.IF_RANGE), eTag)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                if (size == 0 || start >= size || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if (length <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // The connector writes the file itself once the request returns
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = file.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * If-Range with a different validator means the client's partial copy is
+     * stale, so the whole file is sent instead
+     */
+    private static boolean rangeApplies(String ifRange, String eTag) {
+        return ifRange == null || (eTag != null && ifRange.trim().equals(eTag));
+    }
+}
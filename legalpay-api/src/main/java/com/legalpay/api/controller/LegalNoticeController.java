@@ -0,0 +1,38 @@
+package com.legalpay.api.controller;
+
+import com.legalpay.api.dto.LegalNoticeProgressResponse;
+import com.legalpay.services.notice.LegalNoticePipeline;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/legal-notices")
+public class LegalNoticeController {
+
+    private final LegalNoticePipeline legalNoticePipeline;
+
+    public LegalNoticeController(LegalNoticePipeline legalNoticePipeline) {
+        this.legalNoticePipeline = legalNoticePipeline;
+    }
+
+    /**
+     * Issue notices for all DEFAULTED contracts in the cycle. Re-posting the same
+     * cycle resumes it and only picks up notices that have not completed.
+     */
+    @PostMapping("/runs/{cycleId}")
+    public ResponseEntity<LegalNoticeProgressResponse> startRun(@PathVariable String cycleId) {
+        boolean started = legalNoticePipeline.start(cycleId);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(LegalNoticeProgressResponse.from(legalNoticePipeline.getProgress(cycleId)));
+    }
+
+    @GetMapping("/runs/{cycleId}")
+    public ResponseEntity<LegalNoticeProgressResponse> getRun(@PathVariable String cycleId) {
+        return ResponseEntity.ok(LegalNoticeProgressResponse.from(legalNoticePipeline.getProgress(cycleId)));
+    }
+}
@@ -1,12 +1,16 @@
 package com.legalpay.api.controller;
 
+import com.legalpay.api.dto.MerchantStatsResponse;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,9 +20,14 @@ import java.util.UUID;
 public class MerchantController {
 
     private final MerchantRepository merchantRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractEventStreams eventStreams;
 
-    public MerchantController(MerchantRepository merchantRepository) {
+    public MerchantController(MerchantRepository merchantRepository, MerchantStatsService merchantStatsService,
+                              ContractEventStreams eventStreams) {
         this.merchantRepository = merchantRepository;
+        this.merchantStatsService = merchantStatsService;
+        this.eventStreams = eventStreams;
     }
 
     @GetMapping
@@ -32,4 +41,14 @@ public class MerchantController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<MerchantStatsResponse> getStats(@PathVariable UUID id) {
+        return ResponseEntity.ok(MerchantStatsResponse.from(merchantStatsService.getStats(id)));
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PathVariable UUID id) {
+        return eventStreams.forMerchant(id);
+    }
 }
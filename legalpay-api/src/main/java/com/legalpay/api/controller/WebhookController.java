@@ -1,20 +1,23 @@
 package com.legalpay.api.controller;
 
-import com.legalpay.services.PaymentService;
-import org.json.JSONObject;
+import com.legalpay.services.security.HmacSignatureVerifier;
+import com.legalpay.services.webhook.WebhookInbox;
+import com.legalpay.services.webhook.WebhookInboxProcessor;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/webhooks")
@@ -23,111 +26,67 @@ public class WebhookController {
     private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
 
     @Autowired
-    private PaymentService paymentService;
+    private WebhookInbox webhookInbox;
+
+    @Autowired
+    private WebhookInboxProcessor inboxProcessor;
 
     @Value("${razorpay.webhook-secret}")
     private String webhookSecret;
 
+    private HmacSignatureVerifier signatureVerifier;
+
+    @PostConstruct
+    void initSignatureVerifier() {
+        signatureVerifier = new HmacSignatureVerifier(webhookSecret);
+    }
+
     /**
-     * Razorpay webhook endpoint
+     * Razorpay webhook endpoint. Only verifies the signature and appends the raw
+     * event to the inbox (or the local WAL while the database is unavailable);
+     * {@link WebhookInboxProcessor} applies it asynchronously.
+     * Duplicate deliveries are acknowledged without being stored again.
      */
     @PostMapping("/razorpay")
     public ResponseEntity<String> handleRazorpayWebhook(
             @RequestBody String payload,
-            @RequestHeader("X-Razorpay-Signature") String signature) {
-        
-        logger.info("Received Razorpay webhook");
+            @RequestHeader("X-Razorpay-Signature") String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
 
         // Verify webhook signature
-        if (!verifyWebhookSignature(payload, signature)) {
+        if (!signatureVerifier.verify(payload, signature)) {
             logger.error("Webhook signature verification failed");
             return ResponseEntity.status(403).body("Invalid signature");
         }
 
+        // Redeliveries carry the same event ID; fall back to the payload digest without one
+        String key = eventId != null && !eventId.isBlank() ? eventId : "sha256:" + sha256Hex(payload);
         try {
-            JSONObject webhookData = new JSONObject(payload);
-            String event = webhookData.getString("event");
-            JSONObject paymentData = webhookData.getJSONObject("payload")
-                                                 .getJSONObject("payment")
-                                                 .getJSONObject("entity");
-
-            String orderId = paymentData.getString("order_id");
-            String paymentId = paymentData.getString("id");
-            String paymentMethod = paymentData.getString("method");
-
-            logger.info("Processing webhook event: {} for order: {}", event, orderId);
-
-            switch (event) {
-                case "payment.captured":
-                    handlePaymentCaptured(orderId, paymentId, paymentMethod, paymentData);
-                    break;
-                    
-                case "payment.failed":
-                    handlePaymentFailed(orderId, paymentData);
-                    break;
-                    
-                default:
-                    logger.info("Unhandled webhook event: {}", event);
+            if (!webhookInbox.accept(key, payload)) {
+                logger.debug("Duplicate webhook delivery: {}", key);
             }
-
-            return ResponseEntity.ok("Webhook processed");
-
-        } catch (Exception e) {
-            logger.error("Error processing webhook", e);
-            return ResponseEntity.status(500).body("Webhook processing failed");
+            return ResponseEntity.ok("Webhook received");
+        } catch (DataAccessException | IOException e) {
+            logger.error("Could not store webhook {}", key, e);
+            return ResponseEntity.status(503).body("Webhook not stored");
         }
     }
 
     /**
-     * Verify webhook signature
+     * Put webhook events set aside as FAILED back in the inbox queue, e.g. after
+     * the fault that made them fail has been fixed
      */
-    private boolean verifyWebhookSignature(String payload, String signature) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                webhookSecret.getBytes(StandardCharsets.UTF_8), 
-                "HmacSHA256"
-            );
-            mac.init(secretKeySpec);
-            
-            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String generatedSignature = HexFormat.of().formatHex(hash);
-            
-            return generatedSignature.equals(signature);
-            
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            logger.error("Error verifying webhook signature", e);
-            return false;
-        }
-    }
-
-    /**
-     * Handle payment.captured event
-     */
-    private void handlePaymentCaptured(String orderId, String paymentId, 
-                                      String paymentMethod, JSONObject paymentData) {
-        try {
-            logger.info("Payment captured via webhook: {} for order: {}", paymentId, orderId);
-            // Additional logic can be added here (e.g., send email notification)
-        } catch (Exception e) {
-            logger.error("Error handling payment.captured webhook", e);
-        }
+    @PostMapping("/inbox/redrive")
+    public ResponseEntity<Map<String, Integer>> redriveFailed() {
+        return ResponseEntity.ok(Map.of("requeued", inboxProcessor.redriveFailed()));
     }
 
-    /**
-     * Handle payment.failed event
-     */
-    private void handlePaymentFailed(String orderId, JSONObject paymentData) {
+    private static String sha256Hex(String payload) {
         try {
-            String errorCode = paymentData.optString("error_code", "UNKNOWN");
-            String errorDescription = paymentData.optString("error_description", "Payment failed");
-            
-            paymentService.handleFailedPayment(orderId, errorCode, errorDescription);
-            
-            logger.warn("Payment failed for order: {} - {}", orderId, errorDescription);
-            
-        } catch (Exception e) {
-            logger.error("Error handling payment.failed webhook", e);
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,18 @@
+package com.legalpay.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request DTO for sending several contracts for eSign at once
+ */
+public class BulkESignRequest {
+
+    @NotEmpty(message = "At least one contract ID is required")
+    private List<UUID> contractIds;
+
+    public List<UUID> getContractIds() { return contractIds; }
+    public void setContractIds(List<UUID> contractIds) { this.contractIds = contractIds; }
+}
@@ -0,0 +1,66 @@
+package com.legalpay.api.dto;
+
+import com.legalpay.services.contract.BulkESignService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for bulk eSign: totals plus one entry per requested contract
+ */
+public class BulkESignResponse {
+
+    private int requested;
+    private int sent;
+    private int failed;
+    private List<Item> results;
+
+    public BulkESignResponse() {}
+
+    public static BulkESignResponse from(List<BulkESignService.Result> results) {
+        BulkESignResponse response = new BulkESignResponse();
+        response.results = results.stream().map(Item::from).toList();
+        response.requested = results.size();
+        response.sent = (int) results.stream()
+                .filter(r -> r.getOutcome() == BulkESignService.Outcome.SENT)
+                .count();
+        response.failed = response.requested - response.sent;
+        return response;
+    }
+
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+    public int getSent() { return sent; }
+    public void setSent(int sent) { this.sent = sent; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public List<Item> getResults() { return results; }
+    public void setResults(List<Item> results) { this.results = results; }
+
+    public static class Item {
+        private UUID contractId;
+        private String outcome;
+        private String eSignDocumentId;
+        private String message;
+
+        public Item() {}
+
+        static Item from(BulkESignService.Result result) {
+            Item item = new Item();
+            item.contractId = result.getContractId();
+            item.outcome = result.getOutcome().name();
+            item.eSignDocumentId = result.getESignDocumentId();
+            item.message = result.getMessage();
+            return item;
+        }
+
+        public UUID getContractId() { return contractId; }
+        public void setContractId(UUID contractId) { this.contractId = contractId; }
+        public String getOutcome() { return outcome; }
+        public void setOutcome(String outcome) { this.outcome = outcome; }
+        public String getESignDocumentId() { return eSignDocumentId; }
+        public void setESignDocumentId(String eSignDocumentId) { this.eSignDocumentId = eSignDocumentId; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.legalpay.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request DTO for fetching several contracts by ID
+ */
+public class ContractBatchGetRequest {
+
+    @NotEmpty(message = "At least one contract ID is required")
+    private List<UUID> ids;
+
+    public List<UUID> getIds() { return ids; }
+    public void setIds(List<UUID> ids) { this.ids = ids; }
+}
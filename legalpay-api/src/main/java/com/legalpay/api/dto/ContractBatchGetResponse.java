@@ -0,0 +1,55 @@
+package com.legalpay.api.dto;
+
+import com.legalpay.domain.entity.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response DTO for a contract multi-get: one entry per requested ID, in request
+ * order, with {@code found = false} and no contract for unknown IDs
+ */
+public class ContractBatchGetResponse {
+
+    private List<Item> results;
+    private int notFound;
+
+    public ContractBatchGetResponse() {}
+
+    public static ContractBatchGetResponse from(List<UUID> requestedIds, Map<UUID, Contract> contracts) {
+        ContractBatchGetResponse response = new ContractBatchGetResponse();
+        response.results = new ArrayList<>(requestedIds.size());
+        for (UUID id : requestedIds) {
+            Contract contract = contracts.get(id);
+            Item item = new Item();
+            item.id = id;
+            item.found = contract != null;
+            item.contract = contract != null ? ContractResponse.from(contract) : null;
+            if (contract == null) {
+                response.notFound++;
+            }
+            response.results.add(item);
+        }
+        return response;
+    }
+
+    public List<Item> getResults() { return results; }
+    public void setResults(List<Item> results) { this.results = results; }
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+
+    public static class Item {
+        private UUID id;
+        private boolean found;
+        private ContractResponse contract;
+
+        public UUID getId() { return id; }
+        public void setId(UUID id) { this.id = id; }
+        public boolean isFound() { return found; }
+        public void setFound(boolean found) { this.found = found; }
+        public ContractResponse getContract() { return contract; }
+        public void setContract(ContractResponse contract) { this.contract = contract; }
+    }
+}
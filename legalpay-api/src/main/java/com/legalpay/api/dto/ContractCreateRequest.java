@@ -41,6 +41,9 @@ public class ContractCreateRequest {
     @Pattern(regexp = "DAILY|WEEKLY|MONTHLY|QUARTERLY", message = "Invalid payment frequency")
     private String paymentFrequency; // Required only for EMI contracts
 
+    @Pattern(regexp = "REDUCING_BALANCE|FLAT_RATE", message = "Interest method must be REDUCING_BALANCE or FLAT_RATE")
+    private String interestMethod; // EMI only, defaults to REDUCING_BALANCE
+
     public ContractCreateRequest() {}
 
     public UUID getMerchantId() { return merchantId; }
@@ -59,4 +62,6 @@ public class ContractCreateRequest {
     public void setPaymentType(String paymentType) { this.paymentType = paymentType; }
     public String getPaymentFrequency() { return paymentFrequency; }
     public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
+    public String getInterestMethod() { return interestMethod; }
+    public void setInterestMethod(String interestMethod) { this.interestMethod = interestMethod; }
 }
@@ -0,0 +1,171 @@
+package com.legalpay.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.legalpay.domain.entity.BlockchainAuditLog;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.services.contract.ContractViewService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for the contract detail page. Parts that were not requested are
+ * omitted; {@code mandateIncluded} tells a missing mandate from one not asked for.
+ */
+@JsonInclude(JsonInclude.Include.NON_ABSENT)
+public class ContractDetailResponse {
+
+    private ContractResponse contract;
+    private List<PaymentItem> payments;
+    private MandateItem mandate;
+    private boolean mandateIncluded;
+    private List<AuditItem> auditTrail;
+
+    public ContractDetailResponse() {}
+
+    public static ContractDetailResponse from(ContractViewService.ContractView view) {
+        ContractDetailResponse response = new ContractDetailResponse();
+        response.contract = ContractResponse.from(view.getContract());
+        if (view.getPayments() != null) {
+            response.payments = view.getPayments().stream().map(PaymentItem::from).toList();
+        }
+        response.mandateIncluded = view.isMandateRequested();
+        if (view.getMandate() != null) {
+            response.mandate = MandateItem.from(view.getMandate());
+        }
+        if (view.getAuditTrail() != null) {
+            response.auditTrail = view.getAuditTrail().stream().map(AuditItem::from).toList();
+        }
+        return response;
+    }
+
+    public ContractResponse getContract() { return contract; }
+    public void setContract(ContractResponse contract) { this.contract = contract; }
+    public List<PaymentItem> getPayments() { return payments; }
+    public void setPayments(List<PaymentItem> payments) { this.payments = payments; }
+    public MandateItem getMandate() { return mandate; }
+    public void setMandate(MandateItem mandate) { this.mandate = mandate; }
+    public boolean isMandateIncluded() { return mandateIncluded; }
+    public void setMandateIncluded(boolean mandateIncluded) { this.mandateIncluded = mandateIncluded; }
+    public List<AuditItem> getAuditTrail() { return auditTrail; }
+    public void setAuditTrail(List<AuditItem> auditTrail) { this.auditTrail = auditTrail; }
+
+    public static class PaymentItem {
+        private UUID id;
+        private String razorpayOrderId;
+        private String razorpayPaymentId;
+        private BigDecimal amount;
+        private String currency;
+        private String status;
+        private String paymentMethod;
+        private Instant createdAt;
+        private Instant capturedAt;
+        private Instant failedAt;
+        private String errorDescription;
+
+        static PaymentItem from(RazorpayPayment payment) {
+            PaymentItem item = new PaymentItem();
+            item.id = payment.getId();
+            item.razorpayOrderId = payment.getRazorpayOrderId();
+            item.razorpayPaymentId = payment.getRazorpayPaymentId();
+            item.amount = payment.getAmount();
+            item.currency = payment.getCurrency();
+            item.status = payment.getStatus() != null ? payment.getStatus().name() : null;
+            item.paymentMethod = payment.getPaymentMethod();
+            item.createdAt = payment.getCreatedAt();
+            item.capturedAt = payment.getCapturedAt();
+            item.failedAt = payment.getFailedAt();
+            item.errorDescription = payment.getErrorDescription();
+            return item;
+        }
+
+        public UUID getId() { return id; }
+        public String getRazorpayOrderId() { return razorpayOrderId; }
+        public String getRazorpayPaymentId() { return razorpayPaymentId; }
+        public BigDecimal getAmount() { return amount; }
+        public String getCurrency() { return currency; }
+        public String getStatus() { return status; }
+        public String getPaymentMethod() { return paymentMethod; }
+        public Instant getCreatedAt() { return createdAt; }
+        public Instant getCapturedAt() { return capturedAt; }
+        public Instant getFailedAt() { return failedAt; }
+        public String getErrorDescription() { return errorDescription; }
+    }
+
+    public static class MandateItem {
+        private UUID id;
+        private String mandateType;
+        private String status;
+        private BigDecimal maxAmount;
+        private String frequency;
+        private String bankAccountLast4;
+        private String bankIfsc;
+        private String upiId;
+        private Instant authorizedAt;
+        private Instant createdAt;
+
+        static MandateItem from(Mandate mandate) {
+            MandateItem item = new MandateItem();
+            item.id = mandate.getId();
+            item.mandateType = mandate.getMandateType();
+            item.status = mandate.getStatus() != null ? mandate.getStatus().name() : null;
+            item.maxAmount = mandate.getMaxAmount();
+            item.frequency = mandate.getFrequency();
+            String account = mandate.getBankAccountNumber();
+            item.bankAccountLast4 = account != null && account.length() > 4
+                    ? account.substring(account.length() - 4) : account;
+            item.bankIfsc = mandate.getBankIfsc();
+            item.upiId = mandate.getUpiId();
+            item.authorizedAt = mandate.getAuthorizedAt();
+            item.createdAt = mandate.getCreatedAt();
+            return item;
+        }
+
+        public UUID getId() { return id; }
+        public String getMandateType() { return mandateType; }
+        public String getStatus() { return status; }
+        public BigDecimal getMaxAmount() { return maxAmount; }
+        public String getFrequency() { return frequency; }
+        public String getBankAccountLast4() { return bankAccountLast4; }
+        public String getBankIfsc() { return bankIfsc; }
+        public String getUpiId() { return upiId; }
+        public Instant getAuthorizedAt() { return authorizedAt; }
+        public Instant getCreatedAt() { return createdAt; }
+    }
+
+    public static class AuditItem {
+        private UUID id;
+        private String eventType;
+        private String status;
+        private String network;
+        private String transactionHash;
+        private Long blockNumber;
+        private Instant createdAt;
+        private Instant confirmedAt;
+
+        static AuditItem from(BlockchainAuditLog log) {
+            AuditItem item = new AuditItem();
+            item.id = log.getId();
+            item.eventType = log.getEventType() != null ? log.getEventType().name() : null;
+            item.status = log.getStatus() != null ? log.getStatus().name() : null;
+            item.network = log.getNetwork();
+            item.transactionHash = log.getTransactionHash();
+            item.blockNumber = log.getBlockNumber();
+            item.createdAt = log.getCreatedAt();
+            item.confirmedAt = log.getConfirmedAt();
+            return item;
+        }
+
+        public UUID getId() { return id; }
+        public String getEventType() { return eventType; }
+        public String getStatus() { return status; }
+        public String getNetwork() { return network; }
+        public String getTransactionHash() { return transactionHash; }
+        public Long getBlockNumber() { return blockNumber; }
+        public Instant getCreatedAt() { return createdAt; }
+        public Instant getConfirmedAt() { return confirmedAt; }
+    }
+}
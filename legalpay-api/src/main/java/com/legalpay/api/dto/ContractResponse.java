@@ -21,6 +21,7 @@ public class ContractResponse {
     private LocalDate endDate;
     private String paymentType;
     private String paymentFrequency;
+    private String interestMethod;
     private BigDecimal emiAmount;
     private String pdfUrl;
     private String status;
@@ -68,6 +69,8 @@ public class ContractResponse {
     public void setPaymentType(String paymentType) { this.paymentType = paymentType; }
     public String getPaymentFrequency() { return paymentFrequency; }
     public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
+    public String getInterestMethod() { return interestMethod; }
+    public void setInterestMethod(String interestMethod) { this.interestMethod = interestMethod; }
     public BigDecimal getEmiAmount() { return emiAmount; }
     public void setEmiAmount(BigDecimal emiAmount) { this.emiAmount = emiAmount; }
     public String getPdfUrl() { return pdfUrl; }
@@ -89,6 +92,7 @@ public class ContractResponse {
         private LocalDate endDate;
         private String paymentType;
         private String paymentFrequency;
+        private String interestMethod;
         private BigDecimal emiAmount;
         private String pdfUrl;
         private String status;
@@ -104,12 +108,17 @@ public class ContractResponse {
         public ContractResponseBuilder endDate(LocalDate endDate) { this.endDate = endDate; return this; }
         public ContractResponseBuilder paymentType(String paymentType) { this.paymentType = paymentType; return this; }
         public ContractResponseBuilder paymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; return this; }
+        public ContractResponseBuilder interestMethod(String interestMethod) { this.interestMethod = interestMethod; return this; }
         public ContractResponseBuilder emiAmount(BigDecimal emiAmount) { this.emiAmount = emiAmount; return this; }
         public ContractResponseBuilder pdfUrl(String pdfUrl) { this.pdfUrl = pdfUrl; return this; }
         public ContractResponseBuilder status(String status) { this.status = status; return this; }
         public ContractResponseBuilder eSignDocumentId(String eSignDocumentId) { this.eSignDocumentId = eSignDocumentId; return this; }
         public ContractResponseBuilder createdAt(Instant createdAt) { this.createdAt = createdAt; return this; }
-        public ContractResponse build() { return new ContractResponse(id, merchantId, payerId, principalAmount, interestRate, startDate, endDate, paymentType, paymentFrequency, emiAmount, pdfUrl, status, eSignDocumentId, createdAt); }
+        public ContractResponse build() {
+            ContractResponse response = new ContractResponse(id, merchantId, payerId, principalAmount, interestRate, startDate, endDate, paymentType, paymentFrequency, emiAmount, pdfUrl, status, eSignDocumentId, createdAt);
+            response.interestMethod = interestMethod;
+            return response;
+        }
     }
 
     public static ContractResponse from(Contract contract) {
@@ -123,6 +132,8 @@ public class ContractResponse {
                 .endDate(contract.getEndDate())
                 .paymentType(contract.getPaymentType() != null ? contract.getPaymentType().name() : null)
                 .paymentFrequency(contract.getPaymentFrequency())
+                .interestMethod(contract.getPaymentType() == Contract.PaymentType.EMI && contract.getInterestMethod() != null
+                        ? contract.getInterestMethod().name() : null)
                 .emiAmount(contract.getEmiAmount())
                 .pdfUrl(contract.getPdfUrl())
                 .status(contract.getStatus().name())
@@ -0,0 +1,49 @@
+package com.legalpay.api.dto;
+
+import com.legalpay.domain.entity.Installment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Response DTO for one row of an instalment schedule
+ */
+public class InstallmentResponse {
+
+    private Integer installmentNumber;
+    private LocalDate dueDate;
+    private BigDecimal principalComponent;
+    private BigDecimal interestComponent;
+    private BigDecimal amount;
+    private BigDecimal outstandingBalance;
+    private String status;
+
+    public InstallmentResponse() {}
+
+    public static InstallmentResponse from(Installment installment) {
+        InstallmentResponse response = new InstallmentResponse();
+        response.installmentNumber = installment.getInstallmentNumber();
+        response.dueDate = installment.getDueDate();
+        response.principalComponent = installment.getPrincipalComponent();
+        response.interestComponent = installment.getInterestComponent();
+        response.amount = installment.getAmount();
+        response.outstandingBalance = installment.getOutstandingBalance();
+        response.status = installment.getStatus().name();
+        return response;
+    }
+
+    public Integer getInstallmentNumber() { return installmentNumber; }
+    public void setInstallmentNumber(Integer installmentNumber) { this.installmentNumber = installmentNumber; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public BigDecimal getPrincipalComponent() { return principalComponent; }
+    public void setPrincipalComponent(BigDecimal principalComponent) { this.principalComponent = principalComponent; }
+    public BigDecimal getInterestComponent() { return interestComponent; }
+    public void setInterestComponent(BigDecimal interestComponent) { this.interestComponent = interestComponent; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public void setOutstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
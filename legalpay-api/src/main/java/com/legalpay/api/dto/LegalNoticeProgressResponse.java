@@ -0,0 +1,45 @@
+package com.legalpay.api.dto;
+
+import com.legalpay.domain.entity.LegalNotice;
+import com.legalpay.services.notice.LegalNoticePipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response DTO for a legal notice run's progress
+ */
+public class LegalNoticeProgressResponse {
+
+    private String cycleId;
+    private boolean running;
+    private long total;
+    private Map<String, Long> noticesByStage;
+    private long failed;
+
+    public LegalNoticeProgressResponse() {}
+
+    public static LegalNoticeProgressResponse from(LegalNoticePipeline.Progress progress) {
+        LegalNoticeProgressResponse response = new LegalNoticeProgressResponse();
+        response.cycleId = progress.getCycleId();
+        response.running = progress.isRunning();
+        response.total = progress.getTotal();
+        response.noticesByStage = new LinkedHashMap<>();
+        for (LegalNotice.Stage stage : LegalNotice.Stage.values()) {
+            response.noticesByStage.put(stage.name(), progress.getByStage().getOrDefault(stage, 0L));
+        }
+        response.failed = progress.getFailed();
+        return response;
+    }
+
+    public String getCycleId() { return cycleId; }
+    public void setCycleId(String cycleId) { this.cycleId = cycleId; }
+    public boolean isRunning() { return running; }
+    public void setRunning(boolean running) { this.running = running; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Map<String, Long> getNoticesByStage() { return noticesByStage; }
+    public void setNoticesByStage(Map<String, Long> noticesByStage) { this.noticesByStage = noticesByStage; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+}
@@ -0,0 +1,60 @@
+package com.legalpay.api.dto;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.MerchantStats;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response DTO for merchant dashboard aggregates
+ */
+public class MerchantStatsResponse {
+
+    private UUID merchantId;
+    private Map<String, Long> contractsByStatus;
+    private long totalContracts;
+    private BigDecimal totalPrincipal;
+    private BigDecimal collectedAmount;
+    private BigDecimal overdueAmount;
+    private Instant updatedAt;
+    private Instant reconciledAt;
+
+    public MerchantStatsResponse() {}
+
+    public static MerchantStatsResponse from(MerchantStats stats) {
+        MerchantStatsResponse response = new MerchantStatsResponse();
+        response.merchantId = stats.getMerchantId();
+        response.contractsByStatus = new LinkedHashMap<>();
+        for (Contract.ContractStatus status : Contract.ContractStatus.values()) {
+            response.contractsByStatus.put(status.name(), stats.getCount(status));
+        }
+        response.totalContracts = stats.getTotalContracts();
+        response.totalPrincipal = stats.getTotalPrincipal();
+        response.collectedAmount = stats.getCollectedAmount();
+        response.overdueAmount = stats.getOverdueAmount();
+        response.updatedAt = stats.getUpdatedAt();
+        response.reconciledAt = stats.getReconciledAt();
+        return response;
+    }
+
+    public UUID getMerchantId() { return merchantId; }
+    public void setMerchantId(UUID merchantId) { this.merchantId = merchantId; }
+    public Map<String, Long> getContractsByStatus() { return contractsByStatus; }
+    public void setContractsByStatus(Map<String, Long> contractsByStatus) { this.contractsByStatus = contractsByStatus; }
+    public long getTotalContracts() { return totalContracts; }
+    public void setTotalContracts(long totalContracts) { this.totalContracts = totalContracts; }
+    public BigDecimal getTotalPrincipal() { return totalPrincipal; }
+    public void setTotalPrincipal(BigDecimal totalPrincipal) { this.totalPrincipal = totalPrincipal; }
+    public BigDecimal getCollectedAmount() { return collectedAmount; }
+    public void setCollectedAmount(BigDecimal collectedAmount) { this.collectedAmount = collectedAmount; }
+    public BigDecimal getOverdueAmount() { return overdueAmount; }
+    public void setOverdueAmount(BigDecimal overdueAmount) { this.overdueAmount = overdueAmount; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public Instant getReconciledAt() { return reconciledAt; }
+    public void setReconciledAt(Instant reconciledAt) { this.reconciledAt = reconciledAt; }
+}
@@ -0,0 +1,232 @@
+package com.legalpay.api.filter;
+
+import com.legalpay.services.idempotency.IdempotencyStore;
+import com.legalpay.services.idempotency.IdempotencyStore.Decision;
+import com.legalpay.services.idempotency.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Idempotency-Key handling for payment-mutating endpoints.
+ * <p>
+ * A POST carrying an {@code Idempotency-Key} header runs at most once per
+ * (caller, path, key): the first request executes and its 2xx response is
+ * stored; a retry with the same body gets that response replayed (marked
+ * {@code Idempotent-Replayed: true}), a retry with a different body gets 422,
+ * and a retry that arrives while the first is still running waits for it and
+ * gets 409 only if it takes longer than the wait timeout. Non-2xx responses
+ * are not stored, so a failed attempt can simply be retried with the same key.
+ * Runs after Spring Security, so the key is scoped to the authenticated user.
+ */
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyStore store;
+    private final Set<String> paths;
+    private final int maxBodyBytes;
+
+    public IdempotencyKeyFilter(IdempotencyStore store,
+                                @Value("${legalpay.idempotency.paths:/api/v1/payments/create-order,/api/v1/payments/verify}") Set<String> paths,
+                                @Value("${legalpay.idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        this.store = store;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Request body too large for an idempotent request");
+            return;
+        }
+
+        String uri = request.getRequestURI();
+        Principal principal = request.getUserPrincipal();
+        String scope = principal != null ? principal.getName() : "anonymous";
+        String storeKey = sha256((scope + "|" + uri + "|" + key).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = sha256(concat((request.getMethod() + "|" + uri + "|").getBytes(StandardCharsets.UTF_8), body));
+
+        Decision decision = store.begin(storeKey, fingerprint);
+        switch (decision.getOutcome()) {
+            case REPLAY -> replay(response, decision.getResponse());
+            case MISMATCH -> writeError(response, 422,
+                    HEADER + " was already used with a different request");
+            case IN_PROGRESS -> writeError(response, HttpServletResponse.SC_CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+            case EXECUTE -> execute(new CachedBodyRequest(request, body), response, filterChain, storeKey, fingerprint);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String storeKey, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(storeKey, new StoredResponse(fingerprint, status,
+                        wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                try {
+                    store.abandon(storeKey);
+                } catch (RuntimeException e) {
+                    // The in-progress lease expires on its own
+                    log.warn("Failed to release idempotency key: {}", e.getMessage());
+                }
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message.replace("\"", "\\\"") + "\"}");
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = new byte[a.length + b.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Replays the already-read body to the rest of the chain
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The body is already in memory: all of it is available at once
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -2,34 +2,51 @@ package com.legalpay.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.legalpay.api.dto.ContractCreateRequest;
+import com.legalpay.api.security.CustomUserDetailsService;
+import com.legalpay.api.security.JwtUtil;
 import com.legalpay.domain.entity.Contract;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.entity.Payer;
 import com.legalpay.domain.repository.MerchantRepository;
 import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.services.contract.BulkESignService;
+import com.legalpay.services.contract.ContractDocumentService;
+import com.legalpay.services.contract.ContractExportService;
 import com.legalpay.services.contract.ContractService;
+import com.legalpay.services.contract.ContractViewService;
+import com.legalpay.services.idempotency.IdempotencyStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Integration tests for ContractController
- * Pattern: MockMvc for REST API testing
+ * Pattern: MockMvc for REST API testing (security filters off; they are not under test)
  */
 @WebMvcTest(ContractController.class)
+@AutoConfigureMockMvc(addFilters = false)
 class ContractControllerTest {
 
     @Autowired
@@ -47,6 +64,30 @@ class ContractControllerTest {
     @MockBean
     private PayerRepository payerRepository;
 
+    @MockBean
+    private ContractExportService contractExportService;
+
+    @MockBean
+    private ContractEventStreams contractEventStreams;
+
+    @MockBean
+    private ContractDocumentService contractDocumentService;
+
+    @MockBean
+    private BulkESignService bulkESignService;
+
+    @MockBean
+    private ContractViewService contractViewService;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
     @Test
     void createContract_ShouldReturn201_WhenValidRequest() throws Exception {
         // Given
@@ -60,6 +101,7 @@ class ContractControllerTest {
         request.setInterestRate(new BigDecimal("12.0"));
         request.setStartDate(LocalDate.now());
         request.setEndDate(LocalDate.now().plusMonths(12));
+        request.setPaymentType("EMI");
         request.setPaymentFrequency("MONTHLY");
 
         Merchant merchant = Merchant.builder().id(merchantId).build();
@@ -118,11 +160,129 @@ class ContractControllerTest {
                 .status(Contract.ContractStatus.DRAFT)
                 .build();
 
-        when(contractService.getContract(contractId)).thenReturn(contract);
+        when(contractService.getContract(contractId, null)).thenReturn(contract);
 
         // When/Then
         mockMvc.perform(get("/api/v1/contracts/" + contractId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(contractId.toString()));
     }
+
+    @Test
+    void batchGetContracts_ShouldReturnResultsInRequestOrder() throws Exception {
+        // Given
+        UUID foundId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Contract contract = Contract.builder()
+                .id(foundId)
+                .merchant(Merchant.builder().id(UUID.randomUUID()).build())
+                .payer(Payer.builder().id(UUID.randomUUID()).build())
+                .principalAmount(new BigDecimal("100000"))
+                .status(Contract.ContractStatus.DRAFT)
+                .build();
+
+        when(contractService.getContracts(List.of(missingId, foundId)))
+                .thenReturn(Map.of(foundId, contract));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/contracts/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + missingId + "\",\"" + foundId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].id").value(missingId.toString()))
+                .andExpect(jsonPath("$.results[0].found").value(false))
+                .andExpect(jsonPath("$.results[1].found").value(true))
+                .andExpect(jsonPath("$.results[1].contract.id").value(foundId.toString()))
+                .andExpect(jsonPath("$.notFound").value(1));
+    }
+
+    @Test
+    void getContract_ShouldReturnETag_WhenContractExists() throws Exception {
+        // Given
+        UUID contractId = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2026-03-01T10:15:30.123456Z");
+        Contract contract = Contract.builder()
+                .id(contractId)
+                .merchant(Merchant.builder().id(UUID.randomUUID()).build())
+                .payer(Payer.builder().id(UUID.randomUUID()).build())
+                .principalAmount(new BigDecimal("100000"))
+                .status(Contract.ContractStatus.SIGNED)
+                .updatedAt(updatedAt)
+                .build();
+
+        when(contractService.getContractUpdatedAt(contractId)).thenReturn(Optional.of(updatedAt));
+        when(contractService.getContract(contractId, updatedAt)).thenReturn(contract);
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/contracts/" + contractId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ContractController.eTag(contractId, updatedAt)));
+    }
+
+    @Test
+    void getContract_ShouldReturn304WithoutLoading_WhenETagMatches() throws Exception {
+        // Given
+        UUID contractId = UUID.randomUUID();
+        Instant updatedAt = Instant.parse("2026-03-01T10:15:30.123456Z");
+        when(contractService.getContractUpdatedAt(contractId)).thenReturn(Optional.of(updatedAt));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/contracts/" + contractId)
+                        .header("If-None-Match", ContractController.eTag(contractId, updatedAt)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(contractService, never()).getContract(any(), any());
+    }
+
+    @Test
+    void uploadSignedPdf_ShouldReturn413_WhenContentLengthExceedsLimit() throws Exception {
+        // Given
+        UUID contractId = UUID.randomUUID();
+        when(contractDocumentService.getMaxSignedPdfBytes()).thenReturn(4L);
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/contracts/" + contractId + "/signed-pdf")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content("%PDF-1.7 too big".getBytes(StandardCharsets.US_ASCII)))
+                .andExpect(status().isPayloadTooLarge());
+        verify(contractDocumentService, never()).storeSignedPdf(any(), any());
+    }
+
+    @Test
+    void downloadSignedPdf_ShouldReturnPartialContent_ForSingleRange() throws Exception {
+        // Given
+        UUID contractId = UUID.randomUUID();
+        Path file = Files.createTempFile("signed", ".pdf");
+        Files.write(file, "%PDF-1.7 signed".getBytes(StandardCharsets.US_ASCII));
+        when(contractDocumentService.getSignedPdf(contractId))
+                .thenReturn(ContractDocumentService.SignedDocument.local(file, Files.size(file), "abc123"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/contracts/" + contractId + "/signed-pdf")
+                        .header("Range", "bytes=0-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-7/15"))
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(content().bytes("%PDF-1.7".getBytes(StandardCharsets.US_ASCII)));
+
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void downloadSignedPdf_ShouldReturn416_WhenRangeUnsatisfiable() throws Exception {
+        // Given
+        UUID contractId = UUID.randomUUID();
+        Path file = Files.createTempFile("signed", ".pdf");
+        Files.write(file, "%PDF-1.7 signed".getBytes(StandardCharsets.US_ASCII));
+        when(contractDocumentService.getSignedPdf(contractId))
+                .thenReturn(ContractDocumentService.SignedDocument.local(file, Files.size(file), "abc123"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/contracts/" + contractId + "/signed-pdf")
+                        .header("Range", "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */15"));
+
+        Files.deleteIfExists(file);
+    }
 }
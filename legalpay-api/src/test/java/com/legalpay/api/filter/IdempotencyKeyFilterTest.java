@@ -0,0 +1,213 @@
+package com.legalpay.api.filter;
+
+import com.legalpay.services.idempotency.IdempotencyStore;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * IdempotencyKeyFilter in front of a stub payment endpoint, with the store on an
+ * in-memory H2 database
+ */
+@SpringJUnitConfig(IdempotencyKeyFilterTest.StoreConfig.class)
+class IdempotencyKeyFilterTest {
+
+    private static final String CREATE_ORDER = "/api/v1/payments/create-order";
+    private static final String VERIFY = "/api/v1/payments/verify";
+    private static final int MAX_BODY_BYTES = 64;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    private StubPaymentController controller;
+    private MockMvc mockMvc;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        controller = new StubPaymentController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new IdempotencyKeyFilter(store, Set.of(CREATE_ORDER, VERIFY), MAX_BODY_BYTES))
+                .build();
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void post_ShouldReplayTheStoredResponseForTheSameRequest() throws Exception {
+        // Given
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":100}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER))
+                .andExpect(content().json("{\"order\":1}"));
+
+        // When/Then
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":100}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyKeyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"order\":1}"));
+        assertThat(controller.calls).hasValue(1);
+    }
+
+    @Test
+    void post_ShouldReturn422_WhenTheKeyWasUsedWithADifferentBody() throws Exception {
+        // Given
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":100}"))
+                .andExpect(status().isCreated());
+
+        // When/Then
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":200}"))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(controller.calls).hasValue(1);
+    }
+
+    @Test
+    void post_ShouldRejectInvalidKeysAndOversizedBodies() throws Exception {
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, "  ")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, "k".repeat(101))
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"note\":\"" + "x".repeat(MAX_BODY_BYTES) + "\"}"))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(controller.calls).hasValue(0);
+    }
+
+    @Test
+    void post_ShouldReleaseTheKey_WhenTheResponseIsNot2xx() throws Exception {
+        // Given: the first attempt fails at the gateway
+        controller.failNext = true;
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":100}"))
+                .andExpect(status().isBadGateway());
+
+        // When/Then: the retry with the same key executes instead of replaying the failure
+        mockMvc.perform(post(CREATE_ORDER).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":100}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.REPLAYED_HEADER))
+                .andExpect(content().json("{\"order\":2}"));
+        assertThat(controller.calls).hasValue(2);
+    }
+
+    @Test
+    void post_ShouldServeTheBufferedBodyToReadListeners() throws Exception {
+        mockMvc.perform(post(VERIFY).header(IdempotencyKeyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"payment\":\"pay_1\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"payment\":\"pay_1\"}"));
+    }
+
+    @RestController
+    static class StubPaymentController {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean failNext;
+
+        @PostMapping(CREATE_ORDER)
+        public ResponseEntity<String> createOrder(@RequestBody String body) {
+            int call = calls.incrementAndGet();
+            if (failNext) {
+                failNext = false;
+                return ResponseEntity.status(502).body("{\"error\":\"gateway unavailable\"}");
+            }
+            return ResponseEntity.status(201).contentType(MediaType.APPLICATION_JSON).body("{\"order\":" + call + "}");
+        }
+
+        /**
+         * Echoes the body read through a ReadListener (non-blocking read API)
+         */
+        @PostMapping(VERIFY)
+        public ResponseEntity<String> verify(HttpServletRequest request) throws IOException {
+            calls.incrementAndGet();
+            ServletInputStream in = request.getInputStream();
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            CompletableFuture<String> body = new CompletableFuture<>();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    int b;
+                    while (in.isReady() && (b = in.read()) != -1) {
+                        read.write(b);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    body.complete(read.toString(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    body.completeExceptionally(t);
+                }
+            });
+            return ResponseEntity.ok(body.getNow("incomplete"));
+        }
+    }
+
+    @Configuration
+    static class StoreConfig {
+
+        @Bean
+        EmbeddedDatabase dataSource() {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(EmbeddedDatabase dataSource) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            // As generated from IdempotencyRecord
+            jdbcTemplate.execute("CREATE TABLE idempotency_keys (response_status integer, " +
+                    "created_at timestamp(6) with time zone not null, expires_at timestamp(6) with time zone not null, " +
+                    "status varchar(20) not null, fingerprint varchar(64) not null, " +
+                    "idempotency_key varchar(64) not null, content_type varchar(100), response_body TEXT, " +
+                    "primary key (idempotency_key))");
+            return jdbcTemplate;
+        }
+
+        @Bean
+        IdempotencyStore idempotencyStore(JdbcTemplate jdbcTemplate) {
+            return new IdempotencyStore(jdbcTemplate, Duration.ofHours(24), Duration.ofMinutes(1),
+                    Duration.ofSeconds(1), 100);
+        }
+    }
+}
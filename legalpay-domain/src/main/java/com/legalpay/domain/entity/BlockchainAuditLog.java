@@ -59,9 +59,10 @@ public class BlockchainAuditLog {
     private String network;
 
     /**
-     * Transaction hash on blockchain
+     * Transaction hash on blockchain. Null while the row is PENDING submission,
+     * or if the submission failed.
      */
-    @Column(nullable = false, unique = true, length = 66)
+    @Column(unique = true, length = 66)
     private String transactionHash;
 
     /**
@@ -131,7 +132,9 @@ public class BlockchainAuditLog {
         MANDATE_CANCELLED,
         LEGAL_NOTICE_SENT,
         DISPUTE_RAISED,
-        DISPUTE_RESOLVED
+        DISPUTE_RESOLVED,
+        CONTRACT_COMPLETED,  // Appended - ordinals must stay aligned with AuditTrail.sol
+        CONTRACT_DEFAULTED
     }
 
     public enum TransactionStatus {
@@ -10,7 +10,12 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "contracts")
+@Table(name = "contracts", indexes = {
+    @Index(name = "idx_contracts_merchant_created", columnList = "merchant_id, createdAt, id"),
+    @Index(name = "idx_contracts_payer_created", columnList = "payer_id, createdAt, id"),
+    @Index(name = "idx_contracts_merchant_status_created", columnList = "merchant_id, status, createdAt, id"),
+    @Index(name = "idx_contracts_lifecycle", columnList = "status, paymentStatus, endDate, id")
+})
 public class Contract {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -43,6 +48,10 @@ public class Contract {
     @Column(length = 20)
     private String paymentFrequency; // Only for EMI contracts
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private InterestMethod interestMethod = InterestMethod.REDUCING_BALANCE; // Only for EMI contracts
+
     @Column(precision = 15, scale = 2)
     private BigDecimal emiAmount; // Only for EMI contracts
 
@@ -61,6 +70,9 @@ public class Contract {
     @Column(length = 500)
     private String signedPdfUrl;
 
+    @Column(name = "signed_pdf_sha256_hash", length = 64)
+    private String signedPdfSha256Hash; // Set when the signed PDF is stored through the API
+
     @Column(length = 66)
     private String blockchainTxHash;
 
@@ -88,6 +100,12 @@ public class Contract {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Optimistic lock: a stale load-modify-save fails instead of overwriting a concurrent write.
+    // Bulk JPQL updates must bump it themselves.
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public enum ContractStatus {
         DRAFT, PENDING_ESIGN, SIGNED, ACTIVE, COMPLETED, DEFAULTED, CANCELLED, LEGAL_NOTICE_SENT
     }
@@ -97,6 +115,11 @@ public class Contract {
         EMI        // Recurring payments (daily/weekly/monthly/quarterly)
     }
 
+    public enum InterestMethod {
+        REDUCING_BALANCE,  // Interest on outstanding principal, equal instalments
+        FLAT_RATE          // Interest on original principal for the whole tenure
+    }
+
     public Contract() {}
 
     public static ContractBuilder builder() { return new ContractBuilder(); }
@@ -107,6 +130,7 @@ public class Contract {
         private LocalDate startDate; private LocalDate endDate; 
         private PaymentType paymentType = PaymentType.ONE_TIME;
         private String paymentFrequency;
+        private InterestMethod interestMethod = InterestMethod.REDUCING_BALANCE;
         private BigDecimal emiAmount; private String pdfUrl; private String sha256Hash;
         private String eSignDocumentId; private Instant signedAt; private String signedPdfUrl;
         private String blockchainTxHash; private Instant blockchainRecordedAt;
@@ -122,6 +146,7 @@ public class Contract {
         public ContractBuilder endDate(LocalDate endDate) { this.endDate = endDate; return this; }
         public ContractBuilder paymentType(PaymentType paymentType) { this.paymentType = paymentType; return this; }
         public ContractBuilder paymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; return this; }
+        public ContractBuilder interestMethod(InterestMethod interestMethod) { this.interestMethod = interestMethod; return this; }
         public ContractBuilder emiAmount(BigDecimal emiAmount) { this.emiAmount = emiAmount; return this; }
         public ContractBuilder pdfUrl(String pdfUrl) { this.pdfUrl = pdfUrl; return this; }
         public ContractBuilder sha256Hash(String sha256Hash) { this.sha256Hash = sha256Hash; return this; }
@@ -141,6 +166,7 @@ public class Contract {
             c.startDate = this.startDate; c.endDate = this.endDate; 
             c.paymentType = this.paymentType != null ? this.paymentType : PaymentType.ONE_TIME;
             c.paymentFrequency = this.paymentFrequency;
+            c.interestMethod = this.interestMethod != null ? this.interestMethod : InterestMethod.REDUCING_BALANCE;
             c.emiAmount = this.emiAmount; c.pdfUrl = this.pdfUrl; c.sha256Hash = this.sha256Hash;
             c.eSignDocumentId = this.eSignDocumentId; c.signedAt = this.signedAt; c.signedPdfUrl = this.signedPdfUrl;
             c.blockchainTxHash = this.blockchainTxHash; c.blockchainRecordedAt = this.blockchainRecordedAt;
@@ -167,6 +193,8 @@ public class Contract {
     public void setPaymentType(PaymentType paymentType) { this.paymentType = paymentType; }
     public String getPaymentFrequency() { return paymentFrequency; }
     public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
+    public InterestMethod getInterestMethod() { return interestMethod; }
+    public void setInterestMethod(InterestMethod interestMethod) { this.interestMethod = interestMethod; }
     public BigDecimal getEmiAmount() { return emiAmount; }
     public void setEmiAmount(BigDecimal emiAmount) { this.emiAmount = emiAmount; }
     public String getPdfUrl() { return pdfUrl; }
@@ -179,6 +207,8 @@ public class Contract {
     public void setSignedAt(Instant signedAt) { this.signedAt = signedAt; }
     public String getSignedPdfUrl() { return signedPdfUrl; }
     public void setSignedPdfUrl(String signedPdfUrl) { this.signedPdfUrl = signedPdfUrl; }
+    public String getSignedPdfSha256Hash() { return signedPdfSha256Hash; }
+    public void setSignedPdfSha256Hash(String signedPdfSha256Hash) { this.signedPdfSha256Hash = signedPdfSha256Hash; }
     public String getBlockchainTxHash() { return blockchainTxHash; }
     public void setBlockchainTxHash(String blockchainTxHash) { this.blockchainTxHash = blockchainTxHash; }
     public Instant getBlockchainRecordedAt() { return blockchainRecordedAt; }
@@ -195,4 +225,6 @@ public class Contract {
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
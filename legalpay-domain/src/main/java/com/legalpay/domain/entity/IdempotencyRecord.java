@@ -0,0 +1,58 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key, replayed for retries of
+ * the same request. IN_PROGRESS rows are short leases held by the executing
+ * node; COMPLETED rows live for the configured TTL.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+    indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String key; // SHA-256 of caller, path and client key
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; // SHA-256 of method, path and body
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column
+    private Integer responseStatus;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    public IdempotencyRecord() {}
+
+    public String getKey() { return key; }
+    public String getFingerprint() { return fingerprint; }
+    public Status getStatus() { return status; }
+    public Integer getResponseStatus() { return responseStatus; }
+    public String getContentType() { return contentType; }
+    public String getResponseBody() { return responseBody; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,107 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One row of a contract's amortization schedule
+ */
+@Entity
+@Table(name = "installments",
+    uniqueConstraints = @UniqueConstraint(name = "uk_installment_contract_number",
+                                          columnNames = {"contract_id", "installmentNumber"}),
+    indexes = @Index(name = "idx_installments_due_date", columnList = "dueDate, status"))
+public class Installment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "contract_id", nullable = false)
+    private Contract contract;
+
+    @Column(nullable = false)
+    private Integer installmentNumber;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal principalComponent;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal interestComponent;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal outstandingBalance; // Principal still owed after this instalment
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InstallmentStatus status = InstallmentStatus.PENDING;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public enum InstallmentStatus {
+        PENDING, PAID, OVERDUE, WAIVED
+    }
+
+    public Installment() {}
+
+    public static InstallmentBuilder builder() { return new InstallmentBuilder(); }
+
+    public static class InstallmentBuilder {
+        private UUID id; private Contract contract; private Integer installmentNumber;
+        private LocalDate dueDate; private BigDecimal principalComponent; private BigDecimal interestComponent;
+        private BigDecimal amount; private BigDecimal outstandingBalance;
+        private InstallmentStatus status = InstallmentStatus.PENDING;
+
+        public InstallmentBuilder id(UUID id) { this.id = id; return this; }
+        public InstallmentBuilder contract(Contract contract) { this.contract = contract; return this; }
+        public InstallmentBuilder installmentNumber(Integer installmentNumber) { this.installmentNumber = installmentNumber; return this; }
+        public InstallmentBuilder dueDate(LocalDate dueDate) { this.dueDate = dueDate; return this; }
+        public InstallmentBuilder principalComponent(BigDecimal principalComponent) { this.principalComponent = principalComponent; return this; }
+        public InstallmentBuilder interestComponent(BigDecimal interestComponent) { this.interestComponent = interestComponent; return this; }
+        public InstallmentBuilder amount(BigDecimal amount) { this.amount = amount; return this; }
+        public InstallmentBuilder outstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; return this; }
+        public InstallmentBuilder status(InstallmentStatus status) { this.status = status; return this; }
+
+        public Installment build() {
+            Installment i = new Installment();
+            i.id = this.id; i.contract = this.contract; i.installmentNumber = this.installmentNumber;
+            i.dueDate = this.dueDate; i.principalComponent = this.principalComponent; i.interestComponent = this.interestComponent;
+            i.amount = this.amount; i.outstandingBalance = this.outstandingBalance; i.status = this.status;
+            return i;
+        }
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public Contract getContract() { return contract; }
+    public void setContract(Contract contract) { this.contract = contract; }
+    public Integer getInstallmentNumber() { return installmentNumber; }
+    public void setInstallmentNumber(Integer installmentNumber) { this.installmentNumber = installmentNumber; }
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public BigDecimal getPrincipalComponent() { return principalComponent; }
+    public void setPrincipalComponent(BigDecimal principalComponent) { this.principalComponent = principalComponent; }
+    public BigDecimal getInterestComponent() { return interestComponent; }
+    public void setInterestComponent(BigDecimal interestComponent) { this.interestComponent = interestComponent; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public void setOutstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; }
+    public InstallmentStatus getStatus() { return status; }
+    public void setStatus(InstallmentStatus status) { this.status = status; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
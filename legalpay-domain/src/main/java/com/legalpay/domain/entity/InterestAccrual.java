@@ -0,0 +1,60 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One day's interest accrued on a contract (ledger row, never updated).
+ * Amounts are fixed-point paise; the unique key makes each day's run idempotent.
+ */
+@Entity
+@Table(name = "interest_accruals",
+    uniqueConstraints = @UniqueConstraint(name = "uk_interest_accrual_contract_date",
+                                          columnNames = {"contract_id", "accrualDate"}),
+    indexes = @Index(name = "idx_interest_accruals_date", columnList = "accrualDate"))
+public class InterestAccrual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "contract_id", nullable = false)
+    private Contract contract;
+
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(nullable = false)
+    private long outstandingPaise; // Principal less payments at accrual time
+
+    @Column(nullable = false)
+    private int rateBps; // Annual rate in basis points (12.50% = 1250)
+
+    @Column(nullable = false)
+    private long amountPaise;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public InterestAccrual() {}
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public Contract getContract() { return contract; }
+    public void setContract(Contract contract) { this.contract = contract; }
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public void setAccrualDate(LocalDate accrualDate) { this.accrualDate = accrualDate; }
+    public long getOutstandingPaise() { return outstandingPaise; }
+    public void setOutstandingPaise(long outstandingPaise) { this.outstandingPaise = outstandingPaise; }
+    public int getRateBps() { return rateBps; }
+    public void setRateBps(int rateBps) { this.rateBps = rateBps; }
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
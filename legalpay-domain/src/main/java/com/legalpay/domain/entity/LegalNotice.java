@@ -0,0 +1,99 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Legal notice issued for a defaulted contract in a collection cycle.
+ * The row doubles as the pipeline checkpoint: {@code stage} is the last stage
+ * that completed, so an interrupted run resumes from the next one.
+ */
+@Entity
+@Table(name = "legal_notices",
+    uniqueConstraints = @UniqueConstraint(name = "uk_legal_notice_contract_cycle",
+                                          columnNames = {"contract_id", "cycleId"}),
+    indexes = @Index(name = "idx_legal_notices_cycle_stage", columnList = "cycleId, stage, id"))
+public class LegalNotice {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "contract_id", nullable = false)
+    private Contract contract;
+
+    @Column(nullable = false, length = 64)
+    private String cycleId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Stage stage = Stage.PENDING;
+
+    @Column(length = 500)
+    private String documentLocation;
+
+    @Column(length = 64)
+    private String sha256Hash;
+
+    @Column
+    private Instant emailedAt;
+
+    @Column
+    private UUID auditLogId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public enum Stage {
+        PENDING,    // Selected, nothing done yet
+        STORED,     // PDF rendered and stored
+        EMAILED,    // Sent to the payer
+        ANCHORED,   // Hash logged to the audit trail
+        COMPLETED   // Contract moved to LEGAL_NOTICE_SENT
+    }
+
+    public LegalNotice() {}
+
+    public LegalNotice(Contract contract, String cycleId) {
+        this.contract = contract;
+        this.cycleId = cycleId;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public Contract getContract() { return contract; }
+    public void setContract(Contract contract) { this.contract = contract; }
+    public String getCycleId() { return cycleId; }
+    public void setCycleId(String cycleId) { this.cycleId = cycleId; }
+    public Stage getStage() { return stage; }
+    public void setStage(Stage stage) { this.stage = stage; }
+    public String getDocumentLocation() { return documentLocation; }
+    public void setDocumentLocation(String documentLocation) { this.documentLocation = documentLocation; }
+    public String getSha256Hash() { return sha256Hash; }
+    public void setSha256Hash(String sha256Hash) { this.sha256Hash = sha256Hash; }
+    public Instant getEmailedAt() { return emailedAt; }
+    public void setEmailedAt(Instant emailedAt) { this.emailedAt = emailedAt; }
+    public UUID getAuditLogId() { return auditLogId; }
+    public void setAuditLogId(UUID auditLogId) { this.auditLogId = auditLogId; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,123 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-merchant dashboard aggregates, maintained incrementally by atomic SQL
+ * increments alongside each contract/payment write and periodically rebuilt
+ * from source by the reconciliation job.
+ *
+ * Read-only from JPA: all writes go through MerchantStatsService.
+ */
+@Entity
+@Table(name = "merchant_stats")
+public class MerchantStats {
+
+    @Id
+    @Column(name = "merchant_id", nullable = false)
+    private UUID merchantId;
+
+    @Column(name = "draft_count", nullable = false)
+    private long draftCount;
+
+    @Column(name = "pending_esign_count", nullable = false)
+    private long pendingEsignCount;
+
+    @Column(name = "signed_count", nullable = false)
+    private long signedCount;
+
+    @Column(name = "active_count", nullable = false)
+    private long activeCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "defaulted_count", nullable = false)
+    private long defaultedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "legal_notice_sent_count", nullable = false)
+    private long legalNoticeSentCount;
+
+    @Column(name = "total_principal", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalPrincipal = BigDecimal.ZERO;
+
+    @Column(name = "collected_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal collectedAmount = BigDecimal.ZERO;
+
+    @Column(name = "overdue_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal overdueAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "reconciled_at")
+    private Instant reconciledAt;
+
+    public MerchantStats() {}
+
+    /**
+     * Empty aggregates for a merchant that has no row yet
+     */
+    public static MerchantStats empty(UUID merchantId) {
+        MerchantStats stats = new MerchantStats();
+        stats.merchantId = merchantId;
+        return stats;
+    }
+
+    /**
+     * Column holding the contract count for a status. Column names are only ever
+     * derived from the enum, so they are safe to splice into SQL.
+     */
+    public static String countColumn(Contract.ContractStatus status) {
+        return switch (status) {
+            case DRAFT -> "draft_count";
+            case PENDING_ESIGN -> "pending_esign_count";
+            case SIGNED -> "signed_count";
+            case ACTIVE -> "active_count";
+            case COMPLETED -> "completed_count";
+            case DEFAULTED -> "defaulted_count";
+            case CANCELLED -> "cancelled_count";
+            case LEGAL_NOTICE_SENT -> "legal_notice_sent_count";
+        };
+    }
+
+    public long getCount(Contract.ContractStatus status) {
+        return switch (status) {
+            case DRAFT -> draftCount;
+            case PENDING_ESIGN -> pendingEsignCount;
+            case SIGNED -> signedCount;
+            case ACTIVE -> activeCount;
+            case COMPLETED -> completedCount;
+            case DEFAULTED -> defaultedCount;
+            case CANCELLED -> cancelledCount;
+            case LEGAL_NOTICE_SENT -> legalNoticeSentCount;
+        };
+    }
+
+    public long getTotalContracts() {
+        return draftCount + pendingEsignCount + signedCount + activeCount
+                + completedCount + defaultedCount + cancelledCount + legalNoticeSentCount;
+    }
+
+    public UUID getMerchantId() { return merchantId; }
+    public long getDraftCount() { return draftCount; }
+    public long getPendingEsignCount() { return pendingEsignCount; }
+    public long getSignedCount() { return signedCount; }
+    public long getActiveCount() { return activeCount; }
+    public long getCompletedCount() { return completedCount; }
+    public long getDefaultedCount() { return defaultedCount; }
+    public long getCancelledCount() { return cancelledCount; }
+    public long getLegalNoticeSentCount() { return legalNoticeSentCount; }
+    public BigDecimal getTotalPrincipal() { return totalPrincipal; }
+    public BigDecimal getCollectedAmount() { return collectedAmount; }
+    public BigDecimal getOverdueAmount() { return overdueAmount; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getReconciledAt() { return reconciledAt; }
+}
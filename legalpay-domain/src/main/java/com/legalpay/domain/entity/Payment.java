@@ -10,7 +10,10 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    // PostgreSQL: replace with the partial index on (next_retry_at) WHERE status = 'FAILED' (see docs/DEPLOYMENT.md)
+    @Index(name = "idx_payments_status_retry", columnList = "status, nextRetryAt")
+})
 public class Payment {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -47,6 +50,12 @@ public class Payment {
     @Column
     private Instant nextRetryAt;
 
+    @Column(length = 64)
+    private String leaseOwner; // Node currently retrying this payment
+
+    @Column
+    private Instant leaseExpiresAt;
+
     @Column(length = 10)
     private String returnCode;
 
@@ -129,6 +138,10 @@ public class Payment {
     public void setRetryCount(Integer retryCount) { this.retryCount = retryCount; }
     public Instant getNextRetryAt() { return nextRetryAt; }
     public void setNextRetryAt(Instant nextRetryAt) { this.nextRetryAt = nextRetryAt; }
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    public Instant getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
     public String getReturnCode() { return returnCode; }
     public void setReturnCode(String returnCode) { this.returnCode = returnCode; }
     public PaymentStatus getStatus() { return status; }
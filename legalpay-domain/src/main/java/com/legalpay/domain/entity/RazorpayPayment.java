@@ -9,7 +9,8 @@ import java.util.UUID;
 @Table(name = "razorpay_payments", indexes = {
     @Index(name = "idx_contract_id", columnList = "contract_id"),
     @Index(name = "idx_razorpay_order_id", columnList = "razorpay_order_id"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_razorpay_payments_merchant_status", columnList = "merchant_id, status")
 })
 public class RazorpayPayment {
 
@@ -29,7 +30,7 @@ public class RazorpayPayment {
     @JoinColumn(name = "merchant_id", nullable = false)
     private Merchant merchant;
 
-    @Column(name = "razorpay_order_id", unique = true, nullable = false, length = 255)
+    @Column(name = "razorpay_order_id", unique = true, length = 255) // Null while PENDING_ORDER
     private String razorpayOrderId;
 
     @Column(name = "razorpay_payment_id", unique = true, length = 255)
@@ -224,6 +225,7 @@ public class RazorpayPayment {
     }
 
     public enum PaymentStatus {
+        PENDING_ORDER, // Reserved, Razorpay order not yet created
         CREATED,      // Order created, awaiting payment
         AUTHORIZED,   // Payment authorized but not captured
         CAPTURED,     // Payment successful and captured
@@ -0,0 +1,35 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Lease row for cluster-wide mutual exclusion of scheduled jobs.
+ * A node owns the lock while lockedUntil is in the future; leases are
+ * taken and renewed with conditional UPDATEs by SchedulerLockService.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "locked_by", nullable = false, length = 128)
+    private String lockedBy;
+
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+
+    public SchedulerLock() {}
+
+    public String getName() { return name; }
+    public String getLockedBy() { return lockedBy; }
+    public Instant getLockedAt() { return lockedAt; }
+    public Instant getLockedUntil() { return lockedUntil; }
+}
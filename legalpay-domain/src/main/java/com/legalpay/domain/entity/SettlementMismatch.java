@@ -0,0 +1,98 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One discrepancy found by settlement reconciliation between a local
+ * razorpay_payments row and what Razorpay reports for the payment and its
+ * settlement. Amounts are in paise; the side that is missing is null.
+ */
+@Entity
+@Table(name = "settlement_mismatches", indexes = {
+    @Index(name = "idx_settlement_mismatches_date", columnList = "business_date, kind"),
+    @Index(name = "idx_settlement_mismatches_run", columnList = "run_id")
+})
+public class SettlementMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private UUID runId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "razorpay_payment_id", nullable = false, length = 255)
+    private String razorpayPaymentId;
+
+    @Column(name = "payment_id")
+    private UUID paymentId; // Local razorpay_payments.id
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Kind kind;
+
+    @Column(name = "local_status", length = 50)
+    private String localStatus;
+
+    @Column(name = "gateway_status", length = 50)
+    private String gatewayStatus;
+
+    @Column(name = "local_amount")
+    private Long localAmount;
+
+    @Column(name = "gateway_amount")
+    private Long gatewayAmount;
+
+    @Column(name = "settled_amount")
+    private Long settledAmount;
+
+    @Column(name = "settlement_id", length = 255)
+    private String settlementId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public enum Kind {
+        MISSING_LOCALLY,          // Captured at Razorpay, no local record of the payment
+        MISSING_AT_GATEWAY,       // Captured locally, unknown to Razorpay
+        STATUS_MISMATCH,          // Captured on one side only
+        AMOUNT_MISMATCH,          // Captured on both sides for different amounts
+        NOT_SETTLED,              // Captured on both sides, no settlement within the settlement window
+        SETTLED_AMOUNT_MISMATCH   // Settled for a different amount than was captured
+    }
+
+    public SettlementMismatch() {}
+
+    public Long getId() { return id; }
+    public UUID getRunId() { return runId; }
+    public void setRunId(UUID runId) { this.runId = runId; }
+    public LocalDate getBusinessDate() { return businessDate; }
+    public void setBusinessDate(LocalDate businessDate) { this.businessDate = businessDate; }
+    public String getRazorpayPaymentId() { return razorpayPaymentId; }
+    public void setRazorpayPaymentId(String razorpayPaymentId) { this.razorpayPaymentId = razorpayPaymentId; }
+    public UUID getPaymentId() { return paymentId; }
+    public void setPaymentId(UUID paymentId) { this.paymentId = paymentId; }
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public String getLocalStatus() { return localStatus; }
+    public void setLocalStatus(String localStatus) { this.localStatus = localStatus; }
+    public String getGatewayStatus() { return gatewayStatus; }
+    public void setGatewayStatus(String gatewayStatus) { this.gatewayStatus = gatewayStatus; }
+    public Long getLocalAmount() { return localAmount; }
+    public void setLocalAmount(Long localAmount) { this.localAmount = localAmount; }
+    public Long getGatewayAmount() { return gatewayAmount; }
+    public void setGatewayAmount(Long gatewayAmount) { this.gatewayAmount = gatewayAmount; }
+    public Long getSettledAmount() { return settledAmount; }
+    public void setSettledAmount(Long settledAmount) { this.settledAmount = settledAmount; }
+    public String getSettlementId() { return settlementId; }
+    public void setSettlementId(String settlementId) { this.settlementId = settlementId; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
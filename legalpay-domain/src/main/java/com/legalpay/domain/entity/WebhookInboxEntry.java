@@ -0,0 +1,72 @@
+package com.legalpay.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Raw gateway webhook, stored as received before any processing.
+ * The unique event ID drops duplicate deliveries; the identity ID gives
+ * arrival order, which the inbox processor preserves per Razorpay order.
+ */
+@Entity
+@Table(name = "webhook_inbox",
+    uniqueConstraints = @UniqueConstraint(name = "uk_webhook_inbox_event_id", columnNames = "event_id"),
+    indexes = @Index(name = "idx_webhook_inbox_status", columnList = "status, id"))
+public class WebhookInboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, length = 100)
+    private String eventId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column
+    private Instant nextAttemptAt; // Backoff after a failed attempt; null when due now
+
+    @Column(nullable = false)
+    private Instant receivedAt;
+
+    @Column
+    private Instant processedAt;
+
+    public enum Status {
+        PENDING,
+        PROCESSED,
+        FAILED // Gave up after max attempts; kept for inspection
+    }
+
+    public WebhookInboxEntry() {}
+
+    public Long getId() { return id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(Instant receivedAt) { this.receivedAt = receivedAt; }
+    public Instant getProcessedAt() { return processedAt; }
+    public void setProcessedAt(Instant processedAt) { this.processedAt = processedAt; }
+}
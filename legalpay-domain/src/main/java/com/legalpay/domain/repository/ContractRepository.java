@@ -3,12 +3,26 @@ package com.legalpay.domain.repository;
 import com.legalpay.domain.entity.Contract;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.entity.Payer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, UUID> {
@@ -18,4 +32,176 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
     Page<Contract> findByPayer(Payer payer, Pageable pageable);
     
     Page<Contract> findByMerchantAndStatus(Merchant merchant, Contract.ContractStatus status, Pageable pageable);
+
+    long countByMerchant(Merchant merchant);
+
+    long countByPayer(Payer payer);
+
+    long countByMerchantAndStatus(Merchant merchant, Contract.ContractStatus status);
+
+    /**
+     * Rows of {status, count, sum(principalAmount)} for one merchant, used to rebuild merchant_stats
+     */
+    @Query("SELECT c.status, COUNT(c), COALESCE(SUM(c.principalAmount), 0) FROM Contract c " +
+           "WHERE c.merchant.id = :merchantId GROUP BY c.status")
+    List<Object[]> aggregateByStatus(@Param("merchantId") UUID merchantId);
+
+    /*
+     * Keyset (seek) pagination, newest first, ordered on (createdAt, id).
+     * The "first page" variants start from the top; the "after" variants continue
+     * strictly below the (createdAt, id) of the last row the client has seen.
+     * Backed by the composite indexes declared on Contract, so cost does not grow
+     * with page depth and no COUNT(*) is issued.
+     */
+
+    @Query("SELECT c FROM Contract c WHERE c.merchant = :merchant " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findFirstPageByMerchant(@Param("merchant") Merchant merchant, Limit limit);
+
+    @Query("SELECT c FROM Contract c WHERE c.merchant = :merchant " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findPageByMerchantAfter(@Param("merchant") Merchant merchant,
+                                           @Param("createdAt") Instant createdAt,
+                                           @Param("id") UUID id,
+                                           Limit limit);
+
+    @Query("SELECT c FROM Contract c WHERE c.payer = :payer " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findFirstPageByPayer(@Param("payer") Payer payer, Limit limit);
+
+    @Query("SELECT c FROM Contract c WHERE c.payer = :payer " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findPageByPayerAfter(@Param("payer") Payer payer,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("id") UUID id,
+                                        Limit limit);
+
+    @Query("SELECT c FROM Contract c WHERE c.merchant = :merchant AND c.status = :status " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findFirstPageByMerchantAndStatus(@Param("merchant") Merchant merchant,
+                                                    @Param("status") Contract.ContractStatus status,
+                                                    Limit limit);
+
+    @Query("SELECT c FROM Contract c WHERE c.merchant = :merchant AND c.status = :status " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contract> findPageByMerchantAndStatusAfter(@Param("merchant") Merchant merchant,
+                                                    @Param("status") Contract.ContractStatus status,
+                                                    @Param("createdAt") Instant createdAt,
+                                                    @Param("id") UUID id,
+                                                    Limit limit);
+
+    /**
+     * Forward-only stream of a merchant's whole contract book for export.
+     * Must be consumed inside a transaction and closed; the fetch size makes the
+     * driver use a server-side cursor instead of buffering the full result.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT c FROM Contract c WHERE c.merchant.id = :merchantId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Stream<Contract> streamByMerchantId(@Param("merchantId") UUID merchantId);
+
+    /**
+     * Minimal view of a contract due for a lifecycle transition
+     */
+    interface TransitionCandidate {
+        UUID getId();
+        UUID getMerchantId();
+        UUID getPayerId();
+        Contract.ContractStatus getStatus();
+        BigDecimal getPrincipalAmount();
+        BigDecimal getTotalPaidAmount();
+        LocalDate getEndDate();
+    }
+
+    /**
+     * Contracts in one of the given statuses whose endDate is before the cutoff,
+     * oldest first. Range scan on idx_contracts_lifecycle.
+     */
+    @Query("SELECT c.id AS id, c.merchant.id AS merchantId, c.payer.id AS payerId, c.status AS status, " +
+           "c.principalAmount AS principalAmount, c.totalPaidAmount AS totalPaidAmount, c.endDate AS endDate " +
+           "FROM Contract c WHERE c.status IN :statuses AND c.paymentStatus IN :paymentStatuses " +
+           "AND c.endDate < :endBefore ORDER BY c.endDate, c.id")
+    List<TransitionCandidate> findTransitionCandidates(@Param("statuses") Collection<Contract.ContractStatus> statuses,
+                                                       @Param("paymentStatuses") Collection<String> paymentStatuses,
+                                                       @Param("endBefore") LocalDate endBefore,
+                                                       Limit limit);
+
+    /**
+     * Single-row status transition guarded by the expected current status
+     *
+     * @return 1 if applied, 0 if the contract is no longer in {@code from}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contract c SET c.status = :to, c.updatedAt = :now, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.status = :from")
+    int compareAndSetStatus(@Param("id") UUID id,
+                            @Param("from") Contract.ContractStatus from,
+                            @Param("to") Contract.ContractStatus to,
+                            @Param("now") Instant now);
+
+    /**
+     * Record the eSign document of a contract sent to the provider, guarded by
+     * the status it was validated in
+     *
+     * @return 1 if applied, 0 if the contract is no longer in {@code from}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contract c SET c.status = :to, c.eSignDocumentId = :documentId, c.updatedAt = :now, " +
+           "c.version = c.version + 1 WHERE c.id = :id AND c.status = :from")
+    int recordESignDocument(@Param("id") UUID id,
+                            @Param("from") Contract.ContractStatus from,
+                            @Param("to") Contract.ContractStatus to,
+                            @Param("documentId") String documentId,
+                            @Param("now") Instant now);
+
+    /**
+     * Add a captured payment to the contract in place. Computing the new total in
+     * SQL means concurrent captures cannot overwrite each other's amount.
+     */
+    @Modifying
+    @Query("UPDATE Contract c SET c.totalPaidAmount = COALESCE(c.totalPaidAmount, 0) + :amount, " +
+           "c.paymentStatus = CASE WHEN COALESCE(c.totalPaidAmount, 0) + :amount >= c.principalAmount " +
+           "THEN 'PAID' ELSE 'PARTIAL' END, " +
+           "c.lastPaymentAt = :now, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id = :id")
+    int applyPayment(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") Instant now);
+
+    /**
+     * Last-modified timestamp only, for conditional GETs (primary key lookup, no entity load)
+     */
+    @Query("SELECT c.updatedAt FROM Contract c WHERE c.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") UUID id);
+
+    /**
+     * Swap in a new signed document and its hash together, only if the contract
+     * still points at {@code expected} (null: no document yet)
+     */
+    @Modifying
+    @Query("UPDATE Contract c SET c.signedPdfUrl = :location, c.signedPdfSha256Hash = :hash, " +
+           "c.updatedAt = :now, c.version = c.version + 1 WHERE c.id = :id " +
+           "AND (c.signedPdfUrl = :expected OR (c.signedPdfUrl IS NULL AND :expected IS NULL))")
+    int replaceSignedDocument(@Param("id") UUID id, @Param("expected") String expected,
+                              @Param("location") String location, @Param("hash") String hash,
+                              @Param("now") Instant now);
+
+    @Query("SELECT c.signedPdfUrl FROM Contract c WHERE c.id = :id")
+    Optional<String> findSignedPdfUrlById(@Param("id") UUID id);
+
+    /**
+     * Load a contract with its parties, for use outside a transaction
+     */
+    @Query("SELECT c FROM Contract c JOIN FETCH c.merchant JOIN FETCH c.payer WHERE c.id = :id")
+    Optional<Contract> findWithPartiesById(@Param("id") UUID id);
+
+    /**
+     * Load a set of contracts with their parties in one query (bulk operations)
+     */
+    @Query("SELECT c FROM Contract c JOIN FETCH c.merchant JOIN FETCH c.payer WHERE c.id IN :ids")
+    List<Contract> findAllWithPartiesByIdIn(@Param("ids") Collection<UUID> ids);
 }
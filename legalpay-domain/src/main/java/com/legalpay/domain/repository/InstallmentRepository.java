@@ -0,0 +1,67 @@
+package com.legalpay.domain.repository;
+
+import com.legalpay.domain.entity.Installment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InstallmentRepository extends JpaRepository<Installment, UUID> {
+
+    /**
+     * An instalment about to change status, with what merchant_stats needs
+     */
+    interface StatusCandidate {
+        UUID getId();
+        UUID getMerchantId();
+        Installment.InstallmentStatus getStatus();
+        BigDecimal getAmount();
+    }
+
+    List<Installment> findByContractIdOrderByInstallmentNumberAsc(UUID contractId);
+
+    /**
+     * Instalments that have moved past PENDING, so regeneration can carry their status over
+     */
+    List<Installment> findByContractIdInAndStatusNot(Collection<UUID> contractIds, Installment.InstallmentStatus status);
+
+    /**
+     * Bulk delete of existing schedules before they are regenerated
+     */
+    @Modifying
+    @Query("DELETE FROM Installment i WHERE i.contract.id IN :contractIds")
+    int deleteByContractIds(@Param("contractIds") Collection<UUID> contractIds);
+
+    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Installment i " +
+           "WHERE i.contract.merchant.id = :merchantId AND i.status = :status")
+    BigDecimal sumAmountByMerchantAndStatus(@Param("merchantId") UUID merchantId,
+                                            @Param("status") Installment.InstallmentStatus status);
+
+    /**
+     * Oldest instalments in the given status that fell due before the given day
+     */
+    @Query("SELECT i.id AS id, i.contract.merchant.id AS merchantId, i.status AS status, i.amount AS amount " +
+           "FROM Installment i WHERE i.status = :status AND i.dueDate < :dueBefore ORDER BY i.dueDate, i.id")
+    List<StatusCandidate> findDueBefore(@Param("status") Installment.InstallmentStatus status,
+                                        @Param("dueBefore") LocalDate dueBefore,
+                                        Limit limit);
+
+    /**
+     * A contract's instalments in the given statuses falling due on one day
+     */
+    @Query("SELECT i.id AS id, i.contract.merchant.id AS merchantId, i.status AS status, i.amount AS amount " +
+           "FROM Installment i WHERE i.contract.id = :contractId AND i.dueDate = :dueDate " +
+           "AND i.status IN :statuses")
+    List<StatusCandidate> findDueOn(@Param("contractId") UUID contractId,
+                                    @Param("dueDate") LocalDate dueDate,
+                                    @Param("statuses") Collection<Installment.InstallmentStatus> statuses);
+}
@@ -0,0 +1,26 @@
+package com.legalpay.domain.repository;
+
+import com.legalpay.domain.entity.InterestAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, UUID> {
+
+    long countByAccrualDate(LocalDate accrualDate);
+
+    @Query("SELECT MAX(a.accrualDate) FROM InterestAccrual a")
+    Optional<LocalDate> findLatestAccrualDate();
+
+    /**
+     * Total interest accrued on a contract so far, in paise
+     */
+    @Query("SELECT COALESCE(SUM(a.amountPaise), 0) FROM InterestAccrual a WHERE a.contract.id = :contractId")
+    long sumAmountPaiseByContractId(@Param("contractId") UUID contractId);
+}
@@ -0,0 +1,108 @@
+package com.legalpay.domain.repository;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.LegalNotice;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LegalNoticeRepository extends JpaRepository<LegalNotice, UUID> {
+
+    /**
+     * Everything a pipeline worker needs for one notice, in a single row
+     */
+    interface NoticeWorkView {
+        UUID getNoticeId();
+        LegalNotice.Stage getStage();
+        String getDocumentLocation();
+        String getSha256Hash();
+        UUID getContractId();
+        BigDecimal getPrincipalAmount();
+        BigDecimal getTotalPaidAmount();
+        LocalDate getEndDate();
+        UUID getPayerId();
+        String getPayerName();
+        String getPayerEmail();
+        UUID getMerchantId();
+        String getMerchantName();
+    }
+
+    /**
+     * DEFAULTED contracts without a notice in the cycle, in id order (keyset)
+     */
+    @Query("SELECT c.id FROM Contract c WHERE c.status = :status AND c.id > :after " +
+           "AND NOT EXISTS (SELECT 1 FROM LegalNotice n WHERE n.contract = c AND n.cycleId = :cycleId) " +
+           "ORDER BY c.id")
+    List<UUID> findContractsWithoutNotice(@Param("status") Contract.ContractStatus status,
+                                          @Param("cycleId") String cycleId,
+                                          @Param("after") UUID after,
+                                          Limit limit);
+
+    /**
+     * Unfinished notices of a cycle, in id order (keyset)
+     */
+    @Query("SELECT n.id AS noticeId, n.stage AS stage, n.documentLocation AS documentLocation, " +
+           "n.sha256Hash AS sha256Hash, c.id AS contractId, c.principalAmount AS principalAmount, " +
+           "c.totalPaidAmount AS totalPaidAmount, c.endDate AS endDate, p.id AS payerId, p.name AS payerName, " +
+           "p.email AS payerEmail, m.id AS merchantId, m.businessName AS merchantName " +
+           "FROM LegalNotice n JOIN n.contract c JOIN c.payer p JOIN c.merchant m " +
+           "WHERE n.cycleId = :cycleId AND n.stage <> :done AND n.attempts < :maxAttempts AND n.id > :after " +
+           "ORDER BY n.id")
+    List<NoticeWorkView> findPendingWork(@Param("cycleId") String cycleId,
+                                         @Param("done") LegalNotice.Stage done,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         @Param("after") UUID after,
+                                         Limit limit);
+
+    /**
+     * Rows of {stage, count} for a cycle
+     */
+    @Query("SELECT n.stage, COUNT(n) FROM LegalNotice n WHERE n.cycleId = :cycleId GROUP BY n.stage")
+    List<Object[]> countByStage(@Param("cycleId") String cycleId);
+
+    @Query("SELECT COUNT(n) FROM LegalNotice n WHERE n.cycleId = :cycleId AND n.stage <> :done AND n.lastError IS NOT NULL")
+    long countFailed(@Param("cycleId") String cycleId, @Param("done") LegalNotice.Stage done);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LegalNotice n SET n.stage = :stage, n.documentLocation = :location, n.sha256Hash = :hash, " +
+           "n.lastError = NULL, n.updatedAt = :now WHERE n.id = :id")
+    int markStored(@Param("id") UUID id, @Param("stage") LegalNotice.Stage stage,
+                   @Param("location") String location, @Param("hash") String hash, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LegalNotice n SET n.stage = :stage, n.emailedAt = :now, n.lastError = NULL, n.updatedAt = :now " +
+           "WHERE n.id = :id")
+    int markEmailed(@Param("id") UUID id, @Param("stage") LegalNotice.Stage stage, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LegalNotice n SET n.stage = :stage, n.auditLogId = :auditLogId, n.lastError = NULL, " +
+           "n.updatedAt = :now WHERE n.id = :id")
+    int markAnchored(@Param("id") UUID id, @Param("stage") LegalNotice.Stage stage,
+                     @Param("auditLogId") UUID auditLogId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE LegalNotice n SET n.stage = :stage, n.lastError = NULL, n.updatedAt = :now WHERE n.id IN :ids")
+    int markCompleted(@Param("ids") Collection<UUID> ids, @Param("stage") LegalNotice.Stage stage,
+                      @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LegalNotice n SET n.attempts = n.attempts + 1, n.lastError = :error, n.updatedAt = :now " +
+           "WHERE n.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error, @Param("now") Instant now);
+}
@@ -2,8 +2,10 @@ package com.legalpay.domain.repository;
 
 import com.legalpay.domain.entity.Merchant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,4 +24,7 @@ public interface MerchantRepository extends JpaRepository<Merchant, UUID> {
     boolean existsByEmail(String email);
     
     boolean existsByPan(String pan);
+
+    @Query("SELECT m.id FROM Merchant m")
+    List<UUID> findAllIds();
 }
@@ -0,0 +1,11 @@
+package com.legalpay.domain.repository;
+
+import com.legalpay.domain.entity.MerchantStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface MerchantStatsRepository extends JpaRepository<MerchantStats, UUID> {
+}
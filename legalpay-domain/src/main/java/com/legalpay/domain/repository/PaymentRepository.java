@@ -1,18 +1,42 @@
 package com.legalpay.domain.repository;
 
+import com.legalpay.domain.entity.Installment;
 import com.legalpay.domain.entity.Payment;
 import com.legalpay.domain.entity.Mandate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+
+    /**
+     * A mandate debit that is due on a collection day but not yet scheduled
+     */
+    interface DueDebit {
+        UUID getMandateId();
+        BigDecimal getAmount();
+    }
+
+    /**
+     * Contract and merchant a mandate payment belongs to
+     */
+    interface DebitOwner {
+        UUID getPaymentId();
+        UUID getContractId();
+        UUID getMerchantId();
+    }
     
     List<Payment> findByMandateAndStatus(Mandate mandate, Payment.PaymentStatus status);
     
@@ -22,4 +46,53 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
     
     List<Payment> findByDueDateBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Keyset page (by mandate ID) of mandates with unpaid instalments falling due
+     * on the given day that can be debited and have no payment for that day yet.
+     * Instalments are summed per mandate, so a page never splits a mandate.
+     */
+    @Query("SELECT m.id AS mandateId, SUM(i.amount) AS amount FROM Installment i, Mandate m " +
+           "WHERE m.contract = i.contract AND i.dueDate = :dueDate AND i.status IN :installmentStatuses " +
+           "AND m.status IN :mandateStatuses AND m.id > :afterMandateId " +
+           "AND NOT EXISTS (SELECT 1 FROM Payment p WHERE p.mandate = m AND p.dueDate = :dueDate) " +
+           "GROUP BY m.id ORDER BY m.id")
+    List<DueDebit> findDebitsToSchedule(@Param("dueDate") LocalDate dueDate,
+                                        @Param("installmentStatuses") Collection<Installment.InstallmentStatus> installmentStatuses,
+                                        @Param("mandateStatuses") Collection<Mandate.MandateStatus> mandateStatuses,
+                                        @Param("afterMandateId") UUID afterMandateId,
+                                        Limit limit);
+
+    /**
+     * Keyset page of payments to execute: SCHEDULED and due, or left PROCESSING
+     * by an interrupted run (re-sent under the same idempotency key)
+     */
+    @Query("SELECT p FROM Payment p JOIN FETCH p.mandate " +
+           "WHERE p.dueDate <= :day AND p.id > :afterId " +
+           "AND (p.status = 'SCHEDULED' OR (p.status = 'PROCESSING' AND p.updatedAt < :staleBefore)) " +
+           "ORDER BY p.id")
+    List<Payment> findDueForExecution(@Param("day") LocalDate day,
+                                      @Param("staleBefore") Instant staleBefore,
+                                      @Param("afterId") UUID afterId,
+                                      Limit limit);
+
+    /**
+     * Move a chunk to PROCESSING; rows changed since they were read are skipped
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = 'PROCESSING', p.updatedAt = :now WHERE p.id IN :ids " +
+           "AND (p.status = 'SCHEDULED' OR (p.status = 'PROCESSING' AND p.updatedAt < :staleBefore))")
+    int claimForExecution(@Param("ids") Collection<UUID> ids,
+                          @Param("staleBefore") Instant staleBefore,
+                          @Param("now") Instant now);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.id IN :ids AND p.status = 'PROCESSING' AND p.updatedAt = :claimedAt")
+    List<UUID> findClaimed(@Param("ids") Collection<UUID> ids, @Param("claimedAt") Instant claimedAt);
+
+    @Query("SELECT p FROM Payment p JOIN FETCH p.mandate WHERE p.id IN :ids")
+    List<Payment> findAllWithMandateByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id AS paymentId, c.id AS contractId, c.merchant.id AS merchantId " +
+           "FROM Payment p JOIN p.mandate m JOIN m.contract c WHERE p.id IN :ids")
+    List<DebitOwner> findOwners(@Param("ids") Collection<UUID> ids);
 }
@@ -1,9 +1,15 @@
 package com.legalpay.domain.repository;
 
 import com.legalpay.domain.entity.RazorpayPayment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +28,75 @@ public interface RazorpayPaymentRepository extends JpaRepository<RazorpayPayment
     List<RazorpayPayment> findByMerchantId(UUID merchantId);
     
     List<RazorpayPayment> findByStatus(RazorpayPayment.PaymentStatus status);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM RazorpayPayment p " +
+           "WHERE p.merchant.id = :merchantId AND p.status = :status")
+    BigDecimal sumAmountByMerchantAndStatus(@Param("merchantId") UUID merchantId,
+                                            @Param("status") RazorpayPayment.PaymentStatus status);
+
+    /**
+     * Capture guarded by the current status, so two concurrent confirmations of the
+     * same order (client verify + webhook) capture it exactly once. Only an order
+     * that exists at Razorpay and is not captured or refunded can be captured; a
+     * FAILED order still can, since Razorpay may capture a retried attempt.
+     *
+     * @return 1 for the caller that captured it, 0 if it was not capturable
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RazorpayPayment p SET p.status = 'CAPTURED', " +
+           "p.razorpayPaymentId = :paymentId, p.razorpaySignature = :signature, p.paymentMethod = :method, " +
+           "p.capturedAt = :now WHERE p.id = :id " +
+           "AND p.status IN ('CREATED', 'AUTHORIZED', 'FAILED')")
+    int markCaptured(@Param("id") UUID id, @Param("paymentId") String paymentId,
+                     @Param("signature") String signature, @Param("method") String method,
+                     @Param("now") Instant now);
+
+    /**
+     * Record a failure only for an order still awaiting payment; a late failure
+     * event must not overwrite a capture or a refund
+     *
+     * @return 1 if recorded, 0 if the payment was already resolved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RazorpayPayment p SET p.status = 'FAILED', " +
+           "p.failedAt = :now, p.errorCode = :errorCode, p.errorDescription = :errorDescription " +
+           "WHERE p.id = :id AND p.status IN ('CREATED', 'AUTHORIZED')")
+    int markFailed(@Param("id") UUID id, @Param("errorCode") String errorCode,
+                   @Param("errorDescription") String errorDescription, @Param("now") Instant now);
+
+    /**
+     * Attach the Razorpay order to a reserved payment. Guarded by PENDING_ORDER so
+     * the request that created the order and the reconciler cannot both apply it.
+     *
+     * @return 1 if attached, 0 if the reservation was already resolved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RazorpayPayment p SET p.status = 'CREATED', " +
+           "p.razorpayOrderId = :orderId WHERE p.id = :id " +
+           "AND p.status = 'PENDING_ORDER'")
+    int attachOrder(@Param("id") UUID id, @Param("orderId") String orderId);
+
+    /**
+     * Fail a reservation whose Razorpay order was never created
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RazorpayPayment p SET p.status = 'FAILED', " +
+           "p.failedAt = :now, p.errorCode = :errorCode, p.errorDescription = :errorDescription " +
+           "WHERE p.id = :id AND p.status = 'PENDING_ORDER'")
+    int failPendingOrder(@Param("id") UUID id, @Param("errorCode") String errorCode,
+                         @Param("errorDescription") String errorDescription, @Param("now") Instant now);
+
+    /**
+     * Unpaid orders for a contract and amount created after {@code after}, newest first
+     */
+    @Query("SELECT p FROM RazorpayPayment p WHERE p.contract.id = :contractId AND p.amount = :amount " +
+           "AND p.status = 'CREATED' " +
+           "AND p.createdAt > :after ORDER BY p.createdAt DESC")
+    List<RazorpayPayment> findOpenOrders(@Param("contractId") UUID contractId, @Param("amount") BigDecimal amount,
+                                         @Param("after") Instant after, Limit limit);
+
+    @Query("SELECT p.id FROM RazorpayPayment p " +
+           "WHERE p.status = 'PENDING_ORDER' " +
+           "AND p.createdAt < :before ORDER BY p.createdAt")
+    List<UUID> findPendingOrderIds(@Param("before") Instant before, Limit limit);
 }
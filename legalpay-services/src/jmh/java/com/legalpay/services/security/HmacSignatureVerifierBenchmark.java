@@ -0,0 +1,73 @@
+package com.legalpay.services.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature verifications per second: {@link HmacSignatureVerifier}
+ * against the per-call getInstance/init/hex-encode/equals approach it replaced.
+ * <p>
+ * Run with {@code mvn -pl legalpay-services -am -Pbenchmark verify}; add
+ * {@code -Djmh.args="HmacSignatureVerifierBenchmark -prof gc"} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HmacSignatureVerifierBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_secret";
+
+    @Param({"512", "4096"})
+    int payloadBytes;
+
+    private String payload;
+    private String signature;
+    private HmacSignatureVerifier verifier;
+
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder body = new StringBuilder("{\"event\":\"payment.captured\",\"payload\":\"");
+        while (body.length() < payloadBytes - 2) {
+            body.append('a');
+        }
+        payload = body.append("\"}").toString();
+        signature = legacySign(payload);
+        verifier = new HmacSignatureVerifier(SECRET);
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        return verifier.verify(payload, signature);
+    }
+
+    @Benchmark
+    public boolean legacy() throws Exception {
+        return legacySign(payload).equals(signature);
+    }
+
+    private static String legacySign(String message) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
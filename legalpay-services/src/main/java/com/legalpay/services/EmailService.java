@@ -3,12 +3,16 @@ package com.legalpay.services;
 import com.resend.Resend;
 import com.resend.core.exception.ResendException;
 import com.resend.services.emails.model.CreateEmailOptions;
+import com.resend.services.emails.model.Attachment;
 import com.resend.services.emails.model.CreateEmailResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Base64;
+import java.util.List;
+
 @Service
 public class EmailService {
     
@@ -142,6 +146,65 @@ public class EmailService {
         sendEmail(email, subject, htmlContent, loginUrl);
     }
     
+    /**
+     * Deliver a legal notice with the PDF attached. Unlike the account emails this
+     * throws on a Resend failure, since the caller must not record the notice as sent.
+     */
+    public void sendLegalNoticeEmail(String email, String name, String merchantName, String contractRef,
+                                     byte[] pdf) throws ResendException {
+        String subject = "Legal Notice: Contract " + contractRef;
+        
+        String htmlContent = String.format("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <style>
+                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                    .warning { background-color: #FEE2E2; padding: 12px; border-radius: 6px; margin: 15px 0; }
+                    .footer { margin-top: 30px; font-size: 12px; color: #666; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <h2>Legal Notice</h2>
+                    <p>Hi %s,</p>
+                    <p>Your contract <strong>%s</strong> with <strong>%s</strong> has been declared in default.</p>
+                    <div class="warning">
+                        Please read the attached legal notice. It sets out the outstanding amount and the time allowed for payment.
+                    </div>
+                    <div class="footer">
+                        <p>LegalPay on behalf of %s</p>
+                        <p style="color: #999;">This is an automated email. Please do not reply.</p>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """, name, contractRef, merchantName, merchantName);
+        
+        Attachment attachment = Attachment.builder()
+            .fileName("legal-notice-" + contractRef + ".pdf")
+            .content(Base64.getEncoder().encodeToString(pdf))
+            .build();
+        
+        if (resendEnabled && resendApiKey != null && !resendApiKey.isEmpty()) {
+            CreateEmailOptions params = CreateEmailOptions.builder()
+                .from(fromEmail)
+                .to(email)
+                .subject(subject)
+                .html(htmlContent)
+                .attachments(List.of(attachment))
+                .build();
+            
+            CreateEmailResponse response = new Resend(resendApiKey).emails().send(params);
+            log.info("Legal notice sent to {} - ID: {}", email, response.getId());
+        } else {
+            log.warn("Resend disabled - logging email to console");
+            logEmailToConsole(email, subject, attachment.getFileName() + " (" + pdf.length + " bytes)", htmlContent);
+        }
+    }
+    
     private void sendEmail(String to, String subject, String htmlContent, String debugUrl) {
         if (resendEnabled && resendApiKey != null && !resendApiKey.isEmpty()) {
             try {
@@ -6,28 +6,35 @@ import com.legalpay.domain.entity.RazorpayPayment;
 import com.legalpay.domain.repository.ContractRepository;
 import com.legalpay.domain.repository.RazorpayPaymentRepository;
 import com.legalpay.services.blockchain.BlockchainService;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
+import com.legalpay.services.cache.BoundedLocalCache;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.security.HmacSignatureVerifier;
+import com.legalpay.services.stats.MerchantStatsService;
 import com.razorpay.RazorpayException;
+import jakarta.annotation.PostConstruct;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class PaymentService {
@@ -35,7 +42,7 @@ public class PaymentService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
 
     @Autowired
-    private RazorpayClient razorpayClient;
+    private RazorpayOrderGateway orderGateway;
 
     @Autowired
     private RazorpayPaymentRepository razorpayPaymentRepository;
@@ -46,91 +53,215 @@ public class PaymentService {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private ContractCache contractCache;
+
+    @Autowired
+    private MerchantStatsService merchantStatsService;
+
+    @Autowired
+    private ContractEventHub eventHub;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Value("${razorpay.key-secret}")
     private String razorpayKeySecret;
 
+    private HmacSignatureVerifier signatureVerifier;
+
+    @Value("${legalpay.payments.open-order-ttl:PT30M}")
+    private Duration openOrderTtl;
+
+    @Value("${legalpay.payments.open-order-cache-size:10000}")
+    private int openOrderCacheSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // (contractId, amount) -> unpaid CREATED payment; rows are re-checked before reuse
+    private BoundedLocalCache<String, UUID> openOrders;
+
+    // One order creation in flight per contract; concurrent requests wait for it
+    private final ConcurrentHashMap<UUID, CompletableFuture<UUID>> ordersInFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signatureVerifier = new HmacSignatureVerifier(razorpayKeySecret);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        openOrders = new BoundedLocalCache<>(openOrderCacheSize, openOrderTtl);
+    }
+
     /**
-     * Create a Razorpay order for a contract
+     * Create a Razorpay order for a contract, or return the contract's open one.
+     * <p>
+     * An unpaid CREATED order for the same contract and amount, younger than
+     * {@code open-order-ttl}, is returned as is. Concurrent requests for one
+     * contract on this node are coalesced: the first does the work, the others
+     * wait for and return its order, so repeated "Pay" clicks reaching the same
+     * node make at most one gateway call. Requests spread over several nodes may
+     * each create an order; only the one that is paid is captured.
+     * <p>
+     * No database connection is held during the Razorpay call: the payment is first
+     * reserved as PENDING_ORDER in its own short transaction, the order is created
+     * with the payment ID as its receipt, and a second short transaction attaches
+     * the order. If the process dies in between, {@link RazorpayOrderReconciler}
+     * finds the order by receipt and attaches it, or fails the reservation.
      */
-    @Transactional
     public RazorpayPayment createPaymentOrder(UUID contractId, String payerIpAddress, String payerUserAgent) 
             throws RazorpayException {
-        
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new IllegalArgumentException("Contract not found"));
 
-        // Validate contract status
-        if (!"ACTIVE".equals(contract.getStatus().name()) && !"SIGNED".equals(contract.getStatus().name())) {
-            throw new IllegalStateException("Contract must be ACTIVE or SIGNED to create payment");
+        CompletableFuture<UUID> order = new CompletableFuture<>();
+        CompletableFuture<UUID> inFlight = ordersInFlight.putIfAbsent(contractId, order);
+        if (inFlight != null) {
+            return awaitOrder(inFlight);
         }
+        try {
+            RazorpayPayment payment = openOrCreateOrder(contractId, payerIpAddress, payerUserAgent);
+            order.complete(payment.getId());
+            return payment;
+        } catch (RazorpayException | RuntimeException e) {
+            order.completeExceptionally(e);
+            throw e;
+        } finally {
+            ordersInFlight.remove(contractId, order);
+        }
+    }
 
-        // Calculate amount in paise (Razorpay requires smallest currency unit)
-        BigDecimal amountInRupees = contract.getPrincipalAmount();
-        int amountInPaise = amountInRupees.multiply(new BigDecimal("100")).intValue();
+    private RazorpayPayment awaitOrder(CompletableFuture<UUID> inFlight) throws RazorpayException {
+        UUID paymentId;
+        try {
+            paymentId = inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for payment order", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RazorpayException razorpayException) {
+                throw razorpayException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Payment order creation failed", e.getCause());
+        }
+        return razorpayPaymentRepository.findById(paymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Payment order not found"));
+    }
+
+    private RazorpayPayment openOrCreateOrder(UUID contractId, String payerIpAddress, String payerUserAgent)
+            throws RazorpayException {
 
-        // Create Razorpay order
         JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amountInPaise);
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", "contract_" + contractId.toString());
-        
-        JSONObject notes = new JSONObject();
-        notes.put("contract_id", contractId.toString());
-        notes.put("merchant_id", contract.getMerchant().getId().toString());
-        notes.put("payer_id", contract.getPayer().getId().toString());
-        orderRequest.put("notes", notes);
+        RazorpayPayment reserved = transactionTemplate.execute(status -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new IllegalArgumentException("Contract not found"));
 
-        Order razorpayOrder = razorpayClient.orders.create(orderRequest);
-        
-        logger.info("Created Razorpay order: {} for contract: {}", 
-                    razorpayOrder.get("id"), contractId);
-
-        // Create payment record
-        RazorpayPayment payment = new RazorpayPayment();
-        payment.setContract(contract);
-        payment.setPayer(contract.getPayer());
-        payment.setMerchant(contract.getMerchant());
-        payment.setRazorpayOrderId(razorpayOrder.get("id"));
-        payment.setAmount(amountInRupees);
-        payment.setCurrency("INR");
-        payment.setStatus(RazorpayPayment.PaymentStatus.CREATED);
-        payment.setPayerIpAddress(payerIpAddress);
-        payment.setPayerUserAgent(payerUserAgent);
-
-        return razorpayPaymentRepository.save(payment);
+            // Validate contract status
+            if (!"ACTIVE".equals(contract.getStatus().name()) && !"SIGNED".equals(contract.getStatus().name())) {
+                throw new IllegalStateException("Contract must be ACTIVE or SIGNED to create payment");
+            }
+
+            // Calculate amount in paise (Razorpay requires smallest currency unit)
+            BigDecimal amountInRupees = contract.getPrincipalAmount();
+            int amountInPaise = amountInRupees.multiply(new BigDecimal("100")).intValue();
+
+            RazorpayPayment open = findOpenOrder(contractId, amountInRupees);
+            if (open != null) {
+                return open;
+            }
+
+            RazorpayPayment payment = new RazorpayPayment();
+            payment.setContract(contract);
+            payment.setPayer(contract.getPayer());
+            payment.setMerchant(contract.getMerchant());
+            payment.setAmount(amountInRupees);
+            payment.setCurrency("INR");
+            payment.setStatus(RazorpayPayment.PaymentStatus.PENDING_ORDER);
+            payment.setPayerIpAddress(payerIpAddress);
+            payment.setPayerUserAgent(payerUserAgent);
+            payment = razorpayPaymentRepository.save(payment);
+
+            orderRequest.put("amount", amountInPaise);
+            orderRequest.put("currency", "INR");
+            orderRequest.put("receipt", payment.getId().toString());
+
+            JSONObject notes = new JSONObject();
+            notes.put("contract_id", contractId.toString());
+            notes.put("merchant_id", contract.getMerchant().getId().toString());
+            notes.put("payer_id", contract.getPayer().getId().toString());
+            orderRequest.put("notes", notes);
+            return payment;
+        });
+        if (reserved.getStatus() == RazorpayPayment.PaymentStatus.CREATED) {
+            logger.info("Reusing open Razorpay order: {} for contract: {}", reserved.getRazorpayOrderId(), contractId);
+            return reserved;
+        }
+        UUID paymentId = reserved.getId();
+
+        // Create Razorpay order - outside any transaction
+        String orderId;
+        try {
+            orderId = orderGateway.createOrder(orderRequest);
+        } catch (RazorpayException | RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> razorpayPaymentRepository.failPendingOrder(
+                    paymentId, "ORDER_CREATE_FAILED", e.getMessage(), Instant.now()));
+            throw e;
+        }
+
+        logger.info("Created Razorpay order: {} for contract: {}", orderId, contractId);
+
+        RazorpayPayment created = transactionTemplate.execute(status -> {
+            if (razorpayPaymentRepository.attachOrder(paymentId, orderId) == 0) {
+                throw new IllegalStateException("Payment order " + paymentId + " expired before Razorpay responded");
+            }
+            return razorpayPaymentRepository.findById(paymentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Payment order not found"));
+        });
+        openOrders.put(openOrderKey(contractId, created.getAmount()), paymentId);
+        return created;
+    }
+
+    /**
+     * The contract's newest unpaid order for this amount that is still valid, if any
+     */
+    private RazorpayPayment findOpenOrder(UUID contractId, BigDecimal amount) {
+        String key = openOrderKey(contractId, amount);
+        Instant validFrom = Instant.now().minus(openOrderTtl);
+        UUID cached = openOrders.getIfPresent(key);
+        if (cached != null) {
+            RazorpayPayment payment = razorpayPaymentRepository.findById(cached).orElse(null);
+            if (payment != null && payment.getStatus() == RazorpayPayment.PaymentStatus.CREATED
+                    && payment.getCreatedAt().isAfter(validFrom)) {
+                return payment;
+            }
+            openOrders.invalidate(key);
+        }
+        List<RazorpayPayment> open = razorpayPaymentRepository.findOpenOrders(
+                contractId, amount, validFrom, Limit.of(1));
+        if (open.isEmpty()) {
+            return null;
+        }
+        openOrders.put(key, open.get(0).getId());
+        return open.get(0);
+    }
+
+    private static String openOrderKey(UUID contractId, BigDecimal amount) {
+        return contractId + ":" + amount.stripTrailingZeros().toPlainString();
     }
 
     /**
      * Verify payment signature from Razorpay
      */
     public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
-        try {
-            String payload = orderId + "|" + paymentId;
-            
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                razorpayKeySecret.getBytes(StandardCharsets.UTF_8), 
-                "HmacSHA256"
-            );
-            mac.init(secretKeySpec);
-            
-            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String generatedSignature = HexFormat.of().formatHex(hash);
-            
-            boolean isValid = generatedSignature.equals(signature);
-            
-            logger.info("Payment signature verification for order {}: {}", orderId, isValid);
-            
-            return isValid;
-            
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            logger.error("Error verifying payment signature", e);
-            return false;
-        }
+        boolean isValid = signatureVerifier.verify(orderId, paymentId, signature);
+        logger.info("Payment signature verification for order {}: {}", orderId, isValid);
+        return isValid;
     }
 
     /**
-     * Update payment status after verification
+     * Update payment status after verification.
+     * Payment and contract are updated with conditional/in-place UPDATEs rather
+     * than load-modify-save, so concurrent confirmations and webhooks for the same
+     * contract cannot overwrite each other.
      */
     @Transactional
     public RazorpayPayment capturePayment(String orderId, String paymentId, String signature, 
@@ -141,51 +272,70 @@ public class PaymentService {
 
         // Verify signature
         if (!verifyPaymentSignature(orderId, paymentId, signature)) {
-            payment.setStatus(RazorpayPayment.PaymentStatus.FAILED);
-            payment.setFailedAt(Instant.now());
-            payment.setErrorCode("SIGNATURE_VERIFICATION_FAILED");
-            payment.setErrorDescription("Payment signature verification failed");
-            razorpayPaymentRepository.save(payment);
+            razorpayPaymentRepository.markFailed(payment.getId(), "SIGNATURE_VERIFICATION_FAILED",
+                    "Payment signature verification failed", Instant.now());
             
             logger.error("Payment signature verification failed for order: {}", orderId);
             throw new SecurityException("Payment signature verification failed");
         }
 
-        // Update payment
-        payment.setRazorpayPaymentId(paymentId);
-        payment.setRazorpaySignature(signature);
-        payment.setPaymentMethod(paymentMethod);
-        payment.setStatus(RazorpayPayment.PaymentStatus.CAPTURED);
-        payment.setCapturedAt(Instant.now());
-        
-        RazorpayPayment savedPayment = razorpayPaymentRepository.save(payment);
+        return applyCapture(payment, orderId, paymentId, signature, paymentMethod);
+    }
+
+    /**
+     * Capture reported by a (signature-verified) webhook. Unknown orders are
+     * ignored, and a capture already confirmed by the client is left as is.
+     */
+    @Transactional
+    public void handleCapturedPayment(String orderId, String paymentId, String paymentMethod) {
+        razorpayPaymentRepository.findByRazorpayOrderId(orderId).ifPresentOrElse(
+                payment -> applyCapture(payment, orderId, paymentId, null, paymentMethod),
+                () -> logger.warn("Ignoring capture event for unknown order: {}", orderId));
+    }
+
+    private RazorpayPayment applyCapture(RazorpayPayment payment, String orderId, String paymentId,
+                                         String signature, String paymentMethod) {
+        UUID contractId = payment.getContract().getId();
+        UUID payerId = payment.getPayer().getId();
+        UUID merchantId = payment.getMerchant().getId();
+
+        Instant now = Instant.now();
+        boolean captured = razorpayPaymentRepository.markCaptured(
+                payment.getId(), paymentId, signature, paymentMethod, now) == 1;
+        RazorpayPayment savedPayment = razorpayPaymentRepository.findById(payment.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Payment order not found"));
+
+        if (!captured) {
+            logger.info("Payment for order {} is {}, ignoring confirmation", orderId, savedPayment.getStatus());
+            return savedPayment;
+        }
 
-        // Update contract status
-        Contract contract = payment.getContract();
-        contract.setPaymentStatus("PAID");
-        contract.setTotalPaidAmount(payment.getAmount());
-        contract.setLastPaymentAt(Instant.now());
-        contractRepository.save(contract);
+        // Update contract totals in place
+        contractRepository.applyPayment(contractId, savedPayment.getAmount(), now);
+        merchantStatsService.paymentCollected(merchantId, savedPayment.getAmount());
+        contractCache.evict(contractId);
+        openOrders.invalidate(openOrderKey(contractId, savedPayment.getAmount()));
+        eventHub.publishAfterCommit(ContractEvent.paymentCaptured(contractId, merchantId, savedPayment.getAmount()));
 
         logger.info("Payment captured successfully: {} for contract: {}", 
-                    paymentId, contract.getId());
+                    paymentId, contractId);
         
         // Log payment to blockchain
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("paymentId", savedPayment.getId().toString());
         metadata.put("razorpayPaymentId", paymentId);
         metadata.put("razorpayOrderId", orderId);
-        metadata.put("contractId", contract.getId().toString());
-        metadata.put("amount", payment.getAmount().toString());
-        metadata.put("currency", payment.getCurrency());
+        metadata.put("contractId", contractId.toString());
+        metadata.put("amount", savedPayment.getAmount().toString());
+        metadata.put("currency", savedPayment.getCurrency());
         metadata.put("paymentMethod", paymentMethod);
         metadata.put("status", "CAPTURED");
         
         blockchainService.logEventAsync(
             EventType.PAYMENT_COMPLETED,
-            contract.getId(),
+            contractId,
             "Payment",
-            contract.getPayer().getId(),
+            payerId,
             metadata
         );
 
@@ -199,20 +349,24 @@ public class PaymentService {
     public void handleFailedPayment(String orderId, String errorCode, String errorDescription) {
         
         razorpayPaymentRepository.findByRazorpayOrderId(orderId).ifPresent(payment -> {
-            payment.setStatus(RazorpayPayment.PaymentStatus.FAILED);
-            payment.setFailedAt(Instant.now());
-            payment.setErrorCode(errorCode);
-            payment.setErrorDescription(errorDescription);
-            razorpayPaymentRepository.save(payment);
+            UUID contractId = payment.getContract().getId();
+            UUID payerId = payment.getPayer().getId();
+            if (razorpayPaymentRepository.markFailed(payment.getId(), errorCode, errorDescription, Instant.now()) == 0) {
+                logger.warn("Ignoring failure event for already resolved order: {}", orderId);
+                return;
+            }
             
+            openOrders.invalidate(openOrderKey(contractId, payment.getAmount()));
             logger.warn("Payment failed for order: {} - Code: {}, Description: {}", 
                         orderId, errorCode, errorDescription);
+            eventHub.publishAfterCommit(ContractEvent.paymentFailed(
+                    contractId, payment.getMerchant().getId(), payment.getAmount()));
             
             // Log failure to blockchain
             Map<String, Object> metadata = new HashMap<>();
             metadata.put("paymentId", payment.getId().toString());
             metadata.put("razorpayOrderId", orderId);
-            metadata.put("contractId", payment.getContract().getId().toString());
+            metadata.put("contractId", contractId.toString());
             metadata.put("amount", payment.getAmount().toString());
             metadata.put("errorCode", errorCode);
             metadata.put("errorDescription", errorDescription);
@@ -220,9 +374,9 @@ public class PaymentService {
             
             blockchainService.logEventAsync(
                 EventType.PAYMENT_FAILED,
-                payment.getContract().getId(),
+                contractId,
                 "Payment",
-                payment.getPayer().getId(),
+                payerId,
                 metadata
             );
         });
@@ -0,0 +1,40 @@
+package com.legalpay.services;
+
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link RazorpayOrderGateway} backed by the Razorpay Java SDK (the default;
+ * see {@link RazorpayWebClientGateway} for the non-blocking client)
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.razorpay.client", havingValue = "sdk", matchIfMissing = true)
+public class RazorpayClientOrderGateway implements RazorpayOrderGateway {
+
+    private final RazorpayClient razorpayClient;
+
+    public RazorpayClientOrderGateway(RazorpayClient razorpayClient) {
+        this.razorpayClient = razorpayClient;
+    }
+
+    @Override
+    public String createOrder(JSONObject orderRequest) throws RazorpayException {
+        Order order = razorpayClient.orders.create(orderRequest);
+        return order.get("id");
+    }
+
+    @Override
+    public Optional<String> findOrderIdByReceipt(String receipt) throws RazorpayException {
+        JSONObject query = new JSONObject();
+        query.put("receipt", receipt);
+        List<Order> orders = razorpayClient.orders.fetchAll(query);
+        return orders.isEmpty() ? Optional.empty() : Optional.of(orders.get(0).get("id"));
+    }
+}
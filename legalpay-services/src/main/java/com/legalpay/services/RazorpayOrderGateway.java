@@ -0,0 +1,24 @@
+package com.legalpay.services;
+
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+
+import java.util.Optional;
+
+/**
+ * Razorpay Orders API as used by {@link PaymentService}
+ */
+public interface RazorpayOrderGateway {
+
+    /**
+     * Create an order
+     *
+     * @return the Razorpay order ID
+     */
+    String createOrder(JSONObject orderRequest) throws RazorpayException;
+
+    /**
+     * Look up the order created with {@code receipt}, if any
+     */
+    Optional<String> findOrderIdByReceipt(String receipt) throws RazorpayException;
+}
@@ -0,0 +1,109 @@
+package com.legalpay.services;
+
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.razorpay.RazorpayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves payment reservations left in PENDING_ORDER by a process that died
+ * between reserving the payment and attaching its Razorpay order. The order, if
+ * Razorpay created it, is found by its receipt (the payment ID) and attached;
+ * otherwise the reservation is failed. Both updates are guarded by
+ * PENDING_ORDER, so racing a late request is harmless. One node at a time via
+ * scheduler_locks.
+ */
+@Component
+public class RazorpayOrderReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(RazorpayOrderReconciler.class);
+
+    static final String LOCK_NAME = "razorpay-order-reconcile";
+
+    private final RazorpayPaymentRepository razorpayPaymentRepository;
+    private final RazorpayOrderGateway orderGateway;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration staleAfter;
+    private final int batchSize;
+    private final Duration lockLease;
+
+    public RazorpayOrderReconciler(RazorpayPaymentRepository razorpayPaymentRepository,
+                                   RazorpayOrderGateway orderGateway,
+                                   SchedulerLockService lockService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${legalpay.payments.order-reconcile.stale-after:PT5M}") Duration staleAfter,
+                                   @Value("${legalpay.payments.order-reconcile.batch-size:100}") int batchSize,
+                                   @Value("${legalpay.payments.order-reconcile.lock-lease:PT5M}") Duration lockLease) {
+        this.razorpayPaymentRepository = razorpayPaymentRepository;
+        this.orderGateway = orderGateway;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.staleAfter = staleAfter;
+        this.batchSize = batchSize;
+        this.lockLease = lockLease;
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.payments.order-reconcile.interval:PT1M}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * @return number of reservations resolved, or -1 if another node holds the lock
+     */
+    public int reconcile() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            return -1;
+        }
+        int resolved = 0;
+        try {
+            List<UUID> stale = razorpayPaymentRepository.findPendingOrderIds(
+                    Instant.now().minus(staleAfter), Limit.of(batchSize));
+            for (UUID paymentId : stale) {
+                if (resolve(paymentId)) {
+                    resolved++;
+                }
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+        if (resolved > 0) {
+            log.info("Resolved {} pending Razorpay order reservations", resolved);
+        }
+        return resolved;
+    }
+
+    private boolean resolve(UUID paymentId) {
+        Optional<String> orderId;
+        try {
+            orderId = orderGateway.findOrderIdByReceipt(paymentId.toString());
+        } catch (RazorpayException | RuntimeException e) {
+            log.warn("Could not look up Razorpay order for payment {}: {}", paymentId, e.getMessage());
+            return false;
+        }
+        Integer updated = transactionTemplate.execute(status -> orderId.isPresent()
+                ? razorpayPaymentRepository.attachOrder(paymentId, orderId.get())
+                : razorpayPaymentRepository.failPendingOrder(paymentId, "ORDER_NOT_CREATED",
+                        "Razorpay order was not created", Instant.now()));
+        if (updated != null && updated == 1) {
+            log.info("Payment {} reconciled: {}", paymentId,
+                    orderId.map(id -> "attached order " + id).orElse("no order, failed"));
+            return true;
+        }
+        return false;
+    }
+}
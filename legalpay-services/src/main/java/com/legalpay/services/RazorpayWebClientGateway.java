@@ -0,0 +1,248 @@
+package com.legalpay.services;
+
+import com.razorpay.RazorpayException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link RazorpayOrderGateway} over Razorpay's REST API on a non-blocking
+ * {@link WebClient}, selected with {@code legalpay.razorpay.client=webclient}.
+ * <p>
+ * All calls share one Reactor Netty connection pool sized for the gateway's
+ * rate limit, so a burst of payments reuses warm TLS connections instead of
+ * opening one per request, and callers queue (up to a bound) for a connection
+ * rather than piling up sockets. Each operation has its own timeout and is
+ * recorded as a {@code legalpay.razorpay.requests} observation tagged with the
+ * operation and outcome; the pool publishes Reactor Netty's connection gauges.
+ * The reactive methods never block; the {@link RazorpayOrderGateway} methods
+ * wait for the result for callers that are themselves blocking.
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.razorpay.client", havingValue = "webclient")
+public class RazorpayWebClientGateway implements RazorpayOrderGateway {
+
+    static final String METRIC = "legalpay.razorpay.requests";
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final ObservationRegistry observationRegistry;
+    private final Duration orderTimeout;
+    private final Duration fetchTimeout;
+    private final Duration refundTimeout;
+
+    @Autowired
+    public RazorpayWebClientGateway(ObjectProvider<ObservationRegistry> observationRegistry,
+                                    @Value("${razorpay.key-id}") String keyId,
+                                    @Value("${razorpay.key-secret}") String keySecret,
+                                    @Value("${legalpay.razorpay.http.base-url:https://api.razorpay.com/v1}") String baseUrl,
+                                    @Value("${legalpay.razorpay.http.max-connections:50}") int maxConnections,
+                                    @Value("${legalpay.razorpay.http.pending-acquire-max:500}") int pendingAcquireMax,
+                                    @Value("${legalpay.razorpay.http.pending-acquire-timeout:PT2S}") Duration pendingAcquireTimeout,
+                                    @Value("${legalpay.razorpay.http.max-idle-time:PT30S}") Duration maxIdleTime,
+                                    @Value("${legalpay.razorpay.http.connect-timeout:PT2S}") Duration connectTimeout,
+                                    @Value("${legalpay.razorpay.http.order-timeout:PT5S}") Duration orderTimeout,
+                                    @Value("${legalpay.razorpay.http.fetch-timeout:PT3S}") Duration fetchTimeout,
+                                    @Value("${legalpay.razorpay.http.refund-timeout:PT10S}") Duration refundTimeout) {
+        this(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP), keyId, keySecret, baseUrl,
+                ConnectionProvider.builder("razorpay")
+                        .maxConnections(maxConnections)
+                        .pendingAcquireMaxCount(pendingAcquireMax)
+                        .pendingAcquireTimeout(pendingAcquireTimeout)
+                        .maxIdleTime(maxIdleTime)
+                        .evictInBackground(maxIdleTime)
+                        .metrics(true)
+                        .build(),
+                connectTimeout, orderTimeout, fetchTimeout, refundTimeout);
+    }
+
+    RazorpayWebClientGateway(ObservationRegistry observationRegistry, String keyId, String keySecret, String baseUrl,
+                             ConnectionProvider connectionProvider, Duration connectTimeout,
+                             Duration orderTimeout, Duration fetchTimeout, Duration refundTimeout) {
+        this.connectionProvider = connectionProvider;
+        this.observationRegistry = observationRegistry;
+        this.orderTimeout = orderTimeout;
+        this.fetchTimeout = fetchTimeout;
+        this.refundTimeout = refundTimeout;
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .keepAlive(true)
+                .compress(true);
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(headers -> headers.setBasicAuth(keyId, keySecret))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Create an order
+     *
+     * @return the Razorpay order ID
+     */
+    public Mono<String> createOrderAsync(JSONObject orderRequest) {
+        return observe("create_order", orderTimeout, webClient.post()
+                .uri("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(orderRequest.toString())
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(body -> new JSONObject(body).getString("id")));
+    }
+
+    /**
+     * Look up the order created with {@code receipt}; empty if there is none
+     */
+    public Mono<String> findOrderIdByReceiptAsync(String receipt) {
+        return observe("find_order", fetchTimeout, webClient.get()
+                .uri(uri -> uri.path("/orders").queryParam("receipt", receipt).build())
+                .retrieve()
+                .bodyToMono(String.class)
+                .flatMap(body -> {
+                    JSONArray items = new JSONObject(body).optJSONArray("items");
+                    return items == null || items.length() == 0
+                            ? Mono.empty()
+                            : Mono.just(items.getJSONObject(0).getString("id"));
+                }));
+    }
+
+    /**
+     * Fetch a payment entity (status, method, amount, ...)
+     */
+    public Mono<JSONObject> fetchPayment(String paymentId) {
+        return observe("fetch_payment", fetchTimeout, webClient.get()
+                .uri("/payments/{id}", paymentId)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(JSONObject::new));
+    }
+
+    /**
+     * Refund {@code amountPaise} of a captured payment
+     *
+     * @param receipt our reference for the refund; Razorpay echoes it back
+     * @return the refund entity
+     */
+    public Mono<JSONObject> refund(String paymentId, long amountPaise, String receipt) {
+        JSONObject request = new JSONObject();
+        request.put("amount", amountPaise);
+        if (receipt != null) {
+            request.put("receipt", receipt);
+        }
+        return observe("refund", refundTimeout, webClient.post()
+                .uri("/payments/{id}/refund", paymentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request.toString())
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(JSONObject::new));
+    }
+
+    @Override
+    public String createOrder(JSONObject orderRequest) throws RazorpayException {
+        return await(createOrderAsync(orderRequest));
+    }
+
+    @Override
+    public Optional<String> findOrderIdByReceipt(String receipt) throws RazorpayException {
+        return Optional.ofNullable(await(findOrderIdByReceiptAsync(receipt)));
+    }
+
+    /**
+     * Applies the call's timeout and records it; the observation covers time
+     * spent waiting for a pooled connection as well as the exchange itself
+     */
+    private <T> Mono<T> observe(String operation, Duration timeout, Mono<T> call) {
+        return Mono.defer(() -> {
+            Observation observation = Observation.createNotStarted(METRIC, observationRegistry)
+                    .lowCardinalityKeyValue("operation", operation)
+                    .start();
+            return call.timeout(timeout)
+                    .doOnError(observation::error)
+                    .doFinally(signal -> {
+                        observation.lowCardinalityKeyValue("outcome", outcome(signal, observation));
+                        observation.stop();
+                    });
+        });
+    }
+
+    private static String outcome(SignalType signal, Observation observation) {
+        if (signal == SignalType.CANCEL) {
+            return "cancelled";
+        }
+        Throwable error = observation.getContext().getError();
+        if (error == null) {
+            return "success";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return "io_error";
+    }
+
+    /**
+     * Blocking bridge: failures surface as {@link RazorpayException}, as they do from the SDK
+     */
+    private static <T> T await(Mono<T> call) throws RazorpayException {
+        try {
+            return call.block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof WebClientResponseException response) {
+                throw new RazorpayException(response.getStatusCode().value() + ": " + describe(response));
+            }
+            if (cause instanceof TimeoutException) {
+                throw new RazorpayException("Razorpay request timed out");
+            }
+            throw new RazorpayException(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        }
+    }
+
+    /**
+     * Razorpay's {@code error.description}, or the raw body if it is not the usual shape
+     */
+    private static String describe(WebClientResponseException response) {
+        String body = response.getResponseBodyAsString();
+        try {
+            JSONObject error = new JSONObject(body).optJSONObject("error");
+            if (error != null && error.has("description")) {
+                return error.getString("description");
+            }
+        } catch (RuntimeException e) {
+            // Not JSON
+        }
+        return body.isEmpty() ? response.getStatusText() : body;
+    }
+}
@@ -0,0 +1,330 @@
+package com.legalpay.services.accrual;
+
+import com.legalpay.domain.repository.InterestAccrualRepository;
+import com.legalpay.services.lock.SchedulerLockService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accrues one day of simple interest on every ACTIVE contract into the
+ * interest_accruals ledger.
+ * <p>
+ * The contract ID space is split into {@code parallelism} ranges, each read by
+ * its own worker through a forward-only cursor (fetch size = batch size) in a
+ * read-only transaction. Interest is computed in fixed-point paise and written
+ * with JDBC batch inserts, each batch committed in its own transaction.
+ * Contracts already accrued for the day are excluded by the query and guarded by
+ * the (contract_id, accrual_date) unique key, so a rerun - including one
+ * resuming a failed run - only fills the gaps. One node at a time via
+ * scheduler_locks.
+ * <p>
+ * Each worker holds two connections (the cursor and its batch writer), so the
+ * worker count is capped at a quarter of the connection pool, leaving half of
+ * it to the rest of the application. The nightly run also catches up on days
+ * missed while the job was not running, up to {@code max-catch-up-days}.
+ */
+@Component
+public class InterestAccrualJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    static final String LOCK_NAME = "interest-accrual";
+    static final int DAYS_IN_YEAR = 365;
+    private static final long BPS_DAY_DIVISOR = 10_000L * DAYS_IN_YEAR;
+
+    private static final String SELECT_ACCRUABLE =
+            "SELECT c.id, c.principal_amount, c.total_paid_amount, c.interest_rate FROM contracts c " +
+            "WHERE c.status = 'ACTIVE' AND c.start_date <= ? AND c.interest_rate > 0 AND c.id >= ? %s" +
+            "AND NOT EXISTS (SELECT 1 FROM interest_accruals a WHERE a.contract_id = c.id AND a.accrual_date = ?)";
+    private static final String INSERT_ACCRUAL =
+            "INSERT INTO interest_accruals (id, contract_id, accrual_date, outstanding_paise, rate_bps, " +
+            "amount_paise, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate cursorTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final InterestAccrualRepository accrualRepository;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration lockLease;
+    private final int maxCatchUpDays;
+    private volatile Boolean postgres;
+
+    public InterestAccrualJob(DataSource dataSource,
+                              JdbcTemplate jdbcTemplate,
+                              InterestAccrualRepository accrualRepository,
+                              SchedulerLockService lockService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${legalpay.accrual.parallelism:4}") int parallelism,
+                              @Value("${legalpay.accrual.batch-size:2000}") int batchSize,
+                              @Value("${legalpay.accrual.lock-lease:PT30M}") Duration lockLease,
+                              @Value("${legalpay.accrual.max-catch-up-days:31}") int maxCatchUpDays,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(batchSize);
+        this.accrualRepository = accrualRepository;
+        this.lockService = lockService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.parallelism = effectiveParallelism(parallelism, connectionPoolSize);
+        if (this.parallelism < parallelism) {
+            log.warn("Interest accrual parallelism capped at {} (configured {}) for a pool of {} connections",
+                    this.parallelism, parallelism, connectionPoolSize);
+        }
+        this.batchSize = batchSize;
+        this.lockLease = lockLease;
+        this.maxCatchUpDays = Math.max(1, maxCatchUpDays);
+        this.executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "interest-accrual");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Accrue for the day that just ended, and any days missed before it
+     */
+    @Scheduled(cron = "${legalpay.accrual.cron:0 15 0 * * *}")
+    public void scheduledAccrual() {
+        accrueThrough(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Accrue every day from the latest one in the ledger through {@code through}.
+     * The latest day is included again in case its run did not finish; a day
+     * that is already complete costs one scan and writes nothing.
+     *
+     * @return number of accrual rows written, or -1 if another node holds the lock
+     */
+    public long accrueThrough(LocalDate through) {
+        LocalDate latest = accrualRepository.findLatestAccrualDate().orElse(null);
+        LocalDate from = catchUpFrom(latest, through, maxCatchUpDays);
+        if (latest != null && from.isAfter(latest.plusDays(1))) {
+            log.warn("Interest accrual missed {} to {}; only the last {} days are caught up",
+                    latest.plusDays(1), from.minusDays(1), maxCatchUpDays);
+        }
+        long total = 0;
+        for (LocalDate day = from; !day.isAfter(through); day = day.plusDays(1)) {
+            long written = accrue(day);
+            if (written < 0) {
+                return total > 0 ? total : -1;
+            }
+            total += written;
+        }
+        return total;
+    }
+
+    /**
+     * Accrue one day of interest
+     *
+     * @return number of accrual rows written, or -1 if another node holds the lock
+     */
+    public long accrue(LocalDate accrualDate) {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Interest accrual skipped: lock held by another node");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        AtomicLong written = new AtomicLong();
+        AtomicBoolean lockLost = new AtomicBoolean();
+        try {
+            List<Future<?>> partitions = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                UUID lower = partitionBound(i, parallelism);
+                UUID upper = i + 1 < parallelism ? partitionBound(i + 1, parallelism) : null;
+                partitions.add(executor.submit(() -> accruePartition(accrualDate, lower, upper, written, lockLost)));
+            }
+            for (Future<?> partition : partitions) {
+                try {
+                    partition.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    log.error("Interest accrual partition failed for {}", accrualDate, e.getCause());
+                }
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+        log.info("Interest accrual for {}: rows={} total={} took={}ms", accrualDate, written.get(),
+                accrualRepository.countByAccrualDate(accrualDate), System.currentTimeMillis() - started);
+        return written.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void accruePartition(LocalDate accrualDate, UUID lower, UUID upper,
+                                 AtomicLong written, AtomicBoolean lockLost) {
+        String sql = String.format(SELECT_ACCRUABLE, upper != null ? "AND c.id < ? " : "");
+        Date day = Date.valueOf(accrualDate);
+        readTransaction.executeWithoutResult(status -> {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            cursorTemplate.query(sql, ps -> {
+                int i = 1;
+                ps.setDate(i++, day);
+                ps.setObject(i++, lower);
+                if (upper != null) {
+                    ps.setObject(i++, upper);
+                }
+                ps.setDate(i, day);
+            }, (RowCallbackHandler) rs -> {
+                Object[] row = toAccrualRow(rs, day);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() >= batchSize) {
+                    flush(batch, written, lockLost);
+                }
+            });
+            flush(batch, written, lockLost);
+        });
+    }
+
+    private Object[] toAccrualRow(ResultSet rs, Date day) throws SQLException {
+        long outstanding = toPaise(rs.getBigDecimal(2)) - toPaise(rs.getBigDecimal(3));
+        int rateBps = rs.getBigDecimal(4).movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        long amount = dailyInterestPaise(outstanding, rateBps);
+        if (amount <= 0) {
+            return null;
+        }
+        return new Object[] { UUID.randomUUID(), rs.getObject(1, UUID.class), day, outstanding, rateBps, amount, null };
+    }
+
+    private void flush(List<Object[]> batch, AtomicLong written, AtomicBoolean lockLost) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (lockLost.get() || !lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            lockLost.set(true);
+            throw new IllegalStateException("Interest accrual lost its lock");
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Object[] row : batch) {
+            row[6] = now;
+        }
+        String sql = isPostgres()
+                ? INSERT_ACCRUAL + " ON CONFLICT (contract_id, accrual_date) DO NOTHING"
+                : INSERT_ACCRUAL;
+        int[][] counts = writeTransaction.execute(status -> jdbcTemplate.batchUpdate(sql, batch, batch.size(),
+                (PreparedStatement ps, Object[] row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                }));
+        long inserted = 0;
+        if (counts != null) {
+            for (int[] chunk : counts) {
+                for (int count : chunk) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches
+                    inserted += count == 0 ? 0 : 1;
+                }
+            }
+        }
+        written.addAndGet(inserted);
+        batch.clear();
+    }
+
+    /**
+     * One day of simple interest on {@code outstandingPaise} at an annual rate of
+     * {@code rateBps} basis points, rounded half-up to the paisa. Exact integer
+     * arithmetic; falls back to BigInteger only if the product overflows a long.
+     */
+    static long dailyInterestPaise(long outstandingPaise, int rateBps) {
+        if (outstandingPaise <= 0 || rateBps <= 0) {
+            return 0;
+        }
+        try {
+            long product = Math.multiplyExact(outstandingPaise, (long) rateBps);
+            return Math.addExact(product, BPS_DAY_DIVISOR / 2) / BPS_DAY_DIVISOR;
+        } catch (ArithmeticException e) {
+            return BigInteger.valueOf(outstandingPaise).multiply(BigInteger.valueOf(rateBps))
+                    .add(BigInteger.valueOf(BPS_DAY_DIVISOR / 2))
+                    .divide(BigInteger.valueOf(BPS_DAY_DIVISOR))
+                    .longValueExact();
+        }
+    }
+
+    /**
+     * Workers that fit in a quarter of the pool (two connections each, half the
+     * pool left for everything else), at least one
+     */
+    static int effectiveParallelism(int configured, int connectionPoolSize) {
+        return Math.max(1, Math.min(Math.min(configured, 256), connectionPoolSize / 4));
+    }
+
+    /**
+     * First day to accrue: the latest accrued day (re-checked), or {@code through}
+     * when nothing has been accrued yet, but no more than {@code maxDays} back
+     */
+    static LocalDate catchUpFrom(LocalDate latest, LocalDate through, int maxDays) {
+        LocalDate from = latest != null && latest.isBefore(through) ? latest : through;
+        LocalDate earliest = through.minusDays(maxDays - 1L);
+        return from.isBefore(earliest) ? earliest : from;
+    }
+
+    static long toPaise(BigDecimal rupees) {
+        return rupees != null ? rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+
+    /**
+     * Lower bound of partition {@code index}: the ID space split evenly on the
+     * leading byte, which both PostgreSQL and H2 order as unsigned
+     */
+    static UUID partitionBound(int index, int partitions) {
+        long leadingByte = (long) index * 256 / partitions;
+        return new UUID(leadingByte << 56, 0L);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+}
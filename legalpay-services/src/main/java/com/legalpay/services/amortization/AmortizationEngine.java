@@ -0,0 +1,143 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Amortization schedule engine for EMI contracts.
+ *
+ * The per-instalment loop runs entirely on long paise with HALF_UP rounding
+ * (see {@link Paise#mulDivHalfUp}); BigDecimal is only used once per schedule
+ * to derive the reducing-balance EMI, which needs a fractional power.
+ * Rounding residue is absorbed by the last instalment so principal always
+ * amortizes to exactly zero.
+ */
+@Component
+public class AmortizationEngine {
+
+    private static final MathContext EMI_PRECISION = MathContext.DECIMAL128;
+    private static final long BASIS_POINTS = 10_000L;
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    /**
+     * Build the schedule for a single contract
+     */
+    public AmortizationSchedule compute(ScheduleInput input) {
+        int n = input.getFrequency().installmentsBetween(input.getStartDate(), input.getEndDate());
+        if (n <= 0) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (input.getPrincipalPaise() <= 0) {
+            throw new IllegalArgumentException("Principal amount must be positive");
+        }
+        if (input.getRateBasisPoints() < 0) {
+            throw new IllegalArgumentException("Interest rate cannot be negative");
+        }
+
+        AmortizationSchedule schedule = new AmortizationSchedule(
+                input.getContractId(), input.getFrequency(), input.getStartDate(), n);
+        long periodDenominator = BASIS_POINTS * input.getFrequency().getPeriodsPerYear();
+
+        if (input.getMethod() == Contract.InterestMethod.FLAT_RATE) {
+            fillFlatRate(schedule, input.getPrincipalPaise(), input.getRateBasisPoints(), periodDenominator, n);
+        } else {
+            long emi = emiPaise(input.getPrincipalPaise(), input.getRateBasisPoints(), periodDenominator, n);
+            fillReducingBalance(schedule, input.getPrincipalPaise(), input.getRateBasisPoints(), periodDenominator, emi, n);
+        }
+        return schedule;
+    }
+
+    /**
+     * Build schedules for many contracts in parallel on the common fork-join pool.
+     * Results are returned in input order.
+     */
+    public AmortizationSchedule[] computeAll(List<ScheduleInput> inputs) {
+        AmortizationSchedule[] results = new AmortizationSchedule[inputs.size()];
+        if (!inputs.isEmpty()) {
+            ForkJoinPool.commonPool().invoke(new ComputeTask(inputs, results, 0, inputs.size()));
+        }
+        return results;
+    }
+
+    /**
+     * Equated instalment for a reducing-balance loan, rounded half-up to the paisa:
+     * P * r * (1+r)^n / ((1+r)^n - 1), with r the per-period rate
+     */
+    static long emiPaise(long principal, long rateBasisPoints, long periodDenominator, int n) {
+        if (rateBasisPoints == 0) {
+            return Paise.mulDivHalfUp(principal, 1, n);
+        }
+        BigDecimal r = BigDecimal.valueOf(rateBasisPoints).divide(BigDecimal.valueOf(periodDenominator), EMI_PRECISION);
+        BigDecimal growth = BigDecimal.ONE.add(r).pow(n, EMI_PRECISION);
+        return BigDecimal.valueOf(principal)
+                .multiply(r, EMI_PRECISION)
+                .multiply(growth, EMI_PRECISION)
+                .divide(growth.subtract(BigDecimal.ONE), EMI_PRECISION)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static void fillReducingBalance(AmortizationSchedule s, long principal, long rateBasisPoints,
+                                            long periodDenominator, long emi, int n) {
+        long balance = principal;
+        for (int i = 0; i < n; i++) {
+            long interest = Paise.mulDivHalfUp(balance, rateBasisPoints, periodDenominator);
+            long principalPart = (i == n - 1) ? balance : Math.min(Math.max(emi - interest, 0), balance);
+            balance -= principalPart;
+            s.principal[i] = principalPart;
+            s.interest[i] = interest;
+            s.balance[i] = balance;
+        }
+    }
+
+    private static void fillFlatRate(AmortizationSchedule s, long principal, long rateBasisPoints,
+                                     long periodDenominator, int n) {
+        long totalInterest = Paise.mulDivHalfUp(principal, Math.multiplyExact(rateBasisPoints, n), periodDenominator);
+        long principalPart = principal / n;
+        long interestPart = totalInterest / n;
+        long balance = principal;
+        for (int i = 0; i < n; i++) {
+            boolean last = i == n - 1;
+            long p = last ? balance : principalPart;
+            long in = last ? totalInterest - interestPart * (n - 1) : interestPart;
+            balance -= p;
+            s.principal[i] = p;
+            s.interest[i] = in;
+            s.balance[i] = balance;
+        }
+    }
+
+    private final class ComputeTask extends RecursiveAction {
+        private final List<ScheduleInput> inputs;
+        private final AmortizationSchedule[] results;
+        private final int from;
+        private final int to;
+
+        ComputeTask(List<ScheduleInput> inputs, AmortizationSchedule[] results, int from, int to) {
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = AmortizationEngine.this.compute(inputs.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ComputeTask(inputs, results, from, mid),
+                      new ComputeTask(inputs, results, mid, to));
+        }
+    }
+}
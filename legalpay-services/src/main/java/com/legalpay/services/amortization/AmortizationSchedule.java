@@ -0,0 +1,60 @@
+package com.legalpay.services.amortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Computed instalment schedule held as parallel arrays of paise.
+ * Index 0 is instalment number 1.
+ */
+public final class AmortizationSchedule {
+
+    private final UUID contractId;
+    private final PaymentFrequency frequency;
+    private final LocalDate startDate;
+    final long[] principal;
+    final long[] interest;
+    final long[] balance;
+
+    AmortizationSchedule(UUID contractId, PaymentFrequency frequency, LocalDate startDate, int installments) {
+        this.contractId = contractId;
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.principal = new long[installments];
+        this.interest = new long[installments];
+        this.balance = new long[installments];
+    }
+
+    public UUID getContractId() { return contractId; }
+
+    public int size() { return principal.length; }
+
+    public LocalDate dueDate(int index) { return frequency.dueDate(startDate, index + 1); }
+
+    public long principalPaise(int index) { return principal[index]; }
+
+    public long interestPaise(int index) { return interest[index]; }
+
+    public long amountPaise(int index) { return principal[index] + interest[index]; }
+
+    /**
+     * Principal still outstanding after the instalment at index is paid
+     */
+    public long balancePaise(int index) { return balance[index]; }
+
+    public long totalInterestPaise() {
+        long total = 0;
+        for (long i : interest) {
+            total += i;
+        }
+        return total;
+    }
+
+    /**
+     * Regular instalment amount (the EMI) in rupees
+     */
+    public BigDecimal installmentAmount() {
+        return Paise.toRupees(amountPaise(0));
+    }
+}
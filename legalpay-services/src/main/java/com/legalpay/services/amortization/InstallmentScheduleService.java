@@ -0,0 +1,170 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.services.cache.ContractCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persists amortization schedules and regenerates them in bulk
+ */
+@Service
+public class InstallmentScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(InstallmentScheduleService.class);
+
+    static final int RECOMPUTE_CHUNK_SIZE = 500;
+
+    private static final String UPDATE_EMI_AMOUNT =
+            "UPDATE contracts SET emi_amount = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private final AmortizationEngine amortizationEngine;
+    private final InstallmentRepository installmentRepository;
+    private final ContractRepository contractRepository;
+    private final ContractCache contractCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public InstallmentScheduleService(AmortizationEngine amortizationEngine,
+                                      InstallmentRepository installmentRepository,
+                                      ContractRepository contractRepository,
+                                      ContractCache contractCache,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager) {
+        this.amortizationEngine = amortizationEngine;
+        this.installmentRepository = installmentRepository;
+        this.contractRepository = contractRepository;
+        this.contractCache = contractCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Write the schedule for a newly created contract
+     */
+    @Transactional
+    public List<Installment> saveSchedule(Contract contract, AmortizationSchedule schedule) {
+        return installmentRepository.saveAll(toInstallments(contract, schedule, Map.of()));
+    }
+
+    /**
+     * Get the persisted schedule for a contract, in instalment order
+     */
+    public List<Installment> getSchedule(UUID contractId) {
+        return installmentRepository.findByContractIdOrderByInstallmentNumberAsc(contractId);
+    }
+
+    /**
+     * Regenerate schedules for every EMI contract of a merchant.
+     *
+     * Contracts are read in keyset chunks, schedules for a chunk are computed in
+     * parallel on the fork-join pool, and each chunk is replaced in its own
+     * transaction so a large portfolio never holds one long-running transaction.
+     * Instalments already PAID, OVERDUE or WAIVED keep their status. Contracts
+     * whose terms cannot be scheduled (e.g. a missing or unknown frequency) are
+     * logged and skipped.
+     *
+     * @return number of contracts whose schedule was regenerated
+     */
+    public int recomputePortfolio(Merchant merchant) {
+        int recomputed = 0;
+        List<Contract> chunk = contractRepository.findFirstPageByMerchant(merchant, Limit.of(RECOMPUTE_CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            List<Contract> emiContracts = new ArrayList<>();
+            List<ScheduleInput> inputs = new ArrayList<>();
+            for (Contract contract : chunk) {
+                if (contract.getPaymentType() != Contract.PaymentType.EMI) {
+                    continue;
+                }
+                try {
+                    inputs.add(ScheduleInput.from(contract));
+                    emiContracts.add(contract);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping schedule recompute for contract {}: {}", contract.getId(), e.getMessage());
+                }
+            }
+
+            if (!emiContracts.isEmpty()) {
+                AmortizationSchedule[] schedules = amortizationEngine.computeAll(inputs);
+                transactionTemplate.executeWithoutResult(status -> replaceSchedules(emiContracts, schedules));
+                recomputed += emiContracts.size();
+            }
+
+            if (chunk.size() < RECOMPUTE_CHUNK_SIZE) {
+                break;
+            }
+            Contract last = chunk.get(chunk.size() - 1);
+            chunk = contractRepository.findPageByMerchantAfter(
+                    merchant, last.getCreatedAt(), last.getId(), Limit.of(RECOMPUTE_CHUNK_SIZE));
+        }
+
+        log.info("Recomputed {} schedules for merchant={}", recomputed, merchant.getId());
+        return recomputed;
+    }
+
+    private void replaceSchedules(List<Contract> contracts, AmortizationSchedule[] schedules) {
+        List<UUID> ids = contracts.stream().map(Contract::getId).toList();
+
+        Map<String, Installment.InstallmentStatus> settled = new HashMap<>();
+        for (Installment existing : installmentRepository.findByContractIdInAndStatusNot(
+                ids, Installment.InstallmentStatus.PENDING)) {
+            settled.put(key(existing.getContract().getId(), existing.getInstallmentNumber()), existing.getStatus());
+        }
+
+        installmentRepository.deleteByContractIds(ids);
+
+        // The chunk's contracts are detached snapshots; only the EMI column is written back
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Installment> rows = new ArrayList<>();
+        List<Object[]> emiUpdates = new ArrayList<>(contracts.size());
+        for (int i = 0; i < contracts.size(); i++) {
+            Contract contract = contracts.get(i);
+            emiUpdates.add(new Object[] { schedules[i].installmentAmount(), now, contract.getId() });
+            rows.addAll(toInstallments(contract, schedules[i], settled));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_EMI_AMOUNT, emiUpdates);
+        installmentRepository.saveAll(rows);
+        contractCache.evictAll(ids);
+    }
+
+    private static List<Installment> toInstallments(Contract contract, AmortizationSchedule schedule,
+                                                    Map<String, Installment.InstallmentStatus> settled) {
+        List<Installment> rows = new ArrayList<>(schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            int number = i + 1;
+            rows.add(Installment.builder()
+                    .contract(contract)
+                    .installmentNumber(number)
+                    .dueDate(schedule.dueDate(i))
+                    .principalComponent(Paise.toRupees(schedule.principalPaise(i)))
+                    .interestComponent(Paise.toRupees(schedule.interestPaise(i)))
+                    .amount(Paise.toRupees(schedule.amountPaise(i)))
+                    .outstandingBalance(Paise.toRupees(schedule.balancePaise(i)))
+                    .status(settled.getOrDefault(key(contract.getId(), number), Installment.InstallmentStatus.PENDING))
+                    .build());
+        }
+        return rows;
+    }
+
+    private static String key(UUID contractId, int installmentNumber) {
+        return contractId + ":" + installmentNumber;
+    }
+}
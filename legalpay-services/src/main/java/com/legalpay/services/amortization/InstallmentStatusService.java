@@ -0,0 +1,176 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.domain.repository.InstallmentRepository.StatusCandidate;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Instalment status transitions, each applied together with its merchant_stats
+ * overdue_amount delta:
+ * <ul>
+ *   <li>PENDING -> OVERDUE once the due date is more than the grace period past
+ *       (nightly sweep, one node at a time via scheduler_locks)</li>
+ *   <li>PENDING/OVERDUE -> PAID when a debit for the due date is collected</li>
+ * </ul>
+ * Rows are updated one statement per instalment with the expected status in the
+ * WHERE clause, so only rows that actually changed move the aggregates.
+ */
+@Service
+public class InstallmentStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(InstallmentStatusService.class);
+
+    static final String LOCK_NAME = "installment-overdue";
+
+    private static final List<Installment.InstallmentStatus> UNPAID =
+            List.of(Installment.InstallmentStatus.PENDING, Installment.InstallmentStatus.OVERDUE);
+    private static final String TRANSITION =
+            "UPDATE installments SET status = ? WHERE id = ? AND status = ?";
+
+    private final InstallmentRepository installmentRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final SchedulerLockService lockService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int graceDays;
+    private final int chunkSize;
+    private final Duration lockLease;
+
+    public InstallmentStatusService(InstallmentRepository installmentRepository,
+                                    MerchantStatsService merchantStatsService,
+                                    SchedulerLockService lockService,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${legalpay.installments.overdue-grace-days:1}") int graceDays,
+                                    @Value("${legalpay.installments.chunk-size:1000}") int chunkSize,
+                                    @Value("${legalpay.installments.lock-lease:PT5M}") Duration lockLease) {
+        this.installmentRepository = installmentRepository;
+        this.merchantStatsService = merchantStatsService;
+        this.lockService = lockService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.graceDays = graceDays;
+        this.chunkSize = chunkSize;
+        this.lockLease = lockLease;
+    }
+
+    @Scheduled(cron = "${legalpay.installments.overdue-cron:0 0 1 * * *}")
+    public void scheduledOverdueSweep() {
+        markOverdue(LocalDate.now());
+    }
+
+    /**
+     * Move PENDING instalments due before {@code today - grace} to OVERDUE
+     *
+     * @return number of instalments marked, or -1 if another node holds the lock
+     */
+    public int markOverdue(LocalDate today) {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Overdue sweep skipped: lock held by another node");
+            return -1;
+        }
+        LocalDate dueBefore = today.minusDays(graceDays);
+        int total = 0;
+        try {
+            while (lockService.tryAcquire(LOCK_NAME, lockLease)) {
+                Integer selected = transactionTemplate.execute(status -> {
+                    List<StatusCandidate> candidates = installmentRepository.findDueBefore(
+                            Installment.InstallmentStatus.PENDING, dueBefore, Limit.of(chunkSize));
+                    transition(candidates, Installment.InstallmentStatus.OVERDUE);
+                    return candidates.size();
+                });
+                int count = selected != null ? selected : 0;
+                total += count;
+                if (count < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+        if (total > 0) {
+            log.info("Marked {} instalments overdue (due before {})", total, dueBefore);
+        }
+        return total;
+    }
+
+    /**
+     * Mark a contract's unpaid instalments due on {@code dueDate} as PAID, on
+     * the caller's transaction
+     *
+     * @return total amount of the instalments that were settled by this call
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal settle(UUID contractId, LocalDate dueDate) {
+        List<StatusCandidate> candidates = installmentRepository.findDueOn(contractId, dueDate, UNPAID);
+        BigDecimal settled = BigDecimal.ZERO;
+        for (StatusCandidate c : transition(candidates, Installment.InstallmentStatus.PAID)) {
+            settled = settled.add(c.getAmount());
+        }
+        return settled;
+    }
+
+    /**
+     * Apply the transitions and the overdue_amount deltas of the rows that changed
+     *
+     * @return the candidates actually transitioned
+     */
+    private List<StatusCandidate> transition(List<StatusCandidate> candidates, Installment.InstallmentStatus to) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> args = new ArrayList<>(candidates.size());
+        for (StatusCandidate c : candidates) {
+            args.add(new Object[] { to.name(), c.getId(), c.getStatus().name() });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(TRANSITION, args);
+
+        List<StatusCandidate> changed = new ArrayList<>(candidates.size());
+        Map<UUID, BigDecimal> overdueDelta = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[i] == 0) {
+                continue; // changed by someone else since it was read
+            }
+            StatusCandidate c = candidates.get(i);
+            changed.add(c);
+            BigDecimal delta = overdueDelta(c.getStatus(), to, c.getAmount());
+            if (delta.signum() != 0) {
+                overdueDelta.merge(c.getMerchantId(), delta, BigDecimal::add);
+            }
+        }
+        overdueDelta.forEach(merchantStatsService::overdueChanged);
+        return changed;
+    }
+
+    private static BigDecimal overdueDelta(Installment.InstallmentStatus from, Installment.InstallmentStatus to,
+                                           BigDecimal amount) {
+        boolean wasOverdue = from == Installment.InstallmentStatus.OVERDUE;
+        boolean isOverdue = to == Installment.InstallmentStatus.OVERDUE;
+        if (wasOverdue == isOverdue) {
+            return BigDecimal.ZERO;
+        }
+        return isOverdue ? amount : amount.negate();
+    }
+}
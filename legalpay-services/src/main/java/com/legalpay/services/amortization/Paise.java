@@ -0,0 +1,48 @@
+package com.legalpay.services.amortization;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are held as long paise (1/100 rupee)
+ * in hot loops and converted to BigDecimal only at the persistence boundary.
+ */
+public final class Paise {
+
+    private Paise() {}
+
+    /**
+     * Convert a rupee amount to paise, rounding half-up to the nearest paisa
+     */
+    public static long of(BigDecimal rupees) {
+        return rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * Interest rate in percent (e.g. 12.50) to basis points (1250)
+     */
+    public static long basisPoints(BigDecimal percent) {
+        if (percent == null) {
+            return 0;
+        }
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * round(a * b / denominator) with HALF_UP rounding, for non-negative operands.
+     * Matches BigDecimal HALF_UP exactly; throws on overflow instead of wrapping.
+     */
+    public static long mulDivHalfUp(long a, long b, long denominator) {
+        long product = Math.multiplyExact(a, b);
+        long quotient = product / denominator;
+        long remainder = product % denominator;
+        if (remainder >= denominator - remainder) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,59 @@
+package com.legalpay.services.amortization;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Instalment frequencies supported for EMI contracts
+ */
+public enum PaymentFrequency {
+    DAILY(365, ChronoUnit.DAYS, 1),
+    WEEKLY(52, ChronoUnit.WEEKS, 1),
+    MONTHLY(12, ChronoUnit.MONTHS, 1),
+    QUARTERLY(4, ChronoUnit.MONTHS, 3);
+
+    private final int periodsPerYear;
+    private final ChronoUnit unit;
+    private final int unitsPerPeriod;
+
+    PaymentFrequency(int periodsPerYear, ChronoUnit unit, int unitsPerPeriod) {
+        this.periodsPerYear = periodsPerYear;
+        this.unit = unit;
+        this.unitsPerPeriod = unitsPerPeriod;
+    }
+
+    public static PaymentFrequency parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Payment frequency is required for EMI contracts");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid payment frequency: " + value);
+        }
+    }
+
+    public int getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+
+    /**
+     * Number of instalments due on or before the end date. Counted on due dates
+     * rather than ChronoUnit.between alone, which undercounts month-end starts
+     * (31 Jan to 30 Apr is two MONTHS but three monthly instalments)
+     */
+    public int installmentsBetween(LocalDate start, LocalDate end) {
+        int n = Math.toIntExact(unit.between(start, end) / unitsPerPeriod);
+        while (!dueDate(start, n + 1).isAfter(end)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Due date of the given 1-based instalment; the first falls one period after start
+     */
+    public LocalDate dueDate(LocalDate start, int installmentNumber) {
+        return start.plus((long) installmentNumber * unitsPerPeriod, unit);
+    }
+}
@@ -0,0 +1,52 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Loan terms needed to build a schedule, detached from the JPA entity so
+ * schedules can be computed off the persistence thread
+ */
+public final class ScheduleInput {
+
+    private final UUID contractId;
+    private final long principalPaise;
+    private final long rateBasisPoints;
+    private final PaymentFrequency frequency;
+    private final Contract.InterestMethod method;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public ScheduleInput(UUID contractId, long principalPaise, long rateBasisPoints,
+                         PaymentFrequency frequency, Contract.InterestMethod method,
+                         LocalDate startDate, LocalDate endDate) {
+        this.contractId = contractId;
+        this.principalPaise = principalPaise;
+        this.rateBasisPoints = rateBasisPoints;
+        this.frequency = frequency;
+        this.method = method != null ? method : Contract.InterestMethod.REDUCING_BALANCE;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public static ScheduleInput from(Contract contract) {
+        return new ScheduleInput(
+                contract.getId(),
+                Paise.of(contract.getPrincipalAmount()),
+                Paise.basisPoints(contract.getInterestRate()),
+                PaymentFrequency.parse(contract.getPaymentFrequency()),
+                contract.getInterestMethod(),
+                contract.getStartDate(),
+                contract.getEndDate());
+    }
+
+    public UUID getContractId() { return contractId; }
+    public long getPrincipalPaise() { return principalPaise; }
+    public long getRateBasisPoints() { return rateBasisPoints; }
+    public PaymentFrequency getFrequency() { return frequency; }
+    public Contract.InterestMethod getMethod() { return method; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+}
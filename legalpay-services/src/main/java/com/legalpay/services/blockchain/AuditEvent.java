@@ -0,0 +1,33 @@
+package com.legalpay.services.blockchain;
+
+import com.legalpay.domain.entity.BlockchainAuditLog.EventType;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One audit event queued for {@link BlockchainService#logEventsAsync}
+ */
+public final class AuditEvent {
+
+    private final EventType eventType;
+    private final UUID entityId;
+    private final String entityType;
+    private final UUID userId;
+    private final Map<String, Object> metadata;
+
+    public AuditEvent(EventType eventType, UUID entityId, String entityType, UUID userId,
+                      Map<String, Object> metadata) {
+        this.eventType = eventType;
+        this.entityId = entityId;
+        this.entityType = entityType;
+        this.userId = userId;
+        this.metadata = metadata;
+    }
+
+    public EventType getEventType() { return eventType; }
+    public UUID getEntityId() { return entityId; }
+    public String getEntityType() { return entityType; }
+    public UUID getUserId() { return userId; }
+    public Map<String, Object> getMetadata() { return metadata; }
+}
@@ -149,6 +149,81 @@ public class BlockchainService {
         return auditLog;
     }
 
+    /**
+     * Log a batch of events asynchronously (one task for the whole batch)
+     */
+    public CompletableFuture<List<BlockchainAuditLog>> logEventsAsync(List<AuditEvent> events) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return logEvents(events);
+            } catch (Exception e) {
+                logger.error("Async blockchain batch logging failed for {} events: {}",
+                    events.size(), e.getMessage(), e);
+                return List.of();
+            }
+        });
+    }
+
+    /**
+     * Log a batch of events: audit rows are inserted with a single saveAll (JDBC
+     * batch) before the on-chain submissions, so the off-chain trail is complete
+     * even if the chain is slow or unavailable.
+     * Deliberately not transactional: each saveAll commits on its own, so the rows
+     * are durable before the first submission and no connection is held while
+     * waiting on the chain. (It is reached through {@link #logEventsAsync}, a
+     * self-invocation a transactional proxy would not intercept anyway.)
+     */
+    public List<BlockchainAuditLog> logEvents(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        if (!blockchainConfig.isBlockchainEnabled()) {
+            logger.warn("Blockchain is disabled. {} events not logged", events.size());
+            return List.of();
+        }
+
+        List<BlockchainAuditLog> auditLogs = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            BlockchainAuditLog auditLog = new BlockchainAuditLog();
+            auditLog.setEventType(event.getEventType());
+            auditLog.setEntityId(event.getEntityId());
+            auditLog.setEntityType(event.getEntityType());
+            auditLog.setUserId(event.getUserId());
+            auditLog.setNetwork(blockchainConfig.getNetwork());
+            auditLog.setStatus(TransactionStatus.PENDING);
+            try {
+                auditLog.setMetadata(objectMapper.writeValueAsString(event.getMetadata()));
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to serialize metadata for blockchain logging", e);
+                auditLog.setMetadata("{}");
+            }
+            auditLogs.add(auditLog);
+        }
+        auditLogs = auditLogRepository.saveAll(auditLogs);
+
+        List<BlockchainAuditLog> submitted = new ArrayList<>();
+        for (BlockchainAuditLog auditLog : auditLogs) {
+            try {
+                String txHash = submitToBlockchain(auditLog.getEventType(), auditLog.getEntityId(),
+                    auditLog.getUserId(), auditLog.getMetadata());
+                auditLog.setTransactionHash(txHash);
+                submitted.add(auditLog);
+            } catch (Exception e) {
+                logger.error("Failed to submit blockchain transaction for entity {}: {}",
+                    auditLog.getEntityId(), e.getMessage());
+                auditLog.setStatus(TransactionStatus.FAILED);
+                auditLog.setErrorMessage(e.getMessage());
+            }
+        }
+        auditLogs = auditLogRepository.saveAll(auditLogs);
+
+        logger.info("Blockchain batch logged: {} events, {} submitted", auditLogs.size(), submitted.size());
+        for (BlockchainAuditLog auditLog : submitted) {
+            confirmTransactionAsync(auditLog.getId(), auditLog.getTransactionHash());
+        }
+        return auditLogs;
+    }
+
     /**
      * Submit transaction to blockchain smart contract
      */
@@ -0,0 +1,142 @@
+package com.legalpay.services.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache with expire-after-write and approximate LRU eviction.
+ * Reads are lock-free; when the size bound is exceeded a small random sample of
+ * entries is inspected and the least recently used one is dropped (the same
+ * trade-off Redis makes), so eviction cost stays constant regardless of size.
+ */
+public class BoundedLocalCache<K, V> {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final int EVICTION_MAX_SKIP = 64;
+
+    private final ConcurrentHashMap<K, Entry<V>> map;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final AtomicLong clock = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedLocalCache(int maximumSize, Duration expireAfterWrite) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = expireAfterWrite.toNanos();
+        this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+    }
+
+    /**
+     * Return the cached value, or null on a miss. Expired entries count as misses.
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            map.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos, clock.incrementAndGet()));
+        while (map.size() > maximumSize) {
+            evictOne();
+        }
+    }
+
+    public void invalidate(K key) {
+        if (map.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.add(map.size());
+        map.clear();
+    }
+
+    private void evictOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.nanoTime();
+        // Start the sample at a small random offset so the same hash buckets
+        // are not always the ones being inspected
+        int skip = random.nextInt(Math.min(EVICTION_MAX_SKIP, Math.max(1, map.size() - EVICTION_SAMPLE_SIZE)));
+        K victim = null;
+        long oldest = Long.MAX_VALUE;
+        int sampled = 0;
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (it.hasNext() && sampled < EVICTION_SAMPLE_SIZE) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            Entry<V> entry = candidate.getValue();
+            if (entry.isExpired(now)) {
+                victim = candidate.getKey();
+                break;
+            }
+            if (entry.lastAccess < oldest) {
+                oldest = entry.lastAccess;
+                victim = candidate.getKey();
+            }
+            sampled++;
+        }
+        if (victim == null) {
+            // Map shrank under us while sampling; fall back to the first entry
+            Iterator<K> keys = map.keySet().iterator();
+            victim = keys.hasNext() ? keys.next() : null;
+        }
+        if (victim != null && map.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    public long size() { return map.size(); }
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+    public long invalidationCount() { return invalidations.sum(); }
+
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAtNanos;
+        volatile long lastAccess;
+
+        Entry(V value, long expiresAtNanos, long lastAccess) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.legalpay.services.cache;
+
+import com.legalpay.domain.entity.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier read-through cache for contracts: a bounded local cache in front of
+ * an optional Redis tier (enabled with legalpay.cache.redis.enabled).
+ *
+ * Cached instances are detached snapshots shared between threads - callers must
+ * treat them as read-only and load a managed entity for any mutation.
+ * Invalidations are applied after the surrounding transaction commits so a
+ * concurrent reader cannot re-populate the cache with pre-commit state.
+ *
+ * Read-through loads are guarded by a per-key generation: every eviction bumps
+ * it, and a value loaded under an older generation is not cached (or is dropped
+ * again if the eviction raced the put). Generations are striped, so an unrelated
+ * eviction can at worst cost a key one skipped put.
+ */
+@Component
+public class ContractCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractCache.class);
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final BoundedLocalCache<UUID, Contract> local;
+    private final ObjectProvider<RedisContractStore> redisStore;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ContractCache(ObjectProvider<RedisContractStore> redisStore,
+                         @Value("${legalpay.cache.contracts.maximum-size:10000}") int maximumSize,
+                         @Value("${legalpay.cache.contracts.local-ttl:PT5M}") Duration localTtl) {
+        this.redisStore = redisStore;
+        this.local = new BoundedLocalCache<>(maximumSize, localTtl);
+    }
+
+    /**
+     * Return the contract from the first tier that has it, otherwise load it
+     * and populate both tiers
+     */
+    public Contract get(UUID contractId, Supplier<Contract> loader) {
+        Contract contract = getIfPresent(contractId);
+        if (contract != null) {
+            return contract;
+        }
+        long generation = generation(contractId);
+        contract = loader.get();
+        putIfCurrent(contract, generation);
+        return contract;
+    }
+
+    /**
+     * Multi-key read-through: hits are served from the cache and the misses are
+     * handed to the loader in one call, then cached. Unknown IDs are absent.
+     */
+    public Map<UUID, Contract> getAll(Collection<UUID> contractIds,
+                                      Function<List<UUID>, Collection<Contract>> loader) {
+        Map<UUID, Contract> found = getAllPresent(contractIds);
+        List<UUID> misses = new ArrayList<>();
+        Map<UUID, Long> loadedUnder = new HashMap<>();
+        for (UUID id : contractIds) {
+            if (!found.containsKey(id) && loadedUnder.putIfAbsent(id, generation(id)) == null) {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return found;
+        }
+        List<Contract> cached = new ArrayList<>();
+        for (Contract contract : loader.apply(misses)) {
+            found.put(contract.getId(), contract);
+            Long generation = loadedUnder.get(contract.getId());
+            if (generation != null && putLocalIfCurrent(contract.getId(), contract, generation)) {
+                cached.add(contract);
+            }
+        }
+        RedisContractStore store = redisStore.getIfAvailable();
+        if (store != null && !cached.isEmpty()) {
+            store.putAll(cached);
+            for (Contract contract : cached) {
+                if (generation(contract.getId()) != loadedUnder.get(contract.getId())) {
+                    store.evict(contract.getId(), nodeId);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Look the contract up in the local tier, then the shared tier, without
+     * touching the database
+     */
+    public Contract getIfPresent(UUID contractId) {
+        Contract contract = local.getIfPresent(contractId);
+        if (contract != null) {
+            return contract;
+        }
+        RedisContractStore store = redisStore.getIfAvailable();
+        if (store != null) {
+            long generation = generation(contractId);
+            contract = store.get(contractId);
+            if (contract != null) {
+                putLocalIfCurrent(contractId, contract, generation);
+            }
+        }
+        return contract;
+    }
+
+    /**
+     * Multi-key variant of {@link #getIfPresent}: the local tier first, then one
+     * round trip to the shared tier for whatever is left. Only hits are returned.
+     */
+    public Map<UUID, Contract> getAllPresent(Collection<UUID> contractIds) {
+        Map<UUID, Contract> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : contractIds) {
+            Contract contract = local.getIfPresent(id);
+            if (contract != null) {
+                found.put(id, contract);
+            } else {
+                missing.add(id);
+            }
+        }
+        RedisContractStore store = redisStore.getIfAvailable();
+        if (store != null && !missing.isEmpty()) {
+            Map<UUID, Long> generationsBefore = new HashMap<>();
+            missing.forEach(id -> generationsBefore.put(id, generation(id)));
+            Map<UUID, Contract> shared = store.getAll(missing);
+            shared.forEach((id, contract) -> putLocalIfCurrent(id, contract, generationsBefore.get(id)));
+            found.putAll(shared);
+        }
+        return found;
+    }
+
+    /**
+     * Cache a contract loaded while the key was at {@code generation}. Skipped
+     * when the key has been evicted since; if an eviction lands between the
+     * check and the put, the entry just written is dropped again.
+     */
+    private void putIfCurrent(Contract contract, long generation) {
+        if (contract == null || contract.getId() == null) {
+            return;
+        }
+        UUID contractId = contract.getId();
+        if (!putLocalIfCurrent(contractId, contract, generation)) {
+            return;
+        }
+        RedisContractStore store = redisStore.getIfAvailable();
+        if (store != null) {
+            store.put(contract);
+            if (generation(contractId) != generation) {
+                store.evict(contractId, nodeId);
+            }
+        }
+    }
+
+    private boolean putLocalIfCurrent(UUID contractId, Contract contract, long generation) {
+        if (generation(contractId) != generation) {
+            return false;
+        }
+        local.put(contractId, contract);
+        if (generation(contractId) != generation) {
+            local.invalidate(contractId);
+            return false;
+        }
+        return true;
+    }
+
+    private long generation(UUID contractId) {
+        return generations.get(stripe(contractId));
+    }
+
+    private void bumpGeneration(UUID contractId) {
+        generations.incrementAndGet(stripe(contractId));
+    }
+
+    private static int stripe(UUID contractId) {
+        int h = contractId.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * Drop a contract from every tier on every node. Called on each mutation.
+     */
+    public void evict(UUID contractId) {
+        bumpGeneration(contractId);
+        local.invalidate(contractId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(contractId);
+                }
+            });
+        } else {
+            evictEverywhere(contractId);
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #evict(UUID)} for batch jobs; registers a single
+     * after-commit callback for the whole set
+     */
+    public void evictAll(Collection<UUID> contractIds) {
+        List<UUID> ids = List.copyOf(contractIds);
+        for (UUID id : ids) {
+            bumpGeneration(id);
+            local.invalidate(id);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(ContractCache.this::evictEverywhere);
+                }
+            });
+        } else {
+            ids.forEach(this::evictEverywhere);
+        }
+    }
+
+    private void evictEverywhere(UUID contractId) {
+        bumpGeneration(contractId);
+        local.invalidate(contractId);
+        RedisContractStore store = redisStore.getIfAvailable();
+        if (store != null) {
+            store.evict(contractId, nodeId);
+        }
+    }
+
+    /**
+     * Apply an invalidation broadcast by another node ("nodeId:contractId")
+     */
+    public void onRemoteInvalidation(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        if (message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        try {
+            UUID contractId = UUID.fromString(message.substring(separator + 1));
+            bumpGeneration(contractId);
+            local.invalidate(contractId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed contract invalidation message: {}", message);
+        }
+    }
+
+    public BoundedLocalCache<UUID, Contract> getLocalTier() {
+        return local;
+    }
+
+    public RedisContractStore getRedisTier() {
+        return redisStore.getIfAvailable();
+    }
+}
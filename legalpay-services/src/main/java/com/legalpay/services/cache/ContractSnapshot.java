@@ -0,0 +1,163 @@
+package com.legalpay.services.cache;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Flat, serializable copy of a Contract for the shared (Redis) cache tier.
+ * Associations are reduced to their IDs; the rebuilt Contract carries
+ * Merchant/Payer references that only have their ID populated.
+ */
+public class ContractSnapshot {
+
+    private UUID id;
+    private UUID merchantId;
+    private UUID payerId;
+    private BigDecimal principalAmount;
+    private BigDecimal interestRate;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Contract.PaymentType paymentType;
+    private String paymentFrequency;
+    private Contract.InterestMethod interestMethod;
+    private BigDecimal emiAmount;
+    private String pdfUrl;
+    private String sha256Hash;
+    private String eSignDocumentId;
+    private Instant signedAt;
+    private String signedPdfUrl;
+    private String signedPdfSha256Hash;
+    private String blockchainTxHash;
+    private Instant blockchainRecordedAt;
+    private Contract.ContractStatus status;
+    private String paymentStatus;
+    private BigDecimal totalPaidAmount;
+    private Instant lastPaymentAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private long version;
+
+    public ContractSnapshot() {}
+
+    public static ContractSnapshot from(Contract contract) {
+        ContractSnapshot s = new ContractSnapshot();
+        s.id = contract.getId();
+        s.merchantId = contract.getMerchant() != null ? contract.getMerchant().getId() : null;
+        s.payerId = contract.getPayer() != null ? contract.getPayer().getId() : null;
+        s.principalAmount = contract.getPrincipalAmount();
+        s.interestRate = contract.getInterestRate();
+        s.startDate = contract.getStartDate();
+        s.endDate = contract.getEndDate();
+        s.paymentType = contract.getPaymentType();
+        s.paymentFrequency = contract.getPaymentFrequency();
+        s.interestMethod = contract.getInterestMethod();
+        s.emiAmount = contract.getEmiAmount();
+        s.pdfUrl = contract.getPdfUrl();
+        s.sha256Hash = contract.getSha256Hash();
+        s.eSignDocumentId = contract.getESignDocumentId();
+        s.signedAt = contract.getSignedAt();
+        s.signedPdfUrl = contract.getSignedPdfUrl();
+        s.signedPdfSha256Hash = contract.getSignedPdfSha256Hash();
+        s.blockchainTxHash = contract.getBlockchainTxHash();
+        s.blockchainRecordedAt = contract.getBlockchainRecordedAt();
+        s.status = contract.getStatus();
+        s.paymentStatus = contract.getPaymentStatus();
+        s.totalPaidAmount = contract.getTotalPaidAmount();
+        s.lastPaymentAt = contract.getLastPaymentAt();
+        s.createdAt = contract.getCreatedAt();
+        s.updatedAt = contract.getUpdatedAt();
+        s.version = contract.getVersion();
+        return s;
+    }
+
+    public Contract toContract() {
+        Contract c = Contract.builder()
+                .id(id)
+                .merchant(merchantId != null ? Merchant.builder().id(merchantId).build() : null)
+                .payer(payerId != null ? Payer.builder().id(payerId).build() : null)
+                .principalAmount(principalAmount)
+                .interestRate(interestRate)
+                .startDate(startDate)
+                .endDate(endDate)
+                .paymentType(paymentType)
+                .paymentFrequency(paymentFrequency)
+                .interestMethod(interestMethod)
+                .emiAmount(emiAmount)
+                .pdfUrl(pdfUrl)
+                .sha256Hash(sha256Hash)
+                .eSignDocumentId(eSignDocumentId)
+                .signedAt(signedAt)
+                .signedPdfUrl(signedPdfUrl)
+                .blockchainTxHash(blockchainTxHash)
+                .blockchainRecordedAt(blockchainRecordedAt)
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+        c.setPaymentStatus(paymentStatus);
+        c.setTotalPaidAmount(totalPaidAmount);
+        c.setLastPaymentAt(lastPaymentAt);
+        c.setSignedPdfSha256Hash(signedPdfSha256Hash);
+        c.setVersion(version);
+        return c;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getMerchantId() { return merchantId; }
+    public void setMerchantId(UUID merchantId) { this.merchantId = merchantId; }
+    public UUID getPayerId() { return payerId; }
+    public void setPayerId(UUID payerId) { this.payerId = payerId; }
+    public BigDecimal getPrincipalAmount() { return principalAmount; }
+    public void setPrincipalAmount(BigDecimal principalAmount) { this.principalAmount = principalAmount; }
+    public BigDecimal getInterestRate() { return interestRate; }
+    public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public Contract.PaymentType getPaymentType() { return paymentType; }
+    public void setPaymentType(Contract.PaymentType paymentType) { this.paymentType = paymentType; }
+    public String getPaymentFrequency() { return paymentFrequency; }
+    public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
+    public Contract.InterestMethod getInterestMethod() { return interestMethod; }
+    public void setInterestMethod(Contract.InterestMethod interestMethod) { this.interestMethod = interestMethod; }
+    public BigDecimal getEmiAmount() { return emiAmount; }
+    public void setEmiAmount(BigDecimal emiAmount) { this.emiAmount = emiAmount; }
+    public String getPdfUrl() { return pdfUrl; }
+    public void setPdfUrl(String pdfUrl) { this.pdfUrl = pdfUrl; }
+    public String getSha256Hash() { return sha256Hash; }
+    public void setSha256Hash(String sha256Hash) { this.sha256Hash = sha256Hash; }
+    public String getESignDocumentId() { return eSignDocumentId; }
+    public void setESignDocumentId(String eSignDocumentId) { this.eSignDocumentId = eSignDocumentId; }
+    public Instant getSignedAt() { return signedAt; }
+    public void setSignedAt(Instant signedAt) { this.signedAt = signedAt; }
+    public String getSignedPdfUrl() { return signedPdfUrl; }
+    public void setSignedPdfUrl(String signedPdfUrl) { this.signedPdfUrl = signedPdfUrl; }
+    public String getSignedPdfSha256Hash() { return signedPdfSha256Hash; }
+    public void setSignedPdfSha256Hash(String signedPdfSha256Hash) { this.signedPdfSha256Hash = signedPdfSha256Hash; }
+    public String getBlockchainTxHash() { return blockchainTxHash; }
+    public void setBlockchainTxHash(String blockchainTxHash) { this.blockchainTxHash = blockchainTxHash; }
+    public Instant getBlockchainRecordedAt() { return blockchainRecordedAt; }
+    public void setBlockchainRecordedAt(Instant blockchainRecordedAt) { this.blockchainRecordedAt = blockchainRecordedAt; }
+    public Contract.ContractStatus getStatus() { return status; }
+    public void setStatus(Contract.ContractStatus status) { this.status = status; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public BigDecimal getTotalPaidAmount() { return totalPaidAmount; }
+    public void setTotalPaidAmount(BigDecimal totalPaidAmount) { this.totalPaidAmount = totalPaidAmount; }
+    public Instant getLastPaymentAt() { return lastPaymentAt; }
+    public void setLastPaymentAt(Instant lastPaymentAt) { this.lastPaymentAt = lastPaymentAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
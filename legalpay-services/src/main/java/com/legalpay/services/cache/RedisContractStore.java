@@ -0,0 +1,155 @@
+package com.legalpay.services.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalpay.domain.entity.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared (second) cache tier for contracts, plus the pub/sub channel used to
+ * tell every node to drop its local copy when a contract changes.
+ * Redis failures are logged and treated as misses; the database stays the source of truth.
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.cache.redis.enabled", havingValue = "true")
+public class RedisContractStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisContractStore.class);
+
+    public static final String INVALIDATION_CHANNEL = "legalpay:cache:contracts:invalidate";
+    private static final String KEY_PREFIX = "legalpay:contract:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public RedisContractStore(StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${legalpay.cache.contracts.redis-ttl:PT30M}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    public Contract get(UUID contractId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + contractId);
+            if (json == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return objectMapper.readValue(json, ContractSnapshot.class).toContract();
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Redis read failed for contract {}: {}", contractId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fetch several contracts with one MGET; absent IDs are left out of the result
+     */
+    public Map<UUID, Contract> getAll(Collection<UUID> contractIds) {
+        Map<UUID, Contract> found = new HashMap<>();
+        if (contractIds.isEmpty()) {
+            return found;
+        }
+        List<UUID> ids = new ArrayList<>(contractIds);
+        List<String> keys = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            keys.add(KEY_PREFIX + id);
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                String json = values.get(i);
+                if (json == null) {
+                    misses.increment();
+                    continue;
+                }
+                hits.increment();
+                found.put(ids.get(i), objectMapper.readValue(json, ContractSnapshot.class).toContract());
+            }
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Redis multi-read failed for {} contracts: {}", ids.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * Write several contracts in one pipelined round trip
+     */
+    public void putAll(Collection<Contract> contracts) {
+        if (contracts.isEmpty()) {
+            return;
+        }
+        try {
+            List<byte[][]> entries = new ArrayList<>(contracts.size());
+            for (Contract contract : contracts) {
+                entries.add(new byte[][] {
+                        (KEY_PREFIX + contract.getId()).getBytes(StandardCharsets.UTF_8),
+                        objectMapper.writeValueAsBytes(ContractSnapshot.from(contract)) });
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[][] entry : entries) {
+                    connection.stringCommands().set(entry[0], entry[1],
+                            Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Redis multi-write failed for {} contracts: {}", contracts.size(), e.getMessage());
+        }
+    }
+
+    public void put(Contract contract) {
+        try {
+            String json = objectMapper.writeValueAsString(ContractSnapshot.from(contract));
+            redisTemplate.opsForValue().set(KEY_PREFIX + contract.getId(), json, ttl);
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Redis write failed for contract {}: {}", contract.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the shared entry and broadcast the invalidation to all nodes
+     */
+    public void evict(UUID contractId, String originNodeId) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + contractId);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, originNodeId + ":" + contractId);
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Redis invalidation failed for contract {}: {}", contractId, e.getMessage());
+        }
+    }
+
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long errorCount() { return errors.sum(); }
+}
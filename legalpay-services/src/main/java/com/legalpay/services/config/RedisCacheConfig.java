@@ -0,0 +1,36 @@
+package com.legalpay.services.config;
+
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.cache.RedisContractStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes this node to cache invalidations published by other nodes.
+ * Only active when the Redis cache tier is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "legalpay.cache.redis.enabled", havingValue = "true")
+public class RedisCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ContractCache contractCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> contractCache.onRemoteInvalidation(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(RedisContractStore.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+}
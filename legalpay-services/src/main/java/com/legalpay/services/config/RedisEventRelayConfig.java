@@ -0,0 +1,36 @@
+package com.legalpay.services.config;
+
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.events.RedisContractEventRelay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes this node to contract events published by other nodes.
+ * Only active when the Redis event relay is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "legalpay.events.redis.enabled", havingValue = "true")
+public class RedisEventRelayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer contractEventListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RedisContractEventRelay relay,
+            ContractEventHub hub
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> relay.onMessage(new String(message.getBody(), StandardCharsets.UTF_8), hub),
+            new ChannelTopic(RedisContractEventRelay.CHANNEL)
+        );
+        return container;
+    }
+}
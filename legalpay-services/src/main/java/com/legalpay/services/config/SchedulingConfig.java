@@ -0,0 +1,15 @@
+package com.legalpay.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs (@Scheduled). Disable with legalpay.scheduling.enabled=false,
+ * e.g. on nodes that should only serve API traffic.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "legalpay.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
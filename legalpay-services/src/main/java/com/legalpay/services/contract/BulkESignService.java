@@ -0,0 +1,232 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.esign.ESignProvider;
+import com.legalpay.services.esign.ESignRequest;
+import com.legalpay.services.esign.ESignResult;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sends many DRAFT contracts for eSign at once.
+ * <p>
+ * States are validated with a single query, documents go to the provider in
+ * batches of {@link ESignProvider#getMaxBatchSize()}, and each accepted batch is
+ * written with one JDBC batch UPDATE (guarded on status = DRAFT) in its own
+ * transaction together with its merchant_stats deltas. Latency therefore grows
+ * with the number of batches, not contracts. Every requested ID gets a result.
+ */
+@Service
+public class BulkESignService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkESignService.class);
+
+    private static final String MARK_PENDING_ESIGN =
+            "UPDATE contracts SET status = 'PENDING_ESIGN', e_sign_document_id = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND status = 'DRAFT'";
+
+    public enum Outcome { SENT, NOT_FOUND, INVALID_STATE, PROVIDER_REJECTED, CONFLICT, ERROR }
+
+    private final ContractRepository contractRepository;
+    private final ESignProvider eSignProvider;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractCache contractCache;
+    private final ContractEventHub eventHub;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxContracts;
+
+    public BulkESignService(ContractRepository contractRepository,
+                            ESignProvider eSignProvider,
+                            MerchantStatsService merchantStatsService,
+                            ContractCache contractCache,
+                            ContractEventHub eventHub,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${legalpay.esign.bulk-max-contracts:1000}") int maxContracts) {
+        this.contractRepository = contractRepository;
+        this.eSignProvider = eSignProvider;
+        this.merchantStatsService = merchantStatsService;
+        this.contractCache = contractCache;
+        this.eventHub = eventHub;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxContracts = maxContracts;
+    }
+
+    /**
+     * @return one result per distinct requested ID, in request order
+     */
+    public List<Result> initiate(Collection<UUID> contractIds) {
+        Set<UUID> ids = new LinkedHashSet<>(contractIds);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one contract ID is required");
+        }
+        if (ids.size() > maxContracts) {
+            throw new IllegalArgumentException("At most " + maxContracts + " contracts can be sent at once");
+        }
+
+        Map<UUID, Contract> contracts = new HashMap<>();
+        for (Contract contract : contractRepository.findAllWithPartiesByIdIn(ids)) {
+            contracts.put(contract.getId(), contract);
+        }
+
+        Map<UUID, Result> results = new LinkedHashMap<>();
+        List<Contract> eligible = new ArrayList<>();
+        for (UUID id : ids) {
+            Contract contract = contracts.get(id);
+            if (contract == null) {
+                results.put(id, Result.failed(id, Outcome.NOT_FOUND, "Contract not found"));
+            } else if (!ContractStateMachine.canTransition(contract.getStatus(), Contract.ContractStatus.PENDING_ESIGN)) {
+                results.put(id, Result.failed(id, Outcome.INVALID_STATE,
+                        "Contract must be in DRAFT state (current: " + contract.getStatus() + ")"));
+            } else {
+                results.put(id, null);
+                eligible.add(contract);
+            }
+        }
+
+        int batchSize = Math.max(1, eSignProvider.getMaxBatchSize());
+        for (int from = 0; from < eligible.size(); from += batchSize) {
+            List<Contract> batch = eligible.subList(from, Math.min(from + batchSize, eligible.size()));
+            sendBatch(batch, results);
+        }
+
+        long sent = results.values().stream().filter(r -> r.getOutcome() == Outcome.SENT).count();
+        log.info("Bulk eSign: requested={} sent={}", ids.size(), sent);
+        return new ArrayList<>(results.values());
+    }
+
+    private void sendBatch(List<Contract> batch, Map<UUID, Result> results) {
+        List<ESignRequest> requests = new ArrayList<>(batch.size());
+        for (Contract contract : batch) {
+            requests.add(ContractService.toESignRequest(contract));
+        }
+
+        List<ESignResult> responses;
+        try {
+            responses = eSignProvider.submit(requests);
+        } catch (RuntimeException e) {
+            log.error("eSign provider failed for a batch of {}: {}", batch.size(), e.getMessage());
+            for (Contract contract : batch) {
+                results.put(contract.getId(), Result.failed(contract.getId(), Outcome.PROVIDER_REJECTED,
+                        "eSign provider unavailable"));
+            }
+            return;
+        }
+
+        Map<UUID, ESignResult> byContract = new HashMap<>();
+        for (ESignResult response : responses) {
+            byContract.put(response.getContractId(), response);
+        }
+        List<Contract> accepted = new ArrayList<>(batch.size());
+        List<String> documentIds = new ArrayList<>(batch.size());
+        for (Contract contract : batch) {
+            ESignResult response = byContract.get(contract.getId());
+            if (response == null || !response.isAccepted()) {
+                String error = response != null ? response.getError() : "No response from eSign provider";
+                results.put(contract.getId(), Result.failed(contract.getId(), Outcome.PROVIDER_REJECTED, error));
+            } else {
+                accepted.add(contract);
+                documentIds.add(response.getDocumentId());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> markPending(accepted, documentIds, results));
+        } catch (RuntimeException e) {
+            log.error("Failed to record eSign documents for a batch of {}", accepted.size(), e);
+            for (Contract contract : accepted) {
+                results.put(contract.getId(), Result.failed(contract.getId(), Outcome.ERROR,
+                        "Could not record eSign document"));
+            }
+        }
+    }
+
+    private void markPending(List<Contract> accepted, List<String> documentIds, Map<UUID, Result> results) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            args.add(new Object[] { documentIds.get(i), now, accepted.get(i).getId() });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(MARK_PENDING_ESIGN, args);
+
+        Map<UUID, Long> perMerchant = new HashMap<>();
+        List<UUID> updatedIds = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Contract contract = accepted.get(i);
+            if (counts[i] == 0) {
+                // Changed since it was validated; the provider document will simply expire
+                log.warn("Contract {} changed during bulk eSign, document {} not recorded",
+                        contract.getId(), documentIds.get(i));
+                results.put(contract.getId(), Result.failed(contract.getId(), Outcome.CONFLICT,
+                        "Contract was modified concurrently"));
+                continue;
+            }
+            UUID merchantId = contract.getMerchant().getId();
+            perMerchant.merge(merchantId, 1L, Long::sum);
+            updatedIds.add(contract.getId());
+            results.put(contract.getId(), Result.sent(contract.getId(), documentIds.get(i)));
+            eventHub.publishAfterCommit(ContractEvent.statusChanged(contract.getId(), merchantId,
+                    Contract.ContractStatus.DRAFT, Contract.ContractStatus.PENDING_ESIGN));
+        }
+
+        perMerchant.forEach((merchantId, count) -> merchantStatsService.statusChanged(
+                merchantId, Contract.ContractStatus.DRAFT, Contract.ContractStatus.PENDING_ESIGN, count));
+        contractCache.evictAll(updatedIds);
+    }
+
+    /**
+     * Outcome for one requested contract
+     */
+    public static final class Result {
+        private final UUID contractId;
+        private final Outcome outcome;
+        private final String eSignDocumentId;
+        private final String message;
+
+        private Result(UUID contractId, Outcome outcome, String eSignDocumentId, String message) {
+            this.contractId = contractId;
+            this.outcome = outcome;
+            this.eSignDocumentId = eSignDocumentId;
+            this.message = message;
+        }
+
+        static Result sent(UUID contractId, String eSignDocumentId) {
+            return new Result(contractId, Outcome.SENT, eSignDocumentId, null);
+        }
+
+        static Result failed(UUID contractId, Outcome outcome, String message) {
+            return new Result(contractId, outcome, null, message);
+        }
+
+        public UUID getContractId() { return contractId; }
+        public Outcome getOutcome() { return outcome; }
+        public String getESignDocumentId() { return eSignDocumentId; }
+        public String getMessage() { return message; }
+    }
+}
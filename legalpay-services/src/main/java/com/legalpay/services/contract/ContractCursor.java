@@ -0,0 +1,61 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a (createdAt, id) keyset ordering of contracts.
+ * Serialized as an opaque URL-safe token so clients cannot depend on its layout.
+ */
+public final class ContractCursor {
+
+    private static final int TOKEN_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    private final Instant createdAt;
+    private final UUID id;
+
+    public ContractCursor(Instant createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static ContractCursor of(Contract contract) {
+        return new ContractCursor(contract.getCreatedAt(), contract.getId());
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    public static ContractCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != TOKEN_BYTES) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        return new ContractCursor(Instant.ofEpochSecond(seconds, nanos), id);
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES);
+        buffer.putLong(createdAt.getEpochSecond());
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public UUID getId() { return id; }
+}
@@ -0,0 +1,208 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.storage.DocumentIntegrityVerifier;
+import com.legalpay.services.storage.DocumentStorage;
+import com.legalpay.services.storage.LimitedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Signed contract documents: stores uploads in {@link DocumentStorage} and
+ * resolves downloads to a verified local file (or the external URL the contract
+ * already points at).
+ * <p>
+ * Every upload is written under its own key and then swapped in, location and
+ * hash in one guarded UPDATE, so concurrent uploads never leave a contract
+ * pointing at a file that does not match its recorded hash.
+ */
+@Service
+public class ContractDocumentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractDocumentService.class);
+
+    private final ContractService contractService;
+    private final ContractRepository contractRepository;
+    private final ContractCache contractCache;
+    private final DocumentStorage documentStorage;
+    private final DocumentIntegrityVerifier integrityVerifier;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxSignedPdfBytes;
+
+    public ContractDocumentService(ContractService contractService,
+                                   ContractRepository contractRepository,
+                                   ContractCache contractCache,
+                                   DocumentStorage documentStorage,
+                                   DocumentIntegrityVerifier integrityVerifier,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${legalpay.storage.signed-pdf-max-bytes:20971520}") long maxSignedPdfBytes) {
+        this.contractService = contractService;
+        this.contractRepository = contractRepository;
+        this.contractCache = contractCache;
+        this.documentStorage = documentStorage;
+        this.integrityVerifier = integrityVerifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSignedPdfBytes = maxSignedPdfBytes;
+    }
+
+    public long getMaxSignedPdfBytes() {
+        return maxSignedPdfBytes;
+    }
+
+    /**
+     * Stream the signed PDF into storage, hashing it on the way through.
+     * Runs outside a transaction so no connection is held during the upload.
+     *
+     * @throws com.legalpay.services.storage.DocumentTooLargeException past
+     *         {@code legalpay.storage.signed-pdf-max-bytes}; nothing is stored
+     */
+    public Contract storeSignedPdf(UUID contractId, InputStream content) throws IOException {
+        Contract contract = contractService.getContract(contractId);
+        if (contract.getSignedAt() == null) {
+            throw new IllegalStateException("Contract must be signed before uploading the signed document");
+        }
+
+        DigestInputStream digesting = new DigestInputStream(new LimitedInputStream(content, maxSignedPdfBytes), sha256());
+        String location = documentStorage.store(signedPdfKey(contractId, UUID.randomUUID()), digesting);
+        String hash = HexFormat.of().formatHex(digesting.getMessageDigest().digest());
+
+        String replaced;
+        try {
+            replaced = swapIn(contractId, location, hash);
+        } catch (RuntimeException e) {
+            deleteQuietly(location);
+            throw e;
+        }
+        contractCache.evict(contractId);
+        if (replaced != null && !isExternal(replaced)) {
+            deleteQuietly(replaced);
+        }
+        log.info("Stored signed document for contract {} ({})", contractId, hash);
+        return contractService.getContract(contractId);
+    }
+
+    /**
+     * Point the contract at the new document, retrying if another upload swapped
+     * its own in between our read and our update. The last upload to commit wins.
+     * Each attempt is a short transaction of its own.
+     *
+     * @return the location that was replaced, or null if there was none
+     */
+    private String swapIn(UUID contractId, String location, String hash) {
+        String expected = contractRepository.findSignedPdfUrlById(contractId).orElse(null);
+        while (true) {
+            String guard = expected;
+            Integer updated = transactionTemplate.execute(status ->
+                    contractRepository.replaceSignedDocument(contractId, guard, location, hash, Instant.now()));
+            if (updated != null && updated > 0) {
+                return expected;
+            }
+            String current = contractRepository.findSignedPdfUrlById(contractId).orElse(null);
+            if (Objects.equals(current, expected)) {
+                // Guard failed without the document changing: the contract is gone
+                throw new RuntimeException("Contract not found: " + contractId);
+            }
+            expected = current;
+        }
+    }
+
+    private void deleteQuietly(String location) {
+        try {
+            documentStorage.delete(location);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete replaced document {}: {}", location, e.getMessage());
+        }
+    }
+
+    private static boolean isExternal(String location) {
+        return location.startsWith("http://") || location.startsWith("https://");
+    }
+
+    /**
+     * Resolve the signed PDF for download. A local file is checked against its
+     * recorded hash the first time it is served after any change.
+     *
+     * @throws IllegalStateException if the stored file does not match its hash
+     */
+    public SignedDocument getSignedPdf(UUID contractId) throws IOException {
+        Contract contract = contractService.getContract(contractId);
+        String location = contract.getSignedPdfUrl();
+        if (location == null) {
+            throw new RuntimeException("Signed document not found for contract: " + contractId);
+        }
+        if (isExternal(location)) {
+            return SignedDocument.external(location);
+        }
+
+        Path path = documentStorage.localPath(location)
+                .filter(Files::isRegularFile)
+                .orElseThrow(() -> new RuntimeException("Signed document not found for contract: " + contractId));
+        String hash = contract.getSignedPdfSha256Hash();
+        if (hash != null && !integrityVerifier.verify(path, hash)) {
+            log.error("Signed document for contract {} failed integrity check", contractId);
+            throw new IllegalStateException("Signed document failed integrity check");
+        }
+        return SignedDocument.local(path, Files.size(path), hash);
+    }
+
+    static String signedPdfKey(UUID contractId, UUID uploadId) {
+        return "contracts/" + contractId + "/signed-" + uploadId + ".pdf";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Either a verified local file or an external URL to redirect to
+     */
+    public static final class SignedDocument {
+        private final String externalUrl;
+        private final Path path;
+        private final long size;
+        private final String sha256Hash;
+
+        private SignedDocument(String externalUrl, Path path, long size, String sha256Hash) {
+            this.externalUrl = externalUrl;
+            this.path = path;
+            this.size = size;
+            this.sha256Hash = sha256Hash;
+        }
+
+        public static SignedDocument external(String url) {
+            return new SignedDocument(url, null, -1, null);
+        }
+
+        public static SignedDocument local(Path path, long size, String sha256Hash) {
+            return new SignedDocument(null, path, size, sha256Hash);
+        }
+
+        public boolean isExternal() { return externalUrl != null; }
+        public String getExternalUrl() { return externalUrl; }
+        public Path getPath() { return path; }
+        public long getSize() { return size; }
+        public String getSha256Hash() { return sha256Hash; }
+    }
+}
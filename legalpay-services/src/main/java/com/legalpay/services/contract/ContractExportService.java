@@ -0,0 +1,241 @@
+package com.legalpay.services.contract;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.repository.ContractRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams a merchant's whole contract book as CSV or NDJSON.
+ *
+ * Rows come from a forward-only database cursor and are written straight to the
+ * output; the persistence context is cleared every {@link #CLEAR_INTERVAL} rows so
+ * neither Hibernate nor the writer retains more than a small window of rows.
+ * Memory use is therefore independent of the number of contracts exported.
+ */
+@Service
+public class ContractExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractExportService.class);
+
+    static final int CLEAR_INTERVAL = 500;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    static final String[] COLUMNS = {
+            "id", "merchantId", "payerId", "status", "paymentType", "paymentFrequency", "interestMethod",
+            "principalAmount", "interestRate", "emiAmount", "totalPaidAmount", "paymentStatus",
+            "startDate", "endDate", "signedAt", "createdAt"
+    };
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private final ContractRepository contractRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ContractExportService(ContractRepository contractRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.contractRepository = contractRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write every contract of the merchant to the stream, newest first.
+     * Runs its own read-only transaction so it can be called from an async
+     * response thread.
+     *
+     * @return number of rows written
+     */
+    public long export(UUID merchantId, Format format, OutputStream out) {
+        long started = System.currentTimeMillis();
+        Long rows = readOnlyTransaction.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            try (Stream<Contract> contracts = contractRepository.streamByMerchantId(merchantId)) {
+                long written = format == Format.CSV
+                        ? writeCsv(contracts.iterator(), writer)
+                        : writeNdjson(contracts.iterator(), writer);
+                writer.flush();
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Contract export aborted for merchant " + merchantId, e);
+            }
+        });
+        log.info("Exported {} contracts as {} for merchant={} in {}ms",
+                rows, format, merchantId, System.currentTimeMillis() - started);
+        return rows != null ? rows : 0;
+    }
+
+    private long writeCsv(Iterator<Contract> contracts, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        long count = 0;
+        while (contracts.hasNext()) {
+            Contract c = contracts.next();
+            writeCsvField(writer, c.getId());
+            writer.write(',');
+            writeCsvField(writer, c.getMerchant().getId());
+            writer.write(',');
+            writeCsvField(writer, c.getPayer().getId());
+            writer.write(',');
+            writeCsvField(writer, c.getStatus());
+            writer.write(',');
+            writeCsvField(writer, c.getPaymentType());
+            writer.write(',');
+            writeCsvField(writer, c.getPaymentFrequency());
+            writer.write(',');
+            writeCsvField(writer, c.getPaymentType() == Contract.PaymentType.EMI ? c.getInterestMethod() : null);
+            writer.write(',');
+            writeCsvField(writer, plain(c.getPrincipalAmount()));
+            writer.write(',');
+            writeCsvField(writer, plain(c.getInterestRate()));
+            writer.write(',');
+            writeCsvField(writer, plain(c.getEmiAmount()));
+            writer.write(',');
+            writeCsvField(writer, plain(c.getTotalPaidAmount()));
+            writer.write(',');
+            writeCsvField(writer, c.getPaymentStatus());
+            writer.write(',');
+            writeCsvField(writer, c.getStartDate());
+            writer.write(',');
+            writeCsvField(writer, c.getEndDate());
+            writer.write(',');
+            writeCsvField(writer, c.getSignedAt());
+            writer.write(',');
+            writeCsvField(writer, c.getCreatedAt());
+            writer.write('\n');
+            count = afterRow(count, writer);
+        }
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Contract> contracts, Writer writer) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(new SerializedString("\n"));
+        long count = 0;
+        while (contracts.hasNext()) {
+            Contract c = contracts.next();
+            json.writeStartObject();
+            json.writeStringField("id", string(c.getId()));
+            json.writeStringField("merchantId", string(c.getMerchant().getId()));
+            json.writeStringField("payerId", string(c.getPayer().getId()));
+            json.writeStringField("status", string(c.getStatus()));
+            json.writeStringField("paymentType", string(c.getPaymentType()));
+            json.writeStringField("paymentFrequency", c.getPaymentFrequency());
+            json.writeStringField("interestMethod",
+                    c.getPaymentType() == Contract.PaymentType.EMI ? string(c.getInterestMethod()) : null);
+            writeNumberField(json, "principalAmount", c.getPrincipalAmount());
+            writeNumberField(json, "interestRate", c.getInterestRate());
+            writeNumberField(json, "emiAmount", c.getEmiAmount());
+            writeNumberField(json, "totalPaidAmount", c.getTotalPaidAmount());
+            json.writeStringField("paymentStatus", c.getPaymentStatus());
+            json.writeStringField("startDate", string(c.getStartDate()));
+            json.writeStringField("endDate", string(c.getEndDate()));
+            json.writeStringField("signedAt", string(c.getSignedAt()));
+            json.writeStringField("createdAt", string(c.getCreatedAt()));
+            json.writeEndObject();
+            count = afterRow(count, json);
+        }
+        if (count > 0) {
+            json.writeRaw('\n');
+        }
+        json.flush();
+        return count;
+    }
+
+    /**
+     * Detach everything loaded so far and push buffered bytes to the client
+     * every CLEAR_INTERVAL rows
+     */
+    private long afterRow(long count, Flushable out) throws IOException {
+        count++;
+        if (count % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+            out.flush();
+        }
+        return count;
+    }
+
+    private static void writeNumberField(JsonGenerator json, String name, BigDecimal value) throws IOException {
+        if (value == null) {
+            json.writeNullField(name);
+        } else {
+            json.writeFieldName(name);
+            json.writeNumber(value.toPlainString());
+        }
+    }
+
+    static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char ch = text.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -2,22 +2,44 @@ package com.legalpay.services.contract;
 
 import com.legalpay.domain.entity.BlockchainAuditLog.EventType;
 import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.entity.Payer;
 import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.amortization.AmortizationEngine;
+import com.legalpay.services.amortization.AmortizationSchedule;
+import com.legalpay.services.amortization.InstallmentScheduleService;
+import com.legalpay.services.amortization.ScheduleInput;
 import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.esign.ESignProvider;
+import com.legalpay.services.esign.ESignRequest;
+import com.legalpay.services.esign.ESignResult;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.stats.MerchantStatsService;
+import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.security.MessageDigest;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -29,16 +51,48 @@ public class ContractService {
 
     private static final Logger log = LoggerFactory.getLogger(ContractService.class);
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final int MAX_BATCH_GET = 500;
+    private static final int BATCH_GET_CHUNK = 100;
+
+    /**
+     * Resilience4j retry instance for optimistic-lock conflicts. Its aspect wraps
+     * the transaction, so each attempt reloads the contract in a fresh one.
+     */
+    public static final String CONFLICT_RETRY = "contractConflict";
+
     private final ContractRepository contractRepository;
     private final PdfGenerationService pdfGenerationService;
     private final BlockchainService blockchainService;
+    private final ContractCache contractCache;
+    private final AmortizationEngine amortizationEngine;
+    private final InstallmentScheduleService installmentScheduleService;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractEventHub eventHub;
+    private final ESignProvider eSignProvider;
+    private final TransactionTemplate transactionTemplate;
 
     public ContractService(ContractRepository contractRepository, 
                           PdfGenerationService pdfGenerationService,
-                          BlockchainService blockchainService) {
+                          BlockchainService blockchainService,
+                          ContractCache contractCache,
+                          AmortizationEngine amortizationEngine,
+                          InstallmentScheduleService installmentScheduleService,
+                          MerchantStatsService merchantStatsService,
+                          ContractEventHub eventHub,
+                          ESignProvider eSignProvider,
+                          PlatformTransactionManager transactionManager) {
         this.contractRepository = contractRepository;
         this.pdfGenerationService = pdfGenerationService;
         this.blockchainService = blockchainService;
+        this.contractCache = contractCache;
+        this.amortizationEngine = amortizationEngine;
+        this.installmentScheduleService = installmentScheduleService;
+        this.merchantStatsService = merchantStatsService;
+        this.eventHub = eventHub;
+        this.eSignProvider = eSignProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -59,13 +113,9 @@ public class ContractService {
                 ? Contract.PaymentType.EMI 
                 : Contract.PaymentType.ONE_TIME;
 
-        // Calculate payment amount based on type
-        BigDecimal paymentAmount;
-        if (paymentType == Contract.PaymentType.ONE_TIME) {
-            paymentAmount = request.getPrincipalAmount(); // Full amount
-        } else {
-            paymentAmount = calculateEMI(request); // EMI amount
-        }
+        Contract.InterestMethod interestMethod = request.getInterestMethod() != null
+                ? Contract.InterestMethod.valueOf(request.getInterestMethod())
+                : Contract.InterestMethod.REDUCING_BALANCE;
 
         Contract contract = Contract.builder()
                 .merchant(merchant)
@@ -76,11 +126,24 @@ public class ContractService {
                 .endDate(request.getEndDate())
                 .paymentType(paymentType)
                 .paymentFrequency(request.getPaymentFrequency())
-                .emiAmount(paymentAmount)
+                .interestMethod(interestMethod)
                 .status(Contract.ContractStatus.DRAFT)
                 .build();
 
+        // Calculate payment amount based on type
+        AmortizationSchedule schedule = null;
+        if (paymentType == Contract.PaymentType.ONE_TIME) {
+            contract.setEmiAmount(request.getPrincipalAmount()); // Full amount
+        } else {
+            schedule = amortizationEngine.compute(ScheduleInput.from(contract));
+            contract.setEmiAmount(schedule.installmentAmount()); // EMI amount
+        }
+
         contract = contractRepository.save(contract);
+        if (schedule != null) {
+            installmentScheduleService.saveSchedule(contract, schedule);
+        }
+        merchantStatsService.contractCreated(merchant.getId(), contract.getStatus(), contract.getPrincipalAmount());
         
         // Generate PDF (async in production, sync for demo)
         String pdfUrl = pdfGenerationService.generateContractPdf(contract);
@@ -88,6 +151,8 @@ public class ContractService {
         contract.setSha256Hash(calculateHash(pdfUrl));
         
         contract = contractRepository.save(contract);
+        contractCache.evict(contract.getId());
+        eventHub.publishAfterCommit(ContractEvent.created(contract.getId(), merchant.getId(), contract.getStatus()));
         
         // Log to blockchain for immutable audit trail
         Map<String, Object> metadata = new HashMap<>();
@@ -110,39 +175,79 @@ public class ContractService {
     }
 
     /**
-     * Initiate eSign process
+     * Initiate eSign process.
+     * <p>
+     * The provider is called with no transaction open and is not retried, so a
+     * conflict cannot submit the same contract twice. Its document is recorded
+     * with an UPDATE guarded on status = DRAFT; if the contract changed in the
+     * meantime the update is skipped and the provider document simply expires.
      */
-    @Transactional
     public Contract initiateESign(UUID contractId) {
-        Contract contract = getContract(contractId);
-        
-        if (contract.getStatus() != Contract.ContractStatus.DRAFT) {
-            throw new IllegalStateException("Contract must be in DRAFT state to initiate eSign");
+        Contract contract = contractRepository.findWithPartiesById(contractId)
+                .orElseThrow(() -> new RuntimeException("Contract not found: " + contractId));
+        Contract.ContractStatus previousStatus = contract.getStatus();
+        ContractStateMachine.requireTransition(previousStatus, Contract.ContractStatus.PENDING_ESIGN);
+
+        ESignResult result = eSignProvider.submit(List.of(toESignRequest(contract))).get(0);
+        if (!result.isAccepted()) {
+            throw new IllegalStateException("eSign provider rejected contract " + contractId + ": " + result.getError());
         }
 
-        // DUMMY: In production, call Digio/Leegality API
-        String dummyESignDocId = "esign_" + UUID.randomUUID();
-        contract.setESignDocumentId(dummyESignDocId);
+        UUID merchantId = contract.getMerchant().getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = contractRepository.recordESignDocument(contractId, previousStatus,
+                    Contract.ContractStatus.PENDING_ESIGN, result.getDocumentId(), Instant.now());
+            if (updated == 0) {
+                log.warn("Contract {} changed during eSign, document {} not recorded",
+                        contractId, result.getDocumentId());
+                throw new ObjectOptimisticLockingFailureException(Contract.class, contractId);
+            }
+            merchantStatsService.statusChanged(merchantId, previousStatus, Contract.ContractStatus.PENDING_ESIGN);
+            contractCache.evict(contractId);
+            eventHub.publishAfterCommit(ContractEvent.statusChanged(contractId, merchantId,
+                    previousStatus, Contract.ContractStatus.PENDING_ESIGN));
+        });
+        log.info("Contract {} sent for eSign. DocumentId={}", contractId, result.getDocumentId());
+
+        // Loaded outside the update, so this only fixes up the returned copy
+        contract.setESignDocumentId(result.getDocumentId());
         contract.setStatus(Contract.ContractStatus.PENDING_ESIGN);
-        
-        log.info("Contract {} sent for eSign. DocumentId={}", contractId, dummyESignDocId);
-        
-        return contractRepository.save(contract);
+        return contract;
+    }
+
+    static ESignRequest toESignRequest(Contract contract) {
+        Payer payer = contract.getPayer();
+        return new ESignRequest(contract.getId(), contract.getPdfUrl(), contract.getSha256Hash(),
+                payer != null ? payer.getName() : null, payer != null ? payer.getEmail() : null);
     }
 
     /**
-     * Mark contract as signed (called by webhook)
+     * Mark contract as signed (called by webhook).
+     * A redelivered webhook for an already signed contract is a no-op.
      */
+    @Retry(name = CONFLICT_RETRY)
     @Transactional
     public Contract markAsSigned(UUID contractId, String signedPdfUrl) {
-        Contract contract = getContract(contractId);
+        Contract contract = loadContract(contractId);
+        Contract.ContractStatus previousStatus = contract.getStatus();
+        if (previousStatus == Contract.ContractStatus.SIGNED) {
+            log.info("Contract {} already signed, ignoring duplicate notification", contractId);
+            return contract;
+        }
+        ContractStateMachine.requireTransition(previousStatus, Contract.ContractStatus.SIGNED);
         contract.setStatus(Contract.ContractStatus.SIGNED);
         contract.setSignedPdfUrl(signedPdfUrl);
-        contract.setSignedAt(java.time.Instant.now());
+        contract.setSignedAt(Instant.now());
         
         log.info("Contract {} marked as signed", contractId);
         
-        contract = contractRepository.save(contract);
+        // Flushed here so a version conflict surfaces before the side effects below
+        contract = contractRepository.saveAndFlush(contract);
+        merchantStatsService.statusChanged(contract.getMerchant().getId(),
+                previousStatus, Contract.ContractStatus.SIGNED);
+        contractCache.evict(contractId);
+        eventHub.publishAfterCommit(ContractEvent.statusChanged(contractId, contract.getMerchant().getId(),
+                previousStatus, Contract.ContractStatus.SIGNED));
         
         // Log signing to blockchain
         Map<String, Object> metadata = new HashMap<>();
@@ -163,9 +268,116 @@ public class ContractService {
     }
 
     /**
-     * Get contract by ID
+     * Status-only transition for callers that do not touch other fields (e.g. webhooks).
+     * Written as UPDATE ... WHERE status = current, so a concurrent change makes it
+     * a no-op; it is then retried against the freshly loaded status.
+     */
+    @Retry(name = CONFLICT_RETRY)
+    @Transactional
+    public Contract transitionStatus(UUID contractId, Contract.ContractStatus target) {
+        Contract contract = loadContract(contractId);
+        Contract.ContractStatus previousStatus = contract.getStatus();
+        if (previousStatus == target) {
+            return contract;
+        }
+        ContractStateMachine.requireTransition(previousStatus, target);
+
+        int updated = contractRepository.compareAndSetStatus(contractId, previousStatus, target, Instant.now());
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Contract.class, contractId);
+        }
+        merchantStatsService.statusChanged(contract.getMerchant().getId(), previousStatus, target);
+        contractCache.evict(contractId);
+        eventHub.publishAfterCommit(ContractEvent.statusChanged(contractId, contract.getMerchant().getId(),
+                previousStatus, target));
+        log.info("Contract {} moved {} -> {}", contractId, previousStatus, target);
+
+        // Detached by the update (clearAutomatically), so this only fixes up the returned copy
+        contract.setStatus(target);
+        return contract;
+    }
+
+    /**
+     * Get contract by ID (read-through cache).
+     * The returned instance may be a shared cached copy - do not modify it.
      */
     public Contract getContract(UUID contractId) {
+        return contractCache.get(contractId, () -> loadContract(contractId));
+    }
+
+    /**
+     * Get a contract at least as new as {@code notBefore}: a cached copy older
+     * than that (its eviction from another node has not arrived yet) is dropped
+     * and the contract is read again.
+     */
+    public Contract getContract(UUID contractId, Instant notBefore) {
+        Contract contract = getContract(contractId);
+        if (notBefore != null && (contract.getUpdatedAt() == null || contract.getUpdatedAt().isBefore(notBefore))) {
+            contractCache.evict(contractId);
+            contract = getContract(contractId);
+        }
+        return contract;
+    }
+
+    /**
+     * Fetch several contracts at once. Cache hits are served first; the misses
+     * are loaded with {@code WHERE id IN (...)} queries of at most
+     * {@value #BATCH_GET_CHUNK} IDs and then cached.
+     *
+     * @return found contracts keyed by ID, in request order (unknown IDs are absent)
+     */
+    public Map<UUID, Contract> getContracts(List<UUID> contractIds) {
+        List<UUID> ids = contractIds.stream().distinct().toList();
+        if (ids.size() > MAX_BATCH_GET) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_GET + " contract IDs can be requested at once");
+        }
+
+        Map<UUID, Contract> found = contractCache.getAll(ids, misses -> {
+            List<Contract> loaded = new ArrayList<>(misses.size());
+            for (int from = 0; from < misses.size(); from += BATCH_GET_CHUNK) {
+                loaded.addAll(contractRepository.findAllById(
+                        misses.subList(from, Math.min(from + BATCH_GET_CHUNK, misses.size()))));
+            }
+            return loaded;
+        });
+
+        Map<UUID, Contract> ordered = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            Contract contract = found.get(id);
+            if (contract != null) {
+                ordered.put(id, contract);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * When the contract was last modified, without loading it: a single-column
+     * lookup. Always read from the database, since a cached copy can lag a
+     * commit on another node. Empty if it does not exist.
+     */
+    public Optional<Instant> getContractUpdatedAt(UUID contractId) {
+        return contractRepository.findUpdatedAtById(contractId);
+    }
+
+    /**
+     * Get the persisted instalment schedule for an EMI contract
+     */
+    public List<Installment> getSchedule(UUID contractId) {
+        return installmentScheduleService.getSchedule(contractId);
+    }
+
+    /**
+     * Regenerate instalment schedules for all EMI contracts of a merchant
+     */
+    public int recomputeSchedules(Merchant merchant) {
+        return installmentScheduleService.recomputePortfolio(merchant);
+    }
+
+    /**
+     * Load the managed entity straight from the database, for mutations
+     */
+    private Contract loadContract(UUID contractId) {
         return contractRepository.findById(contractId)
                 .orElseThrow(() -> new RuntimeException("Contract not found: " + contractId));
     }
@@ -185,25 +397,76 @@ public class ContractService {
     }
 
     /**
-     * Calculate EMI using reducing balance method
+     * Keyset-paginated listing for a merchant, newest first
      */
-    private BigDecimal calculateEMI(ContractRequest request) {
-        // Simple EMI calculation: P * r * (1+r)^n / ((1+r)^n - 1)
-        // For demo, just divide principal by number of payments
-        long months = java.time.temporal.ChronoUnit.MONTHS.between(
-                request.getStartDate(), 
-                request.getEndDate()
-        );
-        
-        if (months <= 0) {
-            throw new IllegalArgumentException("End date must be after start date");
+    @Transactional(readOnly = true)
+    public CursorPage<Contract> scrollContracts(Merchant merchant, String cursor, int limit, boolean includeTotal) {
+        Limit fetch = fetchLimit(limit);
+        List<Contract> rows;
+        if (cursor == null) {
+            rows = contractRepository.findFirstPageByMerchant(merchant, fetch);
+        } else {
+            ContractCursor after = ContractCursor.decode(cursor);
+            rows = contractRepository.findPageByMerchantAfter(merchant, after.getCreatedAt(), after.getId(), fetch);
         }
-        
-        return request.getPrincipalAmount().divide(
-                BigDecimal.valueOf(months), 
-                2, 
-                BigDecimal.ROUND_HALF_UP
-        );
+        Long total = includeTotal ? contractRepository.countByMerchant(merchant) : null;
+        return toCursorPage(rows, limit, total);
+    }
+
+    /**
+     * Keyset-paginated listing for a payer, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Contract> scrollContractsByPayer(Payer payer, String cursor, int limit, boolean includeTotal) {
+        Limit fetch = fetchLimit(limit);
+        List<Contract> rows;
+        if (cursor == null) {
+            rows = contractRepository.findFirstPageByPayer(payer, fetch);
+        } else {
+            ContractCursor after = ContractCursor.decode(cursor);
+            rows = contractRepository.findPageByPayerAfter(payer, after.getCreatedAt(), after.getId(), fetch);
+        }
+        Long total = includeTotal ? contractRepository.countByPayer(payer) : null;
+        return toCursorPage(rows, limit, total);
+    }
+
+    /**
+     * Keyset-paginated listing for a merchant filtered by status, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Contract> scrollContractsByStatus(Merchant merchant, Contract.ContractStatus status,
+                                                        String cursor, int limit, boolean includeTotal) {
+        Limit fetch = fetchLimit(limit);
+        List<Contract> rows;
+        if (cursor == null) {
+            rows = contractRepository.findFirstPageByMerchantAndStatus(merchant, status, fetch);
+        } else {
+            ContractCursor after = ContractCursor.decode(cursor);
+            rows = contractRepository.findPageByMerchantAndStatusAfter(
+                    merchant, status, after.getCreatedAt(), after.getId(), fetch);
+        }
+        Long total = includeTotal ? contractRepository.countByMerchantAndStatus(merchant, status) : null;
+        return toCursorPage(rows, limit, total);
+    }
+
+    /**
+     * Fetch one row beyond the page size so we know whether another page exists
+     * without a COUNT(*)
+     */
+    private Limit fetchLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(limit + 1);
+    }
+
+    private CursorPage<Contract> toCursorPage(List<Contract> rows, int limit, Long total) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, total);
+        }
+        List<Contract> page = rows.subList(0, limit);
+        String next = ContractCursor.of(page.get(limit - 1)).encode();
+        return new CursorPage<>(page, next, total);
     }
 
     /**
@@ -234,16 +497,22 @@ public class ContractService {
         private LocalDate endDate;
         private String paymentType;
         private String paymentFrequency;
+        private String interestMethod;
 
         public ContractRequest() {}
 
         public ContractRequest(BigDecimal principalAmount, BigDecimal interestRate, LocalDate startDate, LocalDate endDate, String paymentType, String paymentFrequency) {
+            this(principalAmount, interestRate, startDate, endDate, paymentType, paymentFrequency, null);
+        }
+
+        public ContractRequest(BigDecimal principalAmount, BigDecimal interestRate, LocalDate startDate, LocalDate endDate, String paymentType, String paymentFrequency, String interestMethod) {
             this.principalAmount = principalAmount;
             this.interestRate = interestRate;
             this.startDate = startDate;
             this.endDate = endDate;
             this.paymentType = paymentType;
             this.paymentFrequency = paymentFrequency;
+            this.interestMethod = interestMethod;
         }
 
         public static ContractRequestBuilder builder() {
@@ -262,6 +531,8 @@ public class ContractService {
         public void setPaymentType(String paymentType) { this.paymentType = paymentType; }
         public String getPaymentFrequency() { return paymentFrequency; }
         public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
+        public String getInterestMethod() { return interestMethod; }
+        public void setInterestMethod(String interestMethod) { this.interestMethod = interestMethod; }
 
         public static class ContractRequestBuilder {
             private BigDecimal principalAmount;
@@ -270,6 +541,7 @@ public class ContractService {
             private LocalDate endDate;
             private String paymentType;
             private String paymentFrequency;
+            private String interestMethod;
 
             public ContractRequestBuilder principalAmount(BigDecimal principalAmount) { this.principalAmount = principalAmount; return this; }
             public ContractRequestBuilder interestRate(BigDecimal interestRate) { this.interestRate = interestRate; return this; }
@@ -277,7 +549,8 @@ public class ContractService {
             public ContractRequestBuilder endDate(LocalDate endDate) { this.endDate = endDate; return this; }
             public ContractRequestBuilder paymentType(String paymentType) { this.paymentType = paymentType; return this; }
             public ContractRequestBuilder paymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; return this; }
-            public ContractRequest build() { return new ContractRequest(principalAmount, interestRate, startDate, endDate, paymentType, paymentFrequency); }
+            public ContractRequestBuilder interestMethod(String interestMethod) { this.interestMethod = interestMethod; return this; }
+            public ContractRequest build() { return new ContractRequest(principalAmount, interestRate, startDate, endDate, paymentType, paymentFrequency, interestMethod); }
         }
     }
 }
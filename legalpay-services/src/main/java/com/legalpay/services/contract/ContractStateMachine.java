@@ -0,0 +1,70 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract.ContractStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Allowed contract status transitions. Every status change - single-row or bulk -
+ * is checked here before it is written.
+ */
+public final class ContractStateMachine {
+
+    private static final Map<ContractStatus, Set<ContractStatus>> TRANSITIONS = new EnumMap<>(ContractStatus.class);
+
+    static {
+        allow(ContractStatus.DRAFT, ContractStatus.PENDING_ESIGN, ContractStatus.CANCELLED);
+        allow(ContractStatus.PENDING_ESIGN, ContractStatus.SIGNED, ContractStatus.CANCELLED);
+        allow(ContractStatus.SIGNED, ContractStatus.ACTIVE, ContractStatus.COMPLETED,
+                ContractStatus.DEFAULTED, ContractStatus.CANCELLED);
+        allow(ContractStatus.ACTIVE, ContractStatus.COMPLETED, ContractStatus.DEFAULTED);
+        allow(ContractStatus.DEFAULTED, ContractStatus.LEGAL_NOTICE_SENT, ContractStatus.COMPLETED);
+        allow(ContractStatus.LEGAL_NOTICE_SENT, ContractStatus.COMPLETED);
+        allow(ContractStatus.COMPLETED);
+        allow(ContractStatus.CANCELLED);
+    }
+
+    private ContractStateMachine() {}
+
+    private static void allow(ContractStatus from, ContractStatus... to) {
+        Set<ContractStatus> targets = EnumSet.noneOf(ContractStatus.class);
+        Collections.addAll(targets, to);
+        TRANSITIONS.put(from, Collections.unmodifiableSet(targets));
+    }
+
+    public static boolean canTransition(ContractStatus from, ContractStatus to) {
+        return TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /**
+     * @throws IllegalStateException if {@code from -> to} is not an allowed transition
+     */
+    public static void requireTransition(ContractStatus from, ContractStatus to) {
+        if (!canTransition(from, to)) {
+            throw new IllegalStateException("Contract must be in " + describe(sourcesOf(to))
+                    + " state to move to " + to + " (current: " + from + ")");
+        }
+    }
+
+    /**
+     * Statuses from which {@code to} can be reached
+     */
+    public static Set<ContractStatus> sourcesOf(ContractStatus to) {
+        Set<ContractStatus> sources = EnumSet.noneOf(ContractStatus.class);
+        TRANSITIONS.forEach((from, targets) -> {
+            if (targets.contains(to)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
+
+    private static String describe(Set<ContractStatus> statuses) {
+        return statuses.stream().map(Enum::name).collect(Collectors.joining(" or "));
+    }
+}
@@ -0,0 +1,164 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.BlockchainAuditLog;
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.domain.repository.MandateRepository;
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import com.legalpay.services.blockchain.BlockchainService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything the contract detail page shows, in one call. The contract and each
+ * requested part (payments, mandate, audit trail) are independent reads, so they
+ * run concurrently on virtual threads and the response takes as long as the
+ * slowest of them rather than their sum.
+ */
+@Service
+public class ContractViewService {
+
+    public enum Part {
+        PAYMENTS, MANDATE, AUDIT;
+
+        /**
+         * Parse a comma-separated list such as {@code "payments,audit"}; blank means all parts
+         */
+        public static Set<Part> parse(String value) {
+            if (value == null || value.isBlank()) {
+                return EnumSet.allOf(Part.class);
+            }
+            Set<Part> parts = EnumSet.noneOf(Part.class);
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                try {
+                    parts.add(Part.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown contract view part: " + trimmed);
+                }
+            }
+            return parts;
+        }
+    }
+
+    private final ContractService contractService;
+    private final RazorpayPaymentRepository razorpayPaymentRepository;
+    private final MandateRepository mandateRepository;
+    private final BlockchainService blockchainService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMillis;
+
+    public ContractViewService(ContractService contractService,
+                               RazorpayPaymentRepository razorpayPaymentRepository,
+                               MandateRepository mandateRepository,
+                               BlockchainService blockchainService,
+                               @Value("${legalpay.contracts.view-timeout:PT5S}") Duration timeout) {
+        this.contractService = contractService;
+        this.razorpayPaymentRepository = razorpayPaymentRepository;
+        this.mandateRepository = mandateRepository;
+        this.blockchainService = blockchainService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * @throws RuntimeException if the contract does not exist
+     */
+    public ContractView getView(UUID contractId, Set<Part> parts) {
+        Future<Contract> contract = executor.submit(() -> contractService.getContract(contractId));
+        Future<List<RazorpayPayment>> payments = parts.contains(Part.PAYMENTS)
+                ? executor.submit(() -> razorpayPaymentRepository.findByContractId(contractId)) : null;
+        Future<Mandate> mandate = parts.contains(Part.MANDATE)
+                ? executor.submit(() -> mandateRepository.findByContractId(contractId).orElse(null)) : null;
+        Future<List<BlockchainAuditLog>> auditTrail = parts.contains(Part.AUDIT)
+                ? executor.submit(() -> blockchainService.getAuditTrail(contractId)) : null;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            return new ContractView(
+                    await(contract, deadline),
+                    payments != null ? await(payments, deadline) : null,
+                    mandate != null ? await(mandate, deadline) : null,
+                    parts.contains(Part.MANDATE),
+                    auditTrail != null ? await(auditTrail, deadline) : null);
+        } finally {
+            cancel(contract);
+            cancel(payments);
+            cancel(mandate);
+            cancel(auditTrail);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <T> T await(Future<T> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Contract view lookup failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Contract view lookup timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading contract view", e);
+        }
+    }
+
+    /**
+     * After a failure the remaining lookups are no longer needed
+     */
+    private static void cancel(Future<?> future) {
+        if (future != null && !future.isDone()) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * A contract plus the parts that were requested; parts not requested are null
+     */
+    public static final class ContractView {
+        private final Contract contract;
+        private final List<RazorpayPayment> payments;
+        private final Mandate mandate;
+        private final boolean mandateRequested;
+        private final List<BlockchainAuditLog> auditTrail;
+
+        ContractView(Contract contract, List<RazorpayPayment> payments, Mandate mandate,
+                     boolean mandateRequested, List<BlockchainAuditLog> auditTrail) {
+            this.contract = contract;
+            this.payments = payments;
+            this.mandate = mandate;
+            this.mandateRequested = mandateRequested;
+            this.auditTrail = auditTrail;
+        }
+
+        public Contract getContract() { return contract; }
+        public List<RazorpayPayment> getPayments() { return payments; }
+        public Mandate getMandate() { return mandate; }
+        public boolean isMandateRequested() { return mandateRequested; }
+        public List<BlockchainAuditLog> getAuditTrail() { return auditTrail; }
+    }
+}
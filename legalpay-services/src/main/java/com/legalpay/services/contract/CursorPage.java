@@ -0,0 +1,33 @@
+package com.legalpay.services.contract;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code nextCursor} is null on the last page; {@code totalElements} is only
+ * populated when the caller explicitly asked for it.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long totalElements;
+
+    public CursorPage(List<T> content, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, nextCursor, totalElements);
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return nextCursor != null; }
+    public int getSize() { return content.size(); }
+    public Long getTotalElements() { return totalElements; }
+}
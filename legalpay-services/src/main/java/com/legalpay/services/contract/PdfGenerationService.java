@@ -1,10 +1,19 @@
 package com.legalpay.services.contract;
 
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
 import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.repository.LegalNoticeRepository.NoticeWorkView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 /**
  * DUMMY PDF Generation Service
  * In production: Use iText to generate actual PDFs and upload to Cloudflare R2/AWS S3
@@ -25,4 +34,31 @@ public class PdfGenerationService {
         
         return "https://storage.legalpay.in/contracts/" + contract.getId() + ".pdf";
     }
+
+    /**
+     * Render a demand notice for a defaulted contract. Stateless and thread-safe,
+     * so the notice pipeline calls it from several workers at once.
+     */
+    public byte[] renderLegalNotice(NoticeWorkView notice, LocalDate issueDate) {
+        BigDecimal paid = notice.getTotalPaidAmount() != null ? notice.getTotalPaidAmount() : BigDecimal.ZERO;
+        BigDecimal outstanding = notice.getPrincipalAmount().subtract(paid).max(BigDecimal.ZERO);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+            document.add(new Paragraph("LEGAL NOTICE FOR RECOVERY OF DUES").setBold().setFontSize(16));
+            document.add(new Paragraph("Date: " + issueDate));
+            document.add(new Paragraph("To: " + notice.getPayerName()));
+            document.add(new Paragraph("From: " + notice.getMerchantName()));
+            document.add(new Paragraph("Contract reference: " + notice.getContractId()));
+            document.add(new Paragraph(String.format(
+                    "Under the above contract you agreed to repay Rs. %s by %s. Rs. %s has been received, "
+                    + "leaving Rs. %s outstanding. The contract has been declared in default.",
+                    notice.getPrincipalAmount().toPlainString(), notice.getEndDate(),
+                    paid.toPlainString(), outstanding.toPlainString())));
+            document.add(new Paragraph(
+                    "You are called upon to pay the outstanding amount within 15 days of receipt of this notice, "
+                    + "failing which proceedings will be initiated against you without further reference."));
+        }
+        return out.toByteArray();
+    }
 }
@@ -0,0 +1,24 @@
+package com.legalpay.services.esign;
+
+import java.util.List;
+
+/**
+ * eSign provider (Digio, Leegality, ...). Documents are submitted in batches so
+ * bulk initiation costs one round trip per batch rather than per contract.
+ * Pattern: Adapter Pattern (abstracts third-party APIs)
+ */
+public interface ESignProvider {
+
+    /**
+     * Largest number of documents accepted by one {@link #submit} call
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Send documents for signing.
+     *
+     * @return one result per request, in request order; a document the provider
+     *         rejected gets a failed result rather than failing the whole batch
+     */
+    List<ESignResult> submit(List<ESignRequest> requests);
+}
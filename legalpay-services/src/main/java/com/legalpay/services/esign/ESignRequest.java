@@ -0,0 +1,29 @@
+package com.legalpay.services.esign;
+
+import java.util.UUID;
+
+/**
+ * A contract document to be sent for signing
+ */
+public final class ESignRequest {
+
+    private final UUID contractId;
+    private final String pdfUrl;
+    private final String sha256Hash;
+    private final String signerName;
+    private final String signerEmail;
+
+    public ESignRequest(UUID contractId, String pdfUrl, String sha256Hash, String signerName, String signerEmail) {
+        this.contractId = contractId;
+        this.pdfUrl = pdfUrl;
+        this.sha256Hash = sha256Hash;
+        this.signerName = signerName;
+        this.signerEmail = signerEmail;
+    }
+
+    public UUID getContractId() { return contractId; }
+    public String getPdfUrl() { return pdfUrl; }
+    public String getSha256Hash() { return sha256Hash; }
+    public String getSignerName() { return signerName; }
+    public String getSignerEmail() { return signerEmail; }
+}
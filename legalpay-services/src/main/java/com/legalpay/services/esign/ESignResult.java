@@ -0,0 +1,32 @@
+package com.legalpay.services.esign;
+
+import java.util.UUID;
+
+/**
+ * Provider outcome for one submitted document
+ */
+public final class ESignResult {
+
+    private final UUID contractId;
+    private final String documentId;
+    private final String error;
+
+    private ESignResult(UUID contractId, String documentId, String error) {
+        this.contractId = contractId;
+        this.documentId = documentId;
+        this.error = error;
+    }
+
+    public static ESignResult accepted(UUID contractId, String documentId) {
+        return new ESignResult(contractId, documentId, null);
+    }
+
+    public static ESignResult rejected(UUID contractId, String error) {
+        return new ESignResult(contractId, null, error);
+    }
+
+    public boolean isAccepted() { return documentId != null; }
+    public UUID getContractId() { return contractId; }
+    public String getDocumentId() { return documentId; }
+    public String getError() { return error; }
+}
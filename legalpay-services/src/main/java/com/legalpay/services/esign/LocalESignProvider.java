@@ -0,0 +1,48 @@
+package com.legalpay.services.esign;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DUMMY eSign provider for local development: accepts every document and
+ * returns a generated document ID.
+ * In production: replace with a Digio/Leegality adapter (legalpay.esign.provider)
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.esign.provider", havingValue = "local", matchIfMissing = true)
+public class LocalESignProvider implements ESignProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalESignProvider.class);
+
+    private final int maxBatchSize;
+
+    public LocalESignProvider(@Value("${legalpay.esign.batch-size:100}") int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public List<ESignResult> submit(List<ESignRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + requests.size() + " exceeds maximum " + maxBatchSize);
+        }
+        log.info("DUMMY: Submitting {} documents for eSign", requests.size());
+
+        List<ESignResult> results = new ArrayList<>(requests.size());
+        for (ESignRequest request : requests) {
+            results.add(ESignResult.accepted(request.getContractId(), "esign_" + UUID.randomUUID()));
+        }
+        return results;
+    }
+}
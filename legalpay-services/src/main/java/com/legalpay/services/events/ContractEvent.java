@@ -0,0 +1,93 @@
+package com.legalpay.services.events;
+
+import com.legalpay.domain.entity.Contract;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A committed change to a contract or its payments, as pushed to event stream subscribers
+ */
+public class ContractEvent {
+
+    public enum Type {
+        CONTRACT_CREATED("contract.created"),
+        STATUS_CHANGED("contract.status"),
+        PAYMENT_CAPTURED("payment.captured"),
+        PAYMENT_FAILED("payment.failed");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * SSE event name
+         */
+        public String getEventName() { return eventName; }
+    }
+
+    private UUID id;
+    private Type type;
+    private UUID contractId;
+    private UUID merchantId;
+    private Contract.ContractStatus previousStatus;
+    private Contract.ContractStatus status;
+    private BigDecimal amount;
+    private Instant occurredAt;
+
+    public ContractEvent() {}
+
+    private ContractEvent(Type type, UUID contractId, UUID merchantId) {
+        this.id = UUID.randomUUID();
+        this.type = type;
+        this.contractId = contractId;
+        this.merchantId = merchantId;
+        this.occurredAt = Instant.now();
+    }
+
+    public static ContractEvent created(UUID contractId, UUID merchantId, Contract.ContractStatus status) {
+        ContractEvent event = new ContractEvent(Type.CONTRACT_CREATED, contractId, merchantId);
+        event.status = status;
+        return event;
+    }
+
+    public static ContractEvent statusChanged(UUID contractId, UUID merchantId,
+                                              Contract.ContractStatus from, Contract.ContractStatus to) {
+        ContractEvent event = new ContractEvent(Type.STATUS_CHANGED, contractId, merchantId);
+        event.previousStatus = from;
+        event.status = to;
+        return event;
+    }
+
+    public static ContractEvent paymentCaptured(UUID contractId, UUID merchantId, BigDecimal amount) {
+        ContractEvent event = new ContractEvent(Type.PAYMENT_CAPTURED, contractId, merchantId);
+        event.amount = amount;
+        return event;
+    }
+
+    public static ContractEvent paymentFailed(UUID contractId, UUID merchantId, BigDecimal amount) {
+        ContractEvent event = new ContractEvent(Type.PAYMENT_FAILED, contractId, merchantId);
+        event.amount = amount;
+        return event;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public UUID getContractId() { return contractId; }
+    public void setContractId(UUID contractId) { this.contractId = contractId; }
+    public UUID getMerchantId() { return merchantId; }
+    public void setMerchantId(UUID merchantId) { this.merchantId = merchantId; }
+    public Contract.ContractStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Contract.ContractStatus previousStatus) { this.previousStatus = previousStatus; }
+    public Contract.ContractStatus getStatus() { return status; }
+    public void setStatus(Contract.ContractStatus status) { this.status = status; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public Instant getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+}
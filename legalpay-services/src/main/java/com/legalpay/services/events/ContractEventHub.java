@@ -0,0 +1,315 @@
+package com.legalpay.services.events;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of contract events to stream subscribers (per contract or per merchant).
+ * <p>
+ * Each subscriber has a small bounded buffer. Publishing only enqueues; a fixed
+ * pool of platform writer threads drains a buffer whenever it has work, at most
+ * one writer per subscriber at a time and one buffer's worth per turn. The SSE
+ * writes block and synchronize on the emitter, which would pin virtual threads,
+ * so the pool size is what bounds concurrent socket writes. When a buffer is full
+ * the oldest event is dropped and the client is told how many it missed, so it
+ * can re-fetch state. An idle stream gets a heartbeat frame to keep proxies from
+ * closing it. With the Redis relay enabled, events are also broadcast to the
+ * other nodes.
+ */
+@Component
+public class ContractEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractEventHub.class);
+
+    /**
+     * Delivery target for one subscriber. Never called by two writer threads at once.
+     */
+    public interface Sink {
+        void send(ContractEvent event) throws IOException;
+
+        void dropped(long count) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        /**
+         * The subscription ended from the server side (write failure or shutdown)
+         */
+        void close();
+    }
+
+    private final Map<UUID, Set<Subscription>> byContract = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscription>> byMerchant = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ObjectProvider<RedisContractEventRelay> relay;
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final int maxSubscribers;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeats;
+
+    public ContractEventHub(ObjectProvider<RedisContractEventRelay> relay,
+                            @Value("${legalpay.events.buffer-size:64}") int bufferSize,
+                            @Value("${legalpay.events.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                            @Value("${legalpay.events.max-subscribers:20000}") int maxSubscribers,
+                            @Value("${legalpay.events.writer-threads:16}") int writerThreads) {
+        this.relay = relay;
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = heartbeatInterval.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), daemon("contract-events-writer"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("contract-events-heartbeat"));
+        long tick = Math.max(1, heartbeatMillis / 2);
+        heartbeats.scheduleWithFixedDelay(this::heartbeatIdle, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the writers and end every open stream
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        closeAll(byContract);
+        closeAll(byMerchant);
+    }
+
+    public Subscription subscribeToContract(UUID contractId, Sink sink) {
+        return subscribe(byContract, contractId, sink);
+    }
+
+    public Subscription subscribeToMerchant(UUID merchantId, Sink sink) {
+        return subscribe(byMerchant, merchantId, sink);
+    }
+
+    /**
+     * Publish once the surrounding transaction commits (immediately if there is none),
+     * so subscribers never see a change that is later rolled back
+     */
+    public void publishAfterCommit(ContractEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    public void publish(ContractEvent event) {
+        deliverLocal(event);
+        RedisContractEventRelay r = relay.getIfAvailable();
+        if (r != null) {
+            r.publish(nodeId, event);
+        }
+    }
+
+    /**
+     * Deliver an event relayed from another node; our own broadcasts are ignored
+     */
+    public void onRemoteEvent(String originNodeId, ContractEvent event) {
+        if (!nodeId.equals(originNodeId)) {
+            deliverLocal(event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void deliverLocal(ContractEvent event) {
+        offerAll(byContract.get(event.getContractId()), event);
+        if (event.getMerchantId() != null) {
+            offerAll(byMerchant.get(event.getMerchantId()), event);
+        }
+    }
+
+    private static void offerAll(Set<Subscription> subscriptions, ContractEvent event) {
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    private void heartbeatIdle() {
+        long idleBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        for (Set<Subscription> subscriptions : byContract.values()) {
+            subscriptions.forEach(s -> s.heartbeatIfIdle(idleBefore));
+        }
+        for (Set<Subscription> subscriptions : byMerchant.values()) {
+            subscriptions.forEach(s -> s.heartbeatIfIdle(idleBefore));
+        }
+    }
+
+    private static void closeAll(Map<UUID, Set<Subscription>> index) {
+        for (Set<Subscription> subscriptions : index.values()) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.unregister()) {
+                    subscription.sink.close();
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + sequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private Subscription subscribe(Map<UUID, Set<Subscription>> index, UUID key, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many event stream subscribers");
+        }
+        Subscription subscription = new Subscription(index, key, sink);
+        index.compute(key, (k, set) -> {
+            Set<Subscription> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscription);
+            return subscribers;
+        });
+        return subscription;
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final Map<UUID, Set<Subscription>> index;
+        private final UUID key;
+        private final Sink sink;
+        private final ArrayBlockingQueue<ContractEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile long lastWriteNanos = System.nanoTime();
+
+        private Subscription(Map<UUID, Set<Subscription>> index, UUID key, Sink sink) {
+            this.index = index;
+            this.key = key;
+            this.sink = sink;
+        }
+
+        /**
+         * Never blocks the publisher: on a full buffer the oldest event makes room
+         */
+        void offer(ContractEvent event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        private void heartbeatIfIdle(long idleBeforeNanos) {
+            if (lastWriteNanos - idleBeforeNanos < 0) {
+                heartbeatDue = true;
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false); // shutting down
+            }
+        }
+
+        /**
+         * Write what is buffered, at most one buffer's worth, then give the
+         * writer thread back and re-queue if more arrived meanwhile
+         */
+        private void drain() {
+            try {
+                boolean wrote = false;
+                for (int i = 0; i < bufferSize && !closed.get(); i++) {
+                    long missed = dropped.getAndSet(0);
+                    if (missed > 0) {
+                        sink.dropped(missed);
+                        wrote = true;
+                    }
+                    ContractEvent event = buffer.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    sink.send(event);
+                    wrote = true;
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    if (!wrote && !closed.get()) {
+                        sink.heartbeat();
+                    }
+                }
+                lastWriteNanos = System.nanoTime();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Event stream for {} closed: {}", key, e.getMessage());
+                if (unregister()) {
+                    sink.close();
+                }
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!buffer.isEmpty() || dropped.get() > 0) {
+                schedule();
+            }
+        }
+
+        /**
+         * Client went away (or the request timed out); stop delivery
+         */
+        @Override
+        public void close() {
+            if (unregister()) {
+                buffer.clear();
+            }
+        }
+
+        private boolean unregister() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            index.computeIfPresent(key, (k, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+    }
+}
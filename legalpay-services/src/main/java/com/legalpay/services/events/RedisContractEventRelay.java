@@ -0,0 +1,54 @@
+package com.legalpay.services.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts contract events to the other nodes over Redis pub/sub, so a client
+ * streaming from one node sees changes committed on any node.
+ * Messages are "originNodeId\njson". Delivery is best effort, like the stream itself.
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.events.redis.enabled", havingValue = "true")
+public class RedisContractEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisContractEventRelay.class);
+
+    public static final String CHANNEL = "legalpay:events:contracts";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RedisContractEventRelay(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void publish(String originNodeId, ContractEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, originNodeId + "\n" + objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.warn("Failed to relay {} event for contract {}: {}", event.getType(), event.getContractId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Hand a message received from the channel to the local hub
+     */
+    public void onMessage(String message, ContractEventHub hub) {
+        int separator = message.indexOf('\n');
+        if (separator < 0) {
+            return;
+        }
+        try {
+            ContractEvent event = objectMapper.readValue(message.substring(separator + 1), ContractEvent.class);
+            hub.onRemoteEvent(message.substring(0, separator), event);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed contract event message: {}", e.getMessage());
+        }
+    }
+}
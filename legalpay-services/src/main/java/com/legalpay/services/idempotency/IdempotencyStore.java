@@ -0,0 +1,323 @@
+package com.legalpay.services.idempotency;
+
+import com.legalpay.services.cache.BoundedLocalCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Request-fingerprint store behind Idempotency-Key handling.
+ * <p>
+ * A key is claimed by inserting an IN_PROGRESS row into idempotency_keys; the
+ * primary key makes exactly one caller the executor, across nodes. The executor
+ * then either {@link #complete completes} the key with the response to replay
+ * or {@link #abandon abandons} it so a retry can execute again. Duplicates on
+ * the same node wait on the executor's future; duplicates on other nodes poll
+ * the row. Completed responses are also kept in a bounded local cache, so hot
+ * retries are answered without a database round trip. While a request runs,
+ * its node renews the IN_PROGRESS lease every third of {@code in-progress-lease},
+ * so a slow gateway call never lets a duplicate execute; an executor that dies
+ * leaves a lease that expires after at most {@code in-progress-lease}.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final String INSERT =
+            "INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at) " +
+            "VALUES (?, ?, 'IN_PROGRESS', ?, ?)";
+    private static final String SELECT =
+            "SELECT fingerprint, status, response_status, content_type, response_body, expires_at " +
+            "FROM idempotency_keys WHERE idempotency_key = ?";
+    private static final String COMPLETE =
+            "UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, content_type = ?, " +
+            "response_body = ?, expires_at = ? WHERE idempotency_key = ? AND status = 'IN_PROGRESS'";
+    private static final String RENEW =
+            "UPDATE idempotency_keys SET expires_at = ? WHERE idempotency_key = ? AND status = 'IN_PROGRESS'";
+    private static final String DELETE_IN_PROGRESS =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = 'IN_PROGRESS'";
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?";
+    private static final String PURGE_EXPIRED =
+            "DELETE FROM idempotency_keys WHERE expires_at < ?";
+
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * What the caller should do with its request
+     */
+    public enum Outcome {
+        EXECUTE,     // Caller owns the key: run the request, then complete or abandon
+        REPLAY,      // Same request already completed: send the stored response
+        MISMATCH,    // Key already used with a different request
+        IN_PROGRESS  // Same request still executing elsewhere after the wait timeout
+    }
+
+    public static final class Decision {
+        private final Outcome outcome;
+        private final StoredResponse response;
+
+        private Decision(Outcome outcome, StoredResponse response) {
+            this.outcome = outcome;
+            this.response = response;
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        public StoredResponse getResponse() { return response; }
+    }
+
+    public static final class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getFingerprint() { return fingerprint; }
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public byte[] getBody() { return body; }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedLocalCache<String, StoredResponse> completed;
+    // Completed with the response, or with null when the executor abandoned the key
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> executing = new ConcurrentHashMap<>();
+    // Keys whose IN_PROGRESS row this node inserted and is executing
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leaseRenewer;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${legalpay.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${legalpay.idempotency.in-progress-lease:PT1M}") Duration inProgressLease,
+                            @Value("${legalpay.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+                            @Value("${legalpay.idempotency.cache-size:10000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.inProgressLease = inProgressLease;
+        this.waitTimeout = waitTimeout;
+        this.completed = new BoundedLocalCache<>(cacheSize, ttl);
+        // Own thread rather than @Scheduled: API-only nodes run with scheduling disabled
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-lease");
+            t.setDaemon(true);
+            return t;
+        });
+        long renewMillis = Math.max(1, inProgressLease.toMillis() / 3);
+        leaseRenewer.scheduleWithFixedDelay(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Claim {@code key} for a request with {@code fingerprint}, or find out how
+     * the request that holds it went. Blocks up to {@code wait-timeout} while a
+     * duplicate is executing.
+     */
+    public Decision begin(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(key);
+            if (cached != null) {
+                return replayOrMismatch(cached, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = executing.putIfAbsent(key, mine);
+            if (running != null) {
+                StoredResponse response;
+                try {
+                    response = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    return new Decision(Outcome.IN_PROGRESS, null);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new Decision(Outcome.IN_PROGRESS, null);
+                } catch (ExecutionException e) {
+                    response = null;
+                }
+                if (response != null) {
+                    return replayOrMismatch(response, fingerprint);
+                }
+                continue; // Abandoned: try to execute it ourselves
+            }
+
+            Decision decision;
+            try {
+                decision = claim(key, fingerprint, deadline);
+            } catch (RuntimeException e) {
+                executing.remove(key, mine);
+                mine.complete(null);
+                throw e;
+            }
+            if (decision.outcome == Outcome.EXECUTE) {
+                owned.add(key);
+            } else {
+                // Local waiters re-check against the stored outcome themselves
+                executing.remove(key, mine);
+                mine.complete(decision.response);
+            }
+            return decision;
+        }
+    }
+
+    /**
+     * Store the executed request's response for replay and release local waiters
+     */
+    public void complete(String key, StoredResponse response) {
+        Instant now = Instant.now();
+        try {
+            jdbcTemplate.update(COMPLETE, response.getStatus(), response.getContentType(),
+                    new String(response.getBody(), StandardCharsets.UTF_8),
+                    Timestamp.from(now.plus(ttl)), key);
+            completed.put(key, response);
+        } finally {
+            owned.remove(key);
+            CompletableFuture<StoredResponse> running = executing.remove(key);
+            if (running != null) {
+                running.complete(response);
+            }
+        }
+    }
+
+    /**
+     * Give the key up without a stored response; the next attempt executes again
+     */
+    public void abandon(String key) {
+        try {
+            jdbcTemplate.update(DELETE_IN_PROGRESS, key);
+        } finally {
+            owned.remove(key);
+            CompletableFuture<StoredResponse> running = executing.remove(key);
+            if (running != null) {
+                running.complete(null);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_EXPIRED, Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * Push out the lease of every request still executing on this node
+     */
+    void renewLeases() {
+        if (owned.isEmpty()) {
+            return;
+        }
+        Timestamp expiresAt = Timestamp.from(Instant.now().plus(inProgressLease));
+        List<Object[]> args = owned.stream().map(key -> new Object[] { expiresAt, key }).toList();
+        try {
+            jdbcTemplate.batchUpdate(RENEW, args);
+        } catch (RuntimeException e) {
+            // Retried on the next tick; the lease still has two thirds left
+            log.warn("Failed to renew idempotency leases: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    private Decision claim(String key, String fingerprint, long deadline) {
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                jdbcTemplate.update(INSERT, key, fingerprint, Timestamp.from(now),
+                        Timestamp.from(now.plus(inProgressLease)));
+                return new Decision(Outcome.EXECUTE, null);
+            } catch (DuplicateKeyException e) {
+                // Held or completed by an earlier request; look at it below
+            }
+
+            List<Row> rows = jdbcTemplate.query(SELECT, (rs, i) -> new Row(
+                    rs.getString("fingerprint"), rs.getString("status"),
+                    rs.getInt("response_status"), rs.getString("content_type"),
+                    rs.getString("response_body"), rs.getTimestamp("expires_at").toInstant()), key);
+            if (rows.isEmpty()) {
+                continue; // Abandoned or purged in between
+            }
+            Row row = rows.get(0);
+            if (row.expiresAt.isBefore(now)) {
+                jdbcTemplate.update(DELETE_EXPIRED, key, Timestamp.from(now));
+                continue;
+            }
+            if (!row.fingerprint.equals(fingerprint)) {
+                return new Decision(Outcome.MISMATCH, null);
+            }
+            if ("COMPLETED".equals(row.status)) {
+                StoredResponse response = new StoredResponse(row.fingerprint, row.responseStatus, row.contentType,
+                        row.responseBody != null ? row.responseBody.getBytes(StandardCharsets.UTF_8) : new byte[0]);
+                completed.put(key, response);
+                return new Decision(Outcome.REPLAY, response);
+            }
+            if (System.nanoTime() >= deadline) {
+                return new Decision(Outcome.IN_PROGRESS, null);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Decision(Outcome.IN_PROGRESS, null);
+            }
+        }
+    }
+
+    private static Decision replayOrMismatch(StoredResponse response, String fingerprint) {
+        return response.getFingerprint().equals(fingerprint)
+                ? new Decision(Outcome.REPLAY, response)
+                : new Decision(Outcome.MISMATCH, null);
+    }
+
+    private static final class Row {
+        private final String fingerprint;
+        private final String status;
+        private final int responseStatus;
+        private final String contentType;
+        private final String responseBody;
+        private final Instant expiresAt;
+
+        private Row(String fingerprint, String status, int responseStatus, String contentType,
+                    String responseBody, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.responseStatus = responseStatus;
+            this.contentType = contentType;
+            this.responseBody = responseBody;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.legalpay.services.lifecycle;
+
+import com.legalpay.domain.entity.BlockchainAuditLog.EventType;
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.ContractRepository.TransitionCandidate;
+import com.legalpay.services.blockchain.AuditEvent;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.contract.ContractStateMachine;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves contracts whose term has ended into their terminal state:
+ * <ul>
+ *   <li>SIGNED/ACTIVE and fully PAID after endDate -> COMPLETED</li>
+ *   <li>SIGNED/ACTIVE and still unpaid once endDate + grace period has passed -> DEFAULTED</li>
+ * </ul>
+ * Candidates are found with an index range scan and transitioned in chunks by a
+ * JDBC batch of status-guarded UPDATEs, each chunk in its own transaction
+ * together with its merchant_stats deltas. The per-row update counts tell which
+ * candidates actually moved, and only those produce stats deltas, cache
+ * evictions and events. Audit events for a chunk are emitted as one batch after
+ * it commits. A scheduler_locks lease is renewed before every chunk so only one
+ * node sweeps at a time, and a node that loses its lease stops.
+ */
+@Component
+public class ContractLifecycleSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractLifecycleSweeper.class);
+
+    static final String LOCK_NAME = "contract-lifecycle-sweeper";
+
+    private static final List<Contract.ContractStatus> OPEN_STATUSES =
+            List.of(Contract.ContractStatus.SIGNED, Contract.ContractStatus.ACTIVE);
+    private static final List<String> PAID = List.of("PAID");
+    private static final List<String> UNPAID = List.of("PENDING", "PARTIAL", "FAILED");
+    private static final String TRANSITION =
+            "UPDATE contracts SET status = ?, updated_at = ?, version = version + 1 WHERE id = ? AND status = ?";
+
+    private final ContractRepository contractRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractCache contractCache;
+    private final BlockchainService blockchainService;
+    private final SchedulerLockService lockService;
+    private final ContractEventHub eventHub;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int defaultGraceDays;
+    private final Duration lockLease;
+
+    public ContractLifecycleSweeper(ContractRepository contractRepository,
+                                    MerchantStatsService merchantStatsService,
+                                    ContractCache contractCache,
+                                    BlockchainService blockchainService,
+                                    SchedulerLockService lockService,
+                                    ContractEventHub eventHub,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${legalpay.lifecycle.chunk-size:2000}") int chunkSize,
+                                    @Value("${legalpay.lifecycle.default-grace-days:30}") int defaultGraceDays,
+                                    @Value("${legalpay.lifecycle.lock-lease:PT5M}") Duration lockLease) {
+        this.contractRepository = contractRepository;
+        this.merchantStatsService = merchantStatsService;
+        this.contractCache = contractCache;
+        this.blockchainService = blockchainService;
+        this.lockService = lockService;
+        this.eventHub = eventHub;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.defaultGraceDays = defaultGraceDays;
+        this.lockLease = lockLease;
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.lifecycle.sweep-interval:PT15M}",
+               initialDelayString = "${legalpay.lifecycle.initial-delay:PT1M}")
+    public void scheduledSweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Run one sweep as of the given business date
+     *
+     * @return number of contracts transitioned, or -1 if another node holds the lock
+     */
+    public int sweep(LocalDate today) {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Lifecycle sweep skipped: lock held by another node");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        int completed = 0;
+        int defaulted = 0;
+        try {
+            completed = drain(PAID, today, Contract.ContractStatus.COMPLETED, EventType.CONTRACT_COMPLETED);
+            defaulted = drain(UNPAID, today.minusDays(defaultGraceDays),
+                    Contract.ContractStatus.DEFAULTED, EventType.CONTRACT_DEFAULTED);
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+        if (completed + defaulted > 0) {
+            log.info("Lifecycle sweep: completed={} defaulted={} took={}ms",
+                    completed, defaulted, System.currentTimeMillis() - started);
+        }
+        return completed + defaulted;
+    }
+
+    /**
+     * Process chunks until no candidates remain. Transitioned rows drop out of
+     * the candidate set, so each iteration simply takes the next oldest chunk.
+     */
+    private int drain(List<String> paymentStatuses, LocalDate endBefore,
+                      Contract.ContractStatus target, EventType eventType) {
+        int total = 0;
+        while (true) {
+            if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+                log.warn("Lifecycle sweep lost its lock after {} {} transitions", total, target);
+                return total;
+            }
+            Integer processed = transactionTemplate.execute(
+                    status -> processChunk(paymentStatuses, endBefore, target, eventType));
+            int selected = processed != null ? processed : 0;
+            total += selected;
+            if (selected < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * @return number of candidates selected (not necessarily all updated)
+     */
+    private int processChunk(List<String> paymentStatuses, LocalDate endBefore,
+                             Contract.ContractStatus target, EventType eventType) {
+        List<TransitionCandidate> candidates = contractRepository.findTransitionCandidates(
+                OPEN_STATUSES, paymentStatuses, endBefore, Limit.of(chunkSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(candidates.size());
+        for (TransitionCandidate c : candidates) {
+            ContractStateMachine.requireTransition(c.getStatus(), target);
+            args.add(new Object[] { target.name(), now, c.getId(), c.getStatus().name() });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(TRANSITION, args);
+
+        List<TransitionCandidate> transitioned = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[i] != 0) {
+                transitioned.add(candidates.get(i));
+            }
+        }
+        if (transitioned.size() != candidates.size()) {
+            log.info("Lifecycle sweep: {} of {} {} candidates changed concurrently and were skipped",
+                    candidates.size() - transitioned.size(), candidates.size(), target);
+        }
+        if (transitioned.isEmpty()) {
+            return candidates.size();
+        }
+
+        Map<Contract.ContractStatus, Map<UUID, Long>> perMerchant = new EnumMap<>(Contract.ContractStatus.class);
+        List<UUID> ids = new ArrayList<>(transitioned.size());
+        List<AuditEvent> events = new ArrayList<>(transitioned.size());
+        for (TransitionCandidate c : transitioned) {
+            perMerchant.computeIfAbsent(c.getStatus(), s -> new HashMap<>())
+                    .merge(c.getMerchantId(), 1L, Long::sum);
+            ids.add(c.getId());
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("contractId", c.getId().toString());
+            metadata.put("merchantId", c.getMerchantId().toString());
+            metadata.put("fromStatus", c.getStatus().name());
+            metadata.put("toStatus", target.name());
+            metadata.put("endDate", String.valueOf(c.getEndDate()));
+            metadata.put("principalAmount", String.valueOf(c.getPrincipalAmount()));
+            metadata.put("totalPaidAmount", String.valueOf(c.getTotalPaidAmount()));
+            events.add(new AuditEvent(eventType, c.getId(), "Contract", c.getPayerId(), metadata));
+            eventHub.publishAfterCommit(ContractEvent.statusChanged(c.getId(), c.getMerchantId(), c.getStatus(), target));
+        }
+        perMerchant.forEach((from, byMerchant) -> byMerchant.forEach(
+                (merchantId, count) -> merchantStatsService.statusChanged(merchantId, from, target, count)));
+        contractCache.evictAll(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                blockchainService.logEventsAsync(events);
+            }
+        });
+
+        return candidates.size();
+    }
+}
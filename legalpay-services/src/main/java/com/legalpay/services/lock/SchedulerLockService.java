@@ -0,0 +1,81 @@
+package com.legalpay.services.lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Database lease locks (scheduler_locks) so a scheduled job runs on one node at a time.
+ *
+ * A lease is taken or renewed with a single conditional UPDATE that only succeeds
+ * when the lease has expired or is already ours; the first acquisition inserts the
+ * row. Statements run outside any caller transaction so a lock is visible to other
+ * nodes immediately and a lost insert race cannot poison the caller's transaction.
+ * Leases expire on their own if the holder dies, so they must be longer than the
+ * work done between renewals.
+ */
+@Service
+public class SchedulerLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerLockService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public SchedulerLockService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Acquire the lock, or extend it if this node already holds it
+     *
+     * @return true if this node now holds the lease for the given duration
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean tryAcquire(String name, Duration lease) {
+        Instant now = Instant.now();
+        Timestamp nowTs = Timestamp.from(now);
+        Timestamp until = Timestamp.from(now.plus(lease));
+
+        int updated = jdbcTemplate.update(
+                "UPDATE scheduler_locks SET locked_by = ?, locked_at = ?, locked_until = ? " +
+                "WHERE name = ? AND (locked_until <= ? OR locked_by = ?)",
+                nodeId, nowTs, until, name, nowTs, nodeId);
+        if (updated > 0) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO scheduler_locks (name, locked_by, locked_at, locked_until) VALUES (?, ?, ?, ?)",
+                    name, nodeId, nowTs, until);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Lock {} is held by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Give the lease up early so another node does not have to wait for expiry
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void release(String name) {
+        jdbcTemplate.update(
+                "UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                Timestamp.from(Instant.now()), name, nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
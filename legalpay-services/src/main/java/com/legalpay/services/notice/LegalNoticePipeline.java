@@ -0,0 +1,630 @@
+package com.legalpay.services.notice;
+
+import com.legalpay.domain.entity.BlockchainAuditLog;
+import com.legalpay.domain.entity.BlockchainAuditLog.EventType;
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.LegalNotice;
+import com.legalpay.domain.entity.LegalNotice.Stage;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.LegalNoticeRepository;
+import com.legalpay.domain.repository.LegalNoticeRepository.NoticeWorkView;
+import com.legalpay.services.EmailService;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.contract.ContractStateMachine;
+import com.legalpay.services.contract.PdfGenerationService;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import com.legalpay.services.storage.DocumentStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues legal notices for every DEFAULTED contract in a collection cycle.
+ * <p>
+ * Work flows through five stages (render -> store -> email -> anchor -> finalize),
+ * each with its own bounded queue and worker pool. A full queue blocks the stage
+ * feeding it, so a slow mail provider throttles rendering instead of piling PDFs
+ * up in memory. The legal_notices row for a contract is the checkpoint: every
+ * stage records its result before handing the notice on, and a restarted run
+ * passes a notice straight through the stages it has already cleared. Finalize
+ * moves contracts to LEGAL_NOTICE_SENT in batches, one transaction per batch;
+ * each contract is updated by a status-guarded statement, and only those that
+ * actually moved get their notice completed, stats deltas and events.
+ * <p>
+ * Threads come from two fixed pools sized for {@code max-concurrent-runs} runs,
+ * and a cycle is registered on this node before its lock is taken, so two
+ * concurrent start() calls cannot both run it.
+ * <p>
+ * A failing notice gets attempts + 1 and its error recorded, then drops out of
+ * the run; the next run retries it until max-attempts is reached.
+ */
+@Service
+public class LegalNoticePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(LegalNoticePipeline.class);
+
+    static final String LOCK_PREFIX = "legal-notice-pipeline:";
+    private static final int SELECT_CHUNK = 500;
+    // Lock names are limited to 64 characters including the prefix
+    static final int MAX_CYCLE_ID_LENGTH = 40;
+    // The database orders uuids as unsigned bytes, so the keyset starts below 0000...
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final String TRANSITION =
+            "UPDATE contracts SET status = ?, updated_at = ?, version = version + 1 WHERE id = ? AND status = ?";
+
+    private final LegalNoticeRepository noticeRepository;
+    private final ContractRepository contractRepository;
+    private final PdfGenerationService pdfGenerationService;
+    private final DocumentStorage documentStorage;
+    private final EmailService emailService;
+    private final BlockchainService blockchainService;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractCache contractCache;
+    private final SchedulerLockService lockService;
+    private final ContractEventHub eventHub;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int queueCapacity;
+    private final int renderWorkers;
+    private final int storeWorkers;
+    private final int emailWorkers;
+    private final int anchorWorkers;
+    private final int finalizeBatchSize;
+    private final int maxAttempts;
+    private final Duration lockLease;
+
+    private final Map<String, RunStats> runningCycles = new ConcurrentHashMap<>();
+    private final Semaphore runSlots;
+    private final ExecutorService runExecutor;
+    private final ExecutorService workerExecutor;
+
+    public LegalNoticePipeline(LegalNoticeRepository noticeRepository,
+                               ContractRepository contractRepository,
+                               PdfGenerationService pdfGenerationService,
+                               DocumentStorage documentStorage,
+                               EmailService emailService,
+                               BlockchainService blockchainService,
+                               MerchantStatsService merchantStatsService,
+                               ContractCache contractCache,
+                               SchedulerLockService lockService,
+                               ContractEventHub eventHub,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${legalpay.notices.queue-capacity:200}") int queueCapacity,
+                               @Value("${legalpay.notices.render-workers:4}") int renderWorkers,
+                               @Value("${legalpay.notices.store-workers:4}") int storeWorkers,
+                               @Value("${legalpay.notices.email-workers:8}") int emailWorkers,
+                               @Value("${legalpay.notices.anchor-workers:2}") int anchorWorkers,
+                               @Value("${legalpay.notices.finalize-batch-size:500}") int finalizeBatchSize,
+                               @Value("${legalpay.notices.max-attempts:5}") int maxAttempts,
+                               @Value("${legalpay.notices.lock-lease:PT5M}") Duration lockLease,
+                               @Value("${legalpay.notices.max-concurrent-runs:2}") int maxConcurrentRuns) {
+        this.noticeRepository = noticeRepository;
+        this.contractRepository = contractRepository;
+        this.pdfGenerationService = pdfGenerationService;
+        this.documentStorage = documentStorage;
+        this.emailService = emailService;
+        this.blockchainService = blockchainService;
+        this.merchantStatsService = merchantStatsService;
+        this.contractCache = contractCache;
+        this.lockService = lockService;
+        this.eventHub = eventHub;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.renderWorkers = Math.max(1, renderWorkers);
+        this.storeWorkers = Math.max(1, storeWorkers);
+        this.emailWorkers = Math.max(1, emailWorkers);
+        this.anchorWorkers = Math.max(1, anchorWorkers);
+        this.finalizeBatchSize = finalizeBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.lockLease = lockLease;
+        int runs = Math.max(1, maxConcurrentRuns);
+        this.runSlots = new Semaphore(runs);
+        this.runExecutor = Executors.newFixedThreadPool(runs, daemon("notice-run"));
+        // Every stage worker plus the finalizer of each concurrent run
+        int perRun = this.renderWorkers + this.storeWorkers + this.emailWorkers + this.anchorWorkers + 1;
+        this.workerExecutor = Executors.newFixedThreadPool(runs * perRun, daemon("notice-worker"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runExecutor.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Start (or resume) a run for the cycle on a background thread
+     *
+     * @return false if a run for the cycle is already active on any node, or
+     *         this node is already running {@code max-concurrent-runs} cycles
+     */
+    public boolean start(String cycleId) {
+        if (cycleId == null || cycleId.isBlank() || cycleId.length() > MAX_CYCLE_ID_LENGTH) {
+            throw new IllegalArgumentException("cycleId must be 1-" + MAX_CYCLE_ID_LENGTH + " characters");
+        }
+        // Claim the cycle on this node first: tryAcquire also succeeds for a lock
+        // this node already holds, so it cannot tell two local callers apart
+        RunStats stats = new RunStats();
+        if (runningCycles.putIfAbsent(cycleId, stats) != null) {
+            return false;
+        }
+        if (!runSlots.tryAcquire()) {
+            runningCycles.remove(cycleId, stats);
+            log.info("Legal notice run for cycle {} not started: {} runs already active", cycleId, runningCycles.size());
+            return false;
+        }
+        if (!lockService.tryAcquire(LOCK_PREFIX + cycleId, lockLease)) {
+            runSlots.release();
+            runningCycles.remove(cycleId, stats);
+            return false;
+        }
+        try {
+            runExecutor.execute(() -> {
+                try {
+                    execute(cycleId, stats);
+                } catch (RuntimeException e) {
+                    log.error("Legal notice run for cycle {} failed: {}", cycleId, e.getMessage(), e);
+                } finally {
+                    lockService.release(LOCK_PREFIX + cycleId);
+                    runningCycles.remove(cycleId, stats);
+                    runSlots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lockService.release(LOCK_PREFIX + cycleId);
+            runningCycles.remove(cycleId, stats);
+            runSlots.release();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Notice counts per stage for the cycle, plus whether a run is active on this node
+     */
+    public Progress getProgress(String cycleId) {
+        Map<Stage, Long> byStage = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            byStage.put(stage, 0L);
+        }
+        for (Object[] row : noticeRepository.countByStage(cycleId)) {
+            byStage.put((Stage) row[0], ((Number) row[1]).longValue());
+        }
+        long failed = noticeRepository.countFailed(cycleId, Stage.COMPLETED);
+        return new Progress(cycleId, runningCycles.containsKey(cycleId), byStage, failed);
+    }
+
+    /**
+     * Run the pipeline for the cycle on the calling thread. The caller must hold the cycle lock.
+     *
+     * @return false if a run for the cycle is already active on this node
+     */
+    boolean run(String cycleId) {
+        RunStats stats = new RunStats();
+        if (runningCycles.putIfAbsent(cycleId, stats) != null) {
+            return false;
+        }
+        try {
+            execute(cycleId, stats);
+            return true;
+        } finally {
+            runningCycles.remove(cycleId, stats);
+        }
+    }
+
+    private void execute(String cycleId, RunStats stats) {
+        long started = System.currentTimeMillis();
+        try {
+            int created = createNotices(cycleId);
+
+            LocalDate issueDate = LocalDate.now();
+            StageWorkers finalize = new StageWorkers("notice-finalize", 1, null, null);
+            StageWorkers anchor = new StageWorkers("notice-anchor", anchorWorkers, finalize, this::anchor);
+            StageWorkers email = new StageWorkers("notice-email", emailWorkers, anchor, this::email);
+            StageWorkers store = new StageWorkers("notice-store", storeWorkers, email, this::store);
+            StageWorkers render = new StageWorkers("notice-render", renderWorkers, store,
+                    job -> render(job, issueDate));
+
+            Future<?> finalizer = workerExecutor.submit(() -> finalizeLoop(finalize, stats));
+            anchor.start(stats);
+            email.start(stats);
+            store.start(stats);
+            render.start(stats);
+
+            feed(cycleId, render, stats);
+
+            // Keep the lease while the tail of the run drains through email/anchor
+            while (true) {
+                try {
+                    finalizer.get(Math.max(1000, lockLease.toMillis() / 3), TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    lockService.tryAcquire(LOCK_PREFIX + cycleId, lockLease);
+                } catch (ExecutionException e) {
+                    log.error("Legal notice finalizer for cycle {} failed", cycleId, e.getCause());
+                    break;
+                }
+            }
+            log.info("Legal notice run for cycle {}: created={} fed={} completed={} failed={} took={}ms",
+                    cycleId, created, stats.fed.get(), stats.completed.get(), stats.failed.get(),
+                    System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Legal notice run for cycle {} interrupted; it will resume from its checkpoints", cycleId);
+        }
+    }
+
+    /**
+     * Selection stage: insert a PENDING notice for each DEFAULTED contract that
+     * does not have one for this cycle yet. Idempotent across restarts.
+     */
+    private int createNotices(String cycleId) {
+        int created = 0;
+        UUID after = MIN_ID;
+        while (true) {
+            List<UUID> contractIds = noticeRepository.findContractsWithoutNotice(
+                    Contract.ContractStatus.DEFAULTED, cycleId, after, Limit.of(SELECT_CHUNK));
+            if (contractIds.isEmpty()) {
+                return created;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                List<LegalNotice> notices = new ArrayList<>(contractIds.size());
+                for (UUID contractId : contractIds) {
+                    notices.add(new LegalNotice(contractRepository.getReferenceById(contractId), cycleId));
+                }
+                noticeRepository.saveAll(notices);
+            });
+            created += contractIds.size();
+            after = contractIds.get(contractIds.size() - 1);
+        }
+    }
+
+    /**
+     * Page unfinished notices into the render queue. put() blocks while the queue
+     * is full, which is where backpressure reaches the database reads.
+     */
+    private void feed(String cycleId, StageWorkers render, RunStats stats) throws InterruptedException {
+        try {
+            UUID after = MIN_ID;
+            while (true) {
+                if (!lockService.tryAcquire(LOCK_PREFIX + cycleId, lockLease)) {
+                    log.warn("Legal notice run for cycle {} lost its lock; stopping intake", cycleId);
+                    return;
+                }
+                List<NoticeWorkView> page = noticeRepository.findPendingWork(
+                        cycleId, Stage.COMPLETED, maxAttempts, after, Limit.of(SELECT_CHUNK));
+                for (NoticeWorkView view : page) {
+                    render.queue.put(new NoticeJob(view));
+                    stats.fed.incrementAndGet();
+                }
+                if (page.size() < SELECT_CHUNK) {
+                    return;
+                }
+                after = page.get(page.size() - 1).getNoticeId();
+            }
+        } finally {
+            render.upstreamDone();
+        }
+    }
+
+    private NoticeJob render(NoticeJob job, LocalDate issueDate) {
+        if (job.stage == Stage.PENDING) {
+            job.pdf = pdfGenerationService.renderLegalNotice(job.view, issueDate);
+            job.sha256 = sha256(job.pdf);
+        }
+        return job;
+    }
+
+    private NoticeJob store(NoticeJob job) throws Exception {
+        if (job.stage == Stage.PENDING) {
+            String key = "notices/" + job.view.getContractId() + "/" + job.view.getNoticeId() + ".pdf";
+            job.location = documentStorage.store(key, job.pdf);
+            noticeRepository.markStored(job.view.getNoticeId(), Stage.STORED, job.location, job.sha256, Instant.now());
+            job.stage = Stage.STORED;
+        }
+        return job;
+    }
+
+    private NoticeJob email(NoticeJob job) throws Exception {
+        if (job.stage == Stage.STORED) {
+            byte[] pdf = job.pdf != null ? job.pdf : documentStorage.load(job.location);
+            NoticeWorkView v = job.view;
+            emailService.sendLegalNoticeEmail(v.getPayerEmail(), v.getPayerName(), v.getMerchantName(),
+                    v.getContractId().toString(), pdf);
+            noticeRepository.markEmailed(v.getNoticeId(), Stage.EMAILED, Instant.now());
+            job.stage = Stage.EMAILED;
+        }
+        // Only finalize needs the job from here on; drop the document
+        job.pdf = null;
+        return job;
+    }
+
+    private NoticeJob anchor(NoticeJob job) {
+        if (job.stage == Stage.EMAILED) {
+            NoticeWorkView v = job.view;
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("contractId", v.getContractId().toString());
+            metadata.put("merchantId", v.getMerchantId().toString());
+            metadata.put("noticeId", v.getNoticeId().toString());
+            metadata.put("documentHash", job.sha256);
+            BlockchainAuditLog auditLog = blockchainService.logEvent(
+                    EventType.LEGAL_NOTICE_SENT, v.getContractId(), "Contract", v.getPayerId(), metadata);
+            noticeRepository.markAnchored(v.getNoticeId(), Stage.ANCHORED,
+                    auditLog != null ? auditLog.getId() : null, Instant.now());
+            job.stage = Stage.ANCHORED;
+        }
+        return job;
+    }
+
+    private void finalizeLoop(StageWorkers finalize, RunStats stats) {
+        List<NoticeJob> batch = new ArrayList<>(finalizeBatchSize);
+        try {
+            while (true) {
+                NoticeJob job = finalize.take();
+                if (job != null) {
+                    batch.add(job);
+                }
+                if (batch.size() >= finalizeBatchSize || (job == null && !batch.isEmpty())) {
+                    finalizeBatch(batch, stats);
+                    batch.clear();
+                }
+                if (job == null && finalize.isDrained()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Move the batch's contracts to LEGAL_NOTICE_SENT and close their notices in
+     * one transaction. A contract that left DEFAULTED since its notice was
+     * selected is not moved; its notice stays ANCHORED with the reason recorded.
+     */
+    private void finalizeBatch(List<NoticeJob> batch, RunStats stats) {
+        Contract.ContractStatus from = Contract.ContractStatus.DEFAULTED;
+        Contract.ContractStatus to = Contract.ContractStatus.LEGAL_NOTICE_SENT;
+        try {
+            ContractStateMachine.requireTransition(from, to);
+            Integer moved = transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                Timestamp nowTs = Timestamp.from(now);
+                List<Object[]> args = new ArrayList<>(batch.size());
+                for (NoticeJob job : batch) {
+                    args.add(new Object[] { to.name(), nowTs, job.view.getContractId(), from.name() });
+                }
+                int[] counts = jdbcTemplate.batchUpdate(TRANSITION, args);
+
+                List<UUID> contractIds = new ArrayList<>(batch.size());
+                List<UUID> noticeIds = new ArrayList<>(batch.size());
+                Map<UUID, Long> perMerchant = new HashMap<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    NoticeJob job = batch.get(i);
+                    if (counts[i] == 0) {
+                        noticeRepository.markFailed(job.view.getNoticeId(),
+                                "finalize: contract is no longer " + from, now);
+                        continue;
+                    }
+                    contractIds.add(job.view.getContractId());
+                    noticeIds.add(job.view.getNoticeId());
+                    perMerchant.merge(job.view.getMerchantId(), 1L, Long::sum);
+                    eventHub.publishAfterCommit(ContractEvent.statusChanged(job.view.getContractId(),
+                            job.view.getMerchantId(), from, to));
+                }
+                if (!noticeIds.isEmpty()) {
+                    perMerchant.forEach((merchantId, count) ->
+                            merchantStatsService.statusChanged(merchantId, from, to, count));
+                    contractCache.evictAll(contractIds);
+                    noticeRepository.markCompleted(noticeIds, Stage.COMPLETED, now);
+                }
+                return noticeIds.size();
+            });
+            int completed = moved != null ? moved : 0;
+            if (completed != batch.size()) {
+                log.warn("Legal notice finalize moved {} of {} contracts; the rest left {} mid-run",
+                        completed, batch.size(), from);
+            }
+            stats.completed.addAndGet(completed);
+            stats.failed.addAndGet(batch.size() - completed);
+        } catch (RuntimeException e) {
+            // Notices stay ANCHORED, so the next run only repeats this step
+            log.error("Legal notice finalize failed for {} notices: {}", batch.size(), e.getMessage(), e);
+            stats.failed.addAndGet(batch.size());
+        }
+    }
+
+    private void recordFailure(NoticeJob job, String stageName, Exception e, RunStats stats) {
+        stats.failed.incrementAndGet();
+        String message = stageName + ": " + e.getClass().getSimpleName() + ": " + e.getMessage();
+        log.warn("Legal notice {} failed at {}: {}", job.view.getNoticeId(), stageName, e.getMessage());
+        try {
+            noticeRepository.markFailed(job.view.getNoticeId(),
+                    message.length() > 1000 ? message.substring(0, 1000) : message, Instant.now());
+        } catch (RuntimeException ex) {
+            log.error("Could not record failure for legal notice {}: {}", job.view.getNoticeId(), ex.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + sequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageFunction {
+        NoticeJob apply(NoticeJob job) throws Exception;
+    }
+
+    /**
+     * One notice in flight. Mutated only by the stage currently holding it.
+     */
+    private static final class NoticeJob {
+        final NoticeWorkView view;
+        Stage stage;
+        String location;
+        String sha256;
+        byte[] pdf;
+
+        NoticeJob(NoticeWorkView view) {
+            this.view = view;
+            this.stage = view.getStage();
+            this.location = view.getDocumentLocation();
+            this.sha256 = view.getSha256Hash();
+        }
+    }
+
+    /**
+     * Bounded input queue plus a fixed set of workers. Workers stop once upstream
+     * has finished and the queue is empty; the last one out signals downstream.
+     */
+    private final class StageWorkers {
+        final String name;
+        final int workers;
+        final StageWorkers downstream;
+        final StageFunction function;
+        final BlockingQueue<NoticeJob> queue;
+        final AtomicInteger live;
+        volatile boolean upstreamDone;
+
+        StageWorkers(String name, int workers, StageWorkers downstream, StageFunction function) {
+            this.name = name;
+            this.workers = Math.max(1, workers);
+            this.downstream = downstream;
+            this.function = function;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.live = new AtomicInteger(this.workers);
+        }
+
+        void start(RunStats stats) {
+            for (int i = 0; i < workers; i++) {
+                workerExecutor.execute(() -> work(stats));
+            }
+        }
+
+        void upstreamDone() {
+            upstreamDone = true;
+        }
+
+        boolean isDrained() {
+            return upstreamDone && queue.isEmpty();
+        }
+
+        /**
+         * @return next job, or null after a short wait with nothing to do
+         */
+        NoticeJob take() throws InterruptedException {
+            return queue.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        private void work(RunStats stats) {
+            try {
+                while (true) {
+                    NoticeJob job = take();
+                    if (job == null) {
+                        if (isDrained()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    NoticeJob out;
+                    try {
+                        out = function.apply(job);
+                    } catch (Exception e) {
+                        recordFailure(job, name, e, stats);
+                        continue;
+                    }
+                    // Blocks while downstream is full
+                    downstream.queue.put(out);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (live.decrementAndGet() == 0) {
+                    downstream.upstreamDone();
+                }
+            }
+        }
+    }
+
+    private static final class RunStats {
+        final AtomicLong fed = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+    }
+
+    /**
+     * Snapshot of a cycle's notices by checkpoint stage
+     */
+    public static final class Progress {
+        private final String cycleId;
+        private final boolean running;
+        private final Map<Stage, Long> byStage;
+        private final long failed;
+
+        Progress(String cycleId, boolean running, Map<Stage, Long> byStage, long failed) {
+            this.cycleId = cycleId;
+            this.running = running;
+            this.byStage = byStage;
+            this.failed = failed;
+        }
+
+        public String getCycleId() { return cycleId; }
+        public boolean isRunning() { return running; }
+        public Map<Stage, Long> getByStage() { return byStage; }
+        public long getFailed() { return failed; }
+        public long getTotal() { return byStage.values().stream().mapToLong(Long::longValue).sum(); }
+    }
+}
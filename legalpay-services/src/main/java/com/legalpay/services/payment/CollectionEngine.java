@@ -0,0 +1,411 @@
+package com.legalpay.services.payment;
+
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.Payment;
+import com.legalpay.domain.repository.MandateRepository;
+import com.legalpay.domain.repository.PaymentRepository;
+import com.legalpay.domain.repository.PaymentRepository.DueDebit;
+import com.legalpay.services.lock.SchedulerLockService;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Collection-day engine for recurring mandate debits.
+ * <ol>
+ *   <li>Materialize: a SCHEDULED {@link Payment} is created for every unpaid
+ *       instalment due today whose contract has an authorized mandate.</li>
+ *   <li>Execute: due payments are claimed a chunk at a time (SCHEDULED -> PROCESSING),
+ *       split across workers by mandate ID hash so one mandate is never debited
+ *       twice concurrently, and sent to the gateway under that gateway's
+ *       Resilience4j rate limiter. Each chunk's outcomes are committed together,
+ *       with every collected debit booked against its instalments, contract and
+ *       merchant stats in the same transaction.</li>
+ * </ol>
+ * A gateway error leaves the payment PROCESSING; once it is older than
+ * {@code stale-after} a later run re-sends it under the same idempotency key,
+ * so the gateway never debits twice. One node at a time via scheduler_locks.
+ */
+@Component
+public class CollectionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionEngine.class);
+
+    static final String LOCK_NAME = "emi-collection";
+
+    private static final List<Installment.InstallmentStatus> UNPAID =
+            List.of(Installment.InstallmentStatus.PENDING, Installment.InstallmentStatus.OVERDUE);
+    private static final List<Mandate.MandateStatus> DEBITABLE =
+            List.of(Mandate.MandateStatus.AUTHORIZED, Mandate.MandateStatus.ACTIVE);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private static final String MARK_SUCCESS =
+            "UPDATE payments SET status = 'SUCCESS', gateway_payment_id = ?, gateway_response = ?, " +
+            "executed_at = ?, updated_at = ? WHERE id = ? AND status = 'PROCESSING'";
+    private static final String MARK_FAILED =
+            "UPDATE payments SET status = 'FAILED', return_code = ?, gateway_response = ?, retry_count = ?, " +
+            "next_retry_at = ?, updated_at = ? WHERE id = ? AND status = 'PROCESSING'";
+
+    private final PaymentRepository paymentRepository;
+    private final MandateRepository mandateRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final DebitSettlementService settlementService;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final SchedulerLockService lockService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final Duration lockLease;
+    private volatile CollectionRun lastRun;
+
+    public CollectionEngine(PaymentRepository paymentRepository,
+                            MandateRepository mandateRepository,
+                            PaymentGatewayService paymentGatewayService,
+                            DebitSettlementService settlementService,
+                            RateLimiterRegistry rateLimiterRegistry,
+                            SchedulerLockService lockService,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${legalpay.collections.workers:8}") int workers,
+                            @Value("${legalpay.collections.chunk-size:500}") int chunkSize,
+                            @Value("${legalpay.collections.stale-after:PT30M}") Duration staleAfter,
+                            @Value("${legalpay.collections.lock-lease:PT10M}") Duration lockLease) {
+        this.paymentRepository = paymentRepository;
+        this.mandateRepository = mandateRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.settlementService = settlementService;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.lockService = lockService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.chunkSize = chunkSize;
+        this.staleAfter = staleAfter;
+        this.lockLease = lockLease;
+        this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread t = new Thread(r, "emi-collection");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(cron = "${legalpay.collections.cron:0 0 6 * * *}")
+    public void scheduledRun() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Run one collection day
+     *
+     * @return the run report, or null if another node holds the lock
+     */
+    public CollectionRun run(LocalDate day) {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Collection run skipped: lock held by another node");
+            return null;
+        }
+        CollectionRun run = new CollectionRun(day, Instant.now());
+        try {
+            run.materialized = materialize(day);
+            execute(day, run);
+        } finally {
+            lockService.release(LOCK_NAME);
+            run.finish(Instant.now());
+            lastRun = run;
+        }
+        log.info("Collection run for {}: materialized={} attempted={} succeeded={} failed={} pending={} " +
+                        "took={}ms throughput={}/s successRate={}",
+                day, run.materialized, run.attempted, run.succeeded, run.failed, run.pending,
+                run.getDurationMillis(), String.format("%.1f", run.getThroughputPerSecond()),
+                String.format("%.3f", run.getSuccessRate()));
+        return run;
+    }
+
+    public CollectionRun getLastRun() {
+        return lastRun;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Create the day's SCHEDULED payments, one chunk per transaction
+     */
+    private int materialize(LocalDate day) {
+        int created = 0;
+        UUID after = MIN_ID;
+        while (true) {
+            UUID from = after;
+            List<DueDebit> debits = paymentRepository.findDebitsToSchedule(
+                    day, UNPAID, DEBITABLE, from, Limit.of(chunkSize));
+            if (debits.isEmpty()) {
+                return created;
+            }
+            // A mandate with two instalments on one day is debited once, for both
+            Map<UUID, BigDecimal> amounts = new LinkedHashMap<>();
+            for (DueDebit debit : debits) {
+                amounts.merge(debit.getMandateId(), debit.getAmount(), BigDecimal::add);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Payment> payments = new ArrayList<>(amounts.size());
+                amounts.forEach((mandateId, amount) -> payments.add(Payment.builder()
+                        .mandate(mandateRepository.getReferenceById(mandateId))
+                        .dueDate(day)
+                        .amount(amount)
+                        .status(Payment.PaymentStatus.SCHEDULED)
+                        .idempotencyKey(PaymentService.generateIdempotencyKey(mandateId, day))
+                        .build()));
+                paymentRepository.saveAll(payments);
+            });
+            created += amounts.size();
+            after = debits.get(debits.size() - 1).getMandateId();
+            if (debits.size() < chunkSize) {
+                return created;
+            }
+        }
+    }
+
+    private void execute(LocalDate day, CollectionRun run) {
+        UUID after = MIN_ID;
+        while (true) {
+            if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+                log.warn("Collection run for {} lost its lock after {} payments", day, run.attempted);
+                return;
+            }
+            Instant staleBefore = Instant.now().minus(staleAfter);
+            List<Payment> chunk = paymentRepository.findDueForExecution(day, staleBefore, after, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            after = chunk.get(chunk.size() - 1).getId();
+
+            List<Payment> claimed = claim(chunk, staleBefore);
+            List<Outcome> outcomes = debit(claimed);
+            transactionTemplate.executeWithoutResult(status -> record(outcomes));
+            for (Outcome outcome : outcomes) {
+                run.count(outcome);
+            }
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+        }
+    }
+
+    private List<Payment> claim(List<Payment> chunk, Instant staleBefore) {
+        // Truncated to the column precision so the claimed rows can be matched exactly
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<UUID> ids = chunk.stream().map(Payment::getId).toList();
+        Integer updated = transactionTemplate.execute(
+                status -> paymentRepository.claimForExecution(ids, staleBefore, now));
+        if (updated != null && updated == ids.size()) {
+            return chunk;
+        }
+        Set<UUID> claimedIds = new HashSet<>(paymentRepository.findClaimed(ids, now));
+        return chunk.stream().filter(p -> claimedIds.contains(p.getId())).toList();
+    }
+
+    /**
+     * Send a chunk to the gateway: partitioned by mandate across workers, each
+     * worker sequential, so at most {@code workers} calls are in flight
+     */
+    private List<Outcome> debit(List<Payment> payments) {
+        List<List<Payment>> partitions = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Payment payment : payments) {
+            partitions.get(Math.floorMod(payment.getMandate().getId().hashCode(), workers)).add(payment);
+        }
+
+        List<Future<List<Outcome>>> futures = new ArrayList<>(workers);
+        for (List<Payment> partition : partitions) {
+            if (!partition.isEmpty()) {
+                futures.add(executor.submit(() -> partition.stream().map(this::debitOne).toList()));
+            }
+        }
+        List<Outcome> outcomes = new ArrayList<>(payments.size());
+        for (Future<List<Outcome>> future : futures) {
+            try {
+                outcomes.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Payments of this partition stay PROCESSING and are re-driven later
+                log.error("Collection worker failed", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private Outcome debitOne(Payment payment) {
+        Mandate mandate = payment.getMandate();
+        RateLimiter limiter = rateLimiterRegistry.rateLimiter(paymentGatewayService.gatewayFor(mandate));
+        while (!limiter.acquirePermission()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return Outcome.pending(payment);
+            }
+        }
+        try {
+            PaymentGatewayService.PaymentResult result = paymentGatewayService.executePayment(
+                    mandate.getGatewayMandateId(), payment.getAmount().toString(), payment.getIdempotencyKey());
+            return Outcome.of(payment, result);
+        } catch (RuntimeException e) {
+            log.warn("Gateway call failed for payment {}: {}", payment.getId(), e.getMessage());
+            return Outcome.pending(payment);
+        }
+    }
+
+    private void record(List<Outcome> outcomes) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Payment> collected = new ArrayList<>();
+        List<Object[]> succeeded = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            PaymentGatewayService.PaymentResult result = outcome.result;
+            if (result == null) {
+                continue;
+            }
+            Payment payment = outcome.payment;
+            String response = truncate(result.getMessage(), 500);
+            if (result.isSuccess()) {
+                collected.add(payment);
+                succeeded.add(new Object[] { result.getGatewayPaymentId(), response, now, now, payment.getId() });
+            } else {
+                int retryCount = (payment.getRetryCount() != null ? payment.getRetryCount() : 0) + 1;
+                failed.add(new Object[] { truncate(result.getReturnCode(), 10), response, retryCount,
+                        Timestamp.from(PaymentService.calculateNextRetry(retryCount)), now, payment.getId() });
+            }
+        }
+        if (!succeeded.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(MARK_SUCCESS, succeeded);
+            List<Payment> changed = new ArrayList<>(collected.size());
+            for (int i = 0; i < collected.size(); i++) {
+                if (counts[i] != 0) {
+                    changed.add(collected.get(i)); // not recorded by anyone else since the claim
+                }
+            }
+            settlementService.collected(changed);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED, failed);
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static final class Outcome {
+        private final Payment payment;
+        private final PaymentGatewayService.PaymentResult result; // null: outcome unknown
+
+        private Outcome(Payment payment, PaymentGatewayService.PaymentResult result) {
+            this.payment = payment;
+            this.result = result;
+        }
+
+        static Outcome of(Payment payment, PaymentGatewayService.PaymentResult result) {
+            return new Outcome(payment, result);
+        }
+
+        static Outcome pending(Payment payment) {
+            return new Outcome(payment, null);
+        }
+    }
+
+    /**
+     * Per-run report: counts, duration, throughput and success rate
+     */
+    public static final class CollectionRun {
+        private final LocalDate collectionDate;
+        private final Instant startedAt;
+        private Instant finishedAt;
+        private int materialized;
+        private int attempted;
+        private int succeeded;
+        private int failed;
+        private int pending;
+
+        CollectionRun(LocalDate collectionDate, Instant startedAt) {
+            this.collectionDate = collectionDate;
+            this.startedAt = startedAt;
+        }
+
+        void count(Outcome outcome) {
+            attempted++;
+            if (outcome.result == null) {
+                pending++;
+            } else if (outcome.result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+
+        void finish(Instant at) {
+            this.finishedAt = at;
+        }
+
+        public LocalDate getCollectionDate() { return collectionDate; }
+        public Instant getStartedAt() { return startedAt; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public int getMaterialized() { return materialized; }
+        public int getAttempted() { return attempted; }
+        public int getSucceeded() { return succeeded; }
+        public int getFailed() { return failed; }
+        public int getPending() { return pending; }
+
+        public long getDurationMillis() {
+            return finishedAt != null ? Duration.between(startedAt, finishedAt).toMillis() : 0;
+        }
+
+        /**
+         * Gateway calls per second over the whole run
+         */
+        public double getThroughputPerSecond() {
+            long millis = getDurationMillis();
+            return millis > 0 ? attempted * 1000.0 / millis : 0;
+        }
+
+        /**
+         * Share of attempted debits that succeeded (0 when nothing was attempted)
+         */
+        public double getSuccessRate() {
+            return attempted > 0 ? (double) succeeded / attempted : 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.legalpay.services.payment;
+
+import com.legalpay.domain.entity.Payment;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.PaymentRepository;
+import com.legalpay.domain.repository.PaymentRepository.DebitOwner;
+import com.legalpay.services.amortization.InstallmentStatusService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Books mandate debits the gateway has collected: the instalments due on the
+ * payment's due date become PAID, the amount is added to the contract totals
+ * and the merchant's collected amount, and the cached contract is evicted.
+ * <p>
+ * Runs on the caller's transaction, which must also hold the status-guarded
+ * UPDATE that moved each payment to SUCCESS, and must only be given the
+ * payments that UPDATE actually changed - so every debit is booked exactly
+ * once, together with its status.
+ */
+@Service
+public class DebitSettlementService {
+
+    private static final Logger log = LoggerFactory.getLogger(DebitSettlementService.class);
+
+    private final PaymentRepository paymentRepository;
+    private final ContractRepository contractRepository;
+    private final InstallmentStatusService installmentStatusService;
+    private final MerchantStatsService merchantStatsService;
+    private final ContractCache contractCache;
+    private final ContractEventHub eventHub;
+
+    public DebitSettlementService(PaymentRepository paymentRepository,
+                                  ContractRepository contractRepository,
+                                  InstallmentStatusService installmentStatusService,
+                                  MerchantStatsService merchantStatsService,
+                                  ContractCache contractCache,
+                                  ContractEventHub eventHub) {
+        this.paymentRepository = paymentRepository;
+        this.contractRepository = contractRepository;
+        this.installmentStatusService = installmentStatusService;
+        this.merchantStatsService = merchantStatsService;
+        this.contractCache = contractCache;
+        this.eventHub = eventHub;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void collected(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        Map<UUID, DebitOwner> owners = new HashMap<>();
+        for (DebitOwner owner : paymentRepository.findOwners(payments.stream().map(Payment::getId).toList())) {
+            owners.put(owner.getPaymentId(), owner);
+        }
+        Instant now = Instant.now();
+        List<UUID> contractIds = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            DebitOwner owner = owners.get(payment.getId());
+            UUID contractId = owner.getContractId();
+            BigDecimal settled = installmentStatusService.settle(contractId, payment.getDueDate());
+            if (settled.compareTo(payment.getAmount()) != 0) {
+                log.warn("Payment {} collected {} but settled {} of instalments due {} on contract {}",
+                        payment.getId(), payment.getAmount(), settled, payment.getDueDate(), contractId);
+            }
+            contractRepository.applyPayment(contractId, payment.getAmount(), now);
+            merchantStatsService.paymentCollected(owner.getMerchantId(), payment.getAmount());
+            eventHub.publishAfterCommit(
+                    ContractEvent.paymentCaptured(contractId, owner.getMerchantId(), payment.getAmount()));
+            contractIds.add(contractId);
+        }
+        contractCache.evictAll(contractIds);
+    }
+}
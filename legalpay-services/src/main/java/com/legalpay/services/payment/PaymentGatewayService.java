@@ -1,6 +1,7 @@
 package com.legalpay.services.payment;
 
 import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Mandate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -40,6 +41,14 @@ public class PaymentGatewayService {
         return "https://api.razorpay.com/v1/mandate/" + gatewayMandateId + "/authorize";
     }
 
+    /**
+     * Name of the gateway that debits this mandate; rate limits are applied per gateway.
+     * DUMMY: every mandate goes through Razorpay for now.
+     */
+    public String gatewayFor(Mandate mandate) {
+        return "razorpay";
+    }
+
     /**
      * DUMMY: Execute payment
      */
@@ -0,0 +1,221 @@
+package com.legalpay.services.payment;
+
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.Payment;
+import com.legalpay.domain.repository.PaymentRepository;
+import com.legalpay.services.lock.SchedulerLockService;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Re-attempts FAILED mandate debits whose nextRetryAt has passed.
+ * <p>
+ * Rows are claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED LIMIT n}, so any
+ * number of nodes can run this worker and each row goes to exactly one of them.
+ * A claim stamps a lease (owner + expiry) and commits immediately; the gateway
+ * calls happen outside the transaction, concurrently, and each row is then
+ * released - SUCCESS, or rescheduled with the next backoff - only by its lease
+ * owner. A SUCCESS release is committed together with the booking of the debit
+ * ({@link DebitSettlementService}), and only when this node still held the
+ * lease. A node that dies mid-batch simply lets its leases expire. Each attempt
+ * has its own idempotency key derived from the payment's, so a re-run of the
+ * same attempt after a lease expiry cannot debit twice.
+ */
+@Component
+public class PaymentRetryWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRetryWorker.class);
+
+    private static final String CLAIM_CANDIDATES =
+            "SELECT id FROM payments WHERE status = 'FAILED' AND next_retry_at <= ? " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at < ?) " +
+            "ORDER BY next_retry_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String TAKE_LEASE =
+            "UPDATE payments SET lease_owner = ?, lease_expires_at = ? WHERE id = ?";
+    private static final String RELEASE_SUCCESS =
+            "UPDATE payments SET status = 'SUCCESS', gateway_payment_id = ?, gateway_response = ?, executed_at = ?, " +
+            "next_retry_at = NULL, lease_owner = NULL, lease_expires_at = NULL, updated_at = ? " +
+            "WHERE id = ? AND lease_owner = ?";
+    private static final String RELEASE_FAILURE =
+            "UPDATE payments SET return_code = ?, gateway_response = ?, retry_count = ?, next_retry_at = ?, " +
+            "lease_owner = NULL, lease_expires_at = NULL, updated_at = ? WHERE id = ? AND lease_owner = ?";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final DebitSettlementService settlementService;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final String nodeId;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+
+    public PaymentRetryWorker(PaymentRepository paymentRepository,
+                              PaymentGatewayService paymentGatewayService,
+                              DebitSettlementService settlementService,
+                              RateLimiterRegistry rateLimiterRegistry,
+                              SchedulerLockService lockService,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${legalpay.payments.retry.batch-size:100}") int batchSize,
+                              @Value("${legalpay.payments.retry.concurrency:8}") int concurrency,
+                              @Value("${legalpay.payments.retry.max-attempts:4}") int maxAttempts,
+                              @Value("${legalpay.payments.retry.lease:PT5M}") Duration lease) {
+        this.paymentRepository = paymentRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.settlementService = settlementService;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = lockService.getNodeId();
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread t = new Thread(r, "payment-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.payments.retry.interval:PT1M}",
+               initialDelayString = "${legalpay.payments.retry.initial-delay:PT2M}")
+    public void scheduledRetry() {
+        int total = 0;
+        int processed;
+        do {
+            processed = retryBatch();
+            total += processed;
+        } while (processed == batchSize);
+        if (total > 0) {
+            log.info("Payment retries processed: {}", total);
+        }
+    }
+
+    /**
+     * Claim, execute and release one batch
+     *
+     * @return number of payments claimed
+     */
+    public int retryBatch() {
+        List<UUID> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        List<Payment> payments = paymentRepository.findAllWithMandateByIdIn(claimed);
+
+        List<Future<?>> attempts = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            attempts.add(executor.submit(() -> attempt(payment)));
+        }
+        for (Future<?> attempt : attempts) {
+            try {
+                attempt.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // The lease is left to expire and the row is picked up again
+                log.error("Payment retry attempt failed", e.getCause());
+            }
+        }
+        return claimed.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<UUID> claim() {
+        List<UUID> ids = transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.from(Instant.now());
+            List<UUID> candidates = jdbcTemplate.queryForList(CLAIM_CANDIDATES, UUID.class, now, now, batchSize);
+            if (!candidates.isEmpty()) {
+                Timestamp expiresAt = Timestamp.from(Instant.now().plus(lease));
+                List<Object[]> args = new ArrayList<>(candidates.size());
+                for (UUID id : candidates) {
+                    args.add(new Object[] { nodeId, expiresAt, id });
+                }
+                jdbcTemplate.batchUpdate(TAKE_LEASE, args);
+            }
+            return candidates;
+        });
+        return ids != null ? ids : Collections.emptyList();
+    }
+
+    private void attempt(Payment payment) {
+        Mandate mandate = payment.getMandate();
+        int attempt = (payment.getRetryCount() != null ? payment.getRetryCount() : 0) + 1;
+        RateLimiter limiter = rateLimiterRegistry.rateLimiter(paymentGatewayService.gatewayFor(mandate));
+        while (!limiter.acquirePermission()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+
+        PaymentGatewayService.PaymentResult result;
+        try {
+            result = paymentGatewayService.executePayment(mandate.getGatewayMandateId(),
+                    payment.getAmount().toString(), payment.getIdempotencyKey() + "_retry_" + attempt);
+        } catch (RuntimeException e) {
+            // Outcome unknown: keep the lease so the same attempt (same key) is re-sent after it expires
+            log.warn("Gateway call failed for payment {} retry {}: {}", payment.getId(), attempt, e.getMessage());
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        if (result.isSuccess()) {
+            Boolean released = transactionTemplate.execute(status -> {
+                int updated = jdbcTemplate.update(RELEASE_SUCCESS, result.getGatewayPaymentId(),
+                        truncate(result.getMessage(), 500), now, now, payment.getId(), nodeId);
+                if (updated == 0) {
+                    return false; // lease lost; its new owner books the debit
+                }
+                settlementService.collected(List.of(payment));
+                return true;
+            });
+            if (Boolean.TRUE.equals(released)) {
+                log.info("Payment {} succeeded on retry {}", payment.getId(), attempt);
+            } else {
+                log.warn("Payment {} succeeded on retry {} after its lease was lost", payment.getId(), attempt);
+            }
+        } else {
+            Timestamp nextRetryAt = attempt < maxAttempts
+                    ? Timestamp.from(PaymentService.calculateNextRetry(attempt))
+                    : null;
+            jdbcTemplate.update(RELEASE_FAILURE, truncate(result.getReturnCode(), 10),
+                    truncate(result.getMessage(), 500), attempt, nextRetryAt, now, payment.getId(), nodeId);
+            if (nextRetryAt == null) {
+                log.warn("Payment {} failed after {} attempts, no further retries", payment.getId(), attempt);
+            }
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -102,14 +102,14 @@ public class PaymentService {
     /**
      * Generate idempotency key for retry safety
      */
-    private String generateIdempotencyKey(UUID mandateId, LocalDate dueDate) {
+    static String generateIdempotencyKey(UUID mandateId, LocalDate dueDate) {
         return String.format("payment_%s_%s", mandateId, dueDate);
     }
 
     /**
      * Calculate next retry time (exponential backoff)
      */
-    private Instant calculateNextRetry(int retryCount) {
+    static Instant calculateNextRetry(int retryCount) {
         // Retry after: 1 day, 3 days, 7 days
         long daysToAdd = switch (retryCount) {
             case 1 -> 1;
@@ -0,0 +1,189 @@
+package com.legalpay.services.reconciliation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more values than should be held in memory: values are buffered
+ * {@code runSize} at a time, each full buffer is sorted and spilled to a temp
+ * file, and {@link #sorted()} k-way merges the runs. Memory use is one buffer
+ * while adding and one value per run while reading. Not thread-safe; temp files
+ * are deleted on {@link #close()}.
+ */
+final class ExternalSorter<T> implements AutoCloseable {
+
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Binary form of a value in a run file
+     */
+    interface Codec<T> {
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final int runSize;
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private final List<Run> runs = new ArrayList<>();
+    private List<T> buffer = new ArrayList<>();
+    private long size;
+
+    ExternalSorter(Path directory, String prefix, int runSize, Comparator<? super T> comparator, Codec<T> codec) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize must be positive");
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.runSize = runSize;
+        this.comparator = comparator;
+        this.codec = codec;
+    }
+
+    void add(T value) throws IOException {
+        buffer.add(value);
+        size++;
+        if (buffer.size() >= runSize) {
+            spill();
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * All added values in comparator order. Call once, after the last {@link #add}.
+     */
+    Iterator<T> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            // Everything fit in memory
+            buffer.sort(comparator);
+            Iterator<T> values = buffer.iterator();
+            buffer = new ArrayList<>();
+            return values;
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        buffer = new ArrayList<>();
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(runs.size(), (a, b) -> comparator.compare(a.head, b.head));
+        for (Run run : runs) {
+            RunReader reader = new RunReader(run);
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                RunReader reader = heads.poll();
+                if (reader == null) {
+                    throw new NoSuchElementException();
+                }
+                T value = reader.head;
+                try {
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        buffer = new ArrayList<>();
+        for (Run run : runs) {
+            run.close();
+        }
+        runs.clear();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(comparator);
+        Path file = Files.createTempFile(directory, prefix, ".run");
+        Run run = new Run(file, buffer.size());
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_BYTES))) {
+            for (T value : buffer) {
+                codec.write(out, value);
+            }
+        }
+        buffer = new ArrayList<>(runSize);
+    }
+
+    private final class Run {
+        private final Path file;
+        private final int count;
+        private DataInputStream in;
+
+        private Run(Path file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+
+        private void close() {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Temp directory; nothing else to do
+            }
+        }
+    }
+
+    private final class RunReader {
+        private final Run run;
+        private int remaining;
+        private T head;
+
+        private RunReader(Run run) throws IOException {
+            this.run = run;
+            this.remaining = run.count;
+            run.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.file), IO_BUFFER_BYTES));
+        }
+
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            remaining--;
+            head = codec.read(run.in);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.legalpay.services.reconciliation;
+
+import com.razorpay.Payment;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Settlement;
+import org.json.JSONObject;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SettlementGateway} backed by the Razorpay Java SDK: the payments list
+ * and the combined settlement recon report
+ */
+@Component
+public class RazorpaySettlementGateway implements SettlementGateway {
+
+    private final RazorpayClient razorpayClient;
+
+    public RazorpaySettlementGateway(RazorpayClient razorpayClient) {
+        this.razorpayClient = razorpayClient;
+    }
+
+    @Override
+    public List<GatewayPayment> fetchPayments(Instant from, Instant to, int skip, int count) throws RazorpayException {
+        JSONObject query = new JSONObject();
+        query.put("from", from.getEpochSecond());
+        query.put("to", to.getEpochSecond() - 1); // Razorpay's "to" is inclusive
+        query.put("skip", skip);
+        query.put("count", count);
+        List<Payment> payments = razorpayClient.payments.fetchAll(query);
+        List<GatewayPayment> page = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            JSONObject json = payment.toJson();
+            page.add(new GatewayPayment(json.getString("id"), json.getString("status"),
+                    json.getLong("amount"), Instant.ofEpochSecond(json.getLong("created_at"))));
+        }
+        return page;
+    }
+
+    @Override
+    public List<GatewaySettlement> fetchSettlements(LocalDate day, int skip, int count) throws RazorpayException {
+        JSONObject query = new JSONObject();
+        query.put("year", day.getYear());
+        query.put("month", day.getMonthValue());
+        query.put("day", day.getDayOfMonth());
+        query.put("skip", skip);
+        query.put("count", count);
+        List<Settlement> entries = razorpayClient.settlement.reports(query);
+        List<GatewaySettlement> page = new ArrayList<>(entries.size());
+        for (Settlement entry : entries) {
+            JSONObject json = entry.toJson();
+            page.add(new GatewaySettlement(json.optString("type"), json.getString("entity_id"),
+                    json.optString("settlement_id", null), json.getLong("amount")));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,68 @@
+package com.legalpay.services.reconciliation;
+
+import com.razorpay.RazorpayException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Paged read access to the gateway's view of payments and settlements,
+ * as used by {@link SettlementReconciler}
+ */
+public interface SettlementGateway {
+
+    /**
+     * Payments created in {@code [from, to)}, in gateway order
+     *
+     * @return at most {@code count} payments; fewer means this was the last page
+     */
+    List<GatewayPayment> fetchPayments(Instant from, Instant to, int skip, int count) throws RazorpayException;
+
+    /**
+     * Entries of the settlements made on {@code day}, in gateway order. Besides
+     * payments these include refunds, adjustments and the like; see {@link GatewaySettlement#isPayment()}.
+     *
+     * @return at most {@code count} entries; fewer means this was the last page
+     */
+    List<GatewaySettlement> fetchSettlements(LocalDate day, int skip, int count) throws RazorpayException;
+
+    final class GatewayPayment {
+        private final String id;
+        private final String status;
+        private final long amount; // Paise
+        private final Instant createdAt;
+
+        public GatewayPayment(String id, String status, long amount, Instant createdAt) {
+            this.id = id;
+            this.status = status;
+            this.amount = amount;
+            this.createdAt = createdAt;
+        }
+
+        public String getId() { return id; }
+        public String getStatus() { return status; }
+        public long getAmount() { return amount; }
+        public Instant getCreatedAt() { return createdAt; }
+    }
+
+    final class GatewaySettlement {
+        private final String type;
+        private final String entityId;
+        private final String settlementId;
+        private final long amount; // Paise, gross of fees
+
+        public GatewaySettlement(String type, String entityId, String settlementId, long amount) {
+            this.type = type;
+            this.entityId = entityId;
+            this.settlementId = settlementId;
+            this.amount = amount;
+        }
+
+        public boolean isPayment() { return "payment".equals(type); }
+        public String getType() { return type; }
+        public String getEntityId() { return entityId; }
+        public String getSettlementId() { return settlementId; }
+        public long getAmount() { return amount; }
+    }
+}
@@ -0,0 +1,226 @@
+package com.legalpay.services.reconciliation;
+
+import com.legalpay.domain.entity.SettlementMismatch;
+import com.legalpay.domain.entity.SettlementMismatch.Kind;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewayPayment;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewaySettlement;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Merge-joins local payments, gateway payments and gateway settlements - each
+ * sorted by Razorpay payment ID - in one forward pass, holding only the current
+ * row of each stream.
+ * <p>
+ * The streams cover a wider window than the business day so that a payment
+ * created just before midnight and captured just after is seen on both sides;
+ * each payment is then judged only by the day that owns it: the day the gateway
+ * created it, or for a payment the gateway does not know, the day it was
+ * captured (or failed) locally.
+ */
+final class SettlementMergeJoin {
+
+    /**
+     * A razorpay_payments row as read for reconciliation
+     */
+    static final class LocalPayment {
+        private final UUID id;
+        private final String razorpayPaymentId;
+        private final String status;
+        private final long amount; // Paise
+        private final Instant eventAt;
+
+        LocalPayment(UUID id, String razorpayPaymentId, String status, long amount, Instant eventAt) {
+            this.id = id;
+            this.razorpayPaymentId = razorpayPaymentId;
+            this.status = status;
+            this.amount = amount;
+            this.eventAt = eventAt;
+        }
+
+        UUID getId() { return id; }
+        String getRazorpayPaymentId() { return razorpayPaymentId; }
+        String getStatus() { return status; }
+        long getAmount() { return amount; }
+        Instant getEventAt() { return eventAt; }
+    }
+
+    private final UUID runId;
+    private final LocalDate businessDate;
+    private final Instant from;
+    private final Instant to;
+    private final Instant now = Instant.now();
+
+    private long localRows;
+    private long gatewayPayments;
+    private long settlements;
+    private long compared;
+    private long mismatches;
+
+    /**
+     * @param from start of the business day (inclusive)
+     * @param to   end of the business day (exclusive)
+     */
+    SettlementMergeJoin(UUID runId, LocalDate businessDate, Instant from, Instant to) {
+        this.runId = runId;
+        this.businessDate = businessDate;
+        this.from = from;
+        this.to = to;
+    }
+
+    void run(Iterator<LocalPayment> local, Iterator<GatewayPayment> payments,
+             Iterator<GatewaySettlement> settled, Consumer<SettlementMismatch> sink) {
+        Cursor<LocalPayment> l = new Cursor<>(local, LocalPayment::getRazorpayPaymentId, "local payments");
+        Cursor<GatewayPayment> p = new Cursor<>(payments, GatewayPayment::getId, "gateway payments");
+        Cursor<GatewaySettlement> s = new Cursor<>(settled, GatewaySettlement::getEntityId, "gateway settlements");
+
+        while (l.head != null || p.head != null) {
+            String key = l.head == null ? p.key()
+                    : p.head == null ? l.key()
+                    : min(l.key(), p.key());
+
+            LocalPayment localPayment = null;
+            if (l.head != null && l.key().equals(key)) {
+                localPayment = l.head;
+                l.advance();
+                localRows++;
+            }
+            GatewayPayment gatewayPayment = null;
+            // A payment can appear on two pages if the listing shifted while it was paged
+            while (p.head != null && p.key().equals(key)) {
+                gatewayPayment = p.head;
+                p.advance();
+            }
+            if (gatewayPayment != null) {
+                gatewayPayments++;
+            }
+
+            // Settlements of payments outside both streams belong to other days
+            while (s.head != null && s.key().compareTo(key) < 0) {
+                s.advance();
+            }
+            Long settledAmount = null;
+            String settlementId = null;
+            while (s.head != null && s.key().equals(key)) {
+                settledAmount = (settledAmount == null ? 0 : settledAmount) + s.head.getAmount();
+                settlementId = s.head.getSettlementId();
+                s.advance();
+                settlements++;
+            }
+
+            compare(key, localPayment, gatewayPayment, settledAmount, settlementId, sink);
+        }
+    }
+
+    long getLocalRows() { return localRows; }
+    long getGatewayPayments() { return gatewayPayments; }
+    long getSettlements() { return settlements; }
+    long getCompared() { return compared; }
+    long getMismatches() { return mismatches; }
+
+    private void compare(String key, LocalPayment local, GatewayPayment gateway, Long settledAmount,
+                         String settlementId, Consumer<SettlementMismatch> sink) {
+        Instant ownedBy = gateway != null ? gateway.getCreatedAt() : local.eventAt;
+        if (ownedBy.isBefore(from) || !ownedBy.isBefore(to)) {
+            return;
+        }
+        compared++;
+
+        boolean localCaptured = local != null && isCaptured(local.status);
+        boolean gatewayCaptured = gateway != null && isCaptured(gateway.getStatus());
+        Kind kind = null;
+        if (local == null) {
+            kind = gatewayCaptured ? Kind.MISSING_LOCALLY : null;
+        } else if (gateway == null) {
+            kind = localCaptured ? Kind.MISSING_AT_GATEWAY : null;
+        } else if (localCaptured != gatewayCaptured) {
+            kind = Kind.STATUS_MISMATCH;
+        } else if (gatewayCaptured) {
+            if (local.amount != gateway.getAmount()) {
+                kind = Kind.AMOUNT_MISMATCH;
+            } else if (settledAmount == null) {
+                kind = Kind.NOT_SETTLED;
+            } else if (settledAmount != gateway.getAmount()) {
+                kind = Kind.SETTLED_AMOUNT_MISMATCH;
+            }
+        }
+        if (kind == null) {
+            return;
+        }
+
+        SettlementMismatch mismatch = new SettlementMismatch();
+        mismatch.setRunId(runId);
+        mismatch.setBusinessDate(businessDate);
+        mismatch.setRazorpayPaymentId(key);
+        mismatch.setKind(kind);
+        if (local != null) {
+            mismatch.setPaymentId(local.id);
+            mismatch.setLocalStatus(local.status);
+            mismatch.setLocalAmount(local.amount);
+        }
+        if (gateway != null) {
+            mismatch.setGatewayStatus(gateway.getStatus());
+            mismatch.setGatewayAmount(gateway.getAmount());
+        }
+        mismatch.setSettledAmount(settledAmount);
+        mismatch.setSettlementId(settlementId);
+        mismatch.setCreatedAt(now);
+        mismatches++;
+        sink.accept(mismatch);
+    }
+
+    /**
+     * Refunded payments were captured first, and are settled like any other
+     */
+    private static boolean isCaptured(String status) {
+        return "CAPTURED".equalsIgnoreCase(status) || "REFUNDED".equalsIgnoreCase(status);
+    }
+
+    private static String min(String a, String b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Forward-only view of a sorted stream that fails fast if it turns out not to
+     * be sorted - a database collation that disagrees with {@link String#compareTo}
+     * would otherwise silently report every payment as missing
+     */
+    private static final class Cursor<T> {
+        private final Iterator<T> values;
+        private final Function<T, String> key;
+        private final String name;
+        private T head;
+        private String headKey;
+
+        private Cursor(Iterator<T> values, Function<T, String> key, String name) {
+            this.values = values;
+            this.key = key;
+            this.name = name;
+            advance();
+        }
+
+        private String key() {
+            return headKey;
+        }
+
+        private void advance() {
+            if (!values.hasNext()) {
+                head = null;
+                return;
+            }
+            T next = values.next();
+            String nextKey = key.apply(next);
+            if (headKey != null && nextKey.compareTo(headKey) < 0) {
+                throw new IllegalStateException(name + " are not sorted by payment ID: "
+                        + nextKey + " after " + headKey);
+            }
+            head = next;
+            headKey = nextKey;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package com.legalpay.services.reconciliation;
+
+import com.legalpay.domain.entity.SettlementMismatch;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewayPayment;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewaySettlement;
+import com.legalpay.services.reconciliation.SettlementMergeJoin.LocalPayment;
+import com.razorpay.RazorpayException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks one business day of Razorpay payments against razorpay_payments and
+ * writes every discrepancy to settlement_mismatches.
+ * <p>
+ * Three streams are read in parallel: the gateway's payments for the day, its
+ * settlement entries for the day and the settlement window after it, and the
+ * local rows through a forward-only cursor sorted by Razorpay payment ID. The
+ * gateway pages in no useful order, so both gateway streams go through an
+ * {@link ExternalSorter} (bounded memory, spilling to temp files); the local
+ * cursor feeds a bounded queue. The three sorted streams are then merge-joined
+ * by {@link SettlementMergeJoin} and mismatches written in JDBC batches, so
+ * memory use does not grow with the number of payments. A rerun replaces the
+ * day's report. One node at a time via scheduler_locks.
+ */
+@Component
+public class SettlementReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementReconciler.class);
+
+    static final String LOCK_NAME = "settlement-reconcile";
+
+    // Event time: when the payment was captured or failed locally
+    private static final String EVENT_AT = "COALESCE(captured_at, failed_at, created_at)";
+    private static final String SELECT_LOCAL =
+            "SELECT id, razorpay_payment_id, status, amount, " + EVENT_AT + " AS event_at FROM razorpay_payments " +
+            "WHERE razorpay_payment_id IS NOT NULL AND " + EVENT_AT + " >= ? AND " + EVENT_AT + " < ? " +
+            "ORDER BY razorpay_payment_id%s";
+    private static final String INSERT_MISMATCH =
+            "INSERT INTO settlement_mismatches (run_id, business_date, razorpay_payment_id, payment_id, kind, " +
+            "local_status, gateway_status, local_amount, gateway_amount, settled_amount, settlement_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_OTHER_RUNS =
+            "DELETE FROM settlement_mismatches WHERE business_date = ? AND run_id <> ?";
+    private static final String DELETE_RUN =
+            "DELETE FROM settlement_mismatches WHERE run_id = ?";
+
+    private static final LocalPayment END = new LocalPayment(null, null, null, 0, null);
+
+    /**
+     * Counts for one reconciliation run
+     */
+    public static final class Result {
+        private final UUID runId;
+        private final LocalDate businessDate;
+        private final long localRows;
+        private final long gatewayPayments;
+        private final long settlements;
+        private final long compared;
+        private final long mismatches;
+
+        Result(UUID runId, LocalDate businessDate, SettlementMergeJoin join) {
+            this.runId = runId;
+            this.businessDate = businessDate;
+            this.localRows = join.getLocalRows();
+            this.gatewayPayments = join.getGatewayPayments();
+            this.settlements = join.getSettlements();
+            this.compared = join.getCompared();
+            this.mismatches = join.getMismatches();
+        }
+
+        public UUID getRunId() { return runId; }
+        public LocalDate getBusinessDate() { return businessDate; }
+        public long getLocalRows() { return localRows; }
+        public long getGatewayPayments() { return gatewayPayments; }
+        public long getSettlements() { return settlements; }
+        public long getCompared() { return compared; }
+        public long getMismatches() { return mismatches; }
+    }
+
+    private final JdbcTemplate cursorTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementGateway gateway;
+    private final SchedulerLockService lockService;
+    private final TransactionTemplate readTransaction;
+    private final ExecutorService executor;
+    private final ZoneId zone;
+    private final int settlementDays;
+    private final Duration captureSlack;
+    private final int pageSize;
+    private final int runSize;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Path spillDirectory;
+    private final Duration lockLease;
+    private volatile Boolean postgres;
+
+    public SettlementReconciler(DataSource dataSource,
+                                JdbcTemplate jdbcTemplate,
+                                SettlementGateway gateway,
+                                SchedulerLockService lockService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${legalpay.reconciliation.zone:Asia/Kolkata}") ZoneId zone,
+                                @Value("${legalpay.reconciliation.settlement-days:3}") int settlementDays,
+                                @Value("${legalpay.reconciliation.capture-slack:PT1H}") Duration captureSlack,
+                                @Value("${legalpay.reconciliation.page-size:100}") int pageSize,
+                                @Value("${legalpay.reconciliation.sort-run-size:100000}") int runSize,
+                                @Value("${legalpay.reconciliation.fetch-size:5000}") int fetchSize,
+                                @Value("${legalpay.reconciliation.batch-size:1000}") int batchSize,
+                                @Value("${legalpay.reconciliation.spill-directory:${java.io.tmpdir}}") Path spillDirectory,
+                                @Value("${legalpay.reconciliation.lock-lease:PT2H}") Duration lockLease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.gateway = gateway;
+        this.lockService = lockService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.zone = zone;
+        this.settlementDays = settlementDays;
+        this.captureSlack = captureSlack;
+        this.pageSize = pageSize;
+        this.runSize = runSize;
+        this.queueCapacity = fetchSize * 2;
+        this.batchSize = batchSize;
+        this.spillDirectory = spillDirectory;
+        this.lockLease = lockLease;
+        this.executor = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "settlement-reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Reconcile the most recent day whose settlement window has closed
+     */
+    @Scheduled(cron = "${legalpay.reconciliation.cron:0 30 6 * * *}", zone = "${legalpay.reconciliation.zone:Asia/Kolkata}")
+    public void scheduledReconcile() {
+        try {
+            reconcile(LocalDate.now(zone).minusDays(settlementDays + 1L));
+        } catch (RuntimeException e) {
+            log.error("Settlement reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Reconcile the payments the gateway created on {@code businessDate}
+     *
+     * @return the run's counts, or null if another node holds the lock
+     */
+    public Result reconcile(LocalDate businessDate) {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Settlement reconciliation skipped: lock held by another node");
+            return null;
+        }
+        long started = System.currentTimeMillis();
+        UUID runId = UUID.randomUUID();
+        try {
+            Result result = run(runId, businessDate);
+            jdbcTemplate.update(DELETE_OTHER_RUNS, Date.valueOf(businessDate), runId);
+            log.info("Settlement reconciliation for {}: local={} gateway={} settled={} compared={} mismatches={} took={}ms",
+                    businessDate, result.getLocalRows(), result.getGatewayPayments(), result.getSettlements(),
+                    result.getCompared(), result.getMismatches(), System.currentTimeMillis() - started);
+            return result;
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(DELETE_RUN, runId);
+            throw e;
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Result run(UUID runId, LocalDate businessDate) {
+        Instant from = businessDate.atStartOfDay(zone).toInstant();
+        Instant to = businessDate.plusDays(1).atStartOfDay(zone).toInstant();
+        // Wide enough on both sides that every payment the day owns is in both streams
+        // (local clocks and gateway clocks disagree, so the local side is widened too)
+        Instant localFrom = from.minus(captureSlack);
+        Instant localTo = to.plus(captureSlack);
+        Instant gatewayFrom = from.minus(captureSlack);
+        Instant gatewayTo = to.plus(captureSlack);
+
+        try (ExternalSorter<GatewayPayment> payments = new ExternalSorter<>(spillDirectory, "recon-payments-",
+                     runSize, Comparator.comparing(GatewayPayment::getId), PAYMENT_CODEC);
+             ExternalSorter<GatewaySettlement> settlements = new ExternalSorter<>(spillDirectory, "recon-settlements-",
+                     runSize, Comparator.comparing(GatewaySettlement::getEntityId), SETTLEMENT_CODEC)) {
+
+            BlockingQueue<LocalPayment> localQueue = new ArrayBlockingQueue<>(queueCapacity);
+            AtomicReference<Throwable> localFailure = new AtomicReference<>();
+            Future<?> localStream = executor.submit(() -> streamLocal(localFrom, localTo, localQueue, localFailure));
+            Future<?> paymentFetch = executor.submit(() -> {
+                fetchPayments(gateway, pageSize, gatewayFrom, gatewayTo, payments);
+                return null;
+            });
+            Future<?> settlementFetch = executor.submit(() -> {
+                for (int d = 0; d <= settlementDays; d++) {
+                    fetchSettlements(gateway, pageSize, businessDate.plusDays(d), settlements);
+                }
+                return null;
+            });
+
+            try {
+                // Both fetches must be done with their sorter before it is read or closed
+                IllegalStateException fetchFailure = null;
+                for (Future<?> fetch : List.of(paymentFetch, settlementFetch)) {
+                    try {
+                        await(fetch);
+                    } catch (IllegalStateException e) {
+                        if (fetchFailure == null) {
+                            fetchFailure = e;
+                        } else {
+                            fetchFailure.addSuppressed(e);
+                        }
+                    }
+                }
+                if (fetchFailure != null) {
+                    throw fetchFailure;
+                }
+
+                SettlementMergeJoin join = new SettlementMergeJoin(runId, businessDate, from, to);
+                List<SettlementMismatch> batch = new ArrayList<>(batchSize);
+                join.run(new QueueIterator(localQueue, localFailure), payments.sorted(), settlements.sorted(),
+                        mismatch -> {
+                            batch.add(mismatch);
+                            if (batch.size() >= batchSize) {
+                                write(batch);
+                            }
+                        });
+                write(batch);
+                return new Result(runId, businessDate, join);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                localStream.cancel(true);
+            }
+        }
+    }
+
+    static void fetchPayments(SettlementGateway gateway, int pageSize, Instant from, Instant to,
+                              ExternalSorter<GatewayPayment> sorter) throws RazorpayException, IOException {
+        for (int skip = 0; ; skip += pageSize) {
+            List<GatewayPayment> page = gateway.fetchPayments(from, to, skip, pageSize);
+            for (GatewayPayment payment : page) {
+                sorter.add(payment);
+            }
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Only payment entries are kept; refunds and adjustments are not reconciled here
+     */
+    static void fetchSettlements(SettlementGateway gateway, int pageSize, LocalDate day,
+                                 ExternalSorter<GatewaySettlement> sorter) throws RazorpayException, IOException {
+        for (int skip = 0; ; skip += pageSize) {
+            List<GatewaySettlement> page = gateway.fetchSettlements(day, skip, pageSize);
+            for (GatewaySettlement entry : page) {
+                if (entry.isPayment()) {
+                    sorter.add(entry);
+                }
+            }
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Producer side of the local stream; blocks while the merge is behind
+     */
+    private void streamLocal(Instant from, Instant to, BlockingQueue<LocalPayment> queue,
+                             AtomicReference<Throwable> failure) {
+        // Postgres compares with the database's collation unless told otherwise; the merge needs code-point order
+        String sql = String.format(SELECT_LOCAL, isPostgres() ? " COLLATE \"C\"" : "");
+        try {
+            readTransaction.executeWithoutResult(status -> cursorTemplate.query(sql, ps -> {
+                ps.setTimestamp(1, Timestamp.from(from));
+                ps.setTimestamp(2, Timestamp.from(to));
+            }, (RowCallbackHandler) rs -> {
+                LocalPayment payment = new LocalPayment(rs.getObject("id", UUID.class),
+                        rs.getString("razorpay_payment_id"), rs.getString("status"),
+                        rs.getBigDecimal("amount").movePointRight(2).longValueExact(),
+                        rs.getTimestamp("event_at").toInstant());
+                try {
+                    queue.put(payment);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Local payment stream cancelled", e);
+                }
+            }));
+        } catch (RuntimeException e) {
+            failure.set(e);
+        } finally {
+            if (!Thread.currentThread().isInterrupted()) {
+                try {
+                    queue.put(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void write(List<SettlementMismatch> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (SettlementMismatch m : batch) {
+            rows.add(new Object[]{m.getRunId(), Date.valueOf(m.getBusinessDate()), m.getRazorpayPaymentId(),
+                    m.getPaymentId(), m.getKind().name(), m.getLocalStatus(), m.getGatewayStatus(),
+                    m.getLocalAmount(), m.getGatewayAmount(), m.getSettledAmount(), m.getSettlementId(),
+                    Timestamp.from(m.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MISMATCH, rows);
+        batch.clear();
+    }
+
+    private static void await(Future<?> task) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Settlement reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Gateway fetch failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+
+    /**
+     * Consumer side of the local stream
+     */
+    private static final class QueueIterator implements Iterator<LocalPayment> {
+        private final BlockingQueue<LocalPayment> queue;
+        private final AtomicReference<Throwable> failure;
+        private LocalPayment next;
+
+        private QueueIterator(BlockingQueue<LocalPayment> queue, AtomicReference<Throwable> failure) {
+            this.queue = queue;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Settlement reconciliation interrupted", e);
+                }
+            }
+            if (next == END) {
+                Throwable error = failure.get();
+                if (error != null) {
+                    throw new IllegalStateException("Local payment stream failed: " + error.getMessage(), error);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public LocalPayment next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LocalPayment value = next;
+            next = null;
+            return value;
+        }
+    }
+
+    static final ExternalSorter.Codec<GatewayPayment> PAYMENT_CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutput out, GatewayPayment value) throws IOException {
+            out.writeUTF(value.getId());
+            out.writeUTF(value.getStatus());
+            out.writeLong(value.getAmount());
+            out.writeLong(value.getCreatedAt().getEpochSecond());
+        }
+
+        @Override
+        public GatewayPayment read(DataInput in) throws IOException {
+            return new GatewayPayment(in.readUTF(), in.readUTF(), in.readLong(), Instant.ofEpochSecond(in.readLong()));
+        }
+    };
+
+    static final ExternalSorter.Codec<GatewaySettlement> SETTLEMENT_CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutput out, GatewaySettlement value) throws IOException {
+            out.writeUTF(value.getType());
+            out.writeUTF(value.getEntityId());
+            out.writeUTF(value.getSettlementId() != null ? value.getSettlementId() : "");
+            out.writeLong(value.getAmount());
+        }
+
+        @Override
+        public GatewaySettlement read(DataInput in) throws IOException {
+            String type = in.readUTF();
+            String entityId = in.readUTF();
+            String settlementId = in.readUTF();
+            return new GatewaySettlement(type, entityId, settlementId.isEmpty() ? null : settlementId, in.readLong());
+        }
+    };
+}
@@ -0,0 +1,175 @@
+package com.legalpay.services.security;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Checks hex-encoded HMAC-SHA256 signatures (Razorpay checkout and webhook signatures).
+ * <p>
+ * Each verification reuses an already keyed {@link Mac} with its scratch buffers:
+ * platform threads keep their own in a ThreadLocal, virtual threads - which are
+ * too short-lived and numerous for that - borrow one from a shared pool. The
+ * received signature is decoded to bytes rather than our digest encoded to hex,
+ * and compared in constant time, so a steady-state verification of an ASCII
+ * message allocates nothing.
+ */
+public final class HmacSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SCRATCH_BYTES = 1024;
+
+    private final Mac prototype;
+    private final int macLength;
+    private final ThreadLocal<State> perThread = ThreadLocal.withInitial(this::newState);
+    private final ConcurrentLinkedQueue<State> pool = new ConcurrentLinkedQueue<>();
+
+    public HmacSignatureVerifier(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("HMAC secret must not be empty");
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+        this.macLength = prototype.getMacLength();
+    }
+
+    /**
+     * @return true if {@code hexSignature} is the HMAC of the UTF-8 bytes of {@code message}
+     */
+    public boolean verify(String message, String hexSignature) {
+        return verifyText(hexSignature, message, null);
+    }
+
+    /**
+     * Verify the signature of {@code first + "|" + second} (Razorpay's order|payment form)
+     */
+    public boolean verify(String first, String second, String hexSignature) {
+        return verifyText(hexSignature, first, second);
+    }
+
+    public boolean verify(byte[] message, String hexSignature) {
+        if (message == null || hexSignature == null || hexSignature.length() != macLength * 2) {
+            return false;
+        }
+        State state = acquire();
+        try {
+            state.mac.update(message);
+            return finish(state, hexSignature);
+        } finally {
+            release(state);
+        }
+    }
+
+    private boolean verifyText(String hexSignature, String first, String second) {
+        if (first == null || hexSignature == null || hexSignature.length() != macLength * 2) {
+            return false;
+        }
+        State state = acquire();
+        try {
+            update(state, first);
+            if (second != null) {
+                state.mac.update((byte) '|');
+                update(state, second);
+            }
+            return finish(state, hexSignature);
+        } finally {
+            release(state);
+        }
+    }
+
+    private boolean finish(State state, String hexSignature) {
+        try {
+            state.mac.doFinal(state.actual, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!decodeHex(hexSignature, state.expected)) {
+            return false;
+        }
+        return MessageDigest.isEqual(state.actual, state.expected);
+    }
+
+    /**
+     * Feed ASCII text through the scratch buffer; anything else is encoded normally
+     */
+    private static void update(State state, String text) {
+        byte[] scratch = state.scratch;
+        int length = text.length();
+        int filled = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                state.mac.update(scratch, 0, filled);
+                state.mac.update(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            scratch[filled++] = (byte) c;
+            if (filled == scratch.length) {
+                state.mac.update(scratch, 0, filled);
+                filled = 0;
+            }
+        }
+        state.mac.update(scratch, 0, filled);
+    }
+
+    /**
+     * Decode lower- or upper-case hex into {@code out}; false on any non-hex character
+     */
+    static boolean decodeHex(String hex, byte[] out) {
+        if (hex.length() != out.length * 2) {
+            return false;
+        }
+        int invalid = 0;
+        for (int i = 0; i < out.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            invalid |= high | low; // -1 sets the sign bit
+            out[i] = (byte) ((high << 4) | low);
+        }
+        return invalid >= 0;
+    }
+
+    private State acquire() {
+        if (!Thread.currentThread().isVirtual()) {
+            return perThread.get();
+        }
+        State state = pool.poll();
+        return state != null ? state : newState();
+    }
+
+    private void release(State state) {
+        state.mac.reset();
+        if (Thread.currentThread().isVirtual()) {
+            pool.offer(state);
+        }
+    }
+
+    private State newState() {
+        try {
+            return new State((Mac) prototype.clone(), macLength);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+
+    private static final class State {
+        private final Mac mac;
+        private final byte[] actual;
+        private final byte[] expected;
+        private final byte[] scratch = new byte[SCRATCH_BYTES];
+
+        private State(Mac mac, int macLength) {
+            this.mac = mac;
+            this.actual = new byte[macLength];
+            this.expected = new byte[macLength];
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.legalpay.services.stats;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import com.legalpay.services.lock.SchedulerLockService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds merchant_stats from the source tables to correct any drift in the
+ * incrementally maintained counters. Merchants are split into slices processed
+ * in parallel; each merchant is rebuilt in its own short transaction while
+ * holding its stats row lock, so concurrent increments queue behind the rebuild
+ * instead of being overwritten by it.
+ */
+@Component
+public class MerchantStatsReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantStatsReconciliationJob.class);
+
+    static final String LOCK_NAME = "merchant-stats-reconcile";
+
+    private final MerchantRepository merchantRepository;
+    private final ContractRepository contractRepository;
+    private final RazorpayPaymentRepository razorpayPaymentRepository;
+    private final InstallmentRepository installmentRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final SchedulerLockService lockService;
+    private final Duration lockLease;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public MerchantStatsReconciliationJob(MerchantRepository merchantRepository,
+                                          ContractRepository contractRepository,
+                                          RazorpayPaymentRepository razorpayPaymentRepository,
+                                          InstallmentRepository installmentRepository,
+                                          MerchantStatsService merchantStatsService,
+                                          SchedulerLockService lockService,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${legalpay.stats.reconcile.parallelism:4}") int parallelism,
+                                          @Value("${legalpay.stats.reconcile.lock-lease:PT2H}") Duration lockLease) {
+        this.merchantRepository = merchantRepository;
+        this.contractRepository = contractRepository;
+        this.razorpayPaymentRepository = razorpayPaymentRepository;
+        this.installmentRepository = installmentRepository;
+        this.merchantStatsService = merchantStatsService;
+        this.lockService = lockService;
+        this.lockLease = lockLease;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = Math.max(1, parallelism);
+        this.executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "merchant-stats-reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(cron = "${legalpay.stats.reconcile.cron:0 30 2 * * *}")
+    public void scheduledReconcile() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            log.debug("Stats reconciliation skipped: lock held by another node");
+            return;
+        }
+        try {
+            reconcileAll();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Rebuild every merchant's aggregates
+     *
+     * @return number of merchants reconciled successfully
+     */
+    public int reconcileAll() {
+        long started = System.currentTimeMillis();
+        List<UUID> merchantIds = merchantRepository.findAllIds();
+        AtomicInteger reconciled = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        int sliceSize = (merchantIds.size() + parallelism - 1) / parallelism;
+        List<Future<?>> slices = new ArrayList<>();
+        for (int from = 0; from < merchantIds.size(); from += sliceSize) {
+            List<UUID> slice = merchantIds.subList(from, Math.min(from + sliceSize, merchantIds.size()));
+            slices.add(executor.submit(() -> {
+                for (UUID merchantId : slice) {
+                    try {
+                        reconcile(merchantId);
+                        reconciled.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.error("Failed to reconcile stats for merchant={}", merchantId, e);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> slice : slices) {
+            try {
+                slice.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Stats reconciliation slice failed", e.getCause());
+            }
+        }
+
+        log.info("Reconciled merchant stats: merchants={} failed={} took={}ms",
+                reconciled.get(), failed.get(), System.currentTimeMillis() - started);
+        return reconciled.get();
+    }
+
+    /**
+     * Rebuild one merchant's aggregates from contracts, payments and instalments
+     */
+    public void reconcile(UUID merchantId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            merchantStatsService.lock(merchantId);
+
+            Map<Contract.ContractStatus, Long> counts = new EnumMap<>(Contract.ContractStatus.class);
+            BigDecimal totalPrincipal = BigDecimal.ZERO;
+            for (Object[] row : contractRepository.aggregateByStatus(merchantId)) {
+                counts.put((Contract.ContractStatus) row[0], ((Number) row[1]).longValue());
+                totalPrincipal = totalPrincipal.add(toBigDecimal(row[2]));
+            }
+            BigDecimal collected = razorpayPaymentRepository.sumAmountByMerchantAndStatus(
+                    merchantId, RazorpayPayment.PaymentStatus.CAPTURED);
+            BigDecimal overdue = installmentRepository.sumAmountByMerchantAndStatus(
+                    merchantId, Installment.InstallmentStatus.OVERDUE);
+
+            merchantStatsService.replace(merchantId, counts, totalPrincipal, collected, overdue);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,177 @@
+package com.legalpay.services.stats;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.MerchantStats;
+import com.legalpay.domain.repository.MerchantStatsRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the merchant_stats read model.
+ *
+ * Every write is a single atomic {@code UPDATE ... SET col = col + ?} issued on the
+ * caller's transaction (JdbcTemplate joins the JPA transaction), so the aggregates
+ * commit or roll back together with the contract/payment change that caused them
+ * and concurrent writers never lose updates to a read-modify-write race.
+ */
+@Service
+public class MerchantStatsService {
+
+    private static final String INSERT_COLUMNS =
+            "merchant_id, draft_count, pending_esign_count, signed_count, active_count, completed_count, " +
+            "defaulted_count, cancelled_count, legal_notice_sent_count, total_principal, collected_amount, " +
+            "overdue_amount, updated_at";
+    private static final String INSERT_ZERO_ROW =
+            "INSERT INTO merchant_stats (" + INSERT_COLUMNS + ") VALUES (?, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MerchantStatsRepository merchantStatsRepository;
+    private volatile Boolean postgres;
+
+    public MerchantStatsService(JdbcTemplate jdbcTemplate, MerchantStatsRepository merchantStatsRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.merchantStatsRepository = merchantStatsRepository;
+    }
+
+    /**
+     * Current aggregates for a merchant (single primary-key lookup)
+     */
+    @Transactional(readOnly = true)
+    public MerchantStats getStats(UUID merchantId) {
+        return merchantStatsRepository.findById(merchantId)
+                .orElseGet(() -> MerchantStats.empty(merchantId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void contractCreated(UUID merchantId, Contract.ContractStatus status, BigDecimal principal) {
+        String column = MerchantStats.countColumn(status);
+        applyUpdate(merchantId,
+                column + " = " + column + " + 1, total_principal = total_principal + ?",
+                nonNull(principal));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(UUID merchantId, Contract.ContractStatus from, Contract.ContractStatus to) {
+        if (from == to) {
+            return;
+        }
+        String fromColumn = MerchantStats.countColumn(from);
+        String toColumn = MerchantStats.countColumn(to);
+        applyUpdate(merchantId,
+                fromColumn + " = " + fromColumn + " - 1, " + toColumn + " = " + toColumn + " + 1");
+    }
+
+    /**
+     * Bulk variant for sweeps that move many contracts of one merchant at once
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(UUID merchantId, Contract.ContractStatus from, Contract.ContractStatus to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        String fromColumn = MerchantStats.countColumn(from);
+        String toColumn = MerchantStats.countColumn(to);
+        applyUpdate(merchantId,
+                fromColumn + " = " + fromColumn + " - ?, " + toColumn + " = " + toColumn + " + ?",
+                count, count);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentCollected(UUID merchantId, BigDecimal amount) {
+        applyUpdate(merchantId, "collected_amount = collected_amount + ?", nonNull(amount));
+    }
+
+    /**
+     * Positive when instalments fall overdue, negative when overdue instalments are settled or waived
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void overdueChanged(UUID merchantId, BigDecimal delta) {
+        applyUpdate(merchantId, "overdue_amount = overdue_amount + ?", nonNull(delta));
+    }
+
+    /**
+     * Take the row lock for a merchant so a rebuild is not interleaved with
+     * concurrent increments; creates the row if needed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(UUID merchantId) {
+        ensureRow(merchantId);
+        jdbcTemplate.queryForList(
+                "SELECT merchant_id FROM merchant_stats WHERE merchant_id = ? FOR UPDATE", merchantId);
+    }
+
+    /**
+     * Overwrite a merchant's aggregates with values rebuilt from source tables
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(UUID merchantId, Map<Contract.ContractStatus, Long> counts,
+                        BigDecimal totalPrincipal, BigDecimal collected, BigDecimal overdue) {
+        StringBuilder set = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (Contract.ContractStatus status : Contract.ContractStatus.values()) {
+            set.append(MerchantStats.countColumn(status)).append(" = ?, ");
+            args.add(counts.getOrDefault(status, 0L));
+        }
+        set.append("total_principal = ?, collected_amount = ?, overdue_amount = ?, reconciled_at = ?");
+        Timestamp now = Timestamp.from(Instant.now());
+        args.addAll(Arrays.asList(nonNull(totalPrincipal), nonNull(collected), nonNull(overdue), now));
+        applyUpdate(merchantId, set.toString(), args.toArray());
+    }
+
+    private void applyUpdate(UUID merchantId, String setClause, Object... args) {
+        String sql = "UPDATE merchant_stats SET " + setClause + ", updated_at = ? WHERE merchant_id = ?";
+        Object[] params = Arrays.copyOf(args, args.length + 2);
+        params[args.length] = Timestamp.from(Instant.now());
+        params[args.length + 1] = merchantId;
+
+        if (jdbcTemplate.update(sql, params) == 0) {
+            ensureRow(merchantId);
+            jdbcTemplate.update(sql, params);
+        }
+    }
+
+    /**
+     * Insert the zero row if missing. On PostgreSQL a failed INSERT would abort the
+     * surrounding transaction, so the conflict is absorbed with ON CONFLICT instead.
+     */
+    private void ensureRow(UUID merchantId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (isPostgres()) {
+            jdbcTemplate.update(INSERT_ZERO_ROW + " ON CONFLICT (merchant_id) DO NOTHING", merchantId, now);
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_ZERO_ROW, merchantId, now);
+        } catch (DuplicateKeyException e) {
+            // Created concurrently by another writer
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
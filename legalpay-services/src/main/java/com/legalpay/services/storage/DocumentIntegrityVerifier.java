@@ -0,0 +1,69 @@
+package com.legalpay.services.storage;
+
+import com.legalpay.services.cache.BoundedLocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Checks stored documents against their recorded SHA-256 on first use rather
+ * than on every read. Results are cached per file version (path, size, mtime),
+ * so a replaced or modified file is verified again.
+ */
+@Component
+public class DocumentIntegrityVerifier {
+
+    private static final int READ_BUFFER = 64 * 1024;
+
+    private final BoundedLocalCache<String, Boolean> results;
+
+    public DocumentIntegrityVerifier(@Value("${legalpay.storage.verify-cache.maximum-size:10000}") int maximumSize,
+                                     @Value("${legalpay.storage.verify-cache.ttl:PT1H}") Duration ttl) {
+        this.results = new BoundedLocalCache<>(maximumSize, ttl);
+    }
+
+    public boolean verify(Path path, String expectedSha256) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        String key = path + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis()
+                + "|" + expectedSha256;
+        Boolean cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean matches = sha256(path).equalsIgnoreCase(expectedSha256);
+        results.put(key, matches);
+        return matches;
+    }
+
+    /**
+     * Hash a file through a direct buffer, without reading it into the heap
+     */
+    public static String sha256(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,37 @@
+package com.legalpay.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Blob store for generated documents (notices, contract PDFs)
+ */
+public interface DocumentStorage {
+
+    /**
+     * Store the bytes under the given key, replacing any existing object
+     *
+     * @return location to persist and later pass to {@link #load}
+     */
+    String store(String key, byte[] content) throws IOException;
+
+    /**
+     * Streaming variant of {@link #store(String, byte[])} for large uploads
+     */
+    String store(String key, InputStream content) throws IOException;
+
+    byte[] load(String location) throws IOException;
+
+    /**
+     * Remove a stored document; a location that no longer exists is ignored
+     */
+    void delete(String location) throws IOException;
+
+    /**
+     * The file behind a location, when this backend keeps documents on local disk.
+     * Lets callers serve it with zero-copy transfers instead of {@link #load}.
+     */
+    Optional<Path> localPath(String location);
+}
@@ -0,0 +1,20 @@
+package com.legalpay.services.storage;
+
+import java.io.IOException;
+
+/**
+ * An upload went past its size limit; nothing was stored
+ */
+public class DocumentTooLargeException extends IOException {
+
+    private final long maxBytes;
+
+    public DocumentTooLargeException(long maxBytes) {
+        super("Document exceeds the " + maxBytes + " byte limit");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.legalpay.services.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Passes reads through until more than {@code maxBytes} have been read, then
+ * fails with {@link DocumentTooLargeException}
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+
+    public LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) throws DocumentTooLargeException {
+        count += n;
+        if (count > maxBytes) {
+            throw new DocumentTooLargeException(maxBytes);
+        }
+    }
+}
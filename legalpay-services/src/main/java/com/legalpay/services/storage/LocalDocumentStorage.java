@@ -0,0 +1,78 @@
+package com.legalpay.services.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Filesystem-backed storage for local and single-node deployments.
+ * Writes go to a temp file that is moved into place, so a reader (or a resumed
+ * pipeline) never sees a partially written document.
+ */
+@Component
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+
+    public LocalDocumentStorage(@Value("${legalpay.storage.local.root:./data/documents}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String store(String key, byte[] content) throws IOException {
+        return store(key, tmp -> Files.write(tmp, content));
+    }
+
+    @Override
+    public String store(String key, InputStream content) throws IOException {
+        return store(key, tmp -> Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING));
+    }
+
+    @Override
+    public byte[] load(String location) throws IOException {
+        return Files.readAllBytes(resolve(location));
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(resolve(location));
+    }
+
+    @Override
+    public Optional<Path> localPath(String location) {
+        Path path = resolve(location);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private String store(String key, TempFileWriter writer) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            writer.write(tmp);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return key;
+    }
+
+    @FunctionalInterface
+    private interface TempFileWriter {
+        void write(Path tmp) throws IOException;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid document key: " + key);
+        }
+        return path;
+    }
+}
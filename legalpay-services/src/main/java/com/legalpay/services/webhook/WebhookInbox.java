@@ -0,0 +1,91 @@
+package com.legalpay.services.webhook;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Write side of the webhook inbox: one INSERT per delivery, nothing else,
+ * so the webhook can be acknowledged as soon as the row is durable.
+ * Redeliveries of an event hit the unique event_id and are dropped there.
+ * With the {@link WebhookWal} enabled, webhooks that cannot be written to the
+ * database are logged locally instead and replayed into the inbox later.
+ */
+@Component
+public class WebhookInbox {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInbox.class);
+
+    private static final String INSERT =
+            "INSERT INTO webhook_inbox (event_id, payload, status, attempts, received_at) " +
+            "VALUES (?, ?, 'PENDING', 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<WebhookWal> wal;
+    private volatile Boolean postgres;
+
+    public WebhookInbox(JdbcTemplate jdbcTemplate, ObjectProvider<WebhookWal> wal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.wal = wal;
+    }
+
+    /**
+     * Durably accept a webhook: into the inbox, or into the WAL while the WAL is
+     * backlogged or the database write fails
+     *
+     * @return false only if the inbox already had the event
+     * @throws DataAccessException if the database write failed and there is no WAL
+     * @throws IOException if the WAL write failed
+     */
+    public boolean accept(String eventId, String payload) throws IOException {
+        WebhookWal webhookWal = wal.getIfAvailable();
+        if (webhookWal == null) {
+            return append(eventId, payload);
+        }
+        if (webhookWal.appendIfBacklogged(eventId, payload)) {
+            return true;
+        }
+        try {
+            return append(eventId, payload);
+        } catch (DataAccessException e) {
+            log.warn("Inbox write failed, logging webhook {} to the WAL: {}", eventId, e.getMessage());
+            webhookWal.append(eventId, payload);
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the event was stored, false if it had already been received
+     */
+    public boolean append(String eventId, String payload) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (isPostgres()) {
+            return jdbcTemplate.update(INSERT + " ON CONFLICT (event_id) DO NOTHING", eventId, payload, now) == 1;
+        }
+        try {
+            return jdbcTemplate.update(INSERT, eventId, payload, now) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,320 @@
+package com.legalpay.services.webhook;
+
+import com.legalpay.services.PaymentService;
+import com.legalpay.services.lock.SchedulerLockService;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies webhook inbox rows to payments.
+ * <p>
+ * Pending rows are read in arrival order and grouped by Razorpay order ID; the
+ * groups are spread across workers by order ID hash and each worker applies its
+ * groups sequentially, so events for one order are always applied in the order
+ * they arrived. A row is marked PROCESSED in the same transaction as its
+ * effects, so every event takes effect exactly once. A failed event is retried
+ * after an exponential backoff ({@code next_attempt_at}) - holding back the rest
+ * of its order meanwhile - and is set aside as FAILED after {@code max-attempts};
+ * {@link #redriveFailed()} puts set-aside rows back in the queue once the cause
+ * is fixed. One node at a time via scheduler_locks.
+ */
+@Component
+public class WebhookInboxProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInboxProcessor.class);
+
+    static final String LOCK_NAME = "webhook-inbox";
+
+    private static final String SELECT_PENDING =
+            "SELECT id, payload, attempts, next_attempt_at FROM webhook_inbox " +
+            "WHERE status = 'PENDING' AND id > ? ORDER BY id LIMIT ?";
+    private static final String MARK_PROCESSED =
+            "UPDATE webhook_inbox SET status = 'PROCESSED', processed_at = ? WHERE id = ? AND status = 'PENDING'";
+    private static final String MARK_ATTEMPT =
+            "UPDATE webhook_inbox SET status = ?, attempts = ?, last_error = ?, next_attempt_at = ? " +
+            "WHERE id = ? AND status = 'PENDING'";
+    private static final String REDRIVE_FAILED =
+            "UPDATE webhook_inbox SET status = 'PENDING', attempts = 0, next_attempt_at = NULL " +
+            "WHERE status = 'FAILED'";
+
+    private final PaymentService paymentService;
+    private final SchedulerLockService lockService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration lockLease;
+
+    public WebhookInboxProcessor(PaymentService paymentService,
+                                 SchedulerLockService lockService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${legalpay.webhooks.workers:4}") int workers,
+                                 @Value("${legalpay.webhooks.batch-size:200}") int batchSize,
+                                 @Value("${legalpay.webhooks.max-attempts:10}") int maxAttempts,
+                                 @Value("${legalpay.webhooks.retry-backoff:PT2S}") Duration retryBackoff,
+                                 @Value("${legalpay.webhooks.max-retry-backoff:PT15M}") Duration maxRetryBackoff,
+                                 @Value("${legalpay.webhooks.lock-lease:PT1M}") Duration lockLease) {
+        this.paymentService = paymentService;
+        this.lockService = lockService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.lockLease = lockLease;
+        this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread t = new Thread(r, "webhook-inbox");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.webhooks.poll-interval:PT1S}")
+    public void scheduledDrain() {
+        drain();
+    }
+
+    /**
+     * Apply every pending inbox row that is due, one keyset page at a time. An
+     * order whose head event is backing off is held back for the whole pass.
+     *
+     * @return number of rows completed (processed or set aside)
+     */
+    public int drain() {
+        if (!lockService.tryAcquire(LOCK_NAME, lockLease)) {
+            return 0;
+        }
+        int completed = 0;
+        Set<String> heldBack = ConcurrentHashMap.newKeySet();
+        long after = 0;
+        try {
+            while (lockService.tryAcquire(LOCK_NAME, lockLease)) {
+                List<InboxEvent> events = jdbcTemplate.query(SELECT_PENDING, (rs, i) -> {
+                    Timestamp nextAttemptAt = rs.getTimestamp("next_attempt_at");
+                    return InboxEvent.parse(rs.getLong("id"), rs.getString("payload"), rs.getInt("attempts"),
+                            nextAttemptAt != null ? nextAttemptAt.toInstant() : null);
+                }, after, batchSize);
+                if (events.isEmpty()) {
+                    break;
+                }
+                completed += dispatch(events, heldBack, Instant.now());
+                if (events.size() < batchSize) {
+                    break;
+                }
+                after = events.get(events.size() - 1).id;
+            }
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+        if (completed > 0) {
+            log.debug("Webhook inbox: {} events completed", completed);
+        }
+        return completed;
+    }
+
+    /**
+     * Queue every FAILED row again with a fresh attempt budget (last_error is
+     * kept until the row is next attempted)
+     *
+     * @return number of rows re-queued
+     */
+    public int redriveFailed() {
+        int requeued = jdbcTemplate.update(REDRIVE_FAILED);
+        if (requeued > 0) {
+            log.info("Webhook inbox: {} failed events re-queued", requeued);
+        }
+        return requeued;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int dispatch(List<InboxEvent> events, Set<String> heldBack, Instant now) {
+        Map<String, List<InboxEvent>> byOrder = new LinkedHashMap<>();
+        for (InboxEvent event : events) {
+            if (!heldBack.contains(event.orderKey())) {
+                byOrder.computeIfAbsent(event.orderKey(), k -> new ArrayList<>()).add(event);
+            }
+        }
+        List<List<List<InboxEvent>>> partitions = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        byOrder.forEach((key, group) -> partitions.get(Math.floorMod(key.hashCode(), workers)).add(group));
+
+        List<Future<Integer>> futures = new ArrayList<>(workers);
+        for (List<List<InboxEvent>> partition : partitions) {
+            if (!partition.isEmpty()) {
+                futures.add(executor.submit(() -> {
+                    int done = 0;
+                    for (List<InboxEvent> group : partition) {
+                        done += applyInOrder(group, heldBack, now);
+                    }
+                    return done;
+                }));
+            }
+        }
+        int completed = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                completed += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Rows stay PENDING and are picked up on the next poll
+                log.error("Webhook inbox worker failed", e.getCause());
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Apply one order's events; stops at the first event that is not due yet or
+     * has to be retried, and holds back the order's later events for this pass
+     */
+    private int applyInOrder(List<InboxEvent> group, Set<String> heldBack, Instant now) {
+        int done = 0;
+        for (InboxEvent event : group) {
+            boolean due = event.nextAttemptAt == null || !event.nextAttemptAt.isAfter(now);
+            if (!due || !apply(event)) {
+                heldBack.add(event.orderKey());
+                break;
+            }
+            done++;
+        }
+        return done;
+    }
+
+    /**
+     * @return true if the event is finished with (applied or set aside)
+     */
+    private boolean apply(InboxEvent event) {
+        if (event.malformed) {
+            return markAttempt(event, "Malformed payload", true);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.update(MARK_PROCESSED, Timestamp.from(Instant.now()), event.id) == 1) {
+                    handle(event);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Webhook event {} ({}) failed on attempt {}: {}",
+                    event.id, event.type, event.attempts + 1, e.getMessage());
+            return markAttempt(event, e.getMessage(), event.attempts + 1 >= maxAttempts);
+        }
+    }
+
+    private void handle(InboxEvent event) {
+        switch (event.type) {
+            case "payment.captured" ->
+                    paymentService.handleCapturedPayment(event.orderId, event.paymentId, event.method);
+            case "payment.failed" ->
+                    paymentService.handleFailedPayment(event.orderId, event.errorCode, event.errorDescription);
+            default -> log.info("Unhandled webhook event: {}", event.type);
+        }
+    }
+
+    private boolean markAttempt(InboxEvent event, String error, boolean giveUp) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        Timestamp nextAttemptAt = giveUp ? null
+                : Timestamp.from(Instant.now().plus(backoff(event.attempts + 1, retryBackoff, maxRetryBackoff)));
+        jdbcTemplate.update(MARK_ATTEMPT, giveUp ? "FAILED" : "PENDING", event.attempts + 1, message,
+                nextAttemptAt, event.id);
+        if (giveUp) {
+            log.error("Webhook event {} set aside after {} attempts: {}", event.id, event.attempts + 1, error);
+        }
+        return giveUp;
+    }
+
+    /**
+     * Delay before the next attempt: {@code base * 2^(attempts - 1)}, capped at {@code max}
+     */
+    static Duration backoff(int attempts, Duration base, Duration max) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = base.multipliedBy(1L << doublings);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private static final class InboxEvent {
+        private final long id;
+        private final int attempts;
+        private final Instant nextAttemptAt;
+        private final boolean malformed;
+        private String type;
+        private String orderId;
+        private String paymentId;
+        private String method;
+        private String errorCode;
+        private String errorDescription;
+
+        private InboxEvent(long id, int attempts, Instant nextAttemptAt, boolean malformed) {
+            this.id = id;
+            this.attempts = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+            this.malformed = malformed;
+        }
+
+        static InboxEvent parse(long id, String payload, int attempts, Instant nextAttemptAt) {
+            try {
+                JSONObject webhook = new JSONObject(payload);
+                InboxEvent event = new InboxEvent(id, attempts, nextAttemptAt, false);
+                event.type = webhook.getString("event");
+                JSONObject body = webhook.optJSONObject("payload");
+                JSONObject payment = body != null ? body.optJSONObject("payment") : null;
+                JSONObject entity = payment != null ? payment.optJSONObject("entity") : null;
+                if (entity != null) {
+                    event.orderId = entity.optString("order_id", null);
+                    event.paymentId = entity.optString("id", null);
+                    event.method = entity.optString("method", null);
+                    event.errorCode = entity.optString("error_code", "UNKNOWN");
+                    event.errorDescription = entity.optString("error_description", "Payment failed");
+                }
+                return event;
+            } catch (JSONException e) {
+                return new InboxEvent(id, attempts, nextAttemptAt, true);
+            }
+        }
+
+        /**
+         * Events without an order are independent of each other
+         */
+        String orderKey() {
+            return orderId != null ? orderId : "event:" + id;
+        }
+    }
+}
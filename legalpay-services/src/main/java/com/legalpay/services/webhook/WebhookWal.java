@@ -0,0 +1,417 @@
+package com.legalpay.services.webhook;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Local write-ahead log for webhook bodies, used while the database cannot take
+ * inbox writes.
+ * <p>
+ * Segments are memory-mapped files of {@code segment-size} bytes. Each record is
+ * framed as {@code [int length][int crc32c][short idLength][eventId][payload]}, the
+ * CRC covering everything after the header; a zero length marks the end of a
+ * segment and a CRC mismatch a torn tail. {@link #append} returns once its record
+ * is on disk: a flusher thread forces the dirty range every {@code fsync-interval},
+ * so concurrent appends share one fsync.
+ * <p>
+ * Once anything has been logged, later webhooks are logged too until the replayer
+ * has moved the whole log into the inbox - otherwise newer events would reach the
+ * inbox ahead of older ones for the same order. Replay is at-least-once; the inbox
+ * drops duplicates. Segments left over from a previous run are replayed on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.webhooks.wal.enabled", havingValue = "true")
+public class WebhookWal {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookWal.class);
+
+    static final int HEADER_BYTES = 8;
+    private static final String PREFIX = "webhook-";
+    private static final String SUFFIX = ".wal";
+
+    /**
+     * Receives replayed records; an exception stops the replay at that record
+     */
+    public interface Sink {
+        void accept(String eventId, String payload);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncNanos;
+    private final Thread flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dirty = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+
+    // Guarded by lock
+    private final TreeMap<Long, Path> segments = new TreeMap<>(); // Not yet fully replayed, oldest first
+    private Segment active;
+    private long nextSegmentId;
+    private long appendedRecords;
+    private long durableRecords;
+    private long failedRecords; // Records whose fsync failed; their appenders get an IOException
+    private boolean backlogged;
+    private boolean closed;
+
+    // Replayer thread only
+    private long replaySegmentId = -1;
+    private int replayOffset;
+
+    public WebhookWal(@Value("${legalpay.webhooks.wal.directory:./data/webhook-wal}") Path directory,
+                      @Value("${legalpay.webhooks.wal.segment-size:67108864}") int segmentSize,
+                      @Value("${legalpay.webhooks.wal.fsync-interval:PT0.002S}") Duration fsyncInterval)
+            throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncNanos = fsyncInterval.toNanos();
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                segments.put(id, file);
+                nextSegmentId = Math.max(nextSegmentId, id + 1);
+            }
+        }
+        backlogged = !segments.isEmpty();
+        if (backlogged) {
+            log.warn("Webhook WAL has {} segment(s) from a previous run to replay", segments.size());
+        }
+        this.flusher = Thread.ofPlatform().name("webhook-wal-flush").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Durably log one webhook
+     *
+     * @throws IOException if the record could not be written or synced
+     */
+    public void append(String eventId, String payload) throws IOException {
+        append(eventId, payload, false);
+    }
+
+    /**
+     * Log the webhook only while the log still holds unreplayed records
+     *
+     * @return true if it was logged
+     */
+    public boolean appendIfBacklogged(String eventId, String payload) throws IOException {
+        return append(eventId, payload, true);
+    }
+
+    public boolean isBacklogged() {
+        lock.lock();
+        try {
+            return backlogged;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand every durable, unreplayed record to the sink in log order. Replayed
+     * segments are deleted, and the log stops being backlogged once replay has
+     * caught up with the writers. Called from a single thread.
+     *
+     * @return number of records replayed
+     */
+    public long replay(Sink sink) throws IOException {
+        long replayed = 0;
+        while (true) {
+            long segmentId;
+            Path file;
+            int limit;
+            lock.lock();
+            try {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                if (oldest == null) {
+                    backlogged = false;
+                    return replayed;
+                }
+                segmentId = oldest.getKey();
+                file = oldest.getValue();
+                limit = isActive(segmentId)
+                        ? active.durablePosition
+                        : (int) Math.min(Files.size(file), Integer.MAX_VALUE);
+            } finally {
+                lock.unlock();
+            }
+            if (segmentId != replaySegmentId) {
+                replaySegmentId = segmentId;
+                replayOffset = 0;
+            }
+
+            replayed += replaySegment(file, limit, sink);
+
+            lock.lock();
+            try {
+                if (isActive(segmentId)) {
+                    if (replayOffset == active.position) {
+                        // Caught up with the writers: the next append starts a fresh segment
+                        active.close();
+                        active = null;
+                        retire(segmentId, file);
+                        backlogged = false;
+                    }
+                    return replayed;
+                }
+                retire(segmentId, file);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            if (active != null) {
+                active.buffer.force();
+                active.close();
+                active = null;
+            }
+        } catch (IOException e) {
+            log.error("Failed to close webhook WAL segment", e);
+        } finally {
+            dirty.signalAll();
+            synced.signalAll();
+            lock.unlock();
+        }
+        flusher.interrupt();
+    }
+
+    private boolean append(String eventId, String payload, boolean onlyIfBacklogged) throws IOException {
+        byte[] id = eventId.getBytes(StandardCharsets.UTF_8);
+        byte[] data = payload.getBytes(StandardCharsets.UTF_8);
+        if (id.length > 0xFFFF) {
+            throw new IOException("Event ID too long for the webhook WAL");
+        }
+        byte[] body = new byte[2 + id.length + data.length];
+        body[0] = (byte) (id.length >>> 8);
+        body[1] = (byte) id.length;
+        System.arraycopy(id, 0, body, 2, id.length);
+        System.arraycopy(data, 0, body, 2 + id.length, data.length);
+        int size = HEADER_BYTES + body.length;
+        if (size > segmentSize) {
+            throw new IOException("Webhook of " + size + " bytes does not fit a WAL segment");
+        }
+        int crc = crc(body);
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Webhook WAL is closed");
+            }
+            if (onlyIfBacklogged && !backlogged) {
+                return false;
+            }
+            if (active == null || active.position + size > segmentSize) {
+                roll();
+            }
+            int position = active.position;
+            active.buffer.put(position + HEADER_BYTES, body);
+            active.buffer.putInt(position + 4, crc);
+            active.buffer.putInt(position, body.length);
+            active.position = position + size;
+            long record = ++appendedRecords;
+            backlogged = true;
+            dirty.signal();
+
+            while (durableRecords < record) {
+                if (record <= failedRecords) {
+                    throw new IOException("Webhook WAL sync failed");
+                }
+                if (closed) {
+                    throw new IOException("Webhook WAL closed before the record was synced");
+                }
+                synced.await();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for webhook WAL sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seal the active segment (fully synced) and start the next one. Caller holds the lock.
+     */
+    private void roll() throws IOException {
+        if (active != null) {
+            active.buffer.force();
+            active.durablePosition = active.position;
+            durableRecords = appendedRecords;
+            synced.signalAll();
+            active.close();
+        }
+        long id = nextSegmentId++;
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, id, SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = new Segment(id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        segments.put(id, file);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true); // Make the new file's directory entry durable
+        } catch (IOException e) {
+            log.debug("Could not sync webhook WAL directory: {}", e.getMessage());
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!closed && appendedRecords == durableRecords) {
+                    dirty.await();
+                }
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // Let more appends join this sync
+            LockSupport.parkNanos(fsyncNanos);
+
+            Segment segment;
+            long target;
+            int from;
+            int to;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (appendedRecords == durableRecords) {
+                    continue;
+                }
+                segment = active;
+                target = appendedRecords;
+                from = segment.durablePosition;
+                to = segment.position;
+            } finally {
+                lock.unlock();
+            }
+
+            RuntimeException failure = null;
+            try {
+                segment.buffer.force(from, to - from);
+            } catch (RuntimeException e) {
+                log.error("Webhook WAL sync failed", e);
+                failure = e;
+            }
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    failedRecords = Math.max(failedRecords, target);
+                } else {
+                    if (segment == active) {
+                        segment.durablePosition = Math.max(segment.durablePosition, to);
+                    }
+                    durableRecords = Math.max(durableRecords, target);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replay one segment from the replay offset up to {@code limit}. The offset
+     * only moves past records the sink accepted.
+     */
+    private long replaySegment(Path file, int limit, Sink sink) throws IOException {
+        if (replayOffset + HEADER_BYTES > limit) {
+            return 0;
+        }
+        long replayed = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer view = channel.map(FileChannel.MapMode.READ_ONLY, 0, limit);
+            int position = replayOffset;
+            while (position + HEADER_BYTES <= limit) {
+                int length = view.getInt(position);
+                if (length <= 0 || length > limit - position - HEADER_BYTES) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                view.get(position + HEADER_BYTES, body);
+                if (crc(body) != view.getInt(position + 4)) {
+                    log.warn("Torn record in webhook WAL {} at offset {}, ignoring the rest", file, position);
+                    break;
+                }
+                int idLength = ((body[0] & 0xFF) << 8) | (body[1] & 0xFF);
+                sink.accept(new String(body, 2, idLength, StandardCharsets.UTF_8),
+                        new String(body, 2 + idLength, length - 2 - idLength, StandardCharsets.UTF_8));
+                position += HEADER_BYTES + length;
+                replayOffset = position;
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private boolean isActive(long segmentId) {
+        return active != null && active.id == segmentId;
+    }
+
+    private void retire(long segmentId, Path file) throws IOException {
+        segments.remove(segmentId);
+        Files.deleteIfExists(file);
+        replaySegmentId = -1;
+    }
+
+    static int crc(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;        // Next write offset
+        private int durablePosition; // Everything before this has been forced to disk
+
+        private Segment(long id, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
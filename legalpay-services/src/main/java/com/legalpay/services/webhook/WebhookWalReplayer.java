@@ -0,0 +1,46 @@
+package com.legalpay.services.webhook;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Moves webhooks from this node's WAL into the inbox once the database takes
+ * writes again. The WAL is local, so every node replays its own.
+ */
+@Component
+@ConditionalOnProperty(name = "legalpay.webhooks.wal.enabled", havingValue = "true")
+public class WebhookWalReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookWalReplayer.class);
+
+    private final WebhookWal wal;
+    private final WebhookInbox inbox;
+
+    public WebhookWalReplayer(WebhookWal wal, WebhookInbox inbox) {
+        this.wal = wal;
+        this.inbox = inbox;
+    }
+
+    @Scheduled(fixedDelayString = "${legalpay.webhooks.wal.replay-interval:PT5S}")
+    public void replay() {
+        if (!wal.isBacklogged()) {
+            return;
+        }
+        try {
+            long replayed = wal.replay(inbox::append);
+            if (replayed > 0) {
+                log.info("Replayed {} webhooks from the WAL into the inbox", replayed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Webhook WAL replay paused, database unavailable: {}", e.getMessage());
+        } catch (IOException e) {
+            log.error("Webhook WAL replay failed", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.legalpay.services;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration picked up by {@code @DataJpaTest} slices in this module:
+ * the domain entities and repositories on an embedded H2 database.
+ * Services under test are added with {@code @Import}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.legalpay.domain.entity")
+@EnableJpaRepositories("com.legalpay.domain.repository")
+public class JpaTestApplication {
+}
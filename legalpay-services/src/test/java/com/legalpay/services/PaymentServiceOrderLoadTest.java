@@ -0,0 +1,311 @@
+package com.legalpay.services;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import com.razorpay.RazorpayException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for Razorpay order creation against a stub gateway that injects
+ * latency, with transactions drawing from a small connection pool: the pool
+ * must not gate the gateway calls, and repeated clicks must not multiply them.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceOrderLoadTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int CONCURRENT_ORDERS = 20;
+    private static final long GATEWAY_LATENCY_MS = 300;
+
+    @Mock
+    private RazorpayPaymentRepository razorpayPaymentRepository;
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private final ConnectionPool pool = new ConnectionPool(POOL_SIZE);
+    private final StubGateway gateway = new StubGateway(pool, GATEWAY_LATENCY_MS);
+    private final Map<UUID, RazorpayPayment> saved = new ConcurrentHashMap<>();
+    private final Map<UUID, Contract> contracts = new ConcurrentHashMap<>();
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "transactionManager", pool);
+        ReflectionTestUtils.setField(paymentService, "orderGateway", gateway);
+        ReflectionTestUtils.setField(paymentService, "razorpayKeySecret", "test_key_secret");
+        ReflectionTestUtils.setField(paymentService, "openOrderTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(paymentService, "openOrderCacheSize", 1000);
+        paymentService.init();
+
+        contract = newContract();
+        when(contractRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(contracts.get(invocation.<UUID>getArgument(0))));
+        when(razorpayPaymentRepository.save(any(RazorpayPayment.class))).thenAnswer(invocation -> {
+            RazorpayPayment payment = invocation.getArgument(0);
+            payment.setId(UUID.randomUUID());
+            saved.put(payment.getId(), payment);
+            return payment;
+        });
+    }
+
+    @Test
+    void createPaymentOrder_ShouldNotHoldAConnectionDuringTheGatewayCall() throws Exception {
+        // Given: one impatient payer per contract, all clicking at once
+        stubAttachAndLoad();
+        List<UUID> contractIds = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+            contractIds.add(newContract().getId());
+        }
+
+        // When
+        List<RazorpayPayment> payments = concurrently(contractIds);
+
+        // Then: no gateway call held a connection, so the calls overlapped far beyond
+        // the pool size and nobody waited a gateway round trip for a connection
+        assertThat(payments).hasSize(CONCURRENT_ORDERS);
+        for (RazorpayPayment payment : payments) {
+            assertThat(payment.getStatus()).isEqualTo(RazorpayPayment.PaymentStatus.CREATED);
+            assertThat(payment.getRazorpayOrderId()).startsWith("order_");
+        }
+        assertThat(gateway.callsHoldingConnection.get()).isZero();
+        assertThat(gateway.maxInFlight.get()).isGreaterThan(POOL_SIZE);
+        assertThat(pool.maxWaitMillis()).isLessThan(GATEWAY_LATENCY_MS);
+    }
+
+    @Test
+    void createPaymentOrder_ShouldCoalesceConcurrentRequestsForOneContract() throws Exception {
+        // Given
+        stubAttachAndLoad();
+        List<UUID> contractIds = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+            contractIds.add(contract.getId());
+        }
+
+        // When
+        List<RazorpayPayment> payments = concurrently(contractIds);
+
+        // Then: one gateway call and one row, shared by every request
+        assertThat(gateway.orders.get()).isEqualTo(1);
+        assertThat(saved).hasSize(1);
+        for (RazorpayPayment payment : payments) {
+            assertThat(payment.getId()).isEqualTo(saved.keySet().iterator().next());
+        }
+    }
+
+    @Test
+    void createPaymentOrder_ShouldReuseTheOpenOrderOnTheNextClick() throws Exception {
+        // Given
+        stubAttachAndLoad();
+        RazorpayPayment first = paymentService.createPaymentOrder(contract.getId(), "127.0.0.1", "load-test");
+
+        // When
+        RazorpayPayment second = paymentService.createPaymentOrder(contract.getId(), "127.0.0.1", "load-test");
+
+        // Then
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getRazorpayOrderId()).isEqualTo(first.getRazorpayOrderId());
+        assertThat(gateway.orders.get()).isEqualTo(1);
+    }
+
+    @Test
+    void createPaymentOrder_ShouldFailTheReservationWhenTheGatewayFails() {
+        // Given
+        gateway.failure = new RazorpayException("BAD_REQUEST_ERROR: gateway unavailable");
+
+        // When / Then
+        assertThatThrownBy(() -> paymentService.createPaymentOrder(contract.getId(), "127.0.0.1", "load-test"))
+                .isInstanceOf(RazorpayException.class);
+        UUID reserved = saved.keySet().iterator().next();
+        verify(razorpayPaymentRepository).failPendingOrder(eq(reserved), eq("ORDER_CREATE_FAILED"),
+                eq("BAD_REQUEST_ERROR: gateway unavailable"), any());
+        verify(razorpayPaymentRepository, never()).attachOrder(any(), any());
+        assertThat(pool.available()).isEqualTo(POOL_SIZE);
+    }
+
+    private Contract newContract() {
+        Contract created = Contract.builder()
+                .id(UUID.randomUUID())
+                .merchant(Merchant.builder().id(UUID.randomUUID()).businessName("Test Merchant").build())
+                .payer(Payer.builder().id(UUID.randomUUID()).name("Test Payer").build())
+                .principalAmount(new BigDecimal("1500.00"))
+                .status(Contract.ContractStatus.ACTIVE)
+                .build();
+        contracts.put(created.getId(), created);
+        return created;
+    }
+
+    private void stubAttachAndLoad() {
+        when(razorpayPaymentRepository.attachOrder(any(UUID.class), anyString())).thenAnswer(invocation -> {
+            RazorpayPayment payment = saved.get(invocation.<UUID>getArgument(0));
+            payment.setRazorpayOrderId(invocation.getArgument(1));
+            payment.setStatus(RazorpayPayment.PaymentStatus.CREATED);
+            return 1;
+        });
+        when(razorpayPaymentRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(saved.get(invocation.<UUID>getArgument(0))));
+    }
+
+    /**
+     * One client thread per contract ID, all released at once
+     */
+    private List<RazorpayPayment> concurrently(List<UUID> contractIds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(contractIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RazorpayPayment>> results = new ArrayList<>();
+        try {
+            for (UUID contractId : contractIds) {
+                results.add(clients.submit(() -> {
+                    start.await();
+                    return paymentService.createPaymentOrder(contractId, "127.0.0.1", "load-test");
+                }));
+            }
+            start.countDown();
+            List<RazorpayPayment> payments = new ArrayList<>();
+            for (Future<RazorpayPayment> result : results) {
+                payments.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return payments;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Transaction manager modelling a fixed-size connection pool: each
+     * transaction holds one connection from begin to commit/rollback
+     */
+    private static final class ConnectionPool implements PlatformTransactionManager {
+        private final Semaphore connections;
+        private final Set<Thread> holders = ConcurrentHashMap.newKeySet();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        ConnectionPool(int size) {
+            this.connections = new Semaphore(size, true);
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            long start = System.nanoTime();
+            connections.acquireUninterruptibly();
+            maxWaitNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+            holders.add(Thread.currentThread());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            release();
+        }
+
+        boolean isHeldByCurrentThread() {
+            return holders.contains(Thread.currentThread());
+        }
+
+        long maxWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+        }
+
+        int available() {
+            return connections.availablePermits();
+        }
+
+        private void release() {
+            holders.remove(Thread.currentThread());
+            connections.release();
+        }
+    }
+
+    /**
+     * Local Razorpay stand-in answering every order after a fixed delay
+     */
+    private static final class StubGateway implements RazorpayOrderGateway {
+        private final ConnectionPool pool;
+        private final long latencyMillis;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger callsHoldingConnection = new AtomicInteger();
+        private final AtomicInteger orders = new AtomicInteger();
+        private volatile RazorpayException failure;
+
+        StubGateway(ConnectionPool pool, long latencyMillis) {
+            this.pool = pool;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String createOrder(JSONObject orderRequest) throws RazorpayException {
+            if (pool.isHeldByCurrentThread()) {
+                callsHoldingConnection.incrementAndGet();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RazorpayException("interrupted");
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return "order_" + orders.incrementAndGet();
+        }
+
+        @Override
+        public Optional<String> findOrderIdByReceipt(String receipt) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.legalpay.services;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.domain.entity.RazorpayPayment.PaymentStatus;
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Status guards of the conditional capture and failure updates
+ */
+@DataJpaTest
+class RazorpayPaymentRepositoryTest {
+
+    @Autowired
+    private RazorpayPaymentRepository razorpayPaymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        Merchant merchant = TestData.merchant();
+        Payer payer = TestData.payer();
+        entityManager.persist(merchant);
+        entityManager.persist(payer);
+        contract = TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, new BigDecimal("1000"));
+        entityManager.persist(contract);
+    }
+
+    @Test
+    void markCaptured_ShouldOnlyCaptureOrdersAwaitingOrRetryingPayment() {
+        Set<PaymentStatus> capturable = EnumSet.of(PaymentStatus.CREATED, PaymentStatus.AUTHORIZED, PaymentStatus.FAILED);
+        for (PaymentStatus status : PaymentStatus.values()) {
+            RazorpayPayment payment = persist(status);
+
+            int updated = razorpayPaymentRepository.markCaptured(payment.getId(), "pay_" + status, null, "upi",
+                    Instant.now());
+
+            assertThat(updated).as(status.name()).isEqualTo(capturable.contains(status) ? 1 : 0);
+            assertThat(razorpayPaymentRepository.findById(payment.getId()).orElseThrow().getStatus()).as(status.name())
+                    .isEqualTo(capturable.contains(status) ? PaymentStatus.CAPTURED : status);
+        }
+    }
+
+    @Test
+    void markFailed_ShouldNotOverwriteResolvedPayments() {
+        Set<PaymentStatus> failable = EnumSet.of(PaymentStatus.CREATED, PaymentStatus.AUTHORIZED);
+        for (PaymentStatus status : PaymentStatus.values()) {
+            RazorpayPayment payment = persist(status);
+
+            int updated = razorpayPaymentRepository.markFailed(payment.getId(), "BAD_REQUEST_ERROR", "declined",
+                    Instant.now());
+
+            assertThat(updated).as(status.name()).isEqualTo(failable.contains(status) ? 1 : 0);
+            assertThat(razorpayPaymentRepository.findById(payment.getId()).orElseThrow().getStatus()).as(status.name())
+                    .isEqualTo(failable.contains(status) ? PaymentStatus.FAILED : status);
+        }
+    }
+
+    private RazorpayPayment persist(PaymentStatus status) {
+        RazorpayPayment payment = new RazorpayPayment();
+        payment.setContract(contract);
+        payment.setMerchant(contract.getMerchant());
+        payment.setPayer(contract.getPayer());
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setCurrency("INR");
+        payment.setStatus(status);
+        if (status != PaymentStatus.PENDING_ORDER) {
+            payment.setRazorpayOrderId("order_" + status);
+        }
+        entityManager.persist(payment);
+        entityManager.flush();
+        return payment;
+    }
+}
@@ -0,0 +1,240 @@
+package com.legalpay.services;
+
+import com.razorpay.RazorpayException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the WebClient Razorpay gateway against an in-process stub of the
+ * Razorpay API. Timeouts outside the timeout test are far above the stub
+ * latency so results do not depend on machine load.
+ */
+class RazorpayWebClientGatewayTest {
+
+    private static final int MAX_CONNECTIONS = 20;
+    private static final Duration GENEROUS = Duration.ofSeconds(30);
+
+    private final StubRazorpay stub = new StubRazorpay();
+    private RazorpayWebClientGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+        stub.stop();
+    }
+
+    @Test
+    void createOrder_ShouldPostWithBasicAuthAndReturnOrderId() throws RazorpayException {
+        gateway = gateway(GENEROUS);
+
+        JSONObject request = new JSONObject();
+        request.put("amount", 150000);
+        request.put("currency", "INR");
+        request.put("receipt", "rcpt_1");
+
+        assertThat(gateway.createOrder(request)).startsWith("order_");
+        assertThat(stub.lastAuthorization).isEqualTo("Basic "
+                + Base64.getEncoder().encodeToString("rzp_test_key:secret".getBytes(StandardCharsets.UTF_8)));
+        assertThat(new JSONObject(stub.lastBody).getInt("amount")).isEqualTo(150000);
+    }
+
+    @Test
+    void createOrder_ShouldRunConcurrentlyOverABoundedReusedPool() throws Exception {
+        stub.latency = Duration.ofMillis(50);
+        gateway = gateway(GENEROUS);
+
+        int orders = 200;
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            JSONObject request = new JSONObject();
+            request.put("amount", 1000 + i);
+            request.put("receipt", "rcpt_" + i);
+            results.add(callers.submit(() -> gateway.createOrder(request)));
+        }
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        for (Future<String> result : results) {
+            ids.add(result.get());
+        }
+        callers.shutdown();
+
+        // Requests overlapped at the stub, over no more pooled connections than allowed
+        assertThat(ids).hasSize(orders);
+        assertThat(stub.maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(MAX_CONNECTIONS);
+        assertThat(stub.connections.size()).isGreaterThan(1).isLessThanOrEqualTo(MAX_CONNECTIONS);
+    }
+
+    @Test
+    void createOrder_ShouldTimeOutSlowCalls() {
+        stub.latency = Duration.ofSeconds(10);
+        gateway = gateway(Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> gateway.createOrder(new JSONObject().put("amount", 100)))
+                .isInstanceOf(RazorpayException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    @Test
+    void createOrder_ShouldSurfaceRazorpayErrorDescription() {
+        gateway = gateway(GENEROUS);
+
+        assertThatThrownBy(() -> gateway.createOrder(new JSONObject().put("amount", -1)))
+                .isInstanceOf(RazorpayException.class)
+                .hasMessageContaining("400: The amount must be at least INR 1.00");
+    }
+
+    @Test
+    void findOrderIdByReceipt_ShouldReturnEmptyWhenRazorpayHasNone() throws RazorpayException {
+        gateway = gateway(GENEROUS);
+
+        String orderId = gateway.createOrder(new JSONObject().put("amount", 100).put("receipt", "rcpt_known"));
+
+        assertThat(gateway.findOrderIdByReceipt("rcpt_known")).isEqualTo(Optional.of(orderId));
+        assertThat(gateway.findOrderIdByReceipt("rcpt_unknown")).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void fetchPaymentAndRefund_ShouldHitPaymentEndpoints() {
+        gateway = gateway(GENEROUS);
+
+        JSONObject payment = gateway.fetchPayment("pay_123").block();
+        JSONObject refund = gateway.refund("pay_123", 5000, "refund_1").block();
+
+        assertThat(payment.getString("status")).isEqualTo("captured");
+        assertThat(refund.getString("payment_id")).isEqualTo("pay_123");
+        assertThat(refund.getLong("amount")).isEqualTo(5000L);
+        assertThat(refund.getString("receipt")).isEqualTo("refund_1");
+    }
+
+    private RazorpayWebClientGateway gateway(Duration timeout) {
+        ConnectionProvider pool = ConnectionProvider.builder("razorpay-test")
+                .maxConnections(MAX_CONNECTIONS)
+                .pendingAcquireMaxCount(1000)
+                .pendingAcquireTimeout(GENEROUS)
+                .build();
+        return new RazorpayWebClientGateway(ObservationRegistry.NOOP, "rzp_test_key", "secret",
+                stub.start(), pool, Duration.ofSeconds(10), timeout, timeout, timeout);
+    }
+
+    /**
+     * Minimal Razorpay API: orders (create, list by receipt), payment fetch and refunds
+     */
+    private static final class StubRazorpay {
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final ConcurrentHashMap<String, String> ordersByReceipt = new ConcurrentHashMap<>();
+        private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+        private volatile Duration latency = Duration.ZERO;
+        private volatile String lastAuthorization;
+        private volatile String lastBody;
+        private HttpServer server;
+
+        String start() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.setExecutor(executor);
+            server.createContext("/v1/", this::handle);
+            server.start();
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+        }
+
+        void stop() {
+            if (server != null) {
+                server.stop(0);
+            }
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            connections.add(exchange.getRemoteAddress());
+            try {
+                lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                lastBody = body;
+                Thread.sleep(latency.toMillis());
+                respond(exchange, route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                        exchange.getRequestURI().getQuery(), body));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }
+
+        private Object[] route(String method, String path, String query, String body) {
+            if ("POST".equals(method) && path.equals("/v1/orders")) {
+                JSONObject request = new JSONObject(body);
+                if (request.getLong("amount") < 1) {
+                    return new Object[]{400, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\","
+                            + "\"description\":\"The amount must be at least INR 1.00\"}}"};
+                }
+                String id = "order_" + sequence.incrementAndGet();
+                if (request.has("receipt")) {
+                    ordersByReceipt.put(request.getString("receipt"), id);
+                }
+                return new Object[]{200, new JSONObject().put("id", id).put("status", "created").toString()};
+            }
+            if ("GET".equals(method) && path.equals("/v1/orders")) {
+                String receipt = query != null && query.startsWith("receipt=") ? query.substring(8) : null;
+                String id = receipt != null ? ordersByReceipt.get(receipt) : null;
+                JSONObject list = new JSONObject().put("entity", "collection");
+                list.put("items", id != null ? List.of(new JSONObject().put("id", id)) : List.of());
+                return new Object[]{200, list.toString()};
+            }
+            if ("GET".equals(method) && path.startsWith("/v1/payments/")) {
+                String id = path.substring("/v1/payments/".length());
+                return new Object[]{200, new JSONObject().put("id", id).put("status", "captured").toString()};
+            }
+            if ("POST".equals(method) && path.startsWith("/v1/payments/") && path.endsWith("/refund")) {
+                String paymentId = path.substring("/v1/payments/".length(), path.length() - "/refund".length());
+                JSONObject request = new JSONObject(body);
+                return new Object[]{200, new JSONObject().put("id", "rfnd_" + sequence.incrementAndGet())
+                        .put("payment_id", paymentId)
+                        .put("amount", request.getLong("amount"))
+                        .put("receipt", request.optString("receipt", null))
+                        .toString()};
+            }
+            return new Object[]{404, "{\"error\":{\"description\":\"Not found\"}}"};
+        }
+
+        private static void respond(HttpExchange exchange, Object[] response) throws IOException {
+            byte[] bytes = ((String) response[1]).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders((int) response[0], bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+}
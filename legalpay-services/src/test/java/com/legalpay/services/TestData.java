@@ -0,0 +1,68 @@
+package com.legalpay.services;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Minimal valid entities for repository-level tests
+ */
+public final class TestData {
+
+    private TestData() {}
+
+    public static Merchant merchant() {
+        String suffix = UUID.randomUUID().toString();
+        return Merchant.builder()
+                .businessName("Merchant " + suffix)
+                .email("merchant-" + suffix + "@test.com")
+                .password("secret")
+                .phone("9999999999")
+                .pan("ABCDE1234F")
+                .build();
+    }
+
+    public static Payer payer() {
+        String suffix = UUID.randomUUID().toString();
+        return Payer.builder()
+                .name("Payer " + suffix)
+                .email("payer-" + suffix + "@test.com")
+                .password("secret")
+                .phone("8888888888")
+                .build();
+    }
+
+    public static Contract contract(Merchant merchant, Payer payer, Contract.ContractStatus status,
+                                    BigDecimal principal) {
+        return Contract.builder()
+                .merchant(merchant)
+                .payer(payer)
+                .principalAmount(principal)
+                .interestRate(BigDecimal.ZERO)
+                .startDate(LocalDate.of(2026, 1, 1))
+                .endDate(LocalDate.of(2027, 1, 1))
+                .paymentType(Contract.PaymentType.EMI)
+                .paymentFrequency("MONTHLY")
+                .status(status)
+                .build();
+    }
+
+    public static Installment installment(Contract contract, int number, LocalDate dueDate, BigDecimal amount,
+                                          Installment.InstallmentStatus status) {
+        return Installment.builder()
+                .contract(contract)
+                .installmentNumber(number)
+                .dueDate(dueDate)
+                .principalComponent(amount)
+                .interestComponent(BigDecimal.ZERO)
+                .amount(amount)
+                .outstandingBalance(BigDecimal.ZERO)
+                .status(status)
+                .build();
+    }
+}
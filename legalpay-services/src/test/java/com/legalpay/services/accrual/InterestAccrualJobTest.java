@@ -0,0 +1,77 @@
+package com.legalpay.services.accrual;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the fixed-point accrual arithmetic, ID-space partitioning,
+ * the connection-pool cap and catch-up of missed days
+ */
+class InterestAccrualJobTest {
+
+    @Test
+    void dailyInterest_ShouldRoundHalfUpToThePaisa() {
+        // 1,00,000.00 at 12% for one day = 32.876... rupees
+        assertThat(InterestAccrualJob.dailyInterestPaise(10_000_000L, 1200)).isEqualTo(3288L);
+        // 100.00 at 18.25% for one day = exactly 5 paise
+        assertThat(InterestAccrualJob.dailyInterestPaise(10_000L, 1825)).isEqualTo(5L);
+    }
+
+    @Test
+    void dailyInterest_ShouldBeZeroWithoutOutstandingOrRate() {
+        assertThat(InterestAccrualJob.dailyInterestPaise(0L, 1200)).isEqualTo(0L);
+        assertThat(InterestAccrualJob.dailyInterestPaise(-500L, 1200)).isEqualTo(0L);
+        assertThat(InterestAccrualJob.dailyInterestPaise(10_000_000L, 0)).isEqualTo(0L);
+    }
+
+    @Test
+    void dailyInterest_ShouldNotOverflowForLargeBalances() {
+        long outstanding = Long.MAX_VALUE / 1000;
+        long expected = new BigDecimal(outstanding).multiply(BigDecimal.valueOf(99_999))
+                .divide(BigDecimal.valueOf(3_650_000L), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+        assertThat(InterestAccrualJob.dailyInterestPaise(outstanding, 99_999)).isEqualTo(expected);
+    }
+
+    @Test
+    void toPaise_ShouldConvertRupees() {
+        assertThat(InterestAccrualJob.toPaise(new BigDecimal("1234.56"))).isEqualTo(123456L);
+        assertThat(InterestAccrualJob.toPaise(null)).isEqualTo(0L);
+    }
+
+    @Test
+    void partitionBound_ShouldSplitOnLeadingByte() {
+        assertThat(InterestAccrualJob.partitionBound(0, 4)).isEqualTo(new UUID(0L, 0L));
+        assertThat(InterestAccrualJob.partitionBound(1, 4).toString()).startsWith("40000000-");
+        assertThat(InterestAccrualJob.partitionBound(2, 4).toString()).startsWith("80000000-");
+        assertThat(InterestAccrualJob.partitionBound(3, 4).toString()).startsWith("c0000000-");
+    }
+
+    @Test
+    void effectiveParallelism_ShouldFitTwoConnectionsPerWorkerInHalfThePool() {
+        assertThat(InterestAccrualJob.effectiveParallelism(4, 10)).isEqualTo(2);
+        assertThat(InterestAccrualJob.effectiveParallelism(4, 40)).isEqualTo(4);
+        assertThat(InterestAccrualJob.effectiveParallelism(8, 3)).isEqualTo(1);
+    }
+
+    @Test
+    void catchUpFrom_ShouldResumeFromLatestAccruedDayWithinTheLimit() {
+        LocalDate yesterday = LocalDate.of(2027, 3, 10);
+        // Nothing accrued yet: just the day that ended
+        assertThat(InterestAccrualJob.catchUpFrom(null, yesterday, 31)).isEqualTo(yesterday);
+        // Up to date: yesterday only
+        assertThat(InterestAccrualJob.catchUpFrom(yesterday, yesterday, 31)).isEqualTo(yesterday);
+        // Two nights missed: re-check the last accrued day, then fill the gap
+        assertThat(InterestAccrualJob.catchUpFrom(LocalDate.of(2027, 3, 7), yesterday, 31))
+                .isEqualTo(LocalDate.of(2027, 3, 7));
+        // Long outage: bounded by the limit
+        assertThat(InterestAccrualJob.catchUpFrom(LocalDate.of(2026, 1, 1), yesterday, 31))
+                .isEqualTo(LocalDate.of(2027, 2, 8));
+    }
+}
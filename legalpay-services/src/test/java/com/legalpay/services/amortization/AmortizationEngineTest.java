@@ -0,0 +1,204 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AmortizationEngine
+ * Pattern: long-paise engine checked against a straightforward BigDecimal reference
+ */
+class AmortizationEngineTest {
+
+    private final AmortizationEngine engine = new AmortizationEngine();
+
+    @Test
+    void compute_ShouldMatchKnownMonthlyEmi() {
+        // Given - 1,00,000 at 12% p.a. over 12 months
+        ScheduleInput input = input(new BigDecimal("100000"), new BigDecimal("12.0"),
+                PaymentFrequency.MONTHLY, Contract.InterestMethod.REDUCING_BALANCE, 12);
+
+        // When
+        AmortizationSchedule schedule = engine.compute(input);
+
+        // Then
+        assertThat(schedule.size()).isEqualTo(12);
+        assertThat(schedule.installmentAmount()).isEqualByComparingTo("8884.88");
+        assertThat(schedule.interestPaise(0)).isEqualTo(1_000_00L);
+        assertThat(schedule.balancePaise(11)).isZero();
+        assertThat(schedule.dueDate(0)).isEqualTo(input.getStartDate().plusMonths(1));
+    }
+
+    @Test
+    void compute_ShouldSpreadFlatRateInterestEvenly() {
+        // Given - 1,00,000 at 10% flat over 4 quarters = 10,000 interest
+        ScheduleInput input = input(new BigDecimal("100000"), new BigDecimal("10"),
+                PaymentFrequency.QUARTERLY, Contract.InterestMethod.FLAT_RATE, 12);
+
+        // When
+        AmortizationSchedule schedule = engine.compute(input);
+
+        // Then
+        assertThat(schedule.size()).isEqualTo(4);
+        assertThat(schedule.totalInterestPaise()).isEqualTo(10_000_00L);
+        assertThat(schedule.installmentAmount()).isEqualByComparingTo("27500.00");
+        assertThat(schedule.balancePaise(3)).isZero();
+    }
+
+    @Test
+    void compute_ShouldMatchBigDecimalReference_ForRandomReducingBalanceLoans() {
+        Random random = new Random(42);
+        PaymentFrequency[] frequencies = PaymentFrequency.values();
+
+        for (int run = 0; run < 500; run++) {
+            // Given
+            BigDecimal principal = BigDecimal.valueOf(1_000_00L + random.nextInt(50_000_000), 2);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(3600), 2);
+            PaymentFrequency frequency = frequencies[random.nextInt(frequencies.length)];
+            int months = 3 * (1 + random.nextInt(12));
+            ScheduleInput input = input(principal, rate, frequency, Contract.InterestMethod.REDUCING_BALANCE, months);
+
+            // When
+            AmortizationSchedule schedule = engine.compute(input);
+
+            // Then
+            assertMatchesReference(schedule, referenceReducingBalance(principal, rate, frequency, schedule.size()));
+        }
+    }
+
+    @Test
+    void compute_ShouldMatchBigDecimalReference_ForRandomFlatRateLoans() {
+        Random random = new Random(7);
+        PaymentFrequency[] frequencies = PaymentFrequency.values();
+
+        for (int run = 0; run < 500; run++) {
+            // Given
+            BigDecimal principal = BigDecimal.valueOf(1_000_00L + random.nextInt(50_000_000), 2);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(3600), 2);
+            PaymentFrequency frequency = frequencies[random.nextInt(frequencies.length)];
+            int months = 3 * (1 + random.nextInt(12));
+            ScheduleInput input = input(principal, rate, frequency, Contract.InterestMethod.FLAT_RATE, months);
+
+            // When
+            AmortizationSchedule schedule = engine.compute(input);
+
+            // Then
+            assertMatchesReference(schedule, referenceFlatRate(principal, rate, frequency, schedule.size()));
+        }
+    }
+
+    @Test
+    void computeAll_ShouldReturnSchedulesInInputOrder() {
+        // Given
+        List<ScheduleInput> inputs = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            inputs.add(input(BigDecimal.valueOf(10_000L * i), new BigDecimal("9.5"),
+                    PaymentFrequency.MONTHLY, Contract.InterestMethod.REDUCING_BALANCE, 24));
+        }
+
+        // When
+        AmortizationSchedule[] schedules = engine.computeAll(inputs);
+
+        // Then
+        assertThat(schedules).hasSize(200);
+        for (int i = 0; i < inputs.size(); i++) {
+            assertThat(schedules[i].getContractId()).isEqualTo(inputs.get(i).getContractId());
+            assertThat(schedules[i].installmentAmount())
+                    .isEqualByComparingTo(engine.compute(inputs.get(i)).installmentAmount());
+        }
+    }
+
+    @Test
+    void compute_ShouldThrowException_WhenTenureShorterThanOnePeriod() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        ScheduleInput input = new ScheduleInput(UUID.randomUUID(), 100_000_00L, 1200,
+                PaymentFrequency.QUARTERLY, Contract.InterestMethod.REDUCING_BALANCE, start, start.plusMonths(2));
+
+        // When/Then
+        assertThatThrownBy(() -> engine.compute(input))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("End date");
+    }
+
+    private static ScheduleInput input(BigDecimal principal, BigDecimal rate, PaymentFrequency frequency,
+                                       Contract.InterestMethod method, int months) {
+        LocalDate start = LocalDate.of(2025, 1, 31);
+        return new ScheduleInput(UUID.randomUUID(), Paise.of(principal), Paise.basisPoints(rate),
+                frequency, method, start, start.plusMonths(months));
+    }
+
+    private static void assertMatchesReference(AmortizationSchedule schedule, BigDecimal[][] reference) {
+        for (int i = 0; i < schedule.size(); i++) {
+            assertThat(Paise.toRupees(schedule.principalPaise(i))).isEqualByComparingTo(reference[i][0]);
+            assertThat(Paise.toRupees(schedule.interestPaise(i))).isEqualByComparingTo(reference[i][1]);
+            assertThat(Paise.toRupees(schedule.balancePaise(i))).isEqualByComparingTo(reference[i][2]);
+        }
+    }
+
+    /**
+     * Textbook reducing-balance schedule in BigDecimal rupees; rows are {principal, interest, balance}
+     */
+    private static BigDecimal[][] referenceReducingBalance(BigDecimal principal, BigDecimal ratePercent,
+                                                           PaymentFrequency frequency, int n) {
+        MathContext mc = MathContext.DECIMAL128;
+        BigDecimal periodRate = ratePercent.divide(BigDecimal.valueOf(100L * frequency.getPeriodsPerYear()), mc);
+        BigDecimal emi;
+        if (periodRate.signum() == 0) {
+            emi = principal.divide(BigDecimal.valueOf(n), 2, RoundingMode.HALF_UP);
+        } else {
+            BigDecimal growth = BigDecimal.ONE.add(periodRate).pow(n, mc);
+            emi = principal.multiply(periodRate, mc).multiply(growth, mc)
+                    .divide(growth.subtract(BigDecimal.ONE), mc)
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal[][] rows = new BigDecimal[n][];
+        BigDecimal balance = principal;
+        for (int i = 0; i < n; i++) {
+            BigDecimal interest = balance.multiply(ratePercent)
+                    .divide(BigDecimal.valueOf(100L * frequency.getPeriodsPerYear()), 2, RoundingMode.HALF_UP);
+            BigDecimal principalPart = i == n - 1
+                    ? balance
+                    : emi.subtract(interest).max(BigDecimal.ZERO).min(balance);
+            balance = balance.subtract(principalPart);
+            rows[i] = new BigDecimal[] {principalPart, interest, balance};
+        }
+        return rows;
+    }
+
+    /**
+     * Flat-rate schedule in BigDecimal rupees; residue goes to the last instalment
+     */
+    private static BigDecimal[][] referenceFlatRate(BigDecimal principal, BigDecimal ratePercent,
+                                                    PaymentFrequency frequency, int n) {
+        BigDecimal totalInterest = principal.multiply(ratePercent).multiply(BigDecimal.valueOf(n))
+                .divide(BigDecimal.valueOf(100L * frequency.getPeriodsPerYear()), 2, RoundingMode.HALF_UP);
+        BigDecimal principalPart = principal.divide(BigDecimal.valueOf(n), 2, RoundingMode.DOWN);
+        BigDecimal interestPart = totalInterest.divide(BigDecimal.valueOf(n), 2, RoundingMode.DOWN);
+
+        BigDecimal[][] rows = new BigDecimal[n][];
+        BigDecimal balance = principal;
+        for (int i = 0; i < n; i++) {
+            boolean last = i == n - 1;
+            BigDecimal p = last ? balance : principalPart;
+            BigDecimal in = last
+                    ? totalInterest.subtract(interestPart.multiply(BigDecimal.valueOf(n - 1)))
+                    : interestPart;
+            balance = balance.subtract(p);
+            rows[i] = new BigDecimal[] {p, in, balance};
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,94 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.services.cache.ContractCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for InstallmentScheduleService portfolio recompute
+ */
+@ExtendWith(MockitoExtension.class)
+class InstallmentScheduleServiceTest {
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractCache contractCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recomputePortfolio_ShouldSkipUnschedulableContractsAndUpdateOnlyEmiAmount() {
+        // Given
+        InstallmentScheduleService service = new InstallmentScheduleService(new AmortizationEngine(),
+                installmentRepository, contractRepository, contractCache, jdbcTemplate, transactionManager);
+        Merchant merchant = Merchant.builder().id(UUID.randomUUID()).build();
+        Contract valid = emiContract("MONTHLY");
+        Contract missingFrequency = emiContract(null);
+        Contract unknownFrequency = emiContract("FORTNIGHTLY");
+        when(contractRepository.findFirstPageByMerchant(eq(merchant), any(Limit.class)))
+                .thenReturn(List.of(missingFrequency, valid, unknownFrequency));
+
+        // When
+        int recomputed = service.recomputePortfolio(merchant);
+
+        // Then
+        assertThat(recomputed).isEqualTo(1);
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(any(String.class), updates.capture());
+        assertThat(updates.getValue()).hasSize(1);
+        assertThat((BigDecimal) updates.getValue().get(0)[0]).isEqualByComparingTo("8884.88");
+        assertThat(updates.getValue().get(0)[2]).isEqualTo(valid.getId());
+        ArgumentCaptor<List<Installment>> rows = ArgumentCaptor.forClass(List.class);
+        verify(installmentRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).hasSize(12).allMatch(i -> i.getContract() == valid);
+        verify(contractCache).evictAll(List.of(valid.getId()));
+        verify(contractRepository, never()).saveAll(anyList());
+    }
+
+    private static Contract emiContract(String frequency) {
+        return Contract.builder()
+                .id(UUID.randomUUID())
+                .principalAmount(new BigDecimal("100000"))
+                .interestRate(new BigDecimal("12.0"))
+                .startDate(LocalDate.of(2026, 1, 1))
+                .endDate(LocalDate.of(2027, 1, 1))
+                .paymentType(Contract.PaymentType.EMI)
+                .paymentFrequency(frequency)
+                .interestMethod(Contract.InterestMethod.REDUCING_BALANCE)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.legalpay.services.amortization;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.services.TestData;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Instalment status transitions and their overdue_amount deltas, on H2
+ */
+@DataJpaTest(properties = "legalpay.installments.overdue-grace-days=1")
+@Import({ InstallmentStatusService.class, MerchantStatsService.class, SchedulerLockService.class })
+class InstallmentStatusServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 10);
+
+    @Autowired
+    private InstallmentStatusService installmentStatusService;
+
+    @Autowired
+    private MerchantStatsService merchantStatsService;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Merchant merchant;
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        merchant = TestData.merchant();
+        Payer payer = TestData.payer();
+        entityManager.persist(merchant);
+        entityManager.persist(payer);
+        contract = TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, new BigDecimal("3000"));
+        entityManager.persist(contract);
+    }
+
+    @Test
+    void markOverdue_ShouldMoveOnlyPendingPastGraceAndCountTheirAmount() {
+        // Given
+        Installment late = persist(1, TODAY.minusDays(5), "1000", Installment.InstallmentStatus.PENDING);
+        Installment inGrace = persist(2, TODAY.minusDays(1), "1000", Installment.InstallmentStatus.PENDING);
+        Installment paid = persist(3, TODAY.minusDays(40), "1000", Installment.InstallmentStatus.PAID);
+
+        // When
+        int marked = installmentStatusService.markOverdue(TODAY);
+
+        // Then
+        assertThat(marked).isEqualTo(1);
+        assertThat(status(late)).isEqualTo(Installment.InstallmentStatus.OVERDUE);
+        assertThat(status(inGrace)).isEqualTo(Installment.InstallmentStatus.PENDING);
+        assertThat(status(paid)).isEqualTo(Installment.InstallmentStatus.PAID);
+        assertThat(overdueAmount()).isEqualByComparingTo("1000");
+
+        // A second sweep finds nothing new
+        assertThat(installmentStatusService.markOverdue(TODAY)).isZero();
+        assertThat(overdueAmount()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void settle_ShouldPayTheDaysInstalmentsAndReleaseOverdueAmount() {
+        // Given
+        Installment overdue = persist(1, TODAY.minusDays(5), "1000", Installment.InstallmentStatus.PENDING);
+        Installment sameDay = persist(2, TODAY.minusDays(5), "500", Installment.InstallmentStatus.PENDING);
+        Installment later = persist(3, TODAY.plusDays(25), "1000", Installment.InstallmentStatus.PENDING);
+        installmentStatusService.markOverdue(TODAY);
+        assertThat(overdueAmount()).isEqualByComparingTo("1500");
+
+        // When
+        BigDecimal settled = installmentStatusService.settle(contract.getId(), TODAY.minusDays(5));
+
+        // Then
+        assertThat(settled).isEqualByComparingTo("1500");
+        assertThat(status(overdue)).isEqualTo(Installment.InstallmentStatus.PAID);
+        assertThat(status(sameDay)).isEqualTo(Installment.InstallmentStatus.PAID);
+        assertThat(status(later)).isEqualTo(Installment.InstallmentStatus.PENDING);
+        assertThat(overdueAmount()).isEqualByComparingTo("0");
+
+        // Settling again is a no-op
+        assertThat(installmentStatusService.settle(contract.getId(), TODAY.minusDays(5))).isEqualByComparingTo("0");
+    }
+
+    private Installment persist(int number, LocalDate dueDate, String amount, Installment.InstallmentStatus status) {
+        Installment installment = TestData.installment(contract, number, dueDate, new BigDecimal(amount), status);
+        entityManager.persist(installment);
+        entityManager.flush();
+        return installment;
+    }
+
+    private Installment.InstallmentStatus status(Installment installment) {
+        entityManager.clear();
+        return installmentRepository.findById(installment.getId()).orElseThrow().getStatus();
+    }
+
+    private BigDecimal overdueAmount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT overdue_amount FROM merchant_stats WHERE merchant_id = ?", BigDecimal.class, merchant.getId());
+    }
+}
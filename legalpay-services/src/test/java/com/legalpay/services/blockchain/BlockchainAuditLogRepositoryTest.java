@@ -0,0 +1,53 @@
+package com.legalpay.services.blockchain;
+
+import com.legalpay.domain.entity.BlockchainAuditLog;
+import com.legalpay.domain.entity.BlockchainAuditLog.EventType;
+import com.legalpay.domain.entity.BlockchainAuditLog.TransactionStatus;
+import com.legalpay.domain.repository.BlockchainAuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Audit rows as BlockchainService.logEvents writes them: inserted PENDING
+ * without a transaction hash, then updated once each submission returns one
+ */
+@DataJpaTest
+class BlockchainAuditLogRepositoryTest {
+
+    @Autowired
+    private BlockchainAuditLogRepository auditLogRepository;
+
+    @Test
+    void saveAll_ShouldInsertPendingRowsBeforeTheirHashesAreKnown() {
+        // Given
+        List<BlockchainAuditLog> logs = List.of(pending(), pending());
+
+        // When
+        logs = auditLogRepository.saveAllAndFlush(logs);
+        logs.get(0).setTransactionHash("0x" + "a".repeat(64));
+        auditLogRepository.saveAllAndFlush(logs);
+
+        // Then
+        assertThat(auditLogRepository.findAll())
+                .extracting(BlockchainAuditLog::getTransactionHash)
+                .containsExactlyInAnyOrder("0x" + "a".repeat(64), null);
+    }
+
+    private static BlockchainAuditLog pending() {
+        BlockchainAuditLog log = new BlockchainAuditLog();
+        log.setEventType(EventType.CONTRACT_CREATED);
+        log.setEntityId(UUID.randomUUID());
+        log.setEntityType("Contract");
+        log.setUserId(UUID.randomUUID());
+        log.setNetwork("polygon-amoy");
+        log.setStatus(TransactionStatus.PENDING);
+        log.setMetadata("{}");
+        return log;
+    }
+}
@@ -0,0 +1,97 @@
+package com.legalpay.services.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for BoundedLocalCache expiry, size bound and statistics
+ */
+class BoundedLocalCacheTest {
+
+    @Test
+    void getIfPresent_ShouldCountHitsAndMisses() {
+        // Given
+        BoundedLocalCache<String, String> cache = new BoundedLocalCache<>(10, Duration.ofMinutes(5));
+        cache.put("a", "1");
+
+        // When / Then
+        assertThat(cache.getIfPresent("a")).isEqualTo("1");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void expiredEntry_ShouldBeAMissAndBeRemoved() throws Exception {
+        // Given
+        BoundedLocalCache<String, String> cache = new BoundedLocalCache<>(10, Duration.ofMillis(20));
+        cache.put("a", "1");
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_ShouldNeverExceedMaximumSize() {
+        // Given
+        BoundedLocalCache<Integer, Integer> cache = new BoundedLocalCache<>(100, Duration.ofMinutes(5));
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        // Then
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.evictionCount()).isEqualTo(900);
+    }
+
+    @Test
+    void eviction_ShouldPreferLeastRecentlyUsedEntries() {
+        // Given: a hot key read after every insert
+        BoundedLocalCache<Integer, Integer> cache = new BoundedLocalCache<>(16, Duration.ofMinutes(5));
+        cache.put(-1, -1);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            cache.put(i, i);
+            cache.getIfPresent(-1);
+        }
+
+        // Then
+        assertThat(cache.getIfPresent(-1)).isEqualTo(-1);
+    }
+
+    @Test
+    void invalidate_ShouldRemoveAndCount() {
+        // Given
+        BoundedLocalCache<String, String> cache = new BoundedLocalCache<>(10, Duration.ofMinutes(5));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        // When
+        cache.invalidate("a");
+        cache.invalidate("missing");
+        cache.invalidateAll();
+
+        // Then
+        assertThat(cache.size()).isZero();
+        assertThat(cache.invalidationCount()).isEqualTo(3);
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveSize() {
+        assertThatThrownBy(() -> new BoundedLocalCache<String, String>(0, Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.legalpay.services.cache;
+
+import com.legalpay.domain.entity.Contract;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ContractCache read-through and the eviction generation guard
+ */
+class ContractCacheTest {
+
+    private final ContractCache cache = new ContractCache(
+            new StaticListableBeanFactory().getBeanProvider(RedisContractStore.class), 100, Duration.ofMinutes(5));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeFromCache() {
+        // Given
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        Contract first = cache.get(id, () -> { loads.incrementAndGet(); return contract(id, Contract.ContractStatus.DRAFT); });
+        Contract second = cache.get(id, () -> { loads.incrementAndGet(); return contract(id, Contract.ContractStatus.DRAFT); });
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void get_ShouldNotCacheValueLoadedBeforeAnEviction() {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        // When: a writer evicts while the reader is still loading the old row
+        Contract stale = cache.get(id, () -> {
+            cache.evict(id);
+            return contract(id, Contract.ContractStatus.DRAFT);
+        });
+
+        // Then: the stale value is returned to its reader but not cached
+        assertThat(stale.getStatus()).isEqualTo(Contract.ContractStatus.DRAFT);
+        assertThat(cache.getIfPresent(id)).isNull();
+        Contract fresh = cache.get(id, () -> contract(id, Contract.ContractStatus.SIGNED));
+        assertThat(fresh.getStatus()).isEqualTo(Contract.ContractStatus.SIGNED);
+        assertThat(cache.getIfPresent(id)).isSameAs(fresh);
+    }
+
+    @Test
+    void get_ShouldNotCacheValueLoadedBeforeTheAfterCommitEviction() {
+        // Given: a writer's transaction has evicted but not yet committed
+        UUID id = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(id);
+        List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // When: a reader loads the pre-commit row and the commit lands mid-load
+        cache.get(id, () -> {
+            pending.forEach(TransactionSynchronization::afterCommit);
+            return contract(id, Contract.ContractStatus.DRAFT);
+        });
+
+        // Then
+        assertThat(cache.getIfPresent(id)).isNull();
+    }
+
+    @Test
+    void getAll_ShouldLoadOnlyMissesAndSkipEvictedKeys() {
+        // Given
+        UUID cached = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID evicted = UUID.randomUUID();
+        cache.get(cached, () -> contract(cached, Contract.ContractStatus.ACTIVE));
+
+        // When
+        Map<UUID, Contract> found = cache.getAll(List.of(cached, missing, evicted), ids -> {
+            assertThat(ids).containsExactly(missing, evicted);
+            cache.evict(evicted);
+            return List.of(contract(missing, Contract.ContractStatus.DRAFT),
+                    contract(evicted, Contract.ContractStatus.DRAFT));
+        });
+
+        // Then
+        assertThat(found).containsOnlyKeys(cached, missing, evicted);
+        assertThat(cache.getIfPresent(missing)).isNotNull();
+        assertThat(cache.getIfPresent(evicted)).isNull();
+    }
+
+    @Test
+    void onRemoteInvalidation_ShouldIgnoreOwnAndMalformedMessages() {
+        // Given
+        UUID id = UUID.randomUUID();
+        cache.get(id, () -> contract(id, Contract.ContractStatus.DRAFT));
+
+        // When
+        cache.onRemoteInvalidation("not-a-message");
+        cache.onRemoteInvalidation("other-node:not-a-uuid");
+
+        // Then
+        assertThat(cache.getIfPresent(id)).isNotNull();
+
+        // When
+        cache.onRemoteInvalidation("other-node:" + id);
+
+        // Then
+        assertThat(cache.getIfPresent(id)).isNull();
+    }
+
+    private static Contract contract(UUID id, Contract.ContractStatus status) {
+        Contract contract = new Contract();
+        contract.setId(id);
+        contract.setStatus(status);
+        return contract;
+    }
+}
@@ -0,0 +1,133 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.esign.ESignProvider;
+import com.legalpay.services.esign.LocalESignProvider;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.stats.MerchantStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkESignService
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkESignServiceTest {
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private MerchantStatsService merchantStatsService;
+
+    @Mock
+    private ContractCache contractCache;
+
+    @Mock
+    private ContractEventHub contractEventHub;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ESignProvider eSignProvider;
+    private BulkESignService bulkESignService;
+    private Merchant merchant;
+
+    @BeforeEach
+    void setUp() {
+        eSignProvider = spy(new LocalESignProvider(2));
+        bulkESignService = new BulkESignService(contractRepository, eSignProvider, merchantStatsService,
+                contractCache, contractEventHub, jdbcTemplate, transactionManager, 1000);
+        merchant = Merchant.builder().id(UUID.randomUUID()).build();
+    }
+
+    @Test
+    void initiate_ShouldSubmitInProviderSizedBatches() {
+        // Given
+        List<Contract> drafts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            drafts.add(contract(Contract.ContractStatus.DRAFT));
+        }
+        List<UUID> ids = drafts.stream().map(Contract::getId).toList();
+        when(contractRepository.findAllWithPartiesByIdIn(any())).thenReturn(drafts);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> ones(invocation.<List<?>>getArgument(1).size()));
+
+        // When
+        List<BulkESignService.Result> results = bulkESignService.initiate(ids);
+
+        // Then
+        assertThat(results).hasSize(5);
+        assertThat(results).allMatch(r -> r.getOutcome() == BulkESignService.Outcome.SENT);
+        verify(eSignProvider, times(3)).submit(anyList());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        verify(merchantStatsService, times(2)).statusChanged(merchant.getId(),
+                Contract.ContractStatus.DRAFT, Contract.ContractStatus.PENDING_ESIGN, 2L);
+        verify(merchantStatsService).statusChanged(merchant.getId(),
+                Contract.ContractStatus.DRAFT, Contract.ContractStatus.PENDING_ESIGN, 1L);
+    }
+
+    @Test
+    void initiate_ShouldReportPerContractOutcomes() {
+        // Given
+        Contract draft = contract(Contract.ContractStatus.DRAFT);
+        Contract signed = contract(Contract.ContractStatus.SIGNED);
+        Contract changed = contract(Contract.ContractStatus.DRAFT);
+        UUID missing = UUID.randomUUID();
+        when(contractRepository.findAllWithPartiesByIdIn(any())).thenReturn(List.of(draft, signed, changed));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 0 });
+
+        // When
+        List<BulkESignService.Result> results = bulkESignService.initiate(
+                List.of(draft.getId(), signed.getId(), missing, changed.getId()));
+
+        // Then
+        assertThat(results).extracting(BulkESignService.Result::getOutcome).containsExactly(
+                BulkESignService.Outcome.SENT,
+                BulkESignService.Outcome.INVALID_STATE,
+                BulkESignService.Outcome.NOT_FOUND,
+                BulkESignService.Outcome.CONFLICT);
+        assertThat(results.get(0).getESignDocumentId()).isNotNull();
+        verify(merchantStatsService).statusChanged(eq(merchant.getId()),
+                eq(Contract.ContractStatus.DRAFT), eq(Contract.ContractStatus.PENDING_ESIGN), eq(1L));
+    }
+
+    private Contract contract(Contract.ContractStatus status) {
+        return Contract.builder()
+                .id(UUID.randomUUID())
+                .merchant(merchant)
+                .payer(Payer.builder().id(UUID.randomUUID()).name("Payer").email("payer@test.com").build())
+                .status(status)
+                .build();
+    }
+
+    private static int[] ones(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+}
@@ -0,0 +1,138 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.TestData;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.storage.DocumentIntegrityVerifier;
+import com.legalpay.services.storage.DocumentTooLargeException;
+import com.legalpay.services.storage.LocalDocumentStorage;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * ContractDocumentService on H2 with local storage: per-upload keys, the
+ * guarded swap of location and hash, and the size limit
+ */
+@DataJpaTest(properties = {
+        "legalpay.storage.local.root=${java.io.tmpdir}/legalpay-document-test",
+        "legalpay.storage.signed-pdf-max-bytes=16" })
+@Import({ ContractDocumentService.class, LocalDocumentStorage.class })
+class ContractDocumentServiceTest {
+
+    private static final Path ROOT = Path.of(System.getProperty("java.io.tmpdir"), "legalpay-document-test");
+
+    @Autowired
+    private ContractDocumentService documentService;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ContractService contractService;
+
+    @MockBean
+    private ContractCache contractCache;
+
+    @MockBean
+    private DocumentIntegrityVerifier integrityVerifier;
+
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        Merchant merchant = TestData.merchant();
+        Payer payer = TestData.payer();
+        entityManager.persist(merchant);
+        entityManager.persist(payer);
+        contract = TestData.contract(merchant, payer, Contract.ContractStatus.SIGNED, new BigDecimal("1000"));
+        contract.setSignedAt(Instant.now());
+        entityManager.persist(contract);
+        entityManager.flush();
+        when(contractService.getContract(any())).thenReturn(contract);
+    }
+
+    @Test
+    void storeSignedPdf_ShouldWriteEachUploadToItsOwnKeyAndDropTheReplacedOne() throws Exception {
+        // When
+        documentService.storeSignedPdf(contract.getId(), stream("first"));
+        Map<String, Object> first = signedDocument();
+        documentService.storeSignedPdf(contract.getId(), stream("second"));
+        Map<String, Object> second = signedDocument();
+
+        // Then
+        String firstLocation = (String) first.get("signed_pdf_url");
+        String secondLocation = (String) second.get("signed_pdf_url");
+        assertThat(firstLocation).isNotEqualTo(secondLocation).startsWith("contracts/" + contract.getId() + "/signed-");
+        assertThat(Files.exists(ROOT.resolve(firstLocation))).isFalse();
+        assertThat(Files.readString(ROOT.resolve(secondLocation))).isEqualTo("second");
+        assertThat(second.get("signed_pdf_sha256_hash"))
+                .isEqualTo("16367aacb67a4a017c8da8ab95682ccb390863780f7114dda0a0e0c55644c7c4");
+    }
+
+    @Test
+    void storeSignedPdf_ShouldRejectOversizedUploadWithoutStoringIt() throws Exception {
+        // When/Then
+        assertThatThrownBy(() -> documentService.storeSignedPdf(contract.getId(), stream("x".repeat(17))))
+                .isInstanceOf(DocumentTooLargeException.class);
+        assertThat(signedDocument().get("signed_pdf_url")).isNull();
+        Path dir = ROOT.resolve("contracts/" + contract.getId());
+        if (Files.isDirectory(dir)) {
+            try (var files = Files.list(dir)) {
+                assertThat(files).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void replaceSignedDocument_ShouldOnlySwapWhenTheExpectedDocumentIsCurrent() {
+        // Given
+        Instant now = Instant.now();
+        assertThat(contractRepository.replaceSignedDocument(contract.getId(), null, "a.pdf", "aa", now)).isEqualTo(1);
+
+        // When: a second upload read the same (empty) state before the first committed
+        int stale = contractRepository.replaceSignedDocument(contract.getId(), null, "b.pdf", "bb", now);
+        int current = contractRepository.replaceSignedDocument(contract.getId(), "a.pdf", "b.pdf", "bb", now);
+
+        // Then
+        assertThat(stale).isZero();
+        assertThat(current).isEqualTo(1);
+        assertThat(signedDocument()).containsEntry("signed_pdf_url", "b.pdf").containsEntry("signed_pdf_sha256_hash", "bb");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Map<String, Object> signedDocument() {
+        return jdbcTemplate.queryForMap("SELECT signed_pdf_url, signed_pdf_sha256_hash FROM contracts WHERE id = ?",
+                contract.getId());
+    }
+}
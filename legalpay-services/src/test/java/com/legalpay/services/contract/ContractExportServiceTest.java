@@ -0,0 +1,143 @@
+package com.legalpay.services.contract;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.services.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ContractExportService against H2: both formats, past the persistence-context
+ * clear interval, and only the requested merchant's contracts
+ */
+@DataJpaTest
+@Import(ContractExportService.class)
+class ContractExportServiceTest {
+
+    private static final int ROWS = ContractExportService.CLEAR_INTERVAL + 7;
+
+    @Autowired
+    private ContractExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Merchant merchant;
+    private final Set<UUID> contractIds = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        merchant = TestData.merchant();
+        Merchant other = TestData.merchant();
+        Payer payer = TestData.payer();
+        entityManager.persist(merchant);
+        entityManager.persist(other);
+        entityManager.persist(payer);
+        for (int i = 0; i < ROWS; i++) {
+            Contract contract = TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE,
+                    new BigDecimal("1000.50"));
+            entityManager.persist(contract);
+            contractIds.add(contract.getId());
+        }
+        entityManager.persist(TestData.contract(other, payer, Contract.ContractStatus.ACTIVE, BigDecimal.TEN));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportCsv_ShouldWriteHeaderAndEveryContractOfTheMerchant() {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.export(merchant.getId(), ContractExportService.Format.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(ROWS);
+        assertThat(lines).hasSize(ROWS + 1);
+        assertThat(lines[0]).isEqualTo(String.join(",", ContractExportService.COLUMNS));
+        Set<UUID> exported = new HashSet<>();
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",", -1);
+            assertThat(fields).hasSize(ContractExportService.COLUMNS.length);
+            assertThat(fields[1]).isEqualTo(merchant.getId().toString());
+            assertThat(fields[7]).isEqualTo("1000.50");
+            exported.add(UUID.fromString(fields[0]));
+        }
+        assertThat(exported).isEqualTo(contractIds);
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.export(merchant.getId(), ContractExportService.Format.NDJSON, out);
+
+        // Then
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(mapper.readTree(line));
+        }
+        assertThat(written).isEqualTo(ROWS);
+        assertThat(rows).hasSize(ROWS);
+        assertThat(rows.get(0).get("merchantId").asText()).isEqualTo(merchant.getId().toString());
+        assertThat(rows.get(0).get("principalAmount").decimalValue()).isEqualByComparingTo("1000.50");
+        assertThat(rows.get(0).get("interestMethod").isNull()).isFalse();
+    }
+
+    @Test
+    void export_ShouldWriteNothingButTheHeaderForAnUnknownMerchant() {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        assertThat(exportService.export(UUID.randomUUID(), ContractExportService.Format.CSV, csv)).isZero();
+        assertThat(exportService.export(UUID.randomUUID(), ContractExportService.Format.NDJSON, ndjson)).isZero();
+        assertThat(csv.toString(StandardCharsets.UTF_8)).isEqualTo(String.join(",", ContractExportService.COLUMNS) + "\n");
+        assertThat(ndjson.size()).isZero();
+    }
+
+    @Test
+    void writeCsvField_ShouldQuoteSeparatorsAndEscapeQuotes() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        ContractExportService.writeCsvField(writer, "a,\"b\"");
+        writer.write('|');
+        ContractExportService.writeCsvField(writer, "plain");
+        writer.write('|');
+        ContractExportService.writeCsvField(writer, null);
+
+        assertThat(writer.toString()).isEqualTo("\"a,\"\"b\"\"\"|plain|");
+    }
+
+    @Test
+    void formatParse_ShouldRejectUnknownFormats() {
+        assertThat(ContractExportService.Format.parse(" ndjson ")).isEqualTo(ContractExportService.Format.NDJSON);
+        assertThatThrownBy(() -> ContractExportService.Format.parse("xml"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ContractExportService.Format.parse(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
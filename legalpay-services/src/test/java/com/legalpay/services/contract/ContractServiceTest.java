@@ -4,12 +4,24 @@ import com.legalpay.domain.entity.Contract;
 import com.legalpay.domain.entity.Merchant;
 import com.legalpay.domain.entity.Payer;
 import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.services.amortization.AmortizationEngine;
+import com.legalpay.services.amortization.AmortizationSchedule;
+import com.legalpay.services.amortization.InstallmentScheduleService;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.esign.ESignProvider;
+import com.legalpay.services.esign.LocalESignProvider;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.stats.MerchantStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,6 +30,9 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,6 +48,30 @@ class ContractServiceTest {
     @Mock
     private PdfGenerationService pdfGenerationService;
 
+    @Mock
+    private ContractCache contractCache;
+
+    @Spy
+    private AmortizationEngine amortizationEngine = new AmortizationEngine();
+
+    @Mock
+    private InstallmentScheduleService installmentScheduleService;
+
+    @Mock
+    private MerchantStatsService merchantStatsService;
+
+    @Mock
+    private ContractEventHub contractEventHub;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    @Spy
+    private ESignProvider eSignProvider = new LocalESignProvider(100);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ContractService contractService;
 
@@ -87,6 +126,8 @@ class ContractServiceTest {
         assertThat(result.getStatus()).isEqualTo(Contract.ContractStatus.DRAFT);
         assertThat(result.getPrincipalAmount()).isEqualTo(testRequest.getPrincipalAmount());
         assertThat(result.getPdfUrl()).isEqualTo(dummyPdfUrl);
+        verify(merchantStatsService).contractCreated(testMerchant.getId(),
+                Contract.ContractStatus.DRAFT, testRequest.getPrincipalAmount());
         
         verify(pdfGenerationService, times(1)).generateContractPdf(any(Contract.class));
         verify(contractRepository, times(2)).save(any(Contract.class));
@@ -98,14 +139,22 @@ class ContractServiceTest {
         when(pdfGenerationService.generateContractPdf(any(Contract.class)))
                 .thenReturn("dummy_url");
         when(contractRepository.save(any(Contract.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenAnswer(invocation -> {
+                    Contract contract = invocation.getArgument(0);
+                    contract.setId(UUID.randomUUID());
+                    return contract;
+                });
+
+        testRequest.setPaymentType("EMI");
 
         // When
         Contract result = contractService.createContract(testRequest, testMerchant, testPayer);
 
         // Then
-        BigDecimal expectedEMI = new BigDecimal("8333.33"); // 100000 / 12 months
+        BigDecimal expectedEMI = new BigDecimal("8884.88"); // 100000 at 12% p.a. reducing balance, 12 months
         assertThat(result.getEmiAmount()).isEqualByComparingTo(expectedEMI);
+        assertThat(result.getInterestMethod()).isEqualTo(Contract.InterestMethod.REDUCING_BALANCE);
+        verify(installmentScheduleService).saveSchedule(eq(result), any(AmortizationSchedule.class));
     }
 
     @Test
@@ -113,13 +162,15 @@ class ContractServiceTest {
         // Given
         Contract contract = Contract.builder()
                 .id(UUID.randomUUID())
+                .merchant(testMerchant)
+                .payer(testPayer)
                 .status(Contract.ContractStatus.DRAFT)
                 .build();
         
-        when(contractRepository.findById(contract.getId()))
+        when(contractRepository.findWithPartiesById(contract.getId()))
                 .thenReturn(java.util.Optional.of(contract));
-        when(contractRepository.save(any(Contract.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(contractRepository.recordESignDocument(eq(contract.getId()), eq(Contract.ContractStatus.DRAFT),
+                eq(Contract.ContractStatus.PENDING_ESIGN), anyString(), any())).thenReturn(1);
 
         // When
         Contract result = contractService.initiateESign(contract.getId());
@@ -127,7 +178,30 @@ class ContractServiceTest {
         // Then
         assertThat(result.getStatus()).isEqualTo(Contract.ContractStatus.PENDING_ESIGN);
         assertThat(result.getESignDocumentId()).isNotNull();
-        verify(contractRepository, times(1)).save(any(Contract.class));
+        verify(contractRepository, never()).save(any(Contract.class));
+        verify(merchantStatsService).statusChanged(testMerchant.getId(),
+                Contract.ContractStatus.DRAFT, Contract.ContractStatus.PENDING_ESIGN);
+    }
+
+    @Test
+    void initiateESign_ShouldSubmitOnceAndFail_WhenContractChangedMeanwhile() {
+        // Given
+        Contract contract = Contract.builder()
+                .id(UUID.randomUUID())
+                .merchant(testMerchant)
+                .payer(testPayer)
+                .status(Contract.ContractStatus.DRAFT)
+                .build();
+
+        when(contractRepository.findWithPartiesById(contract.getId()))
+                .thenReturn(java.util.Optional.of(contract));
+        when(contractRepository.recordESignDocument(any(), any(), any(), anyString(), any())).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> contractService.initiateESign(contract.getId()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(eSignProvider, times(1)).submit(anyList());
+        verifyNoInteractions(merchantStatsService, contractCache);
     }
 
     @Test
@@ -138,13 +212,14 @@ class ContractServiceTest {
                 .status(Contract.ContractStatus.SIGNED)
                 .build();
         
-        when(contractRepository.findById(contract.getId()))
+        when(contractRepository.findWithPartiesById(contract.getId()))
                 .thenReturn(java.util.Optional.of(contract));
 
         // When/Then
         assertThatThrownBy(() -> contractService.initiateESign(contract.getId()))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("DRAFT state");
+        verify(eSignProvider, never()).submit(anyList());
     }
 
     @Test
@@ -152,6 +227,8 @@ class ContractServiceTest {
         // Given
         Contract contract = Contract.builder()
                 .id(UUID.randomUUID())
+                .merchant(testMerchant)
+                .payer(testPayer)
                 .status(Contract.ContractStatus.PENDING_ESIGN)
                 .build();
         
@@ -159,7 +236,7 @@ class ContractServiceTest {
         
         when(contractRepository.findById(contract.getId()))
                 .thenReturn(java.util.Optional.of(contract));
-        when(contractRepository.save(any(Contract.class)))
+        when(contractRepository.saveAndFlush(any(Contract.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -170,4 +247,107 @@ class ContractServiceTest {
         assertThat(result.getSignedPdfUrl()).isEqualTo(signedPdfUrl);
         assertThat(result.getSignedAt()).isNotNull();
     }
+
+    @Test
+    void markAsSigned_ShouldBeNoOp_WhenAlreadySigned() {
+        // Given
+        Contract contract = Contract.builder()
+                .id(UUID.randomUUID())
+                .merchant(testMerchant)
+                .payer(testPayer)
+                .status(Contract.ContractStatus.SIGNED)
+                .build();
+
+        when(contractRepository.findById(contract.getId()))
+                .thenReturn(java.util.Optional.of(contract));
+
+        // When
+        Contract result = contractService.markAsSigned(contract.getId(), "https://storage.test.com/signed.pdf");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(Contract.ContractStatus.SIGNED);
+        verify(contractRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(merchantStatsService);
+    }
+
+    @Test
+    void transitionStatus_ShouldThrowConflict_WhenStatusChangedConcurrently() {
+        // Given
+        Contract contract = Contract.builder()
+                .id(UUID.randomUUID())
+                .merchant(testMerchant)
+                .payer(testPayer)
+                .status(Contract.ContractStatus.SIGNED)
+                .build();
+
+        when(contractRepository.findById(contract.getId()))
+                .thenReturn(java.util.Optional.of(contract));
+        when(contractRepository.compareAndSetStatus(eq(contract.getId()), eq(Contract.ContractStatus.SIGNED),
+                eq(Contract.ContractStatus.ACTIVE), any()))
+                .thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> contractService.transitionStatus(contract.getId(), Contract.ContractStatus.ACTIVE))
+                .isInstanceOf(org.springframework.dao.OptimisticLockingFailureException.class);
+        verifyNoInteractions(merchantStatsService);
+    }
+
+    @Test
+    void transitionStatus_ShouldRejectInvalidTransition() {
+        // Given
+        Contract contract = Contract.builder()
+                .id(UUID.randomUUID())
+                .status(Contract.ContractStatus.COMPLETED)
+                .build();
+
+        when(contractRepository.findById(contract.getId()))
+                .thenReturn(java.util.Optional.of(contract));
+
+        // When/Then
+        assertThatThrownBy(() -> contractService.transitionStatus(contract.getId(), Contract.ContractStatus.ACTIVE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SIGNED state");
+        verify(contractRepository, never()).compareAndSetStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void getContract_ShouldReloadCachedCopyOlderThanDatabase() {
+        // Given: the cache still holds the version before the last commit
+        UUID id = UUID.randomUUID();
+        java.time.Instant updatedAt = java.time.Instant.parse("2026-03-01T10:15:30Z");
+        Contract stale = Contract.builder().id(id).updatedAt(updatedAt.minusSeconds(60)).build();
+        Contract fresh = Contract.builder().id(id).updatedAt(updatedAt).build();
+        when(contractCache.get(eq(id), any())).thenReturn(stale, fresh);
+
+        // When
+        Contract result = contractService.getContract(id, updatedAt);
+
+        // Then
+        assertThat(result).isSameAs(fresh);
+        verify(contractCache).evict(id);
+    }
+
+    @Test
+    void scrollContracts_ShouldReturnCursorForNextPage_WhenMoreRowsExist() {
+        // Given
+        java.time.Instant now = java.time.Instant.now();
+        java.util.List<Contract> rows = java.util.List.of(
+                Contract.builder().id(UUID.randomUUID()).createdAt(now).build(),
+                Contract.builder().id(UUID.randomUUID()).createdAt(now.minusSeconds(1)).build(),
+                Contract.builder().id(UUID.randomUUID()).createdAt(now.minusSeconds(2)).build()
+        );
+        when(contractRepository.findFirstPageByMerchant(eq(testMerchant), any()))
+                .thenReturn(rows);
+
+        // When
+        CursorPage<Contract> page = contractService.scrollContracts(testMerchant, null, 2, false);
+
+        // Then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isNull();
+        ContractCursor next = ContractCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo(rows.get(1).getId());
+        assertThat(next.getCreatedAt()).isEqualTo(rows.get(1).getCreatedAt());
+        verify(contractRepository, never()).countByMerchant(any());
+    }
 }
@@ -0,0 +1,172 @@
+package com.legalpay.services.contract;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.RazorpayPayment;
+import com.legalpay.domain.repository.MandateRepository;
+import com.legalpay.domain.repository.RazorpayPaymentRepository;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.contract.ContractViewService.ContractView;
+import com.legalpay.services.contract.ContractViewService.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ContractViewService: part selection, concurrent lookups,
+ * failure propagation and the overall timeout
+ */
+@ExtendWith(MockitoExtension.class)
+class ContractViewServiceTest {
+
+    @Mock
+    private ContractService contractService;
+
+    @Mock
+    private RazorpayPaymentRepository razorpayPaymentRepository;
+
+    @Mock
+    private MandateRepository mandateRepository;
+
+    @Mock
+    private BlockchainService blockchainService;
+
+    private ContractViewService viewService;
+
+    private final UUID contractId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        if (viewService != null) {
+            viewService.shutdown();
+        }
+    }
+
+    @Test
+    void parse_ShouldDefaultToAllParts_AndRejectUnknownNames() {
+        assertThat(Part.parse(null)).isEqualTo(EnumSet.allOf(Part.class));
+        assertThat(Part.parse(" payments, AUDIT ,")).containsExactlyInAnyOrder(Part.PAYMENTS, Part.AUDIT);
+        assertThatThrownBy(() -> Part.parse("payments,invoices"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invoices");
+    }
+
+    @Test
+    void getView_ShouldLoadOnlyRequestedParts() {
+        // Given
+        viewService = newService(Duration.ofSeconds(5));
+        Contract contract = Contract.builder().id(contractId).build();
+        when(contractService.getContract(contractId)).thenReturn(contract);
+        when(mandateRepository.findByContractId(contractId)).thenReturn(Optional.empty());
+
+        // When
+        ContractView view = viewService.getView(contractId, EnumSet.of(Part.MANDATE));
+
+        // Then
+        assertThat(view.getContract()).isSameAs(contract);
+        assertThat(view.isMandateRequested()).isTrue();
+        assertThat(view.getMandate()).isNull();
+        assertThat(view.getPayments()).isNull();
+        assertThat(view.getAuditTrail()).isNull();
+        verifyNoInteractions(razorpayPaymentRepository, blockchainService);
+    }
+
+    @Test
+    void getView_ShouldRunLookupsConcurrently() {
+        // Given: every lookup waits until all four have started, which only
+        // completes if they run at the same time
+        viewService = newService(Duration.ofSeconds(5));
+        CyclicBarrier allStarted = new CyclicBarrier(4);
+        Contract contract = Contract.builder().id(contractId).build();
+        Mandate mandate = new Mandate();
+        RazorpayPayment payment = new RazorpayPayment();
+        when(contractService.getContract(contractId)).thenAnswer(i -> {
+            allStarted.await(2, TimeUnit.SECONDS);
+            return contract;
+        });
+        when(razorpayPaymentRepository.findByContractId(contractId)).thenAnswer(i -> {
+            allStarted.await(2, TimeUnit.SECONDS);
+            return List.of(payment);
+        });
+        when(mandateRepository.findByContractId(contractId)).thenAnswer(i -> {
+            allStarted.await(2, TimeUnit.SECONDS);
+            return Optional.of(mandate);
+        });
+        when(blockchainService.getAuditTrail(contractId)).thenAnswer(i -> {
+            allStarted.await(2, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        // When
+        ContractView view = viewService.getView(contractId, EnumSet.allOf(Part.class));
+
+        // Then
+        assertThat(view.getContract()).isSameAs(contract);
+        assertThat(view.getPayments()).containsExactly(payment);
+        assertThat(view.getMandate()).isSameAs(mandate);
+        assertThat(view.getAuditTrail()).isEmpty();
+    }
+
+    @Test
+    void getView_ShouldPropagateNotFound_AndCancelOtherLookups() throws Exception {
+        // Given
+        viewService = newService(Duration.ofSeconds(5));
+        CountDownLatch auditStarted = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(contractService.getContract(contractId)).thenAnswer(i -> {
+            auditStarted.await(2, TimeUnit.SECONDS);
+            throw new RuntimeException("Contract not found");
+        });
+        when(blockchainService.getAuditTrail(contractId)).thenAnswer(i -> {
+            auditStarted.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return List.of();
+        });
+
+        // When/Then
+        assertThatThrownBy(() -> viewService.getView(contractId, EnumSet.of(Part.AUDIT)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Contract not found");
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void getView_ShouldFailWhenALookupOutlivesTheTimeout() {
+        // Given
+        viewService = newService(Duration.ofMillis(100));
+        when(contractService.getContract(contractId)).thenAnswer(i -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        // When/Then
+        assertThatThrownBy(() -> viewService.getView(contractId, EnumSet.noneOf(Part.class)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    private ContractViewService newService(Duration timeout) {
+        return new ContractViewService(contractService, razorpayPaymentRepository, mandateRepository,
+                blockchainService, timeout);
+    }
+}
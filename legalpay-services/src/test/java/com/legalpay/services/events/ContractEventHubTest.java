@@ -0,0 +1,171 @@
+package com.legalpay.services.events;
+
+import com.legalpay.domain.entity.Contract;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ContractEventHub fan-out, drop-oldest buffering, heartbeats and writer threads
+ */
+class ContractEventHubTest {
+
+    private ContractEventHub newHub(int bufferSize, Duration heartbeat, int maxSubscribers) {
+        return new ContractEventHub(new StaticListableBeanFactory().getBeanProvider(RedisContractEventRelay.class),
+                bufferSize, heartbeat, maxSubscribers, 2);
+    }
+
+    @Test
+    void publish_ShouldReachContractAndMerchantSubscribers() throws Exception {
+        // Given
+        ContractEventHub hub = newHub(8, Duration.ofSeconds(30), 10);
+        UUID contractId = UUID.randomUUID();
+        UUID merchantId = UUID.randomUUID();
+        RecordingSink contractSink = new RecordingSink(1);
+        RecordingSink merchantSink = new RecordingSink(1);
+        RecordingSink otherSink = new RecordingSink(1);
+        hub.subscribeToContract(contractId, contractSink);
+        hub.subscribeToMerchant(merchantId, merchantSink);
+        hub.subscribeToContract(UUID.randomUUID(), otherSink);
+
+        // When
+        hub.publish(ContractEvent.statusChanged(contractId, merchantId,
+                Contract.ContractStatus.PENDING_ESIGN, Contract.ContractStatus.SIGNED));
+
+        // Then
+        assertThat(contractSink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(merchantSink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(contractSink.events.get(0).getStatus()).isEqualTo(Contract.ContractStatus.SIGNED);
+        assertThat(otherSink.events).hasSize(0);
+    }
+
+    @Test
+    void slowSubscriber_ShouldLoseOldestEventsAndBeToldHowMany() throws Exception {
+        // Given
+        ContractEventHub hub = newHub(4, Duration.ofSeconds(30), 10);
+        UUID contractId = UUID.randomUUID();
+        RecordingSink sink = new RecordingSink(5);
+        sink.block = new CountDownLatch(1);
+        hub.subscribeToContract(contractId, sink);
+
+        // When: the first event is stuck in send() while ten more arrive
+        hub.publish(ContractEvent.paymentCaptured(contractId, null, java.math.BigDecimal.valueOf(0)));
+        assertThat(sink.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 10; i++) {
+            hub.publish(ContractEvent.paymentCaptured(contractId, null, java.math.BigDecimal.valueOf(i)));
+        }
+        sink.block.countDown();
+
+        // Then: the four newest survive, six were dropped
+        assertThat(sink.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.droppedTotal).isEqualTo(6L);
+        assertThat(sink.events.get(1).getAmount().intValue()).isEqualTo(7);
+        assertThat(sink.events.get(4).getAmount().intValue()).isEqualTo(10);
+    }
+
+    @Test
+    void blockedSubscriber_ShouldNotDelayOthers_AndWritesRunOnPlatformThreads() throws Exception {
+        // Given: two writer threads, one held by a stuck client
+        ContractEventHub hub = newHub(4, Duration.ofSeconds(30), 10);
+        UUID stuckContract = UUID.randomUUID();
+        UUID otherContract = UUID.randomUUID();
+        RecordingSink stuck = new RecordingSink(1);
+        stuck.block = new CountDownLatch(1);
+        RecordingSink other = new RecordingSink(1);
+        hub.subscribeToContract(stuckContract, stuck);
+        hub.subscribeToContract(otherContract, other);
+        hub.publish(ContractEvent.paymentCaptured(stuckContract, null, java.math.BigDecimal.ONE));
+        assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        hub.publish(ContractEvent.paymentCaptured(otherContract, null, java.math.BigDecimal.TEN));
+
+        // Then
+        assertThat(other.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(other.virtualWriter).isFalse();
+        stuck.block.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void idleSubscriber_ShouldReceiveHeartbeats() throws Exception {
+        // Given
+        ContractEventHub hub = newHub(4, Duration.ofMillis(20), 10);
+        RecordingSink sink = new RecordingSink(1);
+
+        // When
+        hub.subscribeToMerchant(UUID.randomUUID(), sink);
+
+        // Then
+        assertThat(sink.heartbeats.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void subscribe_ShouldRejectBeyondLimit_AndFreeSlotOnClose() {
+        // Given
+        ContractEventHub hub = newHub(4, Duration.ofSeconds(30), 1);
+        ContractEventHub.Subscription first = hub.subscribeToContract(UUID.randomUUID(), new RecordingSink(1));
+
+        // When/Then
+        assertThatThrownBy(() -> hub.subscribeToContract(UUID.randomUUID(), new RecordingSink(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Too many");
+        first.close();
+        assertThat(hub.getSubscriberCount()).isEqualTo(0);
+        hub.subscribeToContract(UUID.randomUUID(), new RecordingSink(1)).close();
+    }
+
+    private static final class RecordingSink implements ContractEventHub.Sink {
+        final List<ContractEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch heartbeats = new CountDownLatch(2);
+        volatile CountDownLatch block;
+        volatile long droppedTotal;
+        volatile boolean virtualWriter;
+
+        RecordingSink(int expectedEvents) {
+            this.received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(ContractEvent event) {
+            virtualWriter = Thread.currentThread().isVirtual();
+            entered.countDown();
+            CountDownLatch b = block;
+            if (b != null) {
+                try {
+                    b.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                block = null;
+            }
+            events.add(event);
+            received.countDown();
+        }
+
+        @Override
+        public void dropped(long count) {
+            droppedTotal += count;
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeats.countDown();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.legalpay.services.idempotency;
+
+import com.legalpay.services.idempotency.IdempotencyStore.Decision;
+import com.legalpay.services.idempotency.IdempotencyStore.Outcome;
+import com.legalpay.services.idempotency.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IdempotencyStore on H2. Each store instance stands for one node; requests
+ * run on their own threads, so rows are committed (no test transaction) and
+ * removed after each test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    private static final String KEY = "a".repeat(64);
+    private static final String FINGERPRINT = "f".repeat(64);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<IdempotencyStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(IdempotencyStore::shutdown);
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+    }
+
+    @Test
+    void begin_ShouldReplayCompletedRequestOnEveryNode() {
+        // Given
+        IdempotencyStore node = newStore(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        IdempotencyStore otherNode = newStore(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        assertThat(node.begin(KEY, FINGERPRINT).getOutcome()).isEqualTo(Outcome.EXECUTE);
+        node.complete(KEY, response("{\"orderId\":\"order_1\"}"));
+
+        // When
+        Decision local = node.begin(KEY, FINGERPRINT);
+        Decision remote = otherNode.begin(KEY, FINGERPRINT);
+
+        // Then
+        assertThat(local.getOutcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(remote.getOutcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(remote.getResponse().getStatus()).isEqualTo(201);
+        assertThat(new String(remote.getResponse().getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"orderId\":\"order_1\"}");
+    }
+
+    @Test
+    void begin_ShouldRejectKeyReusedWithDifferentBody() {
+        // Given
+        IdempotencyStore node = newStore(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        IdempotencyStore otherNode = newStore(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        node.begin(KEY, FINGERPRINT);
+
+        // When/Then: while executing, and after completion
+        assertThat(otherNode.begin(KEY, "e".repeat(64)).getOutcome()).isEqualTo(Outcome.MISMATCH);
+        node.complete(KEY, response("{}"));
+        assertThat(node.begin(KEY, "e".repeat(64)).getOutcome()).isEqualTo(Outcome.MISMATCH);
+        assertThat(otherNode.begin(KEY, "e".repeat(64)).getOutcome()).isEqualTo(Outcome.MISMATCH);
+    }
+
+    @Test
+    void begin_ShouldWaitForConcurrentDuplicateAndReplayItsResponse() throws Exception {
+        // Given: the first request is executing
+        IdempotencyStore node = newStore(Duration.ofMinutes(1), Duration.ofSeconds(5));
+        IdempotencyStore impatientNode = newStore(Duration.ofMinutes(1), Duration.ofMillis(200));
+        assertThat(node.begin(KEY, FINGERPRINT).getOutcome()).isEqualTo(Outcome.EXECUTE);
+
+        // When: a duplicate on the same node waits, one elsewhere gives up
+        CompletableFuture<Decision> waiting = CompletableFuture.supplyAsync(() -> node.begin(KEY, FINGERPRINT));
+        Decision impatient = impatientNode.begin(KEY, FINGERPRINT);
+        Thread.sleep(100);
+        assertThat(waiting).isNotDone();
+        node.complete(KEY, response("{}"));
+
+        // Then
+        assertThat(impatient.getOutcome()).isEqualTo(Outcome.IN_PROGRESS);
+        assertThat(waiting.get(5, TimeUnit.SECONDS).getOutcome()).isEqualTo(Outcome.REPLAY);
+    }
+
+    @Test
+    void begin_ShouldExecuteAgainAfterTheKeyWasAbandoned() {
+        // Given
+        IdempotencyStore node = newStore(Duration.ofMinutes(1), Duration.ofSeconds(1));
+        node.begin(KEY, FINGERPRINT);
+
+        // When
+        node.abandon(KEY);
+
+        // Then
+        assertThat(newStore(Duration.ofMinutes(1), Duration.ofSeconds(1)).begin(KEY, FINGERPRINT).getOutcome())
+                .isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void renewLeases_ShouldKeepSlowRequestFromExpiring() throws Exception {
+        // Given: a one-second lease, renewed every third of a second
+        IdempotencyStore node = newStore(Duration.ofSeconds(1), Duration.ofSeconds(1));
+        IdempotencyStore otherNode = newStore(Duration.ofSeconds(1), Duration.ofMillis(100));
+        assertThat(node.begin(KEY, FINGERPRINT).getOutcome()).isEqualTo(Outcome.EXECUTE);
+
+        // When: the request runs for longer than the lease
+        Thread.sleep(1_500);
+
+        // Then: the duplicate still sees it in progress instead of executing again
+        assertThat(otherNode.begin(KEY, FINGERPRINT).getOutcome()).isEqualTo(Outcome.IN_PROGRESS);
+        Timestamp expiresAt = jdbcTemplate.queryForObject(
+                "SELECT expires_at FROM idempotency_keys WHERE idempotency_key = ?", Timestamp.class, KEY);
+        assertThat(expiresAt.toInstant()).isAfter(Instant.now());
+
+        // ... and renewal stops once it is done
+        node.abandon(KEY);
+        assertThat(otherNode.begin(KEY, FINGERPRINT).getOutcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    private IdempotencyStore newStore(Duration inProgressLease, Duration waitTimeout) {
+        IdempotencyStore store = new IdempotencyStore(jdbcTemplate, Duration.ofHours(24), inProgressLease,
+                waitTimeout, 100);
+        stores.add(store);
+        return store;
+    }
+
+    private static StoredResponse response(String body) {
+        return new StoredResponse(FINGERPRINT, 201, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
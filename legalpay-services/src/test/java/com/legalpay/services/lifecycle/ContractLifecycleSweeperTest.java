@@ -0,0 +1,165 @@
+package com.legalpay.services.lifecycle;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.ContractRepository.TransitionCandidate;
+import com.legalpay.services.TestData;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ContractLifecycleSweeper on H2: transitions, and side effects only for the
+ * rows that actually moved
+ */
+@DataJpaTest(properties = "legalpay.lifecycle.default-grace-days=30")
+@Import({ ContractLifecycleSweeper.class, MerchantStatsService.class, SchedulerLockService.class })
+class ContractLifecycleSweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2027, 3, 1);
+
+    @Autowired
+    private ContractLifecycleSweeper sweeper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ContractRepository contractRepository;
+
+    @MockBean
+    private ContractCache contractCache;
+
+    @MockBean
+    private BlockchainService blockchainService;
+
+    @MockBean
+    private ContractEventHub eventHub;
+
+    private Merchant merchant;
+    private Payer payer;
+
+    @BeforeEach
+    void setUp() {
+        merchant = TestData.merchant();
+        payer = TestData.payer();
+        entityManager.persist(merchant);
+        entityManager.persist(payer);
+        jdbcTemplate.update("INSERT INTO merchant_stats (merchant_id, draft_count, pending_esign_count, signed_count, " +
+                "active_count, completed_count, defaulted_count, cancelled_count, legal_notice_sent_count, " +
+                "total_principal, collected_amount, overdue_amount, updated_at) " +
+                "VALUES (?, 0, 0, 0, 3, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)", merchant.getId());
+    }
+
+    @Test
+    void sweep_ShouldCompletePaidAndDefaultUnpaidContracts() {
+        // Given: term ended 2027-01-01
+        Contract paid = persist("PAID");
+        Contract unpaid = persist("PARTIAL");
+
+        // When
+        int moved = sweeper.sweep(TODAY);
+
+        // Then
+        assertThat(moved).isEqualTo(2);
+        assertThat(status(paid)).isEqualTo(Contract.ContractStatus.COMPLETED);
+        assertThat(status(unpaid)).isEqualTo(Contract.ContractStatus.DEFAULTED);
+        assertThat(count("active_count")).isEqualTo(1);
+        assertThat(count("completed_count")).isEqualTo(1);
+        assertThat(count("defaulted_count")).isEqualTo(1);
+        verify(eventHub, times(2)).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sweep_ShouldSkipSideEffectsForCandidatesChangedConcurrently() {
+        // Given: between selection and update another writer cancels one candidate
+        Contract kept = persist("PAID");
+        Contract raced = persist("PAID");
+        List<TransitionCandidate> selected = List.of(candidate(kept), candidate(raced));
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (!first.getAndSet(false)) {
+                return List.of();
+            }
+            jdbcTemplate.update("UPDATE contracts SET status = 'CANCELLED' WHERE id = ?", raced.getId());
+            return selected;
+        }).when(contractRepository).findTransitionCandidates(any(), any(), any(), any());
+
+        // When
+        sweeper.sweep(TODAY);
+
+        // Then
+        assertThat(status(kept)).isEqualTo(Contract.ContractStatus.COMPLETED);
+        assertThat(status(raced)).isEqualTo(Contract.ContractStatus.CANCELLED);
+        assertThat(count("completed_count")).isEqualTo(1);
+        assertThat(count("active_count")).isEqualTo(2);
+        ArgumentCaptor<Collection<UUID>> evicted = ArgumentCaptor.forClass(Collection.class);
+        verify(contractCache).evictAll(evicted.capture());
+        assertThat(evicted.getValue()).containsExactly(kept.getId());
+        verify(eventHub, times(1)).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    private Contract persist(String paymentStatus) {
+        Contract contract = TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, new BigDecimal("1000"));
+        contract.setPaymentStatus(paymentStatus);
+        entityManager.persist(contract);
+        entityManager.flush();
+        return contract;
+    }
+
+    private TransitionCandidate candidate(Contract contract) {
+        UUID merchantId = merchant.getId();
+        UUID payerId = payer.getId();
+        return new TransitionCandidate() {
+            public UUID getId() { return contract.getId(); }
+            public UUID getMerchantId() { return merchantId; }
+            public UUID getPayerId() { return payerId; }
+            public Contract.ContractStatus getStatus() { return Contract.ContractStatus.ACTIVE; }
+            public BigDecimal getPrincipalAmount() { return contract.getPrincipalAmount(); }
+            public BigDecimal getTotalPaidAmount() { return contract.getPrincipalAmount(); }
+            public LocalDate getEndDate() { return contract.getEndDate(); }
+        };
+    }
+
+    private Contract.ContractStatus status(Contract contract) {
+        return Contract.ContractStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT status FROM contracts WHERE id = ?", String.class, contract.getId()));
+    }
+
+    private long count(String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT " + column + " FROM merchant_stats WHERE merchant_id = ?", Long.class, merchant.getId());
+    }
+}
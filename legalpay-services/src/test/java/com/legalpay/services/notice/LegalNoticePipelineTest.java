@@ -0,0 +1,224 @@
+package com.legalpay.services.notice;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.LegalNotice.Stage;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.services.EmailService;
+import com.legalpay.services.TestData;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.contract.PdfGenerationService;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import com.legalpay.services.storage.DocumentStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LegalNoticePipeline on H2. The stages run on pool threads, so data is
+ * committed (no test transaction) and removed after each test.
+ */
+@DataJpaTest(properties = { "legalpay.notices.render-workers=1", "legalpay.notices.store-workers=1",
+        "legalpay.notices.email-workers=1", "legalpay.notices.anchor-workers=1",
+        "legalpay.notices.max-concurrent-runs=1" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ LegalNoticePipeline.class, MerchantStatsService.class, SchedulerLockService.class })
+class LegalNoticePipelineTest {
+
+    private static final String CYCLE = "2027-03";
+
+    @Autowired
+    private LegalNoticePipeline pipeline;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PdfGenerationService pdfGenerationService;
+
+    @MockBean
+    private DocumentStorage documentStorage;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private BlockchainService blockchainService;
+
+    @MockBean
+    private ContractCache contractCache;
+
+    @MockBean
+    private ContractEventHub eventHub;
+
+    private Merchant merchant;
+    private Payer payer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        merchant = merchantRepository.save(TestData.merchant());
+        payer = payerRepository.save(TestData.payer());
+        jdbcTemplate.update("INSERT INTO merchant_stats (merchant_id, draft_count, pending_esign_count, signed_count, " +
+                "active_count, completed_count, defaulted_count, cancelled_count, legal_notice_sent_count, " +
+                "total_principal, collected_amount, overdue_amount, updated_at) " +
+                "VALUES (?, 0, 0, 0, 0, 0, 2, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)", merchant.getId());
+        when(pdfGenerationService.renderLegalNotice(any(), any())).thenReturn(new byte[] { 1, 2, 3 });
+        when(documentStorage.store(any(), any(byte[].class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM legal_notices");
+        jdbcTemplate.update("DELETE FROM contracts");
+        jdbcTemplate.update("DELETE FROM merchant_stats");
+        jdbcTemplate.update("DELETE FROM scheduler_locks");
+        jdbcTemplate.update("DELETE FROM payers");
+        jdbcTemplate.update("DELETE FROM merchants");
+    }
+
+    @Test
+    void run_ShouldSendNoticesAndMoveContracts() {
+        // Given
+        Contract first = persistDefaulted();
+        Contract second = persistDefaulted();
+
+        // When
+        assertThat(pipeline.run(CYCLE)).isTrue();
+
+        // Then
+        assertThat(status(first)).isEqualTo(Contract.ContractStatus.LEGAL_NOTICE_SENT);
+        assertThat(status(second)).isEqualTo(Contract.ContractStatus.LEGAL_NOTICE_SENT);
+        assertThat(noticeStage(first)).isEqualTo(Stage.COMPLETED);
+        assertThat(count("defaulted_count")).isZero();
+        assertThat(count("legal_notice_sent_count")).isEqualTo(2);
+        verify(eventHub, times(2)).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    @Test
+    void run_ShouldOnlyFinalizeContractsStillDefaulted() {
+        // Given: one contract is cancelled while its notice is in flight
+        Contract kept = persistDefaulted();
+        Contract raced = persistDefaulted();
+        when(blockchainService.logEvent(any(), eq(raced.getId()), any(), any(), any())).thenAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE contracts SET status = 'CANCELLED' WHERE id = ?", raced.getId());
+            return null;
+        });
+
+        // When
+        pipeline.run(CYCLE);
+
+        // Then
+        assertThat(status(kept)).isEqualTo(Contract.ContractStatus.LEGAL_NOTICE_SENT);
+        assertThat(status(raced)).isEqualTo(Contract.ContractStatus.CANCELLED);
+        assertThat(noticeStage(kept)).isEqualTo(Stage.COMPLETED);
+        assertThat(noticeStage(raced)).isEqualTo(Stage.ANCHORED);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM legal_notices WHERE contract_id = ?",
+                String.class, raced.getId())).contains("no longer DEFAULTED");
+        assertThat(count("legal_notice_sent_count")).isEqualTo(1);
+        verify(contractCache).evictAll(List.of(kept.getId()));
+        verify(eventHub, times(1)).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    @Test
+    void start_ShouldRejectSecondRunOfSameCycleAndKeepLockUntilOwnerFinishes() throws Exception {
+        // Given: the first run blocks in render
+        persistDefaulted();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(pdfGenerationService.renderLegalNotice(any(), any())).thenAnswer(invocation -> {
+            rendering.countDown();
+            proceed.await(10, TimeUnit.SECONDS);
+            return new byte[] { 1 };
+        });
+
+        // When
+        assertThat(pipeline.start(CYCLE)).isTrue();
+        assertThat(rendering.await(10, TimeUnit.SECONDS)).isTrue();
+        boolean second = pipeline.start(CYCLE);
+        boolean otherCycle = pipeline.start("2027-04");
+
+        // Then: the rejected callers left the owner's lease in place
+        assertThat(second).isFalse();
+        assertThat(otherCycle).isFalse(); // max-concurrent-runs=1
+        assertThat(leaseHeld()).isTrue();
+        assertThat(pipeline.getProgress(CYCLE).isRunning()).isTrue();
+
+        proceed.countDown();
+        awaitIdle(CYCLE);
+        assertThat(leaseHeld()).isFalse();
+        assertThat(pipeline.start("2027-04")).isTrue();
+        awaitIdle("2027-04");
+    }
+
+    private void awaitIdle(String cycleId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pipeline.getProgress(cycleId).isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(pipeline.getProgress(cycleId).isRunning()).isFalse();
+    }
+
+    private Contract persistDefaulted() {
+        return contractRepository.save(
+                TestData.contract(merchant, payer, Contract.ContractStatus.DEFAULTED, new BigDecimal("1000")));
+    }
+
+    private Contract.ContractStatus status(Contract contract) {
+        return Contract.ContractStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT status FROM contracts WHERE id = ?", String.class, contract.getId()));
+    }
+
+    private Stage noticeStage(Contract contract) {
+        return Stage.valueOf(jdbcTemplate.queryForObject(
+                "SELECT stage FROM legal_notices WHERE contract_id = ?", String.class, contract.getId()));
+    }
+
+    private boolean leaseHeld() {
+        Timestamp until = jdbcTemplate.queryForObject("SELECT locked_until FROM scheduler_locks WHERE name = ?",
+                Timestamp.class, LegalNoticePipeline.LOCK_PREFIX + CYCLE);
+        return until.toInstant().isAfter(Instant.now());
+    }
+
+    private long count(String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT " + column + " FROM merchant_stats WHERE merchant_id = ?", Long.class, merchant.getId());
+    }
+}
@@ -0,0 +1,254 @@
+package com.legalpay.services.payment;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.domain.repository.MandateRepository;
+import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.services.TestData;
+import com.legalpay.services.amortization.InstallmentStatusService;
+import com.legalpay.services.blockchain.BlockchainService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lifecycle.ContractLifecycleSweeper;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.payment.CollectionEngine.CollectionRun;
+import com.legalpay.services.stats.MerchantStatsService;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CollectionEngine on H2: materialization per mandate, and collected debits
+ * booked against instalments, contract totals and merchant stats. The gateway
+ * calls run on pool threads, so data is committed (no test transaction) and
+ * removed after each test.
+ */
+@DataJpaTest(properties = { "legalpay.collections.workers=2", "legalpay.collections.chunk-size=1" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CollectionEngine.class, DebitSettlementService.class, InstallmentStatusService.class,
+        ContractLifecycleSweeper.class, MerchantStatsService.class, SchedulerLockService.class,
+        CollectionEngineTest.RateLimiterConfig.class })
+class CollectionEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 1);
+
+    @TestConfiguration
+    static class RateLimiterConfig {
+        @Bean
+        RateLimiterRegistry rateLimiterRegistry() {
+            return RateLimiterRegistry.ofDefaults();
+        }
+    }
+
+    @Autowired
+    private CollectionEngine engine;
+
+    @Autowired
+    private InstallmentStatusService installmentStatusService;
+
+    @Autowired
+    private ContractLifecycleSweeper sweeper;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private MandateRepository mandateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PaymentGatewayService paymentGatewayService;
+
+    @MockBean
+    private ContractCache contractCache;
+
+    @MockBean
+    private ContractEventHub eventHub;
+
+    @MockBean
+    private BlockchainService blockchainService;
+
+    private Merchant merchant;
+    private Payer payer;
+
+    @BeforeEach
+    void setUp() {
+        merchant = merchantRepository.save(TestData.merchant());
+        payer = payerRepository.save(TestData.payer());
+        jdbcTemplate.update("INSERT INTO merchant_stats (merchant_id, draft_count, pending_esign_count, signed_count, " +
+                "active_count, completed_count, defaulted_count, cancelled_count, legal_notice_sent_count, " +
+                "total_principal, collected_amount, overdue_amount, updated_at) " +
+                "VALUES (?, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)", merchant.getId());
+        when(paymentGatewayService.gatewayFor(any())).thenReturn("razorpay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM mandates");
+        jdbcTemplate.update("DELETE FROM installments");
+        jdbcTemplate.update("DELETE FROM contracts");
+        jdbcTemplate.update("DELETE FROM merchant_stats");
+        jdbcTemplate.update("DELETE FROM scheduler_locks");
+        jdbcTemplate.update("DELETE FROM payers");
+        jdbcTemplate.update("DELETE FROM merchants");
+    }
+
+    @Test
+    void run_ShouldScheduleOnePaymentPerMandateCoveringAllItsInstalments() {
+        // Given: chunk-size=1, and the first mandate has two instalments due on the day
+        Contract twoDue = persistContract(new BigDecimal("2000"));
+        persistInstallment(twoDue, 1, new BigDecimal("1200"));
+        persistInstallment(twoDue, 2, new BigDecimal("800"));
+        persistMandate(twoDue);
+        Contract oneDue = persistContract(new BigDecimal("500"));
+        persistInstallment(oneDue, 1, new BigDecimal("500"));
+        persistMandate(oneDue);
+        when(paymentGatewayService.executePayment(anyString(), anyString(), anyString())).thenReturn(failure());
+
+        // When
+        CollectionRun run = engine.run(DAY);
+
+        // Then
+        assertThat(run.getMaterialized()).isEqualTo(2);
+        assertThat(paymentAmount(twoDue)).isEqualByComparingTo("2000");
+        assertThat(paymentAmount(oneDue)).isEqualByComparingTo("500");
+    }
+
+    @Test
+    void run_ShouldBookCollectedDebitSoTheContractIsNeverDefaulted() {
+        // Given: the final EMI of a contract whose term ended 2027-01-01
+        Contract contract = persistContract(new BigDecimal("1000"));
+        persistInstallment(contract, 1, new BigDecimal("1000"));
+        persistMandate(contract);
+        when(paymentGatewayService.executePayment(anyString(), eq("1000.00"), anyString())).thenReturn(success());
+
+        // When
+        CollectionRun run = engine.run(DAY);
+
+        // Then: instalment, contract and stats move with the payment
+        assertThat(run.getSucceeded()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM payments", String.class)).isEqualTo("SUCCESS");
+        assertThat(installmentStatus(contract)).isEqualTo("PAID");
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT total_paid_amount, payment_status FROM contracts WHERE id = ?", contract.getId());
+        assertThat((BigDecimal) totals.get("total_paid_amount")).isEqualByComparingTo("1000");
+        assertThat(totals.get("payment_status")).isEqualTo("PAID");
+        assertThat(stat("collected_amount")).isEqualByComparingTo("1000");
+        verify(contractCache).evictAll(List.of(contract.getId()));
+        verify(eventHub).publishAfterCommit(any(ContractEvent.class));
+
+        // ... so later sweeps neither mark it overdue nor default the contract
+        assertThat(installmentStatusService.markOverdue(DAY.plusDays(10))).isZero();
+        sweeper.sweep(LocalDate.of(2027, 3, 1));
+        assertThat(contractStatus(contract)).isEqualTo("COMPLETED");
+        assertThat(stat("defaulted_count")).isZero();
+    }
+
+    @Test
+    void run_ShouldLeaveInstalmentsUnpaidWhenTheDebitFails() {
+        // Given
+        Contract contract = persistContract(new BigDecimal("1000"));
+        persistInstallment(contract, 1, new BigDecimal("1000"));
+        persistMandate(contract);
+        when(paymentGatewayService.executePayment(anyString(), anyString(), anyString())).thenReturn(failure());
+
+        // When
+        CollectionRun run = engine.run(DAY);
+
+        // Then
+        assertThat(run.getFailed()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM payments", String.class)).isEqualTo("FAILED");
+        assertThat(installmentStatus(contract)).isEqualTo("PENDING");
+        assertThat(stat("collected_amount")).isEqualByComparingTo("0");
+        verify(eventHub, never()).publishAfterCommit(any(ContractEvent.class));
+        verify(paymentGatewayService, times(1)).executePayment(anyString(), anyString(), anyString());
+    }
+
+    private Contract persistContract(BigDecimal principal) {
+        return contractRepository.save(TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, principal));
+    }
+
+    private void persistInstallment(Contract contract, int number, BigDecimal amount) {
+        installmentRepository.save(TestData.installment(contract, number, DAY, amount,
+                Installment.InstallmentStatus.PENDING));
+    }
+
+    private void persistMandate(Contract contract) {
+        mandateRepository.save(Mandate.builder()
+                .contract(contract)
+                .mandateType("EMANDATE")
+                .gatewayMandateId("mdt_" + contract.getId())
+                .status(Mandate.MandateStatus.AUTHORIZED)
+                .build());
+    }
+
+    private static PaymentGatewayService.PaymentResult success() {
+        return new PaymentGatewayService.PaymentResult(true, "pay_1", "captured", null);
+    }
+
+    private static PaymentGatewayService.PaymentResult failure() {
+        return new PaymentGatewayService.PaymentResult(false, null, "insufficient funds", "R01");
+    }
+
+    private BigDecimal paymentAmount(Contract contract) {
+        return jdbcTemplate.queryForObject("SELECT p.amount FROM payments p JOIN mandates m ON m.id = p.mandate_id " +
+                "WHERE m.contract_id = ?", BigDecimal.class, contract.getId());
+    }
+
+    private String installmentStatus(Contract contract) {
+        return jdbcTemplate.queryForObject("SELECT status FROM installments WHERE contract_id = ?",
+                String.class, contract.getId());
+    }
+
+    private String contractStatus(Contract contract) {
+        return jdbcTemplate.queryForObject("SELECT status FROM contracts WHERE id = ?", String.class, contract.getId());
+    }
+
+    private BigDecimal stat(String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT " + column + " FROM merchant_stats WHERE merchant_id = ?", BigDecimal.class, merchant.getId());
+    }
+}
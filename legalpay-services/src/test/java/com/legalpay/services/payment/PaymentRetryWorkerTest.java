@@ -0,0 +1,230 @@
+package com.legalpay.services.payment;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Installment;
+import com.legalpay.domain.entity.Mandate;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.entity.Payment;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.InstallmentRepository;
+import com.legalpay.domain.repository.MandateRepository;
+import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.domain.repository.PaymentRepository;
+import com.legalpay.services.TestData;
+import com.legalpay.services.amortization.InstallmentStatusService;
+import com.legalpay.services.cache.ContractCache;
+import com.legalpay.services.events.ContractEvent;
+import com.legalpay.services.events.ContractEventHub;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.stats.MerchantStatsService;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PaymentRetryWorker on H2: a successful retry is booked with its release, and
+ * only by the node that still holds the lease. Attempts run on pool threads,
+ * so data is committed (no test transaction) and removed after each test.
+ */
+@DataJpaTest(properties = { "legalpay.payments.retry.concurrency=2", "legalpay.payments.retry.max-attempts=2" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ PaymentRetryWorker.class, DebitSettlementService.class, InstallmentStatusService.class,
+        MerchantStatsService.class, SchedulerLockService.class, PaymentRetryWorkerTest.RateLimiterConfig.class })
+class PaymentRetryWorkerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 1);
+
+    @TestConfiguration
+    static class RateLimiterConfig {
+        @Bean
+        RateLimiterRegistry rateLimiterRegistry() {
+            return RateLimiterRegistry.ofDefaults();
+        }
+    }
+
+    @Autowired
+    private PaymentRetryWorker worker;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private MandateRepository mandateRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PaymentGatewayService paymentGatewayService;
+
+    @MockBean
+    private ContractCache contractCache;
+
+    @MockBean
+    private ContractEventHub eventHub;
+
+    private Merchant merchant;
+    private Contract contract;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        merchant = merchantRepository.save(TestData.merchant());
+        Payer payer = payerRepository.save(TestData.payer());
+        jdbcTemplate.update("INSERT INTO merchant_stats (merchant_id, draft_count, pending_esign_count, signed_count, " +
+                "active_count, completed_count, defaulted_count, cancelled_count, legal_notice_sent_count, " +
+                "total_principal, collected_amount, overdue_amount, updated_at) " +
+                "VALUES (?, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 1000, CURRENT_TIMESTAMP)", merchant.getId());
+        contract = contractRepository.save(
+                TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, new BigDecimal("1000")));
+        installmentRepository.save(TestData.installment(contract, 1, DAY, new BigDecimal("1000"),
+                Installment.InstallmentStatus.OVERDUE));
+        Mandate mandate = mandateRepository.save(Mandate.builder()
+                .contract(contract)
+                .mandateType("EMANDATE")
+                .gatewayMandateId("mdt_1")
+                .status(Mandate.MandateStatus.ACTIVE)
+                .build());
+        Payment failed = Payment.builder()
+                .mandate(mandate)
+                .dueDate(DAY)
+                .amount(new BigDecimal("1000"))
+                .status(Payment.PaymentStatus.FAILED)
+                .idempotencyKey("emi_1")
+                .build();
+        failed.setRetryCount(0);
+        failed.setNextRetryAt(Instant.now().minusSeconds(60));
+        payment = paymentRepository.save(failed);
+        when(paymentGatewayService.gatewayFor(any())).thenReturn("razorpay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM mandates");
+        jdbcTemplate.update("DELETE FROM installments");
+        jdbcTemplate.update("DELETE FROM contracts");
+        jdbcTemplate.update("DELETE FROM merchant_stats");
+        jdbcTemplate.update("DELETE FROM payers");
+        jdbcTemplate.update("DELETE FROM merchants");
+    }
+
+    @Test
+    void retryBatch_ShouldBookSuccessfulRetryWithItsRelease() {
+        // Given
+        when(paymentGatewayService.executePayment(eq("mdt_1"), anyString(), eq("emi_1_retry_1")))
+                .thenReturn(new PaymentGatewayService.PaymentResult(true, "pay_1", "captured", null));
+
+        // When
+        assertThat(worker.retryBatch()).isEqualTo(1);
+
+        // Then
+        Map<String, Object> row = paymentRow();
+        assertThat(row.get("status")).isEqualTo("SUCCESS");
+        assertThat(row.get("lease_owner")).isNull();
+        assertThat(installmentStatus()).isEqualTo("PAID");
+        assertThat(jdbcTemplate.queryForObject("SELECT payment_status FROM contracts WHERE id = ?",
+                String.class, contract.getId())).isEqualTo("PAID");
+        assertThat(stat("collected_amount")).isEqualByComparingTo("1000");
+        assertThat(stat("overdue_amount")).isEqualByComparingTo("0");
+        verify(eventHub).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    @Test
+    void retryBatch_ShouldNotBookSuccessAfterTheLeaseWasLost() {
+        // Given: while the gateway call is in flight the lease passes to another node
+        when(paymentGatewayService.executePayment(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE payments SET lease_owner = 'other-node' WHERE id = ?", payment.getId());
+            return new PaymentGatewayService.PaymentResult(true, "pay_1", "captured", null);
+        });
+
+        // When
+        worker.retryBatch();
+
+        // Then: the new owner books it; nothing is applied twice
+        assertThat(paymentRow().get("status")).isEqualTo("FAILED");
+        assertThat(installmentStatus()).isEqualTo("OVERDUE");
+        assertThat(stat("collected_amount")).isEqualByComparingTo("0");
+        verify(eventHub, never()).publishAfterCommit(any(ContractEvent.class));
+    }
+
+    @Test
+    void retryBatch_ShouldRescheduleFailureUntilAttemptsRunOut() {
+        // Given
+        when(paymentGatewayService.executePayment(anyString(), anyString(), anyString()))
+                .thenReturn(new PaymentGatewayService.PaymentResult(false, null, "insufficient funds", "R01"));
+
+        // When: first retry
+        worker.retryBatch();
+
+        // Then
+        Map<String, Object> row = paymentRow();
+        assertThat(row.get("status")).isEqualTo("FAILED");
+        assertThat(row.get("retry_count")).isEqualTo(1);
+        assertThat(row.get("next_retry_at")).isNotNull();
+
+        // When: second (last) retry, made due again
+        jdbcTemplate.update("UPDATE payments SET next_retry_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), payment.getId());
+        worker.retryBatch();
+
+        // Then
+        row = paymentRow();
+        assertThat(row.get("retry_count")).isEqualTo(2);
+        assertThat(row.get("next_retry_at")).isNull();
+        assertThat(installmentStatus()).isEqualTo("OVERDUE");
+    }
+
+    private Map<String, Object> paymentRow() {
+        return jdbcTemplate.queryForMap("SELECT status, lease_owner, retry_count, next_retry_at FROM payments WHERE id = ?",
+                payment.getId());
+    }
+
+    private String installmentStatus() {
+        return jdbcTemplate.queryForObject("SELECT status FROM installments WHERE contract_id = ?",
+                String.class, contract.getId());
+    }
+
+    private BigDecimal stat(String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT " + column + " FROM merchant_stats WHERE merchant_id = ?", BigDecimal.class, merchant.getId());
+    }
+}
@@ -0,0 +1,199 @@
+package com.legalpay.services.reconciliation;
+
+import com.legalpay.domain.entity.Contract;
+import com.legalpay.domain.entity.Merchant;
+import com.legalpay.domain.entity.Payer;
+import com.legalpay.domain.repository.ContractRepository;
+import com.legalpay.domain.repository.MerchantRepository;
+import com.legalpay.domain.repository.PayerRepository;
+import com.legalpay.services.TestData;
+import com.legalpay.services.lock.SchedulerLockService;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewayPayment;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewaySettlement;
+import com.razorpay.RazorpayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * SettlementReconciler end to end on H2 with a stubbed gateway: the local
+ * cursor and its queue handoff, the merge, batched mismatch inserts and the
+ * replacement of a day's report by a rerun. The local stream is read on a pool
+ * thread, so rows are committed (no test transaction) and removed after each test.
+ */
+@DataJpaTest(properties = { "legalpay.reconciliation.fetch-size=1", "legalpay.reconciliation.batch-size=2",
+        "legalpay.reconciliation.page-size=2", "legalpay.reconciliation.sort-run-size=3",
+        "legalpay.reconciliation.capture-slack=PT1H", "legalpay.reconciliation.settlement-days=1" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SettlementReconciler.class, SchedulerLockService.class })
+class SettlementReconcilerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+    private static final Instant FROM = DAY.atStartOfDay(ZONE).toInstant();
+
+    @Autowired
+    private SettlementReconciler reconciler;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private PayerRepository payerRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private SettlementGateway gateway;
+
+    private Contract contract;
+    private final List<GatewayPayment> gatewayPayments = new ArrayList<>();
+    private final List<GatewaySettlement> settlements = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Merchant merchant = merchantRepository.save(TestData.merchant());
+        Payer payer = payerRepository.save(TestData.payer());
+        contract = contractRepository.save(
+                TestData.contract(merchant, payer, Contract.ContractStatus.ACTIVE, new BigDecimal("100000")));
+        when(gateway.fetchPayments(any(), any(), anyInt(), anyInt())).thenAnswer(invocation ->
+                page(gatewayPayments, invocation.getArgument(2), invocation.getArgument(3)));
+        when(gateway.fetchSettlements(eq(DAY), anyInt(), anyInt())).thenAnswer(invocation ->
+                page(settlements, invocation.getArgument(1), invocation.getArgument(2)));
+        when(gateway.fetchSettlements(eq(DAY.plusDays(1)), anyInt(), anyInt())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM settlement_mismatches");
+        jdbcTemplate.update("DELETE FROM razorpay_payments");
+        jdbcTemplate.update("DELETE FROM scheduler_locks");
+        jdbcTemplate.update("DELETE FROM contracts");
+        jdbcTemplate.update("DELETE FROM payers");
+        jdbcTemplate.update("DELETE FROM merchants");
+    }
+
+    @Test
+    void reconcile_ShouldReportMismatchesReadThroughTheLocalCursor() {
+        // Given: IDs in mixed case, so the database order has to match the merge's code-point order
+        Instant noon = FROM.plus(Duration.ofHours(12));
+        matched("pay_A1", 50_00, noon);
+        matched("pay_a2", 75_00, noon);
+        localCaptured("pay_B1", 10_00, noon);           // amount differs at the gateway
+        gatewayCaptured("pay_B1", 12_00, noon, true);
+        localCaptured("pay_C1", 20_00, noon);           // the gateway never saw it
+        gatewayCaptured("pay_D1", 30_00, noon, false);  // captured but never recorded locally
+        localCaptured("pay_E1", 40_00, noon);           // captured but not settled
+        gatewayCaptured("pay_E1", 40_00, noon, false);
+        // Captured here just before midnight by our clock, created by the gateway just after
+        localCaptured("pay_F1", 60_00, FROM.minus(Duration.ofMinutes(5)));
+        gatewayCaptured("pay_F1", 60_00, FROM.plus(Duration.ofMinutes(1)), true);
+
+        // When
+        SettlementReconciler.Result result = reconciler.reconcile(DAY);
+
+        // Then
+        assertThat(result.getLocalRows()).isEqualTo(6);
+        assertThat(result.getMismatches()).isEqualTo(4);
+        assertThat(mismatches()).containsExactlyInAnyOrder(
+                "pay_B1 AMOUNT_MISMATCH", "pay_C1 MISSING_AT_GATEWAY",
+                "pay_D1 MISSING_LOCALLY", "pay_E1 NOT_SETTLED");
+        assertThat(runIds()).containsExactly(result.getRunId());
+    }
+
+    @Test
+    void reconcile_ShouldReplaceTheDaysReportOnRerun() {
+        // Given: a first run found a mismatch that has since been fixed
+        Instant noon = FROM.plus(Duration.ofHours(12));
+        matched("pay_A1", 50_00, noon);
+        localCaptured("pay_B1", 10_00, noon);
+        gatewayCaptured("pay_B1", 12_00, noon, true);
+        SettlementReconciler.Result first = reconciler.reconcile(DAY);
+        jdbcTemplate.update("UPDATE razorpay_payments SET amount = 12.00 WHERE razorpay_payment_id = 'pay_B1'");
+
+        // When
+        SettlementReconciler.Result second = reconciler.reconcile(DAY);
+
+        // Then
+        assertThat(first.getMismatches()).isEqualTo(1);
+        assertThat(second.getMismatches()).isZero();
+        assertThat(mismatches()).isEmpty();
+    }
+
+    @Test
+    void reconcile_ShouldKeepThePreviousReportWhenARerunFails() throws Exception {
+        // Given
+        Instant noon = FROM.plus(Duration.ofHours(12));
+        localCaptured("pay_C1", 20_00, noon);
+        SettlementReconciler.Result first = reconciler.reconcile(DAY);
+        when(gateway.fetchSettlements(eq(DAY), anyInt(), anyInt())).thenThrow(new RazorpayException("timeout"));
+
+        // When/Then
+        assertThatThrownBy(() -> reconciler.reconcile(DAY)).isInstanceOf(IllegalStateException.class);
+        assertThat(runIds()).containsExactly(first.getRunId());
+        assertThat(mismatches()).containsExactly("pay_C1 MISSING_AT_GATEWAY");
+    }
+
+    private void matched(String id, long paise, Instant at) {
+        localCaptured(id, paise, at);
+        gatewayCaptured(id, paise, at, true);
+    }
+
+    private void localCaptured(String razorpayPaymentId, long paise, Instant capturedAt) {
+        jdbcTemplate.update("INSERT INTO razorpay_payments (id, contract_id, payer_id, merchant_id, razorpay_order_id, " +
+                        "razorpay_payment_id, amount, currency, status, created_at, captured_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, 'INR', 'CAPTURED', ?, ?)",
+                UUID.randomUUID(), contract.getId(), contract.getPayer().getId(), contract.getMerchant().getId(),
+                "order_" + razorpayPaymentId, razorpayPaymentId, BigDecimal.valueOf(paise, 2),
+                Timestamp.from(capturedAt.minusSeconds(60)), Timestamp.from(capturedAt));
+    }
+
+    private void gatewayCaptured(String id, long paise, Instant createdAt, boolean settled) {
+        gatewayPayments.add(new GatewayPayment(id, "captured", paise, createdAt));
+        if (settled) {
+            settlements.add(new GatewaySettlement("payment", id, "setl_1", paise));
+        }
+    }
+
+    private static <T> List<T> page(List<T> all, int skip, int count) {
+        return all.subList(Math.min(skip, all.size()), Math.min(skip + count, all.size()));
+    }
+
+    private List<String> mismatches() {
+        return jdbcTemplate.query("SELECT razorpay_payment_id, kind FROM settlement_mismatches WHERE business_date = ?",
+                (rs, i) -> rs.getString(1) + " " + rs.getString(2), Date.valueOf(DAY));
+    }
+
+    private List<UUID> runIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT run_id FROM settlement_mismatches", UUID.class);
+    }
+}
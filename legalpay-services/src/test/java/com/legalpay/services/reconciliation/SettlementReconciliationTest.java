@@ -0,0 +1,312 @@
+package com.legalpay.services.reconciliation;
+
+import com.legalpay.domain.entity.SettlementMismatch;
+import com.legalpay.domain.entity.SettlementMismatch.Kind;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewayPayment;
+import com.legalpay.services.reconciliation.SettlementGateway.GatewaySettlement;
+import com.legalpay.services.reconciliation.SettlementMergeJoin.LocalPayment;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Settlement reconciliation against an in-process stub of the gateway: paging
+ * and external sorting of gateway payments and settlements, and the merge-join
+ * with the local payment stream
+ */
+class SettlementReconciliationTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+    private static final Instant FROM = DAY.atStartOfDay(ZONE).toInstant();
+    private static final Instant TO = DAY.plusDays(1).atStartOfDay(ZONE).toInstant();
+    private static final int PAGE_SIZE = 100;
+    private static final Duration CAPTURE_SLACK = Duration.ofHours(1);
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void reconcile_ShouldReportEachSeededMismatch() throws Exception {
+        StubGateway gateway = new StubGateway(5_000, FROM, TO);
+
+        Map<Kind, List<String>> found = reconcile(gateway, 700);
+
+        assertThat(found.get(Kind.AMOUNT_MISMATCH)).isEqualTo(gateway.ids(StubGateway.WRONG_AMOUNT));
+        assertThat(found.get(Kind.NOT_SETTLED)).isEqualTo(gateway.ids(StubGateway.UNSETTLED));
+        assertThat(found.get(Kind.MISSING_LOCALLY)).isEqualTo(gateway.ids(StubGateway.NO_LOCAL_ROW));
+        assertThat(found.get(Kind.STATUS_MISMATCH)).isEqualTo(gateway.ids(StubGateway.FAILED_AT_GATEWAY));
+        assertThat(found.get(Kind.SETTLED_AMOUNT_MISMATCH)).isEqualTo(gateway.ids(StubGateway.SHORT_SETTLED));
+        assertThat(found.get(Kind.MISSING_AT_GATEWAY)).isEqualTo(gateway.localOnlyIds());
+    }
+
+    @Test
+    void reconcile_ShouldMergePaymentsFromSortedSpills() throws Exception {
+        assertMergedFromSpills(20_000, 5_000);
+    }
+
+    @Test
+    @Tag("slow")
+    void reconcile_ShouldMergeAMillionPaymentsFromSortedSpills() throws Exception {
+        assertMergedFromSpills(1_000_000, 100_000);
+    }
+
+    private void assertMergedFromSpills(int payments, int runSize) throws Exception {
+        StubGateway gateway = new StubGateway(payments, FROM, TO);
+
+        Map<Kind, List<String>> found = reconcile(gateway, runSize);
+
+        assertThat(gateway.spilledRuns).isGreaterThan(1);
+        assertThat(gateway.compared).isEqualTo((long) payments + payments / StubGateway.SEED_EVERY);
+        for (Kind kind : Kind.values()) {
+            assertThat(found.get(kind)).hasSize(payments / StubGateway.SEED_EVERY);
+        }
+    }
+
+    @Test
+    void reconcile_ShouldJudgePaymentsOnlyOnTheDayThatOwnsThem() throws Exception {
+        // Created over a window an hour wider than the day on both sides
+        StubGateway gateway = new StubGateway(4_800, FROM.minusSeconds(3600), TO.plusSeconds(3600));
+
+        Map<Kind, List<String>> found = reconcile(gateway, 1_000);
+
+        assertThat(gateway.compared).isEqualTo(gateway.ownedPayments() + gateway.localOnlyIds().size());
+        assertThat(found.get(Kind.AMOUNT_MISMATCH)).isEqualTo(gateway.ownedIds(StubGateway.WRONG_AMOUNT));
+        assertThat(found.get(Kind.MISSING_LOCALLY)).isEqualTo(gateway.ownedIds(StubGateway.NO_LOCAL_ROW));
+    }
+
+    @Test
+    void mergeJoin_ShouldRejectStreamsThatAreNotSorted() {
+        SettlementMergeJoin join = new SettlementMergeJoin(UUID.randomUUID(), DAY, FROM, TO);
+        List<LocalPayment> local = List.of(
+                new LocalPayment(UUID.randomUUID(), "pay_B", "CAPTURED", 100, FROM),
+                new LocalPayment(UUID.randomUUID(), "pay_A", "CAPTURED", 100, FROM));
+
+        assertThatThrownBy(() -> join.run(local.iterator(), List.<GatewayPayment>of().iterator(),
+                List.<GatewaySettlement>of().iterator(), mismatch -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not sorted by payment ID");
+    }
+
+    /**
+     * The reconciler's pipeline minus the database: the local stream is sorted
+     * here as the ORDER BY would, and mismatches are collected instead of written
+     */
+    private Map<Kind, List<String>> reconcile(StubGateway gateway, int runSize) throws Exception {
+        try (ExternalSorter<GatewayPayment> payments = new ExternalSorter<>(spillDirectory, "p-", runSize,
+                     Comparator.comparing(GatewayPayment::getId), SettlementReconciler.PAYMENT_CODEC);
+             ExternalSorter<GatewaySettlement> settlements = new ExternalSorter<>(spillDirectory, "s-", runSize,
+                     Comparator.comparing(GatewaySettlement::getEntityId), SettlementReconciler.SETTLEMENT_CODEC);
+             ExternalSorter<LocalPayment> local = new ExternalSorter<>(spillDirectory, "l-", runSize,
+                     Comparator.comparing(LocalPayment::getRazorpayPaymentId), LOCAL_CODEC)) {
+
+            // Same windows as SettlementReconciler.reconcile with capture-slack = CAPTURE_SLACK
+            SettlementReconciler.fetchPayments(gateway, PAGE_SIZE, FROM.minus(CAPTURE_SLACK), TO.plus(CAPTURE_SLACK),
+                    payments);
+            for (int d = 0; d <= 3; d++) {
+                SettlementReconciler.fetchSettlements(gateway, PAGE_SIZE, DAY.plusDays(d), settlements);
+            }
+            gateway.localRows(FROM.minus(CAPTURE_SLACK), TO.plus(CAPTURE_SLACK), local);
+            gateway.spilledRuns = payments.runCount();
+
+            SettlementMergeJoin join = new SettlementMergeJoin(UUID.randomUUID(), DAY, FROM, TO);
+            Map<Kind, List<String>> found = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                found.put(kind, new ArrayList<>());
+            }
+            join.run(local.sorted(), payments.sorted(), settlements.sorted(),
+                    (SettlementMismatch mismatch) -> found.get(mismatch.getKind()).add(mismatch.getRazorpayPaymentId()));
+            gateway.compared = join.getCompared();
+            return found;
+        }
+    }
+
+    private static final ExternalSorter.Codec<LocalPayment> LOCAL_CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutput out, LocalPayment value) throws IOException {
+            out.writeLong(value.getId().getMostSignificantBits());
+            out.writeLong(value.getId().getLeastSignificantBits());
+            out.writeUTF(value.getRazorpayPaymentId());
+            out.writeUTF(value.getStatus());
+            out.writeLong(value.getAmount());
+            out.writeLong(value.getEventAt().getEpochSecond());
+        }
+
+        @Override
+        public LocalPayment read(DataInput in) throws IOException {
+            return new LocalPayment(new UUID(in.readLong(), in.readLong()), in.readUTF(), in.readUTF(),
+                    in.readLong(), Instant.ofEpochSecond(in.readLong()));
+        }
+    };
+
+    /**
+     * Generates payment {@code i} on demand, so a million payments take no memory.
+     * Payments are created evenly over [start, end) and settled the next day; IDs
+     * are scrambled so that gateway order says nothing about ID order. Every
+     * {@link #SEED_EVERY}th payment at offsets 1-5 carries one kind of discrepancy,
+     * and there is one locally captured payment the gateway never saw per
+     * {@link #SEED_EVERY} payments.
+     */
+    private static final class StubGateway implements SettlementGateway {
+        static final int SEED_EVERY = 1000;
+        static final int WRONG_AMOUNT = 1;
+        static final int UNSETTLED = 2;
+        static final int NO_LOCAL_ROW = 3;
+        static final int FAILED_AT_GATEWAY = 4;
+        static final int SHORT_SETTLED = 5;
+
+        private final int count;
+        private final Instant start;
+        private final long spanSeconds;
+        long compared;
+        int spilledRuns;
+
+        StubGateway(int count, Instant start, Instant end) {
+            this.count = count;
+            this.start = start;
+            this.spanSeconds = end.getEpochSecond() - start.getEpochSecond();
+        }
+
+        @Override
+        public List<GatewayPayment> fetchPayments(Instant from, Instant to, int skip, int pageSize) {
+            int lo = firstCreatedAtOrAfter(from);
+            int hi = firstCreatedAtOrAfter(to);
+            List<GatewayPayment> page = new ArrayList<>(pageSize);
+            for (int i = lo + skip; i < hi && page.size() < pageSize; i++) {
+                page.add(new GatewayPayment(id(i), seed(i) == FAILED_AT_GATEWAY ? "failed" : "captured",
+                        amount(i), createdAt(i)));
+            }
+            return page;
+        }
+
+        @Override
+        public List<GatewaySettlement> fetchSettlements(LocalDate day, int skip, int pageSize) {
+            // Settled the day after creation; each payment is followed by a refund entry, which must be ignored
+            int lo = 2 * firstCreatedAtOrAfter(day.minusDays(1).atStartOfDay(ZONE).toInstant());
+            int hi = 2 * firstCreatedAtOrAfter(day.atStartOfDay(ZONE).toInstant());
+            List<GatewaySettlement> page = new ArrayList<>(pageSize);
+            for (int j = lo + skip; j < hi && page.size() < pageSize; j++) {
+                int i = j / 2;
+                if (j % 2 == 1) {
+                    page.add(new GatewaySettlement("refund", "rfnd_" + i, "setl_" + day, 50));
+                } else if (seed(i) != UNSETTLED && seed(i) != FAILED_AT_GATEWAY) {
+                    long settled = seed(i) == SHORT_SETTLED ? amount(i) - 100 : amount(i);
+                    page.add(new GatewaySettlement("payment", id(i), "setl_" + day, settled));
+                } else {
+                    page.add(new GatewaySettlement("adjustment", "adj_" + i, "setl_" + day, 0));
+                }
+            }
+            return page;
+        }
+
+        /**
+         * What the local cursor would return for [from, to): captured 30s after creation
+         */
+        void localRows(Instant from, Instant to, ExternalSorter<LocalPayment> sorter) throws IOException {
+            for (int i = 0; i < count; i++) {
+                Instant capturedAt = createdAt(i).plusSeconds(30);
+                if (seed(i) != NO_LOCAL_ROW && !capturedAt.isBefore(from) && capturedAt.isBefore(to)) {
+                    long amount = seed(i) == WRONG_AMOUNT ? amount(i) + 100 : amount(i);
+                    sorter.add(new LocalPayment(new UUID(0, i), id(i), "CAPTURED", amount, capturedAt));
+                }
+            }
+            for (String id : localOnlyIds()) {
+                sorter.add(new LocalPayment(UUID.randomUUID(), id, "CAPTURED", 1000, FROM.plusSeconds(60)));
+            }
+        }
+
+        List<String> ids(int seed) {
+            List<String> ids = new ArrayList<>();
+            for (int i = seed; i < count; i += SEED_EVERY) {
+                ids.add(id(i));
+            }
+            ids.sort(Comparator.naturalOrder());
+            return ids;
+        }
+
+        List<String> ownedIds(int seed) {
+            List<String> ids = new ArrayList<>();
+            for (int i = seed; i < count; i += SEED_EVERY) {
+                if (isOwned(i)) {
+                    ids.add(id(i));
+                }
+            }
+            ids.sort(Comparator.naturalOrder());
+            return ids;
+        }
+
+        long ownedPayments() {
+            long owned = 0;
+            for (int i = 0; i < count; i++) {
+                if (isOwned(i)) {
+                    owned++;
+                }
+            }
+            return owned;
+        }
+
+        List<String> localOnlyIds() {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < count / SEED_EVERY; i++) {
+                ids.add(String.format("pay_LOCAL%08d", i));
+            }
+            return ids;
+        }
+
+        private boolean isOwned(int i) {
+            return !createdAt(i).isBefore(FROM) && createdAt(i).isBefore(TO);
+        }
+
+        private Instant createdAt(int i) {
+            return start.plusSeconds(i * spanSeconds / count);
+        }
+
+        private int firstCreatedAtOrAfter(Instant t) {
+            // createdAt is monotonic in i
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (createdAt(mid).isBefore(t)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int seed(int i) {
+            return i % SEED_EVERY;
+        }
+
+        private static long amount(int i) {
+            return 100_000 + (i % 5_000) * 100L;
+        }
+
+        private static String id(int i) {
+            // Bijective scramble of i over 2^40, so IDs are unique but unordered
+            long scrambled = ((i + 1) * 0x9E3779B97FL) & 0xFF_FFFF_FFFFL;
+            return String.format("pay_%010X", scrambled);
+        }
+    }
+}
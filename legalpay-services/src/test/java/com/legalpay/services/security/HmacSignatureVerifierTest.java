@@ -0,0 +1,85 @@
+package com.legalpay.services.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for HMAC-SHA256 signature verification
+ */
+class HmacSignatureVerifierTest {
+
+    private static final String SECRET = "whsec_test_secret";
+
+    private final HmacSignatureVerifier verifier = new HmacSignatureVerifier(SECRET);
+
+    @Test
+    void verify_ShouldAcceptTheExpectedSignature() throws Exception {
+        String payload = "{\"event\":\"payment.captured\",\"payload\":{}}";
+        String signature = sign(payload);
+
+        assertThat(verifier.verify(payload, signature)).isTrue();
+        assertThat(verifier.verify(payload, signature.toUpperCase())).isTrue();
+        assertThat(verifier.verify(payload.getBytes(StandardCharsets.UTF_8), signature)).isTrue();
+        // Second use of the same thread's Mac must start from a clean state
+        assertThat(verifier.verify(payload, signature)).isTrue();
+    }
+
+    @Test
+    void verify_ShouldSignOrderAndPaymentJoinedWithAPipe() throws Exception {
+        assertThat(verifier.verify("order_123", "pay_456", sign("order_123|pay_456"))).isTrue();
+        assertThat(verifier.verify("order_123", "pay_457", sign("order_123|pay_456"))).isFalse();
+    }
+
+    @Test
+    void verify_ShouldHandleNonAsciiAndLongMessages() throws Exception {
+        String unicode = "{\"note\":\"EMI ₹1,500 — दिसंबर\"}";
+        String longMessage = "x".repeat(5000) + "₹";
+
+        assertThat(verifier.verify(unicode, sign(unicode))).isTrue();
+        assertThat(verifier.verify(longMessage, sign(longMessage))).isTrue();
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedMalformedOrMissingSignatures() throws Exception {
+        String signature = sign("payload");
+
+        assertThat(verifier.verify("payload2", signature)).isFalse();
+        assertThat(verifier.verify("payload", signature.substring(2))).isFalse();
+        assertThat(verifier.verify("payload", "zz" + signature.substring(2))).isFalse();
+        assertThat(verifier.verify("payload", (String) null)).isFalse();
+        assertThat(verifier.verify((String) null, signature)).isFalse();
+    }
+
+    @Test
+    void verify_ShouldWorkOnVirtualThreads() throws Exception {
+        String signature = sign("payload");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> valid = executor.submit(() -> verifier.verify("payload", signature));
+            Future<Boolean> invalid = executor.submit(() -> verifier.verify("other", signature));
+            assertThat(valid.get()).isTrue();
+            assertThat(invalid.get()).isFalse();
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectAnEmptySecret() {
+        assertThatThrownBy(() -> new HmacSignatureVerifier(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String sign(String message) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
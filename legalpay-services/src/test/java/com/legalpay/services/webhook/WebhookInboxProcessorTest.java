@@ -0,0 +1,195 @@
+package com.legalpay.services.webhook;
+
+import com.legalpay.services.PaymentService;
+import com.legalpay.services.lock.SchedulerLockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * WebhookInboxProcessor on H2: per-order ordering, backoff between attempts,
+ * setting aside and re-driving. Events are applied on pool threads, so rows
+ * are committed (no test transaction) and removed after each test.
+ */
+@DataJpaTest(properties = { "legalpay.webhooks.workers=2", "legalpay.webhooks.batch-size=2",
+        "legalpay.webhooks.max-attempts=2", "legalpay.webhooks.retry-backoff=PT1H",
+        "legalpay.webhooks.max-retry-backoff=PT2H" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ WebhookInboxProcessor.class, SchedulerLockService.class })
+class WebhookInboxProcessorTest {
+
+    @Autowired
+    private WebhookInboxProcessor processor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PaymentService paymentService;
+
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        sequence = 0;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM webhook_inbox");
+        jdbcTemplate.update("DELETE FROM scheduler_locks");
+    }
+
+    @Test
+    void drain_ShouldApplyEachOrdersEventsInArrivalOrderAcrossPages() {
+        // Given: batch-size=2, so the pass spans several pages
+        long first = insert(captured("order_a", "pay_1"));
+        insert(failed("order_b"));
+        insert(captured("order_b", "pay_2"));
+        insert(captured("order_a", "pay_3"));
+        insert("{not json");
+
+        // When
+        int completed = processor.drain();
+
+        // Then
+        assertThat(completed).isEqualTo(5);
+        assertThat(status(first)).isEqualTo("PROCESSED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM webhook_inbox WHERE status = 'FAILED'", Integer.class)).isEqualTo(1);
+        InOrder orderA = inOrder(paymentService);
+        orderA.verify(paymentService).handleCapturedPayment("order_a", "pay_1", "upi");
+        orderA.verify(paymentService).handleCapturedPayment("order_a", "pay_3", "upi");
+        InOrder orderB = inOrder(paymentService);
+        orderB.verify(paymentService).handleFailedPayment(eq("order_b"), any(), any());
+        orderB.verify(paymentService).handleCapturedPayment("order_b", "pay_2", "upi");
+    }
+
+    @Test
+    void drain_ShouldBackOffFailedEventAndHoldBackItsOrder() {
+        // Given: the first event of order_a fails once
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (failOnce.getAndSet(false)) {
+                throw new IllegalStateException("database hiccup");
+            }
+            return null;
+        }).when(paymentService).handleCapturedPayment(eq("order_a"), eq("pay_1"), any());
+        long head = insert(captured("order_a", "pay_1"));
+        long next = insert(captured("order_a", "pay_3"));
+        long other = insert(captured("order_b", "pay_2"));
+
+        // When
+        processor.drain();
+
+        // Then: retried only after the backoff; the rest of its order waits
+        Map<String, Object> row = row(head);
+        assertThat(row.get("status")).isEqualTo("PENDING");
+        assertThat(row.get("attempts")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_attempt_at FROM webhook_inbox WHERE id = ?",
+                Timestamp.class, head).toInstant()).isAfter(Instant.now().plus(Duration.ofMinutes(59)));
+        assertThat(status(next)).isEqualTo("PENDING");
+        assertThat(status(other)).isEqualTo("PROCESSED");
+
+        // When: polled again before the backoff has passed
+        processor.drain();
+
+        // Then
+        verify(paymentService, times(1)).handleCapturedPayment("order_a", "pay_1", "upi");
+        verify(paymentService, never()).handleCapturedPayment("order_a", "pay_3", "upi");
+
+        // When: the backoff has passed
+        jdbcTemplate.update("UPDATE webhook_inbox SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), head);
+        processor.drain();
+
+        // Then
+        assertThat(status(head)).isEqualTo("PROCESSED");
+        assertThat(status(next)).isEqualTo("PROCESSED");
+        InOrder orderA = inOrder(paymentService);
+        orderA.verify(paymentService, times(2)).handleCapturedPayment("order_a", "pay_1", "upi");
+        orderA.verify(paymentService).handleCapturedPayment("order_a", "pay_3", "upi");
+    }
+
+    @Test
+    void redriveFailed_ShouldRequeueSetAsideEvents() {
+        // Given: max-attempts=2 and the handler keeps failing
+        doThrow(new IllegalStateException("bad mapping"))
+                .when(paymentService).handleCapturedPayment(eq("order_a"), any(), any());
+        long id = insert(captured("order_a", "pay_1"));
+        processor.drain();
+        jdbcTemplate.update("UPDATE webhook_inbox SET next_attempt_at = NULL WHERE id = ?", id);
+        processor.drain();
+        assertThat(status(id)).isEqualTo("FAILED");
+
+        // When: the fault is fixed and the events are re-driven
+        doAnswer(invocation -> null).when(paymentService).handleCapturedPayment(eq("order_a"), any(), any());
+        assertThat(processor.redriveFailed()).isEqualTo(1);
+        processor.drain();
+
+        // Then
+        Map<String, Object> row = row(id);
+        assertThat(row.get("status")).isEqualTo("PROCESSED");
+        assertThat(row.get("attempts")).isEqualTo(0);
+    }
+
+    @Test
+    void backoff_ShouldDoubleEachAttemptUpToTheCap() {
+        Duration base = Duration.ofSeconds(2);
+        Duration max = Duration.ofMinutes(15);
+        assertThat(WebhookInboxProcessor.backoff(1, base, max)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(WebhookInboxProcessor.backoff(2, base, max)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(WebhookInboxProcessor.backoff(5, base, max)).isEqualTo(Duration.ofSeconds(32));
+        assertThat(WebhookInboxProcessor.backoff(20, base, max)).isEqualTo(max);
+        assertThat(WebhookInboxProcessor.backoff(1000, base, max)).isEqualTo(max);
+    }
+
+    private long insert(String payload) {
+        jdbcTemplate.update("INSERT INTO webhook_inbox (event_id, payload, status, attempts, received_at) " +
+                "VALUES (?, ?, 'PENDING', 0, CURRENT_TIMESTAMP)", "evt_" + (++sequence), payload);
+        return jdbcTemplate.queryForObject("SELECT id FROM webhook_inbox WHERE event_id = ?", Long.class,
+                "evt_" + sequence);
+    }
+
+    private static String captured(String orderId, String paymentId) {
+        return "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"" + paymentId +
+                "\",\"order_id\":\"" + orderId + "\",\"method\":\"upi\"}}}}";
+    }
+
+    private static String failed(String orderId) {
+        return "{\"event\":\"payment.failed\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"pay_x\"," +
+                "\"order_id\":\"" + orderId + "\",\"error_code\":\"BAD_REQUEST_ERROR\"}}}}";
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM webhook_inbox WHERE id = ?", String.class, id);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap("SELECT status, attempts FROM webhook_inbox WHERE id = ?", id);
+    }
+}
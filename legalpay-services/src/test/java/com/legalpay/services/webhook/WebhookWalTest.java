@@ -0,0 +1,130 @@
+package com.legalpay.services.webhook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the webhook write-ahead log: framing, replay order, segment
+ * rolling and recovery after a restart
+ */
+class WebhookWalTest {
+
+    @TempDir
+    Path dir;
+
+    private WebhookWal wal;
+
+    @AfterEach
+    void tearDown() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    @Test
+    void replay_ShouldDeliverRecordsInOrderAndClearTheBacklog() throws IOException {
+        wal = new WebhookWal(dir, 4096, Duration.ofMillis(1));
+        assertThat(wal.appendIfBacklogged("evt_0", "{}")).isFalse();
+
+        wal.append("evt_1", "{\"event\":\"payment.captured\"}");
+        wal.append("evt_2", "{\"event\":\"payment.failed\",\"note\":\"₹\"}");
+        assertThat(wal.isBacklogged()).isTrue();
+        assertThat(wal.appendIfBacklogged("evt_3", "{}")).isTrue();
+
+        List<String> replayed = new ArrayList<>();
+        assertThat(wal.replay((id, payload) -> replayed.add(id + " " + payload))).isEqualTo(3L);
+
+        assertThat(replayed).isEqualTo(List.of(
+                "evt_1 {\"event\":\"payment.captured\"}",
+                "evt_2 {\"event\":\"payment.failed\",\"note\":\"₹\"}",
+                "evt_3 {}"));
+        assertThat(wal.isBacklogged()).isFalse();
+        assertThat(segmentFiles()).isEqualTo(List.of());
+    }
+
+    @Test
+    void replay_ShouldResumeAtTheRecordTheSinkRejected() throws IOException {
+        wal = new WebhookWal(dir, 4096, Duration.ofMillis(1));
+        wal.append("evt_1", "a");
+        wal.append("evt_2", "b");
+
+        List<String> replayed = new ArrayList<>();
+        assertThatThrownBy(() -> wal.replay((id, payload) -> {
+            if (id.equals("evt_2")) {
+                throw new IllegalStateException("database down");
+            }
+            replayed.add(id);
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(wal.isBacklogged()).isTrue();
+
+        assertThat(wal.replay((id, payload) -> replayed.add(id))).isEqualTo(1L);
+        assertThat(replayed).isEqualTo(List.of("evt_1", "evt_2"));
+    }
+
+    @Test
+    void append_ShouldRollToANewSegmentWhenFull() throws IOException {
+        wal = new WebhookWal(dir, 256, Duration.ofMillis(1));
+        String payload = "x".repeat(100);
+        for (int i = 0; i < 5; i++) {
+            wal.append("evt_" + i, payload);
+        }
+        assertThat(segmentFiles()).hasSize(3);
+
+        List<String> replayed = new ArrayList<>();
+        wal.replay((id, p) -> replayed.add(id));
+        assertThat(replayed).isEqualTo(List.of("evt_0", "evt_1", "evt_2", "evt_3", "evt_4"));
+        assertThat(segmentFiles()).isEqualTo(List.of());
+    }
+
+    @Test
+    void restart_ShouldReplayLeftoverSegmentsAndStopAtATornRecord() throws IOException {
+        wal = new WebhookWal(dir, 4096, Duration.ofMillis(1));
+        wal.append("evt_1", "first");
+        wal.append("evt_2", "second");
+        wal.close();
+
+        // Corrupt the second record's body, as a crash mid-write would
+        Path segment = segmentFiles().get(0);
+        int secondBody = WebhookWal.HEADER_BYTES + 2 + "evt_1first".length() + WebhookWal.HEADER_BYTES + 2;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X' }), secondBody);
+        }
+
+        wal = new WebhookWal(dir, 4096, Duration.ofMillis(1));
+        assertThat(wal.isBacklogged()).isTrue();
+        List<String> replayed = new ArrayList<>();
+        wal.replay((id, payload) -> replayed.add(id + " " + payload));
+
+        assertThat(replayed).isEqualTo(List.of("evt_1 first"));
+        assertThat(wal.isBacklogged()).isFalse();
+    }
+
+    @Test
+    void append_ShouldRejectRecordsLargerThanASegment() throws IOException {
+        wal = new WebhookWal(dir, 64, Duration.ofMillis(1));
+        assertThatThrownBy(() -> wal.append("evt_1", "x".repeat(100)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("does not fit");
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}